@@ -113,6 +113,9 @@ public class DefaultProfilerConfig implements ProfilerConfig {
     private int spanDataSenderChunkSize = 1024 * 16;
     private String spanDataSenderTransportType = "UDP";
     private String spanDataSenderSocketType = "OIO";
+    private String spanDataSenderWriteQueueType = "LINKED";
+    private String spanDataSenderWriteQueueWaitStrategy = "PARK";
+    private boolean spanDataSenderPackingEnable = false;
 
     private int statDataSenderWriteQueueSize = 1024 * 5;
     private int statDataSenderSocketSendBufferSize = 1024 * 64 * 16;
@@ -120,6 +123,9 @@ public class DefaultProfilerConfig implements ProfilerConfig {
     private int statDataSenderChunkSize = 1024 * 16;
     private String statDataSenderTransportType = "UDP";
     private String statDataSenderSocketType = "OIO";
+    private String statDataSenderWriteQueueType = "LINKED";
+    private String statDataSenderWriteQueueWaitStrategy = "PARK";
+    private boolean statDataSenderPackingEnable = false;
 
     private boolean tcpDataSenderCommandAcceptEnable = false;
     private boolean tcpDataSenderCommandActiveThreadEnable = false;
@@ -141,9 +147,18 @@ public class DefaultProfilerConfig implements ProfilerConfig {
     private boolean traceSqlBindValue = false;
     private int maxSqlBindValueSize = 1024;
 
+    private boolean metaDataContentHashEnable = false;
+    private String metaDataContentHashStorePath = "";
+
     // Sampling
     private boolean samplingEnable = true;
     private int samplingRate = 1;
+    private boolean samplingAdaptiveEnable = false;
+    private int samplingAdaptiveThroughput = 100;
+    private boolean samplingTailEnable = false;
+    private int samplingTailSlowThreshold = 1000;
+    private int samplingTailBufferSize = 512;
+    private String samplingRule = "";
 
     // span buffering
     private boolean ioBufferingEnable;
@@ -327,6 +342,36 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         return statDataSenderChunkSize;
     }
 
+    @Override
+    public String getSpanDataSenderWriteQueueType() {
+        return spanDataSenderWriteQueueType;
+    }
+
+    @Override
+    public String getSpanDataSenderWriteQueueWaitStrategy() {
+        return spanDataSenderWriteQueueWaitStrategy;
+    }
+
+    @Override
+    public String getStatDataSenderWriteQueueType() {
+        return statDataSenderWriteQueueType;
+    }
+
+    @Override
+    public String getStatDataSenderWriteQueueWaitStrategy() {
+        return statDataSenderWriteQueueWaitStrategy;
+    }
+
+    @Override
+    public boolean isSpanDataSenderPackingEnable() {
+        return spanDataSenderPackingEnable;
+    }
+
+    @Override
+    public boolean isStatDataSenderPackingEnable() {
+        return statDataSenderPackingEnable;
+    }
+
     @Override
     public boolean isProfileEnable() {
         return profileEnable;
@@ -337,6 +382,16 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         return jdbcSqlCacheSize;
     }
 
+    @Override
+    public boolean isMetaDataContentHashEnable() {
+        return metaDataContentHashEnable;
+    }
+
+    @Override
+    public String getMetaDataContentHashStorePath() {
+        return metaDataContentHashStorePath;
+    }
+
     @Override
     public boolean isTraceSqlBindValue() {
         return traceSqlBindValue;
@@ -358,6 +413,36 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         return samplingRate;
     }
 
+    @Override
+    public boolean isSamplingAdaptiveEnable() {
+        return samplingAdaptiveEnable;
+    }
+
+    @Override
+    public int getSamplingAdaptiveThroughput() {
+        return samplingAdaptiveThroughput;
+    }
+
+    @Override
+    public boolean isSamplingTailEnable() {
+        return samplingTailEnable;
+    }
+
+    @Override
+    public int getSamplingTailSlowThreshold() {
+        return samplingTailSlowThreshold;
+    }
+
+    @Override
+    public int getSamplingTailBufferSize() {
+        return samplingTailBufferSize;
+    }
+
+    @Override
+    public String getSamplingRule() {
+        return samplingRule;
+    }
+
     @Override
     public boolean isIoBufferingEnable() {
         return ioBufferingEnable;
@@ -477,6 +562,7 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         this.instrumentMatcherCacheConfig.setAnnotationCacheEntrySize(readInt("profiler.instrument.matcher.annotation.cache.entry.size", 4));
         this.instrumentMatcherCacheConfig.setSuperCacheSize(readInt("profiler.instrument.matcher.super.cache.size", 4));
         this.instrumentMatcherCacheConfig.setSuperCacheEntrySize(readInt("profiler.instrument.matcher.super.cache.entry.size", 4));
+        this.instrumentMatcherCacheConfig.setClassMetadataIndexSize(readInt("profiler.instrument.matcher.class.metadata.index.size", 8192));
 
         this.interceptorRegistrySize = readInt("profiler.interceptorregistry.size", 1024 * 8);
 
@@ -495,6 +581,9 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         this.spanDataSenderChunkSize = readInt("profiler.spandatasender.chunk.size", 1024 * 16);
         this.spanDataSenderSocketType = readString("profiler.spandatasender.socket.type", "OIO");
         this.spanDataSenderTransportType = readString("profiler.spandatasender.transport.type", "UDP");
+        this.spanDataSenderWriteQueueType = readString("profiler.spandatasender.write.queue.type", "LINKED");
+        this.spanDataSenderWriteQueueWaitStrategy = readString("profiler.spandatasender.write.queue.waitstrategy", "PARK");
+        this.spanDataSenderPackingEnable = readBoolean("profiler.spandatasender.packing.enable", false);
 
         this.statDataSenderWriteQueueSize = readInt("profiler.statdatasender.write.queue.size", 1024 * 5);
         this.statDataSenderSocketSendBufferSize = readInt("profiler.statdatasender.socket.sendbuffersize", 1024 * 64 * 16);
@@ -502,6 +591,9 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         this.statDataSenderChunkSize = readInt("profiler.statdatasender.chunk.size", 1024 * 16);
         this.statDataSenderSocketType = readString("profiler.statdatasender.socket.type", "OIO");
         this.statDataSenderTransportType = readString("profiler.statdatasender.transport.type", "UDP");
+        this.statDataSenderWriteQueueType = readString("profiler.statdatasender.write.queue.type", "LINKED");
+        this.statDataSenderWriteQueueWaitStrategy = readString("profiler.statdatasender.write.queue.waitstrategy", "PARK");
+        this.statDataSenderPackingEnable = readBoolean("profiler.statdatasender.packing.enable", false);
 
         this.tcpDataSenderCommandAcceptEnable = readBoolean("profiler.tcpdatasender.command.accept.enable", false);
         this.tcpDataSenderCommandActiveThreadEnable = readBoolean("profiler.tcpdatasender.command.activethread.enable", false);
@@ -527,9 +619,18 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         this.jdbcSqlCacheSize = readInt("profiler.jdbc.sqlcachesize", 1024);
         this.traceSqlBindValue = readBoolean("profiler.jdbc.tracesqlbindvalue", false);
 
+        this.metaDataContentHashEnable = readBoolean("profiler.metadata.contenthash.enable", false);
+        this.metaDataContentHashStorePath = readString("profiler.metadata.contenthash.store.path", "");
+
 
         this.samplingEnable = readBoolean("profiler.sampling.enable", true);
         this.samplingRate = readInt("profiler.sampling.rate", 1);
+        this.samplingAdaptiveEnable = readBoolean("profiler.sampling.adaptive.enable", false);
+        this.samplingAdaptiveThroughput = readInt("profiler.sampling.adaptive.throughput", 100);
+        this.samplingTailEnable = readBoolean("profiler.sampling.tail.enable", false);
+        this.samplingTailSlowThreshold = readInt("profiler.sampling.tail.slow.threshold", 1000);
+        this.samplingTailBufferSize = readInt("profiler.sampling.tail.buffer.size", 512);
+        this.samplingRule = readString("profiler.sampling.rule", "");
 
         // configuration for sampling and IO buffer 
         this.ioBufferingEnable = readBoolean("profiler.io.buffering.enable", true);
@@ -692,12 +793,18 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         sb.append(", spanDataSenderChunkSize=").append(spanDataSenderChunkSize);
         sb.append(", spanDataSenderTransportType='").append(spanDataSenderTransportType).append('\'');
         sb.append(", spanDataSenderSocketType='").append(spanDataSenderSocketType).append('\'');
+        sb.append(", spanDataSenderWriteQueueType='").append(spanDataSenderWriteQueueType).append('\'');
+        sb.append(", spanDataSenderWriteQueueWaitStrategy='").append(spanDataSenderWriteQueueWaitStrategy).append('\'');
+        sb.append(", spanDataSenderPackingEnable=").append(spanDataSenderPackingEnable);
         sb.append(", statDataSenderWriteQueueSize=").append(statDataSenderWriteQueueSize);
         sb.append(", statDataSenderSocketSendBufferSize=").append(statDataSenderSocketSendBufferSize);
         sb.append(", statDataSenderSocketTimeout=").append(statDataSenderSocketTimeout);
         sb.append(", statDataSenderChunkSize=").append(statDataSenderChunkSize);
         sb.append(", statDataSenderTransportType='").append(statDataSenderTransportType).append('\'');
         sb.append(", statDataSenderSocketType='").append(statDataSenderSocketType).append('\'');
+        sb.append(", statDataSenderWriteQueueType='").append(statDataSenderWriteQueueType).append('\'');
+        sb.append(", statDataSenderWriteQueueWaitStrategy='").append(statDataSenderWriteQueueWaitStrategy).append('\'');
+        sb.append(", statDataSenderPackingEnable=").append(statDataSenderPackingEnable);
         sb.append(", tcpDataSenderCommandAcceptEnable=").append(tcpDataSenderCommandAcceptEnable);
         sb.append(", tcpDataSenderCommandActiveThreadEnable=").append(tcpDataSenderCommandActiveThreadEnable);
         sb.append(", tcpDataSenderCommandActiveThreadCountEnable=").append(tcpDataSenderCommandActiveThreadCountEnable);
@@ -712,8 +819,16 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         sb.append(", jdbcSqlCacheSize=").append(jdbcSqlCacheSize);
         sb.append(", traceSqlBindValue=").append(traceSqlBindValue);
         sb.append(", maxSqlBindValueSize=").append(maxSqlBindValueSize);
+        sb.append(", metaDataContentHashEnable=").append(metaDataContentHashEnable);
+        sb.append(", metaDataContentHashStorePath='").append(metaDataContentHashStorePath).append('\'');
         sb.append(", samplingEnable=").append(samplingEnable);
         sb.append(", samplingRate=").append(samplingRate);
+        sb.append(", samplingAdaptiveEnable=").append(samplingAdaptiveEnable);
+        sb.append(", samplingAdaptiveThroughput=").append(samplingAdaptiveThroughput);
+        sb.append(", samplingTailEnable=").append(samplingTailEnable);
+        sb.append(", samplingTailSlowThreshold=").append(samplingTailSlowThreshold);
+        sb.append(", samplingTailBufferSize=").append(samplingTailBufferSize);
+        sb.append(", samplingRule='").append(samplingRule).append('\'');
         sb.append(", ioBufferingEnable=").append(ioBufferingEnable);
         sb.append(", ioBufferingBufferSize=").append(ioBufferingBufferSize);
         sb.append(", profileJvmVendorName='").append(profileJvmVendorName).append('\'');
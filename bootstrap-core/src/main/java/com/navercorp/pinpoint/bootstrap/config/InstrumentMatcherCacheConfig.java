@@ -26,6 +26,7 @@ public class InstrumentMatcherCacheConfig {
     private int annotationCacheEntrySize = 0;
     private int superCacheSize = 0;
     private int superCacheEntrySize = 0;
+    private int classMetadataIndexSize = 0;
 
     public int getInterfaceCacheSize() {
         return interfaceCacheSize;
@@ -75,6 +76,14 @@ public class InstrumentMatcherCacheConfig {
         this.superCacheEntrySize = superCacheEntrySize;
     }
 
+    public int getClassMetadataIndexSize() {
+        return classMetadataIndexSize;
+    }
+
+    public void setClassMetadataIndexSize(int classMetadataIndexSize) {
+        this.classMetadataIndexSize = classMetadataIndexSize;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("{");
@@ -84,6 +93,7 @@ public class InstrumentMatcherCacheConfig {
         sb.append(", annotationCacheEntrySize=").append(annotationCacheEntrySize);
         sb.append(", superCacheSize=").append(superCacheSize);
         sb.append(", superCacheEntrySize=").append(superCacheEntrySize);
+        sb.append(", classMetadataIndexSize=").append(classMetadataIndexSize);
         sb.append('}');
         return sb.toString();
     }
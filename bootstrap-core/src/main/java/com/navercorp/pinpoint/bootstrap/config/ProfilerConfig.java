@@ -82,6 +82,18 @@ public interface ProfilerConfig {
 
     int getStatDataSenderChunkSize();
 
+    String getSpanDataSenderWriteQueueType();
+
+    String getSpanDataSenderWriteQueueWaitStrategy();
+
+    String getStatDataSenderWriteQueueType();
+
+    String getStatDataSenderWriteQueueWaitStrategy();
+
+    boolean isSpanDataSenderPackingEnable();
+
+    boolean isStatDataSenderPackingEnable();
+
     boolean isProfileEnable();
 
     int getJdbcSqlCacheSize();
@@ -90,10 +102,26 @@ public interface ProfilerConfig {
 
     int getMaxSqlBindValueSize();
 
+    boolean isMetaDataContentHashEnable();
+
+    String getMetaDataContentHashStorePath();
+
     boolean isSamplingEnable();
 
     int getSamplingRate();
 
+    boolean isSamplingAdaptiveEnable();
+
+    int getSamplingAdaptiveThroughput();
+
+    boolean isSamplingTailEnable();
+
+    int getSamplingTailSlowThreshold();
+
+    int getSamplingTailBufferSize();
+
+    String getSamplingRule();
+
     boolean isIoBufferingEnable();
 
     int getIoBufferingBufferSize();
@@ -20,6 +20,7 @@ import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
 import com.navercorp.pinpoint.bootstrap.plugin.jdbc.JdbcContext;
 import com.navercorp.pinpoint.common.annotations.InterfaceAudience;
 import com.navercorp.pinpoint.common.annotations.InterfaceStability;
+import com.navercorp.pinpoint.common.trace.ServiceType;
 
 /**
  * @author emeroad
@@ -43,6 +44,15 @@ public interface TraceContext {
 
     Trace newTraceObject();
 
+    /**
+     * same as {@link #newTraceObject()}, but the sampling decision follows the sampling rule of the entry point if one matches
+     *
+     * @param serviceType service type of the server receiving the request, rules prefixed by its name take precedence
+     * @param entryPoint URL path or RPC name of the request
+     * @return
+     */
+    Trace newTraceObject(ServiceType serviceType, String entryPoint);
+
     /**
      * internal experimental api
      */
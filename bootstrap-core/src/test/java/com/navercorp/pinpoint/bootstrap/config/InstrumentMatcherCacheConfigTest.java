@@ -34,6 +34,7 @@ public class InstrumentMatcherCacheConfigTest {
         config.setAnnotationCacheEntrySize(4);
         config.setSuperCacheSize(5);
         config.setSuperCacheEntrySize(6);
+        config.setClassMetadataIndexSize(7);
 
         assertEquals(1, config.getInterfaceCacheSize());
         assertEquals(2, config.getInterfaceCacheEntrySize());
@@ -41,5 +42,6 @@ public class InstrumentMatcherCacheConfigTest {
         assertEquals(4, config.getAnnotationCacheEntrySize());
         assertEquals(5, config.getSuperCacheSize());
         assertEquals(6, config.getSuperCacheEntrySize());
+        assertEquals(7, config.getClassMetadataIndexSize());
     }
 }
\ No newline at end of file
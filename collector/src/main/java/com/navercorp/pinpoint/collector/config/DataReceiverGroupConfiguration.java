@@ -35,6 +35,14 @@ public interface DataReceiverGroupConfiguration {
 
     int getUdpReceiveBufferSize();
 
+    String getUdpSocketType();
+
+    int getUdpReaderThreadSize();
+
+    int getUdpReaderBatchSize();
+
+    boolean isUdpReusePort();
+
     int getWorkerThreadSize();
 
     int getWorkerQueueSize();
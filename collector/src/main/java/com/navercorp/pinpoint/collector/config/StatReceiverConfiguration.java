@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.collector.config;
 
 import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.common.util.CpuUtils;
 
 import java.util.Objects;
 import java.util.Properties;
@@ -43,6 +44,14 @@ public final class StatReceiverConfiguration implements DataReceiverGroupConfigu
     private final int udpBindPort;
     private static final String UDP_RECEIVE_BUFFER_SIZE = PREFIX + ".udp.receiveBufferSize";
     private final int udpReceiveBufferSize;
+    private static final String UDP_SOCKET_TYPE = PREFIX + ".udp.socket.type";
+    private final String udpSocketType;
+    private static final String UDP_READER_THREAD_SIZE = PREFIX + ".udp.reader.threadSize";
+    private final int udpReaderThreadSize;
+    private static final String UDP_READER_BATCH_SIZE = PREFIX + ".udp.reader.batchSize";
+    private final int udpReaderBatchSize;
+    private static final String UDP_REUSE_PORT = PREFIX + ".udp.reuseport";
+    private final boolean udpReusePort;
 
     private static final String WORKER_THREAD_SIZE = PREFIX + ".worker.threadSize";
     private final int workerThreadSize;
@@ -65,6 +74,10 @@ public final class StatReceiverConfiguration implements DataReceiverGroupConfigu
         this.udpBindIp = getUdpBindIp(properties, deprecatedConfiguration, CollectorConfiguration.DEFAULT_LISTEN_IP);
         this.udpBindPort = getUdpBindPort(properties, deprecatedConfiguration, 9995);
         this.udpReceiveBufferSize = getUdpReceiveBufferSize(properties, deprecatedConfiguration, 1024 * 4096);
+        this.udpSocketType = CollectorConfiguration.readString(properties, UDP_SOCKET_TYPE, "OIO");
+        this.udpReaderThreadSize = CollectorConfiguration.readInt(properties, UDP_READER_THREAD_SIZE, CpuUtils.cpuCount());
+        this.udpReaderBatchSize = CollectorConfiguration.readInt(properties, UDP_READER_BATCH_SIZE, 32);
+        this.udpReusePort = CollectorConfiguration.readBoolean(properties, UDP_REUSE_PORT);
 
         this.workerThreadSize = getWorkerThreadSize(properties, deprecatedConfiguration, 128);
         Assert.isTrue(workerThreadSize > 0, "workerThreadSize must be greater than 0");
@@ -88,6 +101,9 @@ public final class StatReceiverConfiguration implements DataReceiverGroupConfigu
             Objects.requireNonNull(udpBindIp, "udpBindIp must not be null");
             Assert.isTrue(udpBindPort > 0, "udpBindPort must be greater than 0");
             Assert.isTrue(udpReceiveBufferSize > 0, "udpReceiveBufferSize must be greater than 0");
+            Objects.requireNonNull(udpSocketType, "udpSocketType must not be null");
+            Assert.isTrue(udpReaderThreadSize > 0, "udpReaderThreadSize must be greater than 0");
+            Assert.isTrue(udpReaderBatchSize > 0, "udpReaderBatchSize must be greater than 0");
         }
     }
 
@@ -207,6 +223,26 @@ public final class StatReceiverConfiguration implements DataReceiverGroupConfigu
         return udpReceiveBufferSize;
     }
 
+    @Override
+    public String getUdpSocketType() {
+        return udpSocketType;
+    }
+
+    @Override
+    public int getUdpReaderThreadSize() {
+        return udpReaderThreadSize;
+    }
+
+    @Override
+    public int getUdpReaderBatchSize() {
+        return udpReaderBatchSize;
+    }
+
+    @Override
+    public boolean isUdpReusePort() {
+        return udpReusePort;
+    }
+
     @Override
     public int getWorkerThreadSize() {
         return workerThreadSize;
@@ -232,6 +268,10 @@ public final class StatReceiverConfiguration implements DataReceiverGroupConfigu
         sb.append(", udpBindIp='").append(udpBindIp).append('\'');
         sb.append(", udpBindPort=").append(udpBindPort);
         sb.append(", udpReceiveBufferSize=").append(udpReceiveBufferSize);
+        sb.append(", udpSocketType='").append(udpSocketType).append('\'');
+        sb.append(", udpReaderThreadSize=").append(udpReaderThreadSize);
+        sb.append(", udpReaderBatchSize=").append(udpReaderBatchSize);
+        sb.append(", udpReusePort=").append(udpReusePort);
         sb.append(", workerThreadSize=").append(workerThreadSize);
         sb.append(", workerQueueSize=").append(workerQueueSize);
         sb.append(", workerMonitorEnable=").append(workerMonitorEnable);
@@ -24,4 +24,11 @@ import com.navercorp.pinpoint.thrift.dto.TApiMetaData;
 public interface ApiMetaDataDao {
 
     void insert(TApiMetaData apiMetaData);
+
+    /**
+     * Inserts metadata with a content hash id, unless the row holds a different content.
+     *
+     * @return false if the id is taken by a different content
+     */
+    boolean insertContentHash(TApiMetaData apiMetaData);
 }
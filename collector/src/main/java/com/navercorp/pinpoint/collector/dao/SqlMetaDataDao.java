@@ -23,4 +23,11 @@ import com.navercorp.pinpoint.thrift.dto.TSqlMetaData;
  */
 public interface SqlMetaDataDao {
     void insert(TSqlMetaData sqlMetaData);
+
+    /**
+     * Inserts metadata with a content hash id, unless the row holds a different content.
+     *
+     * @return false if the id is taken by a different content
+     */
+    boolean insertContentHash(TSqlMetaData sqlMetaData);
 }
@@ -24,4 +24,11 @@ import com.navercorp.pinpoint.thrift.dto.TStringMetaData;
 public interface StringMetaDataDao {
 
     void insert(TStringMetaData stringMetaData);
+
+    /**
+     * Inserts metadata with a content hash id, unless the row holds a different content.
+     *
+     * @return false if the id is taken by a different content
+     */
+    boolean insertContentHash(TStringMetaData stringMetaData);
 }
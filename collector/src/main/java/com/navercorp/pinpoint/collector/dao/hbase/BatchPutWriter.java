@@ -0,0 +1,441 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase;
+
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.journal.DisabledMutationJournal;
+import com.navercorp.pinpoint.common.hbase.journal.MutationJournal;
+import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes {@link Put}s of a table from a dedicated writer thread.
+ * <p>
+ * Puts are queued by the caller and written in batches. Puts for the same row key within a batch window
+ * are coalesced into one Put. When the queue is full, the {@link BackpressurePolicy} decides whether the caller waits,
+ * the Put is dropped, the Put is written synchronously on the caller thread, or the Put is spilled to the {@link MutationJournal}.
+ * Puts rejected or failed by HBase are spilled to the journal if it is available.
+ * If disabled, every Put is written immediately using {@link HbaseOperations2#asyncPut(TableName, Put)}.
+ *
+ * @see com.navercorp.pinpoint.collector.monitor.BatchPutWriterMetrics
+ */
+public class BatchPutWriter {
+
+    public enum BackpressurePolicy {
+        // wait for free space in the queue, drop when the wait times out
+        WAIT,
+        // drop immediately
+        DROP,
+        // write on the caller thread (legacy behavior)
+        SYNC,
+        // append to the MutationJournal, drop when the journal is not available or full
+        SPILL;
+
+        public static BackpressurePolicy getValue(String name) {
+            if (name == null) {
+                return WAIT;
+            }
+            for (BackpressurePolicy policy : values()) {
+                if (policy.name().equalsIgnoreCase(name.trim())) {
+                    return policy;
+                }
+            }
+            return WAIT;
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final HbaseOperations2 hbaseTemplate;
+    private final TableName tableName;
+
+    private final boolean enable;
+    private final BlockingQueue<Put> queue;
+    private final int batchSize;
+    private final long flushPeriodNanos;
+    private final BackpressurePolicy backpressurePolicy;
+    private final long waitTimeoutMillis;
+    private final MutationJournal journal;
+
+    private final AtomicLong writeCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong syncWriteCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong spilledCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public BatchPutWriter(HbaseOperations2 hbaseTemplate, TableName tableName, boolean enable, int queueSize, int batchSize, long flushPeriodMillis,
+                          String backpressurePolicy, long waitTimeoutMillis, MutationJournal journal) {
+        this(hbaseTemplate, tableName, enable, queueSize, batchSize, flushPeriodMillis, BackpressurePolicy.getValue(backpressurePolicy), waitTimeoutMillis, journal);
+    }
+
+    public BatchPutWriter(HbaseOperations2 hbaseTemplate, TableName tableName, boolean enable, int queueSize, int batchSize, long flushPeriodMillis,
+                          BackpressurePolicy backpressurePolicy, long waitTimeoutMillis) {
+        this(hbaseTemplate, tableName, enable, queueSize, batchSize, flushPeriodMillis, backpressurePolicy, waitTimeoutMillis, DisabledMutationJournal.INSTANCE);
+    }
+
+    public BatchPutWriter(HbaseOperations2 hbaseTemplate, TableName tableName, boolean enable, int queueSize, int batchSize, long flushPeriodMillis,
+                          BackpressurePolicy backpressurePolicy, long waitTimeoutMillis, MutationJournal journal) {
+        if (hbaseTemplate == null) {
+            throw new NullPointerException("hbaseTemplate must not be null");
+        }
+        if (tableName == null) {
+            throw new NullPointerException("tableName must not be null");
+        }
+        if (backpressurePolicy == null) {
+            throw new NullPointerException("backpressurePolicy must not be null");
+        }
+        if (journal == null) {
+            throw new NullPointerException("journal must not be null");
+        }
+        if (queueSize <= 0) {
+            throw new IllegalArgumentException("queueSize must be positive");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        if (flushPeriodMillis < 0) {
+            throw new IllegalArgumentException("flushPeriodMillis must not be negative");
+        }
+        this.hbaseTemplate = hbaseTemplate;
+        this.tableName = tableName;
+        this.enable = enable;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.batchSize = batchSize;
+        this.flushPeriodNanos = TimeUnit.MILLISECONDS.toNanos(flushPeriodMillis);
+        this.backpressurePolicy = backpressurePolicy;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.journal = journal;
+    }
+
+    public void start() {
+        if (!enable) {
+            logger.info("{} {} disabled", this.getClass().getSimpleName(), tableName);
+            return;
+        }
+        this.running = true;
+        final String threadName = this.getClass().getSimpleName() + "-" + tableName.getNameAsString();
+        this.writerThread = PinpointThreadFactory.createThreadFactory(threadName, true).newThread(new Worker());
+        this.writerThread.start();
+        logger.info("{} started. queueSize:{} batchSize:{} backpressure:{}", threadName, queue.remainingCapacity(), batchSize, backpressurePolicy);
+    }
+
+    public void stop() {
+        if (!enable) {
+            return;
+        }
+        this.running = false;
+        final Thread writerThread = this.writerThread;
+        if (writerThread == null) {
+            return;
+        }
+        writerThread.interrupt();
+        try {
+            writerThread.join(3000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // write the remaining puts on the caller thread
+        flushRemaining();
+        logger.info("{} stopped", writerThread.getName());
+    }
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    /**
+     * @return false if the put is dropped
+     */
+    public boolean write(Put put) {
+        if (put == null) {
+            throw new NullPointerException("put must not be null");
+        }
+        if (!enable) {
+            final boolean success = hbaseTemplate.asyncPut(tableName, put);
+            if (!success && !spill(put)) {
+                hbaseTemplate.put(tableName, put);
+            }
+            return true;
+        }
+
+        if (queue.offer(put)) {
+            return true;
+        }
+        return handleBackpressure(put);
+    }
+
+    private boolean handleBackpressure(Put put) {
+        switch (backpressurePolicy) {
+            case WAIT:
+                try {
+                    if (queue.offer(put, waitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return drop(put);
+            case SYNC:
+                syncWriteCount.incrementAndGet();
+                hbaseTemplate.put(tableName, put);
+                return true;
+            case SPILL:
+                if (spill(put)) {
+                    return true;
+                }
+                return drop(put);
+            case DROP:
+            default:
+                return drop(put);
+        }
+    }
+
+    private boolean spill(Put put) {
+        if (journal.append(tableName, put)) {
+            spilledCount.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean drop(Put put) {
+        final long dropped = droppedCount.incrementAndGet();
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} queue full, dropped put:{} total dropped:{}", tableName, put, dropped);
+        }
+        return false;
+    }
+
+    private class Worker implements Runnable {
+
+        @Override
+        public void run() {
+            final List<Put> batch = new ArrayList<>(batchSize);
+            while (running) {
+                try {
+                    collect(batch);
+                } catch (InterruptedException e) {
+                    // stop() drains the remaining puts
+                    Thread.currentThread().interrupt();
+                    write(batch);
+                    return;
+                }
+                write(batch);
+            }
+        }
+
+        private void collect(List<Put> batch) throws InterruptedException {
+            final Put first = queue.poll(flushPeriodNanos + 1, TimeUnit.NANOSECONDS);
+            if (first == null) {
+                return;
+            }
+            batch.add(first);
+            // short window to coalesce the puts of the same row
+            final long deadline = System.nanoTime() + flushPeriodNanos;
+            while (batch.size() < batchSize) {
+                if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                    continue;
+                }
+                final long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    return;
+                }
+                final Put put = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                if (put == null) {
+                    return;
+                }
+                batch.add(put);
+            }
+        }
+
+        private void write(List<Put> batch) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                writeBatch(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flushRemaining() {
+        final List<Put> remaining = new ArrayList<>(queue.size());
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            writeBatch(remaining);
+        }
+    }
+
+    void writeBatch(List<Put> batch) {
+        final List<Put> putList = coalesce(batch);
+        final long startTime = System.nanoTime();
+        try {
+            final List<Put> rejectedList = hbaseTemplate.asyncPut(tableName, putList);
+            if (!rejectedList.isEmpty()) {
+                writeRejected(rejectedList);
+            }
+            writeCount.addAndGet(batch.size());
+        } catch (Exception e) {
+            logger.warn("{} write failed. size:{} Caused:{}", tableName, putList.size(), e.getMessage(), e);
+            spillFailed(putList);
+        } finally {
+            batchCount.incrementAndGet();
+            totalLatencyNanos.addAndGet(System.nanoTime() - startTime);
+        }
+    }
+
+    private void writeRejected(List<Put> rejectedList) {
+        if (journal.isAvailable()) {
+            // async buffer is saturated
+            final List<Put> remaining = new ArrayList<>();
+            for (Put put : rejectedList) {
+                if (!spill(put)) {
+                    remaining.add(put);
+                }
+            }
+            rejectedList = remaining;
+        }
+        if (!rejectedList.isEmpty()) {
+            // write on the writer thread, not on the caller thread
+            syncWriteCount.addAndGet(rejectedList.size());
+            hbaseTemplate.put(tableName, rejectedList);
+        }
+    }
+
+    private void spillFailed(List<Put> putList) {
+        for (Put put : putList) {
+            if (!spill(put)) {
+                failedCount.incrementAndGet();
+            }
+        }
+    }
+
+    List<Put> coalesce(List<Put> batch) {
+        if (batch.size() == 1) {
+            return new ArrayList<>(batch);
+        }
+        final Map<ByteBuffer, Put> rowMap = new LinkedHashMap<>(batch.size());
+        final List<Put> putList = new ArrayList<>(batch.size());
+        for (Put put : batch) {
+            final ByteBuffer row = ByteBuffer.wrap(put.getRow());
+            final Put merged = rowMap.get(row);
+            if (merged == null) {
+                rowMap.put(row, put);
+                putList.add(put);
+                continue;
+            }
+            if (merge(merged, put)) {
+                coalescedCount.incrementAndGet();
+            } else {
+                putList.add(put);
+            }
+        }
+        return putList;
+    }
+
+    private boolean merge(Put target, Put source) {
+        try {
+            for (List<Cell> cellList : source.getFamilyCellMap().values()) {
+                for (Cell cell : cellList) {
+                    target.add(cell);
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            logger.debug("merge failed. Caused:{}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getWriteCount() {
+        return writeCount.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getSyncWriteCount() {
+        return syncWriteCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    /**
+     * @return average latency of a batch write in milliseconds
+     */
+    public long getAverageLatency() {
+        final long batchCount = this.batchCount.get();
+        if (batchCount == 0) {
+            return 0;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos.get() / batchCount);
+    }
+
+    public TableName getTableName() {
+        return tableName;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BatchPutWriter{");
+        sb.append("tableName=").append(tableName);
+        sb.append(", enable=").append(enable);
+        sb.append(", batchSize=").append(batchSize);
+        sb.append(", backpressurePolicy=").append(backpressurePolicy);
+        sb.append(", waitTimeoutMillis=").append(waitTimeoutMillis);
+        sb.append('}');
+        return sb.toString();
+    }
+}
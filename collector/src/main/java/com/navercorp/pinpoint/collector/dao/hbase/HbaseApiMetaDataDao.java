@@ -54,12 +54,34 @@ public class HbaseApiMetaDataDao implements ApiMetaDataDao {
             logger.debug("insert:{}", apiMetaData);
         }
 
+        final byte[] rowKey = getRowKey(apiMetaData);
+        final byte[] apiMetaDataBytes = getValue(apiMetaData);
+        final Put put = newPut(rowKey, apiMetaDataBytes);
 
-        ApiMetaDataBo apiMetaDataBo = new ApiMetaDataBo(apiMetaData.getAgentId(), apiMetaData.getAgentStartTime(), apiMetaData.getApiId());
-        byte[] rowKey = getDistributedKey(apiMetaDataBo.toRowKey());
+        hbaseTemplate.put(HBaseTables.API_METADATA, put);
+    }
 
-        final Put put = new Put(rowKey);
+    @Override
+    public boolean insertContentHash(TApiMetaData apiMetaData) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("insertContentHash:{}", apiMetaData);
+        }
+
+        final byte[] rowKey = getRowKey(apiMetaData);
+        final byte[] apiMetaDataBytes = getValue(apiMetaData);
+        final Put put = newPut(rowKey, apiMetaDataBytes);
+
+        // rewrite the row of the same api to refresh its ttl
+        return hbaseTemplate.checkAndPut(HBaseTables.API_METADATA, rowKey, HBaseTables.API_METADATA_CF_API, HBaseTables.API_METADATA_CF_API_QUALI_SIGNATURE, null, put)
+                || hbaseTemplate.checkAndPut(HBaseTables.API_METADATA, rowKey, HBaseTables.API_METADATA_CF_API, HBaseTables.API_METADATA_CF_API_QUALI_SIGNATURE, apiMetaDataBytes, put);
+    }
 
+    private byte[] getRowKey(TApiMetaData apiMetaData) {
+        ApiMetaDataBo apiMetaDataBo = new ApiMetaDataBo(apiMetaData.getAgentId(), apiMetaData.getAgentStartTime(), apiMetaData.getApiId());
+        return getDistributedKey(apiMetaDataBo.toRowKey());
+    }
+
+    private byte[] getValue(TApiMetaData apiMetaData) {
         final Buffer buffer = new AutomaticBuffer(64);
         String api = apiMetaData.getApiInfo();
         buffer.putPrefixedString(api);
@@ -73,11 +95,13 @@ public class HbaseApiMetaDataDao implements ApiMetaDataDao {
         } else {
             buffer.putInt(0);
         }
-        
-        final byte[] apiMetaDataBytes = buffer.getBuffer();
-        put.addColumn(HBaseTables.API_METADATA_CF_API, HBaseTables.API_METADATA_CF_API_QUALI_SIGNATURE, apiMetaDataBytes);
+        return buffer.getBuffer();
+    }
 
-        hbaseTemplate.put(HBaseTables.API_METADATA, put);
+    private Put newPut(byte[] rowKey, byte[] apiMetaDataBytes) {
+        final Put put = new Put(rowKey);
+        put.addColumn(HBaseTables.API_METADATA_CF_API, HBaseTables.API_METADATA_CF_API_QUALI_SIGNATURE, apiMetaDataBytes);
+        return put;
     }
 
     private byte[] getDistributedKey(byte[] rowKey) {
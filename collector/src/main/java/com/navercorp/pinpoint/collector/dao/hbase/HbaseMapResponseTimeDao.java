@@ -16,12 +16,11 @@
 
 package com.navercorp.pinpoint.collector.dao.hbase;
 
-import com.google.common.util.concurrent.AtomicLongMap;
 import com.navercorp.pinpoint.collector.dao.MapResponseTimeDao;
 import com.navercorp.pinpoint.collector.dao.hbase.statistics.*;
-import com.navercorp.pinpoint.collector.util.AtomicLongMapUtils;
 import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.MapStatisticsRollup;
 import com.navercorp.pinpoint.common.trace.ServiceType;
 import com.navercorp.pinpoint.common.util.ApplicationMapStatisticsUtils;
 import com.navercorp.pinpoint.common.util.TimeSlot;
@@ -32,10 +31,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Map;
 
 import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
 
@@ -70,7 +69,12 @@ public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
 
     private final boolean useBulk;
 
-    private final AtomicLongMap<RowInfo> counter = AtomicLongMap.create();
+    private final RowKeyCounterTable counterTable = new RowKeyCounterTable();
+
+    private final RollupCounterTable rollupCounterTable = new RollupCounterTable(MapStatisticsRollup::getSelfTable);
+
+    @Value("#{pinpoint_collector_properties['collector.map.statistics.rollup.enable'] ?: false}")
+    private boolean rollupEnable;
 
     public HbaseMapResponseTimeDao() {
         this(true);
@@ -101,13 +105,18 @@ public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
         final short slotNumber = ApplicationMapStatisticsUtils.getSlotNumber(applicationServiceType, elapsed, isError);
         final ColumnName selfColumnName = new ResponseColumnName(agentId, slotNumber);
         if (useBulk) {
-            RowInfo rowInfo = new DefaultRowInfo(selfRowKey, selfColumnName);
-            this.counter.incrementAndGet(rowInfo);
+            this.counterTable.increment(selfRowKey, selfColumnName);
+            if (rollupEnable) {
+                this.rollupCounterTable.increment(applicationName, applicationServiceType.getCode(), acceptedTime, selfColumnName);
+            }
         } else {
             final byte[] rowKey = getDistributedKey(selfRowKey.getRowKey());
             // column name is the name of caller app.
             byte[] columnName = selfColumnName.getColumnName();
             increment(rowKey, columnName, 1L);
+            if (rollupEnable) {
+                this.rollupCounterTable.incrementNow(hbaseTemplate, rowKeyDistributorByHashPrefix, MAP_STATISTICS_SELF_VER2_CF_COUNTER, applicationName, applicationServiceType.getCode(), acceptedTime, columnName);
+            }
         }
     }
 
@@ -129,17 +138,17 @@ public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
         }
 
         // update statistics by rowkey and column for now. need to update it by rowkey later.
-        final Map<RowInfo, Long> remove = AtomicLongMapUtils.remove(this.counter);
-
-        final List<Increment> merge = rowKeyMerge.createBulkIncrement(remove, rowKeyDistributorByHashPrefix);
-        if (merge.isEmpty()) {
-            return;
+        final List<Increment> merge = rowKeyMerge.createBulkIncrement(counterTable, rowKeyDistributorByHashPrefix);
+        if (!merge.isEmpty()) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("flush {} Increment:{}", this.getClass().getSimpleName(), merge.size());
+            }
+            hbaseTemplate.increment(MAP_STATISTICS_SELF_VER2, merge);
         }
-
-        if (logger.isDebugEnabled()) {
-            logger.debug("flush {} Increment:{}", this.getClass().getSimpleName(), merge.size());
+        if (rollupEnable) {
+            // flushed on its own, an increment may land between the drain of the 1 minute table and the rollup tables
+            rollupCounterTable.flushAll(hbaseTemplate, rowKeyMerge, rowKeyDistributorByHashPrefix);
         }
-        hbaseTemplate.increment(MAP_STATISTICS_SELF_VER2, merge);
     }
 
     private byte[] getDistributedKey(byte[] rowKey) {
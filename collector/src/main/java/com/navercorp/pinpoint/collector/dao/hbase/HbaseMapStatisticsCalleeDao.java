@@ -18,12 +18,11 @@ package com.navercorp.pinpoint.collector.dao.hbase;
 
 import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
 
-import com.google.common.util.concurrent.AtomicLongMap;
 import com.navercorp.pinpoint.collector.dao.MapStatisticsCalleeDao;
 import com.navercorp.pinpoint.collector.dao.hbase.statistics.*;
-import com.navercorp.pinpoint.collector.util.AtomicLongMapUtils;
 import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.MapStatisticsRollup;
 import com.navercorp.pinpoint.common.trace.ServiceType;
 import com.navercorp.pinpoint.common.util.ApplicationMapStatisticsUtils;
 import com.navercorp.pinpoint.common.util.TimeSlot;
@@ -35,10 +34,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * Update statistics of callee node
@@ -70,7 +69,12 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
 
     private final boolean useBulk;
 
-    private final AtomicLongMap<RowInfo> counter = AtomicLongMap.create();
+    private final RowKeyCounterTable counterTable = new RowKeyCounterTable();
+
+    private final RollupCounterTable rollupCounterTable = new RollupCounterTable(MapStatisticsRollup::getCallerTable);
+
+    @Value("#{pinpoint_collector_properties['collector.map.statistics.rollup.enable'] ?: false}")
+    private boolean rollupEnable;
 
     public HbaseMapStatisticsCalleeDao() {
         this(true);
@@ -107,14 +111,19 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
         final ColumnName callerColumnName = new CallerColumnName(callerServiceType.getCode(), callerApplicationName, callerHost, callerSlotNumber);
 
         if (useBulk) {
-            RowInfo rowInfo = new DefaultRowInfo(calleeRowKey, callerColumnName);
-            counter.incrementAndGet(rowInfo);
+            this.counterTable.increment(calleeRowKey, callerColumnName);
+            if (rollupEnable) {
+                this.rollupCounterTable.increment(calleeApplicationName, calleeServiceType.getCode(), acceptedTime, callerColumnName);
+            }
         } else {
             final byte[] rowKey = getDistributedKey(calleeRowKey.getRowKey());
 
             // column name is the name of caller app.
             byte[] columnName = callerColumnName.getColumnName();
             increment(rowKey, columnName, 1L);
+            if (rollupEnable) {
+                this.rollupCounterTable.incrementNow(hbaseTemplate, rowKeyDistributorByHashPrefix, MAP_STATISTICS_CALLER_VER2_CF_COUNTER, calleeApplicationName, calleeServiceType.getCode(), acceptedTime, columnName);
+            }
         }
     }
 
@@ -134,17 +143,17 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
             throw new IllegalStateException();
         }
 
-        final Map<RowInfo, Long> remove = AtomicLongMapUtils.remove(this.counter);
-
-        final List<Increment> merge = rowKeyMerge.createBulkIncrement(remove, rowKeyDistributorByHashPrefix);
-        if (merge.isEmpty()) {
-            return;
+        final List<Increment> merge = rowKeyMerge.createBulkIncrement(counterTable, rowKeyDistributorByHashPrefix);
+        if (!merge.isEmpty()) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("flush {} Increment:{}", this.getClass().getSimpleName(), merge.size());
+            }
+            hbaseTemplate.increment(MAP_STATISTICS_CALLER_VER2, merge);
         }
-
-        if (logger.isDebugEnabled()) {
-            logger.debug("flush {} Increment:{}", this.getClass().getSimpleName(), merge.size());
+        if (rollupEnable) {
+            // flushed on its own, an increment may land between the drain of the 1 minute table and the rollup tables
+            rollupCounterTable.flushAll(hbaseTemplate, rowKeyMerge, rowKeyDistributorByHashPrefix);
         }
-        hbaseTemplate.increment(MAP_STATISTICS_CALLER_VER2, merge);
 
     }
 
@@ -18,12 +18,11 @@ package com.navercorp.pinpoint.collector.dao.hbase;
 
 import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
 
-import com.google.common.util.concurrent.AtomicLongMap;
 import com.navercorp.pinpoint.collector.dao.MapStatisticsCallerDao;
 import com.navercorp.pinpoint.collector.dao.hbase.statistics.*;
-import com.navercorp.pinpoint.collector.util.AtomicLongMapUtils;
 import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.MapStatisticsRollup;
 import com.navercorp.pinpoint.common.trace.ServiceType;
 import com.navercorp.pinpoint.common.util.ApplicationMapStatisticsUtils;
 import com.navercorp.pinpoint.common.util.TimeSlot;
@@ -35,10 +34,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * Update statistics of caller node
@@ -70,7 +69,12 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
 
     private final boolean useBulk;
 
-    private final AtomicLongMap<RowInfo> counter = AtomicLongMap.create();
+    private final RowKeyCounterTable counterTable = new RowKeyCounterTable();
+
+    private final RollupCounterTable rollupCounterTable = new RollupCounterTable(MapStatisticsRollup::getCalleeTable);
+
+    @Value("#{pinpoint_collector_properties['collector.map.statistics.rollup.enable'] ?: false}")
+    private boolean rollupEnable;
 
     public HbaseMapStatisticsCallerDao() {
         this(true);
@@ -105,13 +109,18 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
         final short calleeSlotNumber = ApplicationMapStatisticsUtils.getSlotNumber(calleeServiceType, elapsed, isError);
         final ColumnName calleeColumnName = new CalleeColumnName(callerAgentid, calleeServiceType.getCode(), calleeApplicationName, calleeHost, calleeSlotNumber);
         if (useBulk) {
-            RowInfo rowInfo = new DefaultRowInfo(callerRowKey, calleeColumnName);
-            this.counter.incrementAndGet(rowInfo);
+            this.counterTable.increment(callerRowKey, calleeColumnName);
+            if (rollupEnable) {
+                this.rollupCounterTable.increment(callerApplicationName, callerServiceType.getCode(), acceptedTime, calleeColumnName);
+            }
         } else {
             final byte[] rowKey = getDistributedKey(callerRowKey.getRowKey());
             // column name is the name of caller app.
             byte[] columnName = calleeColumnName.getColumnName();
             increment(rowKey, columnName, 1L);
+            if (rollupEnable) {
+                this.rollupCounterTable.incrementNow(hbaseTemplate, rowKeyDistributorByHashPrefix, MAP_STATISTICS_CALLEE_VER2_CF_COUNTER, callerApplicationName, callerServiceType.getCode(), acceptedTime, columnName);
+            }
         }
     }
 
@@ -131,17 +140,17 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
             throw new IllegalStateException();
         }
         // update statistics by rowkey and column for now. need to update it by rowkey later.
-        final Map<RowInfo, Long> remove = AtomicLongMapUtils.remove(this.counter);
-
-        final List<Increment> merge = rowKeyMerge.createBulkIncrement(remove, rowKeyDistributorByHashPrefix);
-        if (merge.isEmpty()) {
-            return;
+        final List<Increment> merge = rowKeyMerge.createBulkIncrement(counterTable, rowKeyDistributorByHashPrefix);
+        if (!merge.isEmpty()) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("flush {} Increment:{}", this.getClass().getSimpleName(), merge.size());
+            }
+            hbaseTemplate.increment(MAP_STATISTICS_CALLEE_VER2, merge);
         }
-
-        if (logger.isDebugEnabled()) {
-            logger.debug("flush {} Increment:{}", this.getClass().getSimpleName(), merge.size());
+        if (rollupEnable) {
+            // flushed on its own, an increment may land between the drain of the 1 minute table and the rollup tables
+            rollupCounterTable.flushAll(hbaseTemplate, rowKeyMerge, rowKeyDistributorByHashPrefix);
         }
-        hbaseTemplate.increment(MAP_STATISTICS_CALLEE_VER2, merge);
     }
 
     private byte[] getDistributedKey(byte[] rowKey) {
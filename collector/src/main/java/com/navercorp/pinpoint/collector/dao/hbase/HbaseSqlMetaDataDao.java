@@ -54,17 +54,40 @@ public class HbaseSqlMetaDataDao implements SqlMetaDataDao {
             logger.debug("insert:{}", sqlMetaData);
         }
 
-        SqlMetaDataBo sqlMetaDataBo = new SqlMetaDataBo(sqlMetaData.getAgentId(), sqlMetaData.getAgentStartTime(), sqlMetaData.getSqlId());
-        final byte[] rowKey = getDistributedKey(sqlMetaDataBo.toRowKey());
+        final byte[] rowKey = getRowKey(sqlMetaData);
+        final byte[] sqlBytes = Bytes.toBytes(sqlMetaData.getSql());
+        final Put put = newPut(rowKey, sqlBytes);
 
+        hbaseTemplate.put(HBaseTables.SQL_METADATA_VER2, put);
+    }
 
-        Put put = new Put(rowKey);
-        String sql = sqlMetaData.getSql();
-        byte[] sqlBytes = Bytes.toBytes(sql);
+    @Override
+    public boolean insertContentHash(TSqlMetaData sqlMetaData) {
+        if (sqlMetaData == null) {
+            throw new NullPointerException("sqlMetaData must not be null");
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("insertContentHash:{}", sqlMetaData);
+        }
 
-        put.addColumn(HBaseTables.SQL_METADATA_VER2_CF_SQL, HBaseTables.SQL_METADATA_VER2_CF_SQL_QUALI_SQLSTATEMENT, sqlBytes);
+        final byte[] rowKey = getRowKey(sqlMetaData);
+        final byte[] sqlBytes = Bytes.toBytes(sqlMetaData.getSql());
+        final Put put = newPut(rowKey, sqlBytes);
 
-        hbaseTemplate.put(HBaseTables.SQL_METADATA_VER2, put);
+        // rewrite the row of the same sql to refresh its ttl
+        return hbaseTemplate.checkAndPut(HBaseTables.SQL_METADATA_VER2, rowKey, HBaseTables.SQL_METADATA_VER2_CF_SQL, HBaseTables.SQL_METADATA_VER2_CF_SQL_QUALI_SQLSTATEMENT, null, put)
+                || hbaseTemplate.checkAndPut(HBaseTables.SQL_METADATA_VER2, rowKey, HBaseTables.SQL_METADATA_VER2_CF_SQL, HBaseTables.SQL_METADATA_VER2_CF_SQL_QUALI_SQLSTATEMENT, sqlBytes, put);
+    }
+
+    private byte[] getRowKey(TSqlMetaData sqlMetaData) {
+        SqlMetaDataBo sqlMetaDataBo = new SqlMetaDataBo(sqlMetaData.getAgentId(), sqlMetaData.getAgentStartTime(), sqlMetaData.getSqlId());
+        return getDistributedKey(sqlMetaDataBo.toRowKey());
+    }
+
+    private Put newPut(byte[] rowKey, byte[] sqlBytes) {
+        Put put = new Put(rowKey);
+        put.addColumn(HBaseTables.SQL_METADATA_VER2_CF_SQL, HBaseTables.SQL_METADATA_VER2_CF_SQL_QUALI_SQLSTATEMENT, sqlBytes);
+        return put;
     }
 
     private byte[] getDistributedKey(byte[] rowKey) {
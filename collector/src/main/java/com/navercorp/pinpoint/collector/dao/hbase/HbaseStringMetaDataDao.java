@@ -56,16 +56,40 @@ public class HbaseStringMetaDataDao implements StringMetaDataDao {
             logger.debug("insert:{}", stringMetaData);
         }
 
-        final StringMetaDataBo stringMetaDataBo = new StringMetaDataBo(stringMetaData.getAgentId(), stringMetaData.getAgentStartTime(), stringMetaData.getStringId());
-        final byte[] rowKey = getDistributedKey(stringMetaDataBo.toRowKey());
+        final byte[] rowKey = getRowKey(stringMetaData);
+        final byte[] stringBytes = Bytes.toBytes(stringMetaData.getStringValue());
+        final Put put = newPut(rowKey, stringBytes);
 
+        hbaseTemplate.put(HBaseTables.STRING_METADATA, put);
+    }
 
-        Put put = new Put(rowKey);
-        String stringValue = stringMetaData.getStringValue();
-        byte[] sqlBytes = Bytes.toBytes(stringValue);
-        put.addColumn(HBaseTables.STRING_METADATA_CF_STR, HBaseTables.STRING_METADATA_CF_STR_QUALI_STRING, sqlBytes);
+    @Override
+    public boolean insertContentHash(TStringMetaData stringMetaData) {
+        if (stringMetaData == null) {
+            throw new NullPointerException("stringMetaData must not be null");
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("insertContentHash:{}", stringMetaData);
+        }
 
-        hbaseTemplate.put(HBaseTables.STRING_METADATA, put);
+        final byte[] rowKey = getRowKey(stringMetaData);
+        final byte[] stringBytes = Bytes.toBytes(stringMetaData.getStringValue());
+        final Put put = newPut(rowKey, stringBytes);
+
+        // rewrite the row of the same string to refresh its ttl
+        return hbaseTemplate.checkAndPut(HBaseTables.STRING_METADATA, rowKey, HBaseTables.STRING_METADATA_CF_STR, HBaseTables.STRING_METADATA_CF_STR_QUALI_STRING, null, put)
+                || hbaseTemplate.checkAndPut(HBaseTables.STRING_METADATA, rowKey, HBaseTables.STRING_METADATA_CF_STR, HBaseTables.STRING_METADATA_CF_STR_QUALI_STRING, stringBytes, put);
+    }
+
+    private byte[] getRowKey(TStringMetaData stringMetaData) {
+        final StringMetaDataBo stringMetaDataBo = new StringMetaDataBo(stringMetaData.getAgentId(), stringMetaData.getAgentStartTime(), stringMetaData.getStringId());
+        return getDistributedKey(stringMetaDataBo.toRowKey());
+    }
+
+    private Put newPut(byte[] rowKey, byte[] stringBytes) {
+        Put put = new Put(rowKey);
+        put.addColumn(HBaseTables.STRING_METADATA_CF_STR, HBaseTables.STRING_METADATA_CF_STR_QUALI_STRING, stringBytes);
+        return put;
     }
 
     private byte[] getDistributedKey(byte[] rowKey) {
@@ -1,7 +1,6 @@
 package com.navercorp.pinpoint.collector.dao.hbase;
 
 import com.navercorp.pinpoint.collector.dao.TraceDao;
-import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.server.bo.SpanChunkBo;
 import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
@@ -19,8 +18,6 @@ import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
-import static com.navercorp.pinpoint.common.hbase.HBaseTables.TRACE_V2;
-
 /**
  * @author Woonduk Kang(emeroad)
  */
@@ -29,9 +26,6 @@ public class HbaseTraceDaoV2 implements TraceDao {
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
-    @Autowired
-    private HbaseOperations2 hbaseTemplate;
-
 
     @Autowired
     private SpanSerializerV2 spanSerializer;
@@ -43,6 +37,10 @@ public class HbaseTraceDaoV2 implements TraceDao {
     @Qualifier("traceRowKeyEncoderV2")
     private RowKeyEncoder<TransactionId> rowKeyEncoder;
 
+    @Autowired
+    @Qualifier("traceV2PutWriter")
+    private BatchPutWriter putWriter;
+
 
     @Override
     public void insert(final SpanBo spanBo) {
@@ -59,12 +57,7 @@ public class HbaseTraceDaoV2 implements TraceDao {
 
         this.spanSerializer.serialize(spanBo, put, null);
 
-
-        boolean success = hbaseTemplate.asyncPut(TRACE_V2, put);
-        if (!success) {
-            hbaseTemplate.put(TRACE_V2, put);
-        }
-
+        this.putWriter.write(put);
     }
 
 
@@ -86,10 +79,7 @@ public class HbaseTraceDaoV2 implements TraceDao {
         this.spanChunkSerializer.serialize(spanChunkBo, put, null);
 
         if (!put.isEmpty()) {
-            boolean success = hbaseTemplate.asyncPut(TRACE_V2, put);
-            if (!success) {
-                hbaseTemplate.put(TRACE_V2, put);
-            }
+            this.putWriter.write(put);
         }
     }
 
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase.statistics;
+
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.MapStatisticsRollup;
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Increment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Accumulates the map statistics written to a 1 minute table into every {@link MapStatisticsRollup} resolution as well,
+ * so the rollup tables are maintained by the same bulk flush instead of a separate aggregation job.
+ * A rollup row is incremented on every flush of its time slot, HBase sums the increments.
+ * A dao not using the bulk flush increments the rollup rows along with the 1 minute row.
+ */
+public class RollupCounterTable {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final MapStatisticsRollup[] rollups = MapStatisticsRollup.values();
+    private final RowKeyCounterTable[] counterTables;
+    private final Function<MapStatisticsRollup, TableName> tableNameFunction;
+
+    public RollupCounterTable(Function<MapStatisticsRollup, TableName> tableNameFunction) {
+        if (tableNameFunction == null) {
+            throw new NullPointerException("tableNameFunction must not be null");
+        }
+        this.tableNameFunction = tableNameFunction;
+        this.counterTables = new RowKeyCounterTable[rollups.length];
+        for (int i = 0; i < rollups.length; i++) {
+            this.counterTables[i] = new RowKeyCounterTable();
+        }
+    }
+
+    public void increment(String applicationName, short serviceType, long acceptedTime, ColumnName columnName) {
+        for (int i = 0; i < rollups.length; i++) {
+            final long rollupTimeSlot = rollups[i].getTimeSlot(acceptedTime);
+            final RowKey rowKey = new CallRowKey(applicationName, serviceType, rollupTimeSlot);
+            counterTables[i].increment(rowKey, columnName);
+        }
+    }
+
+    /**
+     * Increments the rollup rows right away, for a dao not using the bulk flush.
+     */
+    public void incrementNow(HbaseOperations2 hbaseTemplate, RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix, byte[] family,
+                             String applicationName, short serviceType, long acceptedTime, byte[] columnName) {
+        for (MapStatisticsRollup rollup : rollups) {
+            final RowKey rowKey = new CallRowKey(applicationName, serviceType, rollup.getTimeSlot(acceptedTime));
+            final byte[] distributedKey = rowKeyDistributorByHashPrefix.getDistributedKey(rowKey.getRowKey());
+            hbaseTemplate.incrementColumnValue(tableNameFunction.apply(rollup), distributedKey, family, columnName, 1L);
+        }
+    }
+
+    public void flushAll(HbaseOperations2 hbaseTemplate, RowKeyMerge rowKeyMerge, RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix) {
+        for (int i = 0; i < rollups.length; i++) {
+            final List<Increment> merge = rowKeyMerge.createBulkIncrement(counterTables[i], rowKeyDistributorByHashPrefix);
+            if (merge.isEmpty()) {
+                continue;
+            }
+            final TableName tableName = tableNameFunction.apply(rollups[i]);
+            if (logger.isDebugEnabled()) {
+                logger.debug("flush rollup {} Increment:{}", tableName, merge.size());
+            }
+            hbaseTemplate.increment(tableName, merge);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase.statistics;
+
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.hadoop.hbase.client.Increment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Striped counter table for bulk statistics updates.
+ * <p>
+ * Counters are grouped by {@link RowKey} as they are incremented, so a flush creates one {@link Increment} per row
+ * without re-grouping. Row and column keys are interned while they are in use: the encoded row key and column name
+ * are created only once, and an increment only updates a primitive counter.
+ * Each stripe is double-buffered: a flush swaps in the standby generation and drains the retired one
+ * without holding the stripe lock. Rows that received no increment while their generation was active are evicted on flush.
+ *
+ * @see RowKeyMerge
+ */
+public class RowKeyCounterTable {
+
+    public static final int DEFAULT_STRIPE_SIZE = 16;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    public RowKeyCounterTable() {
+        this(DEFAULT_STRIPE_SIZE);
+    }
+
+    public RowKeyCounterTable(int stripeSize) {
+        if (stripeSize <= 0) {
+            throw new IllegalArgumentException("stripeSize must be positive");
+        }
+        final int size = roundToPowerOfTwo(stripeSize);
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.stripeMask = size - 1;
+    }
+
+    static int roundToPowerOfTwo(int value) {
+        final int highestOneBit = Integer.highestOneBit(value);
+        if (highestOneBit == value) {
+            return value;
+        }
+        return highestOneBit << 1;
+    }
+
+    public void increment(RowKey rowKey, ColumnName columnName) {
+        increment(rowKey, columnName, 1L);
+    }
+
+    public void increment(RowKey rowKey, ColumnName columnName, long value) {
+        if (rowKey == null) {
+            throw new NullPointerException("rowKey must not be null");
+        }
+        if (columnName == null) {
+            throw new NullPointerException("columnName must not be null");
+        }
+        final Stripe stripe = getStripe(rowKey);
+        stripe.increment(rowKey, columnName, value);
+    }
+
+    private Stripe getStripe(RowKey rowKey) {
+        final int hash = rowKey.hashCode();
+        // spread higher bits
+        final int index = (hash ^ (hash >>> 16)) & stripeMask;
+        return stripes[index];
+    }
+
+    /**
+     * Creates an {@link Increment} per row holding the counters accumulated since the previous call,
+     * and resets the counters.
+     */
+    public List<Increment> createBulkIncrement(byte[] family, RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix) {
+        if (family == null) {
+            throw new NullPointerException("family must not be null");
+        }
+        List<Increment> incrementList = null;
+        for (Stripe stripe : stripes) {
+            incrementList = stripe.drain(family, rowKeyDistributorByHashPrefix, incrementList);
+        }
+        if (incrementList == null) {
+            return Collections.emptyList();
+        }
+        return incrementList;
+    }
+
+    /**
+     * @return number of interned rows
+     */
+    public int getRowSize() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.getRowSize();
+        }
+        return size;
+    }
+
+    /**
+     * Writers increment the active generation under the stripe lock.
+     * A flush only swaps generations under the lock and drains the retired generation outside of it,
+     * so draining does not block writers. Every increment that acquired the lock before the swap
+     * is visible to the flusher, so no increment is lost at the boundary.
+     */
+    private static class Stripe {
+
+        private Generation active = new Generation();
+        // retired generation is reused to keep the interned keys
+        private Generation standby = new Generation();
+
+        synchronized void increment(RowKey rowKey, ColumnName columnName, long value) {
+            active.increment(rowKey, columnName, value);
+        }
+
+        List<Increment> drain(byte[] family, RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix, List<Increment> incrementList) {
+            final Generation retired = swap();
+            try {
+                return retired.drain(family, rowKeyDistributorByHashPrefix, incrementList);
+            } finally {
+                synchronized (this) {
+                    this.standby = retired;
+                }
+            }
+        }
+
+        private synchronized Generation swap() {
+            final Generation retired = this.active;
+            final Generation standby = this.standby;
+            // standby is null only while another flush is draining
+            this.active = standby != null ? standby : new Generation();
+            this.standby = null;
+            return retired;
+        }
+
+        synchronized int getRowSize() {
+            int size = active.getRowSize();
+            if (standby != null) {
+                size += standby.getRowSize();
+            }
+            return size;
+        }
+    }
+
+    private static class Generation {
+
+        private final Map<RowKey, CounterRow> rows = new HashMap<>();
+
+        private void increment(RowKey rowKey, ColumnName columnName, long value) {
+            CounterRow row = rows.get(rowKey);
+            if (row == null) {
+                row = new CounterRow(rowKey);
+                rows.put(rowKey, row);
+            }
+            row.increment(columnName, value);
+        }
+
+        private List<Increment> drain(byte[] family, RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix, List<Increment> incrementList) {
+            final Iterator<CounterRow> iterator = rows.values().iterator();
+            while (iterator.hasNext()) {
+                final CounterRow row = iterator.next();
+                if (!row.isUpdated()) {
+                    // idle since this generation was last active (e.g. the time slot has passed)
+                    iterator.remove();
+                    continue;
+                }
+                final Increment increment = row.drain(family, rowKeyDistributorByHashPrefix);
+                if (incrementList == null) {
+                    incrementList = new ArrayList<>();
+                }
+                incrementList.add(increment);
+            }
+            return incrementList;
+        }
+
+        private int getRowSize() {
+            return rows.size();
+        }
+    }
+
+    private static class CounterRow {
+
+        private final RowKey rowKey;
+        private final Map<ColumnName, Counter> counters = new HashMap<>();
+        private byte[] distributedKey;
+        private boolean updated;
+
+        private CounterRow(RowKey rowKey) {
+            this.rowKey = rowKey;
+        }
+
+        private void increment(ColumnName columnName, long value) {
+            Counter counter = counters.get(columnName);
+            if (counter == null) {
+                counter = new Counter(columnName.getColumnName());
+                counters.put(columnName, counter);
+            }
+            counter.value += value;
+            this.updated = true;
+        }
+
+        private boolean isUpdated() {
+            return updated;
+        }
+
+        private Increment drain(byte[] family, RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix) {
+            final Increment increment = new Increment(getDistributedKey(rowKey, rowKeyDistributorByHashPrefix));
+            for (Counter counter : counters.values()) {
+                if (counter.value != 0) {
+                    increment.addColumn(family, counter.columnName, counter.value);
+                    counter.value = 0;
+                }
+            }
+            this.updated = false;
+            return increment;
+        }
+
+        private byte[] getDistributedKey(RowKey rowKey, RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix) {
+            if (distributedKey == null) {
+                if (rowKeyDistributorByHashPrefix == null) {
+                    distributedKey = rowKey.getRowKey();
+                } else {
+                    distributedKey = rowKeyDistributorByHashPrefix.getDistributedKey(rowKey.getRowKey());
+                }
+            }
+            return distributedKey;
+        }
+    }
+
+    private static class Counter {
+        private final byte[] columnName;
+        private long value;
+
+        private Counter(byte[] columnName) {
+            this.columnName = columnName;
+        }
+    }
+}
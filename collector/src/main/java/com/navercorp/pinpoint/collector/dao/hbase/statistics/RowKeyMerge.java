@@ -52,6 +52,13 @@ public class RowKeyMerge {
         return incrementList;
     }
 
+    public List<Increment> createBulkIncrement(RowKeyCounterTable counterTable, RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix) {
+        if (counterTable == null) {
+            throw new NullPointerException("counterTable must not be null");
+        }
+        return counterTable.createBulkIncrement(family, rowKeyDistributorByHashPrefix);
+    }
+
     private Increment createIncrement(Map.Entry<RowKey, List<ColumnName>> rowKeyEntry, RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix) {
         RowKey rowKey = rowKeyEntry.getKey();
         byte[] key = null;
@@ -17,6 +17,8 @@
 package com.navercorp.pinpoint.collector.handler;
 
 import com.navercorp.pinpoint.collector.dao.ApiMetaDataDao;
+import com.navercorp.pinpoint.collector.util.ContentHashMetaDataFilter;
+import com.navercorp.pinpoint.common.util.ContentHashUtils;
 import com.navercorp.pinpoint.thrift.dto.TApiMetaData;
 import com.navercorp.pinpoint.thrift.dto.TResult;
 
@@ -24,6 +26,7 @@ import org.apache.thrift.TBase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 /**
@@ -37,6 +40,10 @@ public class ApiMetaDataHandler implements RequestResponseHandler {
     @Autowired
     private ApiMetaDataDao sqlMetaDataDao;
 
+    @Autowired
+    @Qualifier("apiContentHashMetaDataFilter")
+    private ContentHashMetaDataFilter contentHashMetaDataFilter;
+
     @Override
     public TBase<?, ?> handleRequest(TBase<?, ?> tbase) {
         if (!(tbase instanceof TApiMetaData)) {
@@ -51,8 +58,25 @@ public class ApiMetaDataHandler implements RequestResponseHandler {
             logger.info("Received ApiMetaData={}", apiMetaData);
         }
 
+        final String agentId = apiMetaData.getAgentId();
+        final long agentStartTime = apiMetaData.getAgentStartTime();
+        final String content = apiMetaData.getApiInfo() + ':' + apiMetaData.getLine();
+        if (contentHashMetaDataFilter.isDuplicated(agentId, agentStartTime, apiMetaData.getApiId(), content)) {
+            return new TResult(true);
+        }
+
         try {
-            sqlMetaDataDao.insert(apiMetaData);
+            if (ContentHashUtils.isContentHashAgentStartTime(agentStartTime)) {
+                if (!sqlMetaDataDao.insertContentHash(apiMetaData)) {
+                    logger.warn("metadata id conflict. agentId:{} id:{}", agentId, apiMetaData.getApiId());
+                    TResult result = new TResult(false);
+                    result.setMessage(ContentHashUtils.ID_CONFLICT_MESSAGE);
+                    return result;
+                }
+            } else {
+                sqlMetaDataDao.insert(apiMetaData);
+            }
+            contentHashMetaDataFilter.written(agentId, agentStartTime, apiMetaData.getApiId(), content);
         } catch (Exception e) {
             logger.warn("{} handler error. Caused:{}", this.getClass(), e.getMessage(), e);
             TResult result = new TResult(false);
@@ -17,6 +17,8 @@
 package com.navercorp.pinpoint.collector.handler;
 
 import com.navercorp.pinpoint.collector.dao.SqlMetaDataDao;
+import com.navercorp.pinpoint.collector.util.ContentHashMetaDataFilter;
+import com.navercorp.pinpoint.common.util.ContentHashUtils;
 import com.navercorp.pinpoint.thrift.dto.TResult;
 import com.navercorp.pinpoint.thrift.dto.TSqlMetaData;
 
@@ -34,6 +36,8 @@ public class SqlMetaDataHandler implements RequestResponseHandler {
 //    @Autowired
     private SqlMetaDataDao sqlMetaDataDao;
 
+    private ContentHashMetaDataFilter contentHashMetaDataFilter;
+
     @Override
     public TBase<?, ?> handleRequest(TBase<?, ?> tbase) {
         if (!(tbase instanceof TSqlMetaData)) {
@@ -48,8 +52,25 @@ public class SqlMetaDataHandler implements RequestResponseHandler {
         }
 
 
+        final String agentId = sqlMetaData.getAgentId();
+        final long agentStartTime = sqlMetaData.getAgentStartTime();
+        final String content = sqlMetaData.getSql();
+        if (contentHashMetaDataFilter.isDuplicated(agentId, agentStartTime, sqlMetaData.getSqlId(), content)) {
+            return new TResult(true);
+        }
+
         try {
-            sqlMetaDataDao.insert(sqlMetaData);
+            if (ContentHashUtils.isContentHashAgentStartTime(agentStartTime)) {
+                if (!sqlMetaDataDao.insertContentHash(sqlMetaData)) {
+                    logger.warn("metadata id conflict. agentId:{} id:{}", agentId, sqlMetaData.getSqlId());
+                    TResult result = new TResult(false);
+                    result.setMessage(ContentHashUtils.ID_CONFLICT_MESSAGE);
+                    return result;
+                }
+            } else {
+                sqlMetaDataDao.insert(sqlMetaData);
+            }
+            contentHashMetaDataFilter.written(agentId, agentStartTime, sqlMetaData.getSqlId(), content);
         } catch (Exception e) {
             logger.warn("{} handler error. Caused:{}", this.getClass(), e.getMessage(), e);
             TResult result = new TResult(false);
@@ -62,4 +83,8 @@ public class SqlMetaDataHandler implements RequestResponseHandler {
     public void setSqlMetaDataDao(SqlMetaDataDao sqlMetaDataDao) {
         this.sqlMetaDataDao = sqlMetaDataDao;
     }
+
+    public void setContentHashMetaDataFilter(ContentHashMetaDataFilter contentHashMetaDataFilter) {
+        this.contentHashMetaDataFilter = contentHashMetaDataFilter;
+    }
 }
@@ -17,6 +17,8 @@
 package com.navercorp.pinpoint.collector.handler;
 
 import com.navercorp.pinpoint.collector.dao.StringMetaDataDao;
+import com.navercorp.pinpoint.collector.util.ContentHashMetaDataFilter;
+import com.navercorp.pinpoint.common.util.ContentHashUtils;
 import com.navercorp.pinpoint.thrift.dto.TResult;
 import com.navercorp.pinpoint.thrift.dto.TStringMetaData;
 
@@ -24,6 +26,7 @@ import org.apache.thrift.TBase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 /**
@@ -37,6 +40,10 @@ public class StringMetaDataHandler implements RequestResponseHandler {
     @Autowired
     private StringMetaDataDao stringMetaDataDao;
 
+    @Autowired
+    @Qualifier("stringContentHashMetaDataFilter")
+    private ContentHashMetaDataFilter contentHashMetaDataFilter;
+
     @Override
     public TBase<?, ?> handleRequest(TBase<?, ?> tbase) {
         if (!(tbase instanceof TStringMetaData)) {
@@ -50,8 +57,25 @@ public class StringMetaDataHandler implements RequestResponseHandler {
             logger.info("Received StringMetaData={}", stringMetaData);
         }
 
+        final String agentId = stringMetaData.getAgentId();
+        final long agentStartTime = stringMetaData.getAgentStartTime();
+        final String content = stringMetaData.getStringValue();
+        if (contentHashMetaDataFilter.isDuplicated(agentId, agentStartTime, stringMetaData.getStringId(), content)) {
+            return new TResult(true);
+        }
+
         try {
-            stringMetaDataDao.insert(stringMetaData);
+            if (ContentHashUtils.isContentHashAgentStartTime(agentStartTime)) {
+                if (!stringMetaDataDao.insertContentHash(stringMetaData)) {
+                    logger.warn("metadata id conflict. agentId:{} id:{}", agentId, stringMetaData.getStringId());
+                    TResult result = new TResult(false);
+                    result.setMessage(ContentHashUtils.ID_CONFLICT_MESSAGE);
+                    return result;
+                }
+            } else {
+                stringMetaDataDao.insert(stringMetaData);
+            }
+            contentHashMetaDataFilter.written(agentId, agentStartTime, stringMetaData.getStringId(), content);
         } catch (Exception e) {
             logger.warn("{} handler error. Caused:{}", this.getClass(), e.getMessage(), e);
             TResult result = new TResult(false);
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.monitor;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.navercorp.pinpoint.collector.dao.hbase.BatchPutWriter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class BatchPutWriterMetrics implements MetricSet {
+
+    private static final String HBASE_BATCH_PUT = "hbase.batch.put";
+
+    private final BatchPutWriter batchPutWriter;
+    private final String prefix;
+
+    public BatchPutWriterMetrics(BatchPutWriter batchPutWriter) {
+        if (batchPutWriter == null) {
+            throw new NullPointerException("batchPutWriter must not be null");
+        }
+        this.batchPutWriter = batchPutWriter;
+        this.prefix = HBASE_BATCH_PUT + "." + batchPutWriter.getTableName().getQualifierAsString();
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        if (!batchPutWriter.isEnable()) {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, Metric> gauges = new HashMap<>(8);
+        gauges.put(prefix + ".queue.size", new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return batchPutWriter.getQueueSize();
+            }
+        });
+        gauges.put(prefix + ".count", new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return batchPutWriter.getWriteCount();
+            }
+        });
+        gauges.put(prefix + ".coalesced.count", new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return batchPutWriter.getCoalescedCount();
+            }
+        });
+        gauges.put(prefix + ".dropped.count", new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return batchPutWriter.getDroppedCount();
+            }
+        });
+        gauges.put(prefix + ".sync.count", new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return batchPutWriter.getSyncWriteCount();
+            }
+        });
+        gauges.put(prefix + ".spilled.count", new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return batchPutWriter.getSpilledCount();
+            }
+        });
+        gauges.put(prefix + ".failed.count", new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return batchPutWriter.getFailedCount();
+            }
+        });
+        gauges.put(prefix + ".latency.value", new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return batchPutWriter.getAverageLatency();
+            }
+        });
+
+        return Collections.unmodifiableMap(gauges);
+    }
+
+}
@@ -32,6 +32,7 @@ import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -51,6 +52,9 @@ public class CollectorMetric {
     @Autowired(required = false)
     private HBaseAsyncOperationMetrics hBaseAsyncOperationMetrics;
 
+    @Autowired(required = false)
+    private List<BatchPutWriterMetrics> batchPutWriterMetricsList;
+
     private ScheduledReporter reporter;
 
     private final boolean isEnable = isEnable0(REPORTER_LOGGER_NAME);
@@ -87,6 +91,12 @@ public class CollectorMetric {
                 metricRegistry.register(metric.getKey(), metric.getValue());
             }
         }
+
+        if (batchPutWriterMetricsList != null) {
+            for (BatchPutWriterMetrics batchPutWriterMetrics : batchPutWriterMetricsList) {
+                metricRegistry.registerAll(batchPutWriterMetrics);
+            }
+        }
     }
 
     private void initReporters() {
@@ -21,6 +21,7 @@ import com.navercorp.pinpoint.collector.config.DataReceiverGroupConfiguration;
 import com.navercorp.pinpoint.collector.receiver.tcp.TCPReceiver;
 import com.navercorp.pinpoint.collector.receiver.udp.BaseUDPHandlerFactory;
 import com.navercorp.pinpoint.collector.receiver.udp.NetworkAvailabilityCheckPacketFilter;
+import com.navercorp.pinpoint.collector.receiver.udp.NioUDPReceiver;
 import com.navercorp.pinpoint.collector.receiver.udp.PacketHandlerFactory;
 import com.navercorp.pinpoint.collector.receiver.udp.TBaseFilterChain;
 import com.navercorp.pinpoint.collector.receiver.udp.UDPReceiver;
@@ -75,7 +76,7 @@ public class DataReceiverGroup implements DataReceiver {
             PacketHandlerFactory<DatagramPacket> packetHandlerFactory = new BaseUDPHandlerFactory<DatagramPacket>(dispatchHandler, filterChain, ignoreAddressList);
             InetSocketAddress bindAddress = new InetSocketAddress(configuration.getUdpBindIp(), configuration.getUdpBindPort());
 
-            UDPReceiver udpReceiver = new UDPReceiver(udpReceiverName, packetHandlerFactory, worker, configuration.getUdpReceiveBufferSize(), bindAddress);
+            DataReceiver udpReceiver = createUdpReceiver(udpReceiverName, configuration, packetHandlerFactory, bindAddress);
             receiverList.add(udpReceiver);
         }
 
@@ -92,6 +93,14 @@ public class DataReceiverGroup implements DataReceiver {
         this.receiverList = Collections.unmodifiableList(receiverList);
     }
 
+    private DataReceiver createUdpReceiver(String udpReceiverName, DataReceiverGroupConfiguration configuration, PacketHandlerFactory<DatagramPacket> packetHandlerFactory, InetSocketAddress bindAddress) {
+        if ("NIO".equalsIgnoreCase(configuration.getUdpSocketType())) {
+            return new NioUDPReceiver(udpReceiverName, packetHandlerFactory, worker, configuration.getUdpReceiveBufferSize(), bindAddress,
+                    configuration.getUdpReaderThreadSize(), configuration.getUdpReaderBatchSize(), configuration.isUdpReusePort());
+        }
+        return new UDPReceiver(udpReceiverName, packetHandlerFactory, worker, configuration.getUdpReceiveBufferSize(), bindAddress);
+    }
+
     @PostConstruct
     @Override
     public void start() {
@@ -21,7 +21,6 @@ import com.navercorp.pinpoint.collector.util.PacketUtils;
 import com.navercorp.pinpoint.thrift.io.DeserializerFactory;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializer;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializerFactory;
-import com.navercorp.pinpoint.thrift.io.ThreadLocalHeaderTBaseDeserializerFactory;
 import org.apache.thrift.TBase;
 import org.apache.thrift.TException;
 import org.slf4j.Logger;
@@ -31,6 +30,7 @@ import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.net.SocketAddress;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -42,13 +42,19 @@ public class BaseUDPHandlerFactory<T extends DatagramPacket> implements PacketHa
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
-    private final DeserializerFactory<HeaderTBaseDeserializer> deserializerFactory = new ThreadLocalHeaderTBaseDeserializerFactory<>(new HeaderTBaseDeserializerFactory());
+    private final DeserializerFactory<HeaderTBaseDeserializer> deserializerFactory = new HeaderTBaseDeserializerFactory();
 
     private final DispatchHandler dispatchHandler;
 
     private final TBaseFilter<SocketAddress> filter;
 
-    private final PacketHandler<T> dispatchPacket = new DispatchPacket();
+    // one handler per worker thread. each handler reuses its own deserializer and message list.
+    private final ThreadLocal<PacketHandler<T>> dispatchPacket = new ThreadLocal<PacketHandler<T>>() {
+        @Override
+        protected PacketHandler<T> initialValue() {
+            return new DispatchPacket(deserializerFactory.createDeserializer());
+        }
+    };
     
     private final InetAddress[] ignoreAddresses;
 
@@ -68,13 +74,20 @@ public class BaseUDPHandlerFactory<T extends DatagramPacket> implements PacketHa
 
     @Override
     public PacketHandler<T> createPacketHandler() {
-        return this.dispatchPacket;
+        return this.dispatchPacket.get();
     }
 
-    // stateless
+    // Caution. not thread safe
     private class DispatchPacket implements PacketHandler<T> {
 
-        private DispatchPacket() {
+        private final HeaderTBaseDeserializer deserializer;
+        private final List<TBase<?, ?>> tBaseList = new ArrayList<>();
+
+        private DispatchPacket(HeaderTBaseDeserializer deserializer) {
+            if (deserializer == null) {
+                throw new NullPointerException("deserializer must not be null");
+            }
+            this.deserializer = deserializer;
         }
 
         @Override
@@ -83,17 +96,20 @@ public class BaseUDPHandlerFactory<T extends DatagramPacket> implements PacketHa
                 return;
             }
             
-            final HeaderTBaseDeserializer deserializer = deserializerFactory.createDeserializer();
             SocketAddress socketAddress = packet.getSocketAddress();
             TBase<?, ?> tBase = null;
             
             try {
-                tBase = deserializer.deserialize(packet.getData());
-                if (filter.filter(localSocket, tBase, socketAddress) == TBaseFilter.BREAK) {
-                    return;
+                // a packed datagram contains multiple messages
+                final int size = deserializer.deserializeList(packet.getData(), packet.getOffset(), packet.getLength(), tBaseList);
+                for (int i = 0; i < size; i++) {
+                    tBase = tBaseList.get(i);
+                    if (filter.filter(localSocket, tBase, socketAddress) == TBaseFilter.BREAK) {
+                        return;
+                    }
+                    // dispatch signifies business logic execution
+                    dispatchHandler.dispatchSendMessage(tBase);
                 }
-                // dispatch signifies business logic execution
-                dispatchHandler.dispatchSendMessage(tBase);
             } catch (TException e) {
                 if (logger.isWarnEnabled()) {
                     logger.warn("packet serialize error. SendSocketAddress:{} Cause:{}", socketAddress, e.getMessage(), e);
@@ -109,6 +125,8 @@ public class BaseUDPHandlerFactory<T extends DatagramPacket> implements PacketHa
                 if (logger.isDebugEnabled()) {
                     logger.debug("packet dump hex:{}", PacketUtils.dumpDatagramPacket(packet));
                 }
+            } finally {
+                tBaseList.clear();
             }
         }
         
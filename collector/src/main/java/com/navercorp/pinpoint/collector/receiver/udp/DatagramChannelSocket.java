@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.receiver.udp;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * {@link DatagramSocket} view of a non-blocking {@link DatagramChannel} handed to {@link PacketHandler}.
+ * The socket adaptor of {@link DatagramChannel#socket()} cannot send in non-blocking mode,
+ * so replies (e.g. network availability check) are written to the channel directly.
+ */
+class DatagramChannelSocket extends DatagramSocket {
+
+    private final DatagramChannel channel;
+
+    DatagramChannelSocket(DatagramChannel channel) throws SocketException {
+        // unbound. only used as a delegate
+        super((SocketAddress) null);
+        if (channel == null) {
+            throw new NullPointerException("channel must not be null");
+        }
+        this.channel = channel;
+    }
+
+    @Override
+    public void send(DatagramPacket packet) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(packet.getData(), packet.getOffset(), packet.getLength());
+        channel.send(buffer, packet.getSocketAddress());
+    }
+
+    @Override
+    public InetAddress getLocalAddress() {
+        return channel.socket().getLocalAddress();
+    }
+
+    @Override
+    public int getLocalPort() {
+        return channel.socket().getLocalPort();
+    }
+
+    @Override
+    public SocketAddress getLocalSocketAddress() {
+        return channel.socket().getLocalSocketAddress();
+    }
+}
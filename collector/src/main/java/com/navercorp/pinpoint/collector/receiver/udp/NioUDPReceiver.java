@@ -0,0 +1,348 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.receiver.udp;
+
+import com.navercorp.pinpoint.collector.receiver.DataReceiver;
+import com.navercorp.pinpoint.collector.receiver.DispatchWorker;
+import com.navercorp.pinpoint.collector.util.DefaultObjectPool;
+import com.navercorp.pinpoint.collector.util.ObjectPool;
+import com.navercorp.pinpoint.collector.util.PooledObject;
+import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketOption;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link DatagramChannel} based receiver.
+ * <p>
+ * Each reader thread waits on its own selector and reads as many datagrams as are pending into a pooled {@link PacketBatch},
+ * which is then dispatched to the {@link DispatchWorker} as a single task.
+ * When SO_REUSEPORT is enabled and supported by the runtime, every reader thread binds its own channel to the same port
+ * and the kernel balances datagrams between them. Otherwise all reader threads share a single channel.
+ */
+public class NioUDPReceiver implements DataReceiver {
+
+    public static final int DEFAULT_BATCH_SIZE = 32;
+    private static final int BATCH_BUFFER_SIZE = PacketBatch.UDP_MAX_PACKET_LENGTH * 2;
+    private static final long SELECT_TIMEOUT = 1000;
+
+    private final Logger logger;
+
+    private final String name;
+
+    private final InetSocketAddress bindAddress;
+
+    private final int receiveBufferSize;
+    private final int readerThreadSize;
+    private final int batchSize;
+    private final boolean reusePort;
+
+    private final PacketHandlerFactory<DatagramPacket> packetHandlerFactory;
+
+    // modify thread pool size appropriately when modifying queue capacity
+    private final DispatchWorker worker;
+
+    private ObjectPool<PacketBatch> packetBatchPool;
+
+    private ExecutorService io;
+
+    private final List<DatagramChannel> channelList = new ArrayList<>();
+    private final List<DatagramSocket> localSocketList = new ArrayList<>();
+
+    private final AtomicBoolean state = new AtomicBoolean(true);
+
+    public NioUDPReceiver(String name, PacketHandlerFactory<DatagramPacket> packetHandlerFactory, DispatchWorker worker, int receiveBufferSize, InetSocketAddress bindAddress,
+                          int readerThreadSize, int batchSize, boolean reusePort) {
+        this.name = Objects.requireNonNull(name);
+        this.logger = LoggerFactory.getLogger(name);
+
+        this.bindAddress = Objects.requireNonNull(bindAddress, "bindAddress must not be null");
+        this.packetHandlerFactory = Objects.requireNonNull(packetHandlerFactory, "packetHandlerFactory must not be null");
+        this.worker = Objects.requireNonNull(worker, "worker must not be null");
+
+        Assert.isTrue(receiveBufferSize > 0, "receiveBufferSize must be greater than 0");
+        Assert.isTrue(readerThreadSize > 0, "readerThreadSize must be greater than 0");
+        Assert.isTrue(batchSize > 0, "batchSize must be greater than 0");
+        this.receiveBufferSize = receiveBufferSize;
+        this.readerThreadSize = readerThreadSize;
+        this.batchSize = batchSize;
+        this.reusePort = reusePort;
+    }
+
+    private void prepare() {
+        final int batchPoolSize = worker.getThreadSize() + worker.getQueueSize() + readerThreadSize;
+        this.packetBatchPool = new DefaultObjectPool<>(new PacketBatchFactory(batchSize, BATCH_BUFFER_SIZE), batchPoolSize);
+
+        this.io = Executors.newFixedThreadPool(readerThreadSize, new PinpointThreadFactory(name + "-Io", true));
+    }
+
+    @PostConstruct
+    @Override
+    public void start() {
+        if (logger.isInfoEnabled()) {
+            logger.info("{} start() started", name);
+        }
+        prepare();
+
+        final SocketOption<Boolean> reusePortOption = getReusePortOption();
+        final int channelCount = reusePortOption != null ? readerThreadSize : 1;
+        for (int i = 0; i < channelCount; i++) {
+            final DatagramChannel channel = openChannel(reusePortOption);
+            channelList.add(channel);
+            localSocketList.add(createLocalSocket(channel));
+        }
+
+        logger.info("UDP Packet reader:{} started. channel:{}, batchSize:{}", readerThreadSize, channelCount, batchSize);
+        for (int i = 0; i < readerThreadSize; i++) {
+            final int channelIndex = i % channelCount;
+            final DatagramChannel channel = channelList.get(channelIndex);
+            final DatagramSocket localSocket = localSocketList.get(channelIndex);
+            io.execute(new Runnable() {
+                @Override
+                public void run() {
+                    receive(channel, localSocket);
+                }
+            });
+        }
+
+        if (logger.isInfoEnabled()) {
+            logger.info("{} start() completed", name);
+        }
+    }
+
+    private SocketOption<Boolean> getReusePortOption() {
+        if (!reusePort) {
+            return null;
+        }
+        try {
+            // StandardSocketOptions.SO_REUSEPORT is available since jdk9
+            @SuppressWarnings("unchecked")
+            final SocketOption<Boolean> option = (SocketOption<Boolean>) StandardSocketOptions.class.getField("SO_REUSEPORT").get(null);
+            return option;
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            logger.warn("SO_REUSEPORT not supported by this jvm. all reader threads share a single channel.");
+            return null;
+        }
+    }
+
+    private DatagramChannel openChannel(SocketOption<Boolean> reusePortOption) {
+        DatagramChannel channel = null;
+        try {
+            channel = DatagramChannel.open();
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, receiveBufferSize);
+            if (logger.isWarnEnabled()) {
+                final int checkReceiveBufferSize = channel.getOption(StandardSocketOptions.SO_RCVBUF);
+                if (receiveBufferSize != checkReceiveBufferSize) {
+                    logger.warn("DatagramChannel.setOption(SO_RCVBUF) error. {}!={}", receiveBufferSize, checkReceiveBufferSize);
+                }
+            }
+            if (reusePortOption != null) {
+                channel.setOption(reusePortOption, Boolean.TRUE);
+            }
+            channel.configureBlocking(false);
+
+            logger.info("DatagramChannel.bind() {}/{}", bindAddress.getHostString(), bindAddress.getPort());
+            channel.bind(bindAddress);
+            return channel;
+        } catch (IOException | UnsupportedOperationException ex) {
+            closeChannel(channel);
+            throw new IllegalStateException("DatagramChannel bind Fail. port:" + bindAddress.getPort() + " Caused:" + ex.getMessage(), ex);
+        }
+    }
+
+    private DatagramSocket createLocalSocket(DatagramChannel channel) {
+        try {
+            return new DatagramChannelSocket(channel);
+        } catch (IOException ex) {
+            throw new IllegalStateException("DatagramChannelSocket create Fail. Caused:" + ex.getMessage(), ex);
+        }
+    }
+
+    private void receive(final DatagramChannel channel, final DatagramSocket localSocket) {
+        if (logger.isInfoEnabled()) {
+            logger.info("start ioThread localAddress:{}, IoThread:{}", localSocket.getLocalSocketAddress(), Thread.currentThread().getName());
+        }
+
+        Selector selector = null;
+        try {
+            selector = Selector.open();
+            channel.register(selector, SelectionKey.OP_READ);
+
+            // need shutdown logic
+            while (state.get()) {
+                final int selected = selector.select(SELECT_TIMEOUT);
+                if (selected == 0) {
+                    continue;
+                }
+                selector.selectedKeys().clear();
+
+                readBatch(channel, localSocket);
+            }
+        } catch (ClosedChannelException e) {
+            // shutdown
+        } catch (IOException e) {
+            if (state.get()) {
+                logger.error("IoError, Caused:{}", e.getMessage(), e);
+            }
+        } finally {
+            if (selector != null) {
+                try {
+                    selector.close();
+                } catch (IOException ignore) {
+                    // skip
+                }
+            }
+        }
+
+        if (logger.isInfoEnabled()) {
+            logger.info("stop ioThread localAddress:{}, IoThread:{}", localSocket.getLocalSocketAddress(), Thread.currentThread().getName());
+        }
+    }
+
+    private void readBatch(DatagramChannel channel, DatagramSocket localSocket) throws IOException {
+        while (state.get()) {
+            final PooledObject<PacketBatch> pooledBatch = packetBatchPool.getObject();
+            final PacketBatch batch = pooledBatch.getObject();
+            boolean dispatched = false;
+            try {
+                batch.read(channel);
+                if (batch.isEmpty()) {
+                    return;
+                }
+                if (logger.isDebugEnabled()) {
+                    logger.debug("PacketBatch read. {}", batch);
+                }
+                // the batch belongs to the worker thread after dispatch
+                final boolean full = batch.isFull();
+                dispatched = dispatch(localSocket, pooledBatch);
+                if (!full) {
+                    // no more pending datagram
+                    return;
+                }
+            } finally {
+                if (!dispatched) {
+                    pooledBatch.returnObject();
+                }
+            }
+        }
+    }
+
+    private boolean dispatch(DatagramSocket localSocket, PooledObject<PacketBatch> pooledBatch) {
+        final Runnable dispatchTask = new PacketBatchDispatchTask(localSocket, pooledBatch);
+        try {
+            worker.execute(dispatchTask, true);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private class PacketBatchDispatchTask implements Runnable {
+        private final DatagramSocket localSocket;
+        private final PooledObject<PacketBatch> pooledBatch;
+
+        private PacketBatchDispatchTask(DatagramSocket localSocket, PooledObject<PacketBatch> pooledBatch) {
+            this.localSocket = localSocket;
+            this.pooledBatch = pooledBatch;
+        }
+
+        @Override
+        public void run() {
+            final PacketBatch batch = pooledBatch.getObject();
+            try {
+                final PacketHandler<DatagramPacket> packetHandler = packetHandlerFactory.createPacketHandler();
+                final int size = batch.size();
+                for (int i = 0; i < size; i++) {
+                    try {
+                        packetHandler.receive(localSocket, batch.getPacket(i));
+                    } catch (Exception e) {
+                        logger.warn("Unexpected error. Cause:{}", e.getMessage(), e);
+                    }
+                }
+            } finally {
+                pooledBatch.returnObject();
+            }
+        }
+    }
+
+    @PreDestroy
+    @Override
+    public void shutdown() {
+        if (logger.isInfoEnabled()) {
+            logger.info("{} shutdown() started", this.name);
+        }
+
+        state.set(false);
+        for (DatagramChannel channel : channelList) {
+            closeChannel(channel);
+        }
+        for (DatagramSocket localSocket : localSocketList) {
+            localSocket.close();
+        }
+        if (io != null) {
+            shutdownExecutor(io, "IoExecutor");
+        }
+
+        if (logger.isInfoEnabled()) {
+            logger.info("{} shutdown() completed", this.name);
+        }
+    }
+
+    private void closeChannel(DatagramChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("DatagramChannel.close() error. Caused:{}", e.getMessage(), e);
+        }
+    }
+
+    private void shutdownExecutor(ExecutorService executor, String executorName) {
+        logger.info("{} shutdown.", executorName);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1000 * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            logger.info("{}.shutdown() Interrupted", executorName, e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
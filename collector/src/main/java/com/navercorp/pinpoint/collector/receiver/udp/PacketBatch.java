@@ -0,0 +1,130 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.receiver.udp;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Datagrams read back to back into a single buffer by one reader thread, and dispatched as a single task.
+ * Caution. not thread safe. the reader thread fills the batch, then a single worker thread consumes it.
+ */
+public class PacketBatch {
+
+    public static final int UDP_MAX_PACKET_LENGTH = 65507;
+
+    private final ByteBuffer buffer;
+    private final int maxPacketCount;
+
+    private final int[] offsets;
+    private final int[] lengths;
+    private final SocketAddress[] addresses;
+    private int packetCount = 0;
+
+    // reused for every packet of this batch
+    private final DatagramPacket packet;
+
+    public PacketBatch(int maxPacketCount, int bufferSize) {
+        if (maxPacketCount <= 0) {
+            throw new IllegalArgumentException("maxPacketCount must be greater than 0");
+        }
+        if (bufferSize < UDP_MAX_PACKET_LENGTH) {
+            throw new IllegalArgumentException("bufferSize must be greater than or equal to " + UDP_MAX_PACKET_LENGTH);
+        }
+        // heap buffer. the deserializer needs a byte array, so a direct buffer would only add a copy.
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.maxPacketCount = maxPacketCount;
+        this.offsets = new int[maxPacketCount];
+        this.lengths = new int[maxPacketCount];
+        this.addresses = new SocketAddress[maxPacketCount];
+        this.packet = new DatagramPacket(buffer.array(), 0, 0);
+    }
+
+    /**
+     * Reads datagrams until the channel has no more pending datagram or this batch is full.
+     * The channel must be in non-blocking mode.
+     *
+     * @return number of datagrams read by this call
+     */
+    public int read(DatagramChannel channel) throws IOException {
+        int readCount = 0;
+        while (!isFull()) {
+            final int offset = buffer.position();
+            final SocketAddress address = channel.receive(buffer);
+            if (address == null) {
+                break;
+            }
+            final int length = buffer.position() - offset;
+            if (length == 0) {
+                // L4 health check packet
+                continue;
+            }
+            offsets[packetCount] = offset;
+            lengths[packetCount] = length;
+            addresses[packetCount] = address;
+            packetCount++;
+            readCount++;
+        }
+        return readCount;
+    }
+
+    public boolean isFull() {
+        // a datagram bigger than the remaining buffer would be truncated
+        return packetCount >= maxPacketCount || buffer.remaining() < UDP_MAX_PACKET_LENGTH;
+    }
+
+    public int size() {
+        return packetCount;
+    }
+
+    public boolean isEmpty() {
+        return packetCount == 0;
+    }
+
+    /**
+     * Caution. returns the same {@link DatagramPacket} instance for every index.
+     */
+    public DatagramPacket getPacket(int index) {
+        if (index < 0 || index >= packetCount) {
+            throw new IndexOutOfBoundsException("index:" + index + " size:" + packetCount);
+        }
+        packet.setData(buffer.array(), offsets[index], lengths[index]);
+        packet.setSocketAddress(addresses[index]);
+        return packet;
+    }
+
+    public void clear() {
+        for (int i = 0; i < packetCount; i++) {
+            addresses[i] = null;
+        }
+        packetCount = 0;
+        buffer.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "PacketBatch{" +
+                "packetCount=" + packetCount +
+                ", maxPacketCount=" + maxPacketCount +
+                ", bufferPosition=" + buffer.position() +
+                ", bufferSize=" + buffer.capacity() +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.receiver.udp;
+
+import com.navercorp.pinpoint.collector.util.ObjectPoolFactory;
+
+/**
+ * @see PacketBatch
+ */
+public class PacketBatchFactory implements ObjectPoolFactory<PacketBatch> {
+
+    private final int maxPacketCount;
+    private final int bufferSize;
+
+    public PacketBatchFactory(int maxPacketCount, int bufferSize) {
+        this.maxPacketCount = maxPacketCount;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public PacketBatch create() {
+        return new PacketBatch(maxPacketCount, bufferSize);
+    }
+
+    @Override
+    public void beforeReturn(PacketBatch packetBatch) {
+        packetBatch.clear();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.receiver.udp;
+
+import com.navercorp.pinpoint.collector.util.PooledObject;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+
+/**
+ * Recycled dispatch task which owns its {@link DatagramPacket}.
+ * The reader thread receives into {@link #getPacket()} and hands the task itself to the worker,
+ * so no Runnable is allocated per packet.
+ */
+public class PacketDispatchTask implements Runnable {
+
+    private final DatagramSocket localSocket;
+    private final PacketHandlerFactory<DatagramPacket> packetHandlerFactory;
+    private final DatagramPacket packet;
+
+    // set by the reader thread before dispatch, cleared when the task is returned to the pool
+    private PooledObject<PacketDispatchTask> pooledObject;
+
+    public PacketDispatchTask(DatagramSocket localSocket, PacketHandlerFactory<DatagramPacket> packetHandlerFactory, DatagramPacket packet) {
+        if (localSocket == null) {
+            throw new NullPointerException("localSocket must not be null");
+        }
+        if (packetHandlerFactory == null) {
+            throw new NullPointerException("packetHandlerFactory must not be null");
+        }
+        if (packet == null) {
+            throw new NullPointerException("packet must not be null");
+        }
+        this.localSocket = localSocket;
+        this.packetHandlerFactory = packetHandlerFactory;
+        this.packet = packet;
+    }
+
+    public DatagramPacket getPacket() {
+        return packet;
+    }
+
+    public void setPooledObject(PooledObject<PacketDispatchTask> pooledObject) {
+        this.pooledObject = pooledObject;
+    }
+
+    public void returnObject() {
+        final PooledObject<PacketDispatchTask> pooledObject = this.pooledObject;
+        if (pooledObject == null) {
+            return;
+        }
+        this.pooledObject = null;
+        pooledObject.returnObject();
+    }
+
+    @Override
+    public void run() {
+        try {
+            final PacketHandler<DatagramPacket> packetHandler = packetHandlerFactory.createPacketHandler();
+            packetHandler.receive(localSocket, packet);
+        } finally {
+            returnObject();
+        }
+    }
+}
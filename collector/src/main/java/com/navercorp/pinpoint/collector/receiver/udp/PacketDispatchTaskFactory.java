@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.receiver.udp;
+
+import com.navercorp.pinpoint.collector.util.DatagramPacketFactory;
+import com.navercorp.pinpoint.collector.util.ObjectPoolFactory;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+
+/**
+ * @see PacketDispatchTask
+ */
+public class PacketDispatchTaskFactory implements ObjectPoolFactory<PacketDispatchTask> {
+
+    private final DatagramSocket localSocket;
+    private final PacketHandlerFactory<DatagramPacket> packetHandlerFactory;
+    private final DatagramPacketFactory datagramPacketFactory;
+
+    public PacketDispatchTaskFactory(DatagramSocket localSocket, PacketHandlerFactory<DatagramPacket> packetHandlerFactory) {
+        this(localSocket, packetHandlerFactory, new DatagramPacketFactory());
+    }
+
+    public PacketDispatchTaskFactory(DatagramSocket localSocket, PacketHandlerFactory<DatagramPacket> packetHandlerFactory, DatagramPacketFactory datagramPacketFactory) {
+        if (localSocket == null) {
+            throw new NullPointerException("localSocket must not be null");
+        }
+        if (packetHandlerFactory == null) {
+            throw new NullPointerException("packetHandlerFactory must not be null");
+        }
+        if (datagramPacketFactory == null) {
+            throw new NullPointerException("datagramPacketFactory must not be null");
+        }
+        this.localSocket = localSocket;
+        this.packetHandlerFactory = packetHandlerFactory;
+        this.datagramPacketFactory = datagramPacketFactory;
+    }
+
+    @Override
+    public PacketDispatchTask create() {
+        final DatagramPacket packet = datagramPacketFactory.create();
+        return new PacketDispatchTask(localSocket, packetHandlerFactory, packet);
+    }
+
+    @Override
+    public void beforeReturn(PacketDispatchTask task) {
+        datagramPacketFactory.beforeReturn(task.getPacket());
+    }
+}
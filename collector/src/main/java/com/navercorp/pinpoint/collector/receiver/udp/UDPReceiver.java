@@ -18,7 +18,6 @@ package com.navercorp.pinpoint.collector.receiver.udp;
 
 import com.navercorp.pinpoint.collector.receiver.DataReceiver;
 import com.navercorp.pinpoint.collector.receiver.DispatchWorker;
-import com.navercorp.pinpoint.collector.util.DatagramPacketFactory;
 import com.navercorp.pinpoint.collector.util.DefaultObjectPool;
 import com.navercorp.pinpoint.collector.util.ObjectPool;
 import com.navercorp.pinpoint.collector.util.PacketUtils;
@@ -69,7 +68,8 @@ public class UDPReceiver implements DataReceiver {
     // can't really allocate memory as max udp packet sizes are unknown.
     // not allocating memory in advance as I am unsure of the max udp packet size.
     // packet cache is necessary as the JVM does not last long if they are dynamically created with the maximum size.
-    private ObjectPool<DatagramPacket> datagramPacketPool;
+    // each packet is owned by a recycled dispatch task, so the receive path does not allocate a Runnable per packet.
+    private ObjectPool<PacketDispatchTask> dispatchTaskPool;
 
     private final DatagramSocket socket;
 
@@ -93,7 +93,7 @@ public class UDPReceiver implements DataReceiver {
         Objects.requireNonNull(packetHandlerFactory, "packetHandlerFactory must not be null");
 
         final int packetPoolSize = getPacketPoolSize();
-        this.datagramPacketPool = new DefaultObjectPool<>(new DatagramPacketFactory(), packetPoolSize);
+        this.dispatchTaskPool = new DefaultObjectPool<>(new PacketDispatchTaskFactory(socket, packetHandlerFactory), packetPoolSize);
 
         this.io = (ThreadPoolExecutor) Executors.newCachedThreadPool(new PinpointThreadFactory(name + "-Io", true));
     }
@@ -105,11 +105,10 @@ public class UDPReceiver implements DataReceiver {
 
         // need shutdown logic
         while (state.get()) {
-            final PooledObject<DatagramPacket> pooledPacket = read0(socket);
-            if (pooledPacket == null) {
+            final PacketDispatchTask dispatchTask = read0(socket);
+            if (dispatchTask == null) {
                 continue;
             }
-            Runnable dispatchTask = wrapDispatchTask(pooledPacket);
             worker.execute(dispatchTask);
         }
 
@@ -119,28 +118,15 @@ public class UDPReceiver implements DataReceiver {
         }
     }
 
-    private Runnable wrapDispatchTask(final PooledObject<DatagramPacket> pooledPacket) {
-        final Runnable lazyExecution = new Runnable() {
-            @Override
-            public void run() {
-                PacketHandler<DatagramPacket> dispatchPacket = packetHandlerFactory.createPacketHandler();
-                PooledPacketWrap pooledPacketWrap = new PooledPacketWrap(socket, dispatchPacket, pooledPacket);
-                Runnable execution = pooledPacketWrap;
-                execution.run();
-            }
-        };
-        return lazyExecution;
-    }
-
-
-    private PooledObject<DatagramPacket> read0(final DatagramSocket socket) {
+    private PacketDispatchTask read0(final DatagramSocket socket) {
         boolean success = false;
-        PooledObject<DatagramPacket> pooledObject = datagramPacketPool.getObject();
+        PooledObject<PacketDispatchTask> pooledObject = dispatchTaskPool.getObject();
         if (pooledObject == null) {
-            logger.error("datagramPacketPool is empty");
+            logger.error("dispatchTaskPool is empty");
             return null;
         }
-        DatagramPacket packet = pooledObject.getObject();
+        final PacketDispatchTask dispatchTask = pooledObject.getObject();
+        DatagramPacket packet = dispatchTask.getPacket();
         try {
             try {
                 socket.receive(packet);
@@ -171,7 +157,8 @@ public class UDPReceiver implements DataReceiver {
             pooledObject.returnObject();
             return null;
         }
-        return pooledObject;
+        dispatchTask.setPooledObject(pooledObject);
+        return dispatchTask;
     }
 
     @VisibleForTesting
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.util;
+
+import com.google.common.cache.CacheBuilder;
+import com.navercorp.pinpoint.common.util.ContentHashUtils;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers recently written content hash metadata, so an agent re-sending the same metadata does not rewrite the row.
+ * Metadata with a sequential id (bound to agentStartTime) is always written.
+ * Entries expire long before the metadata rows, so an agent re-sending an expiring value always rewrites the row.
+ * A miss or a different content falls through to the dao, which rejects an id taken by a different content.
+ */
+public class ContentHashMetaDataFilter {
+
+    private static final int DEFAULT_CACHE_SIZE = 1024 * 64;
+
+    private final ConcurrentMap<String, Long> writtenMap;
+
+    public ContentHashMetaDataFilter() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    public ContentHashMetaDataFilter(int cacheSize) {
+        final CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
+        cacheBuilder.concurrencyLevel(16);
+        cacheBuilder.maximumSize(cacheSize);
+        cacheBuilder.expireAfterWrite(1, TimeUnit.DAYS);
+        this.writtenMap = cacheBuilder.<String, Long>build().asMap();
+    }
+
+    public boolean isDuplicated(String agentId, long agentStartTime, int id, String content) {
+        if (!ContentHashUtils.isContentHashAgentStartTime(agentStartTime) || content == null) {
+            return false;
+        }
+        final Long written = writtenMap.get(newKey(agentId, id));
+        return written != null && written == ContentHashUtils.fingerprint(content);
+    }
+
+    public void written(String agentId, long agentStartTime, int id, String content) {
+        if (!ContentHashUtils.isContentHashAgentStartTime(agentStartTime) || content == null) {
+            return;
+        }
+        writtenMap.put(newKey(agentId, id), ContentHashUtils.fingerprint(content));
+    }
+
+    private String newKey(String agentId, int id) {
+        return agentId + '^' + id;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase;
+
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchPutWriterTest {
+
+    private static final TableName TABLE_NAME = TableName.valueOf("TraceV2");
+    private static final byte[] FAMILY = Bytes.toBytes("S");
+
+    @Test
+    public void coalesce() {
+        HbaseOperations2 hbaseTemplate = mock(HbaseOperations2.class);
+        BatchPutWriter writer = new BatchPutWriter(hbaseTemplate, TABLE_NAME, true, 10, 10, 10, BatchPutWriter.BackpressurePolicy.DROP, 0);
+
+        Put put1 = newPut("tx1", "span1", 1000);
+        Put put2 = newPut("tx2", "span2", 1000);
+        Put put3 = newPut("tx1", "span3", 2000);
+
+        List<Put> putList = writer.coalesce(Arrays.asList(put1, put2, put3));
+        Assert.assertEquals(2, putList.size());
+        Assert.assertSame(put1, putList.get(0));
+        Assert.assertSame(put2, putList.get(1));
+        Assert.assertEquals(2, put1.size());
+        Assert.assertEquals(1, writer.getCoalescedCount());
+    }
+
+    @Test
+    public void writeBatch_rejected() {
+        HbaseOperations2 hbaseTemplate = mock(HbaseOperations2.class);
+        BatchPutWriter writer = new BatchPutWriter(hbaseTemplate, TABLE_NAME, true, 10, 10, 10, BatchPutWriter.BackpressurePolicy.DROP, 0);
+
+        Put put = newPut("tx1", "span1", 1000);
+        List<Put> rejectedList = Collections.singletonList(put);
+        when(hbaseTemplate.asyncPut(eq(TABLE_NAME), anyListOf(Put.class))).thenReturn(rejectedList);
+
+        writer.writeBatch(Collections.singletonList(put));
+
+        verify(hbaseTemplate).put(TABLE_NAME, rejectedList);
+        Assert.assertEquals(1, writer.getWriteCount());
+        Assert.assertEquals(1, writer.getSyncWriteCount());
+    }
+
+    @Test
+    public void backpressure_drop() {
+        HbaseOperations2 hbaseTemplate = mock(HbaseOperations2.class);
+        // writer thread is not started
+        BatchPutWriter writer = new BatchPutWriter(hbaseTemplate, TABLE_NAME, true, 1, 10, 10, BatchPutWriter.BackpressurePolicy.DROP, 0);
+
+        Assert.assertTrue(writer.write(newPut("tx1", "span1", 1000)));
+        Assert.assertFalse(writer.write(newPut("tx2", "span2", 1000)));
+        Assert.assertEquals(1, writer.getQueueSize());
+        Assert.assertEquals(1, writer.getDroppedCount());
+        verify(hbaseTemplate, never()).put(any(TableName.class), any(Put.class));
+    }
+
+    @Test
+    public void backpressure_sync() {
+        HbaseOperations2 hbaseTemplate = mock(HbaseOperations2.class);
+        BatchPutWriter writer = new BatchPutWriter(hbaseTemplate, TABLE_NAME, true, 1, 10, 10, BatchPutWriter.BackpressurePolicy.SYNC, 0);
+
+        writer.write(newPut("tx1", "span1", 1000));
+        Put put = newPut("tx2", "span2", 1000);
+        Assert.assertTrue(writer.write(put));
+        verify(hbaseTemplate).put(TABLE_NAME, put);
+        Assert.assertEquals(1, writer.getSyncWriteCount());
+    }
+
+    @Test
+    public void write() {
+        HbaseOperations2 hbaseTemplate = mock(HbaseOperations2.class);
+        when(hbaseTemplate.asyncPut(eq(TABLE_NAME), anyListOf(Put.class))).thenReturn(Collections.<Put>emptyList());
+
+        BatchPutWriter writer = new BatchPutWriter(hbaseTemplate, TABLE_NAME, true, 10, 10, 10, BatchPutWriter.BackpressurePolicy.WAIT, 100);
+        writer.start();
+        try {
+            writer.write(newPut("tx1", "span1", 1000));
+            verify(hbaseTemplate, timeout(3000)).asyncPut(eq(TABLE_NAME), anyListOf(Put.class));
+        } finally {
+            writer.stop();
+        }
+        Assert.assertEquals(0, writer.getQueueSize());
+        Assert.assertEquals(1, writer.getWriteCount());
+    }
+
+    @Test
+    public void disable() {
+        HbaseOperations2 hbaseTemplate = mock(HbaseOperations2.class);
+        BatchPutWriter writer = new BatchPutWriter(hbaseTemplate, TABLE_NAME, false, 10, 10, 10, BatchPutWriter.BackpressurePolicy.WAIT, 100);
+
+        Put put = newPut("tx1", "span1", 1000);
+        when(hbaseTemplate.asyncPut(TABLE_NAME, put)).thenReturn(false);
+        writer.write(put);
+
+        verify(hbaseTemplate).put(TABLE_NAME, put);
+        Assert.assertEquals(0, writer.getQueueSize());
+    }
+
+    @Test
+    public void backpressurePolicy() {
+        Assert.assertEquals(BatchPutWriter.BackpressurePolicy.DROP, BatchPutWriter.BackpressurePolicy.getValue("drop"));
+        Assert.assertEquals(BatchPutWriter.BackpressurePolicy.SYNC, BatchPutWriter.BackpressurePolicy.getValue(" SYNC "));
+        Assert.assertEquals(BatchPutWriter.BackpressurePolicy.WAIT, BatchPutWriter.BackpressurePolicy.getValue("unknown"));
+        Assert.assertEquals(BatchPutWriter.BackpressurePolicy.WAIT, BatchPutWriter.BackpressurePolicy.getValue(null));
+    }
+
+    private Put newPut(String rowKey, String qualifier, long timestamp) {
+        Put put = new Put(Bytes.toBytes(rowKey), timestamp);
+        put.addColumn(FAMILY, Bytes.toBytes(qualifier), Bytes.toBytes(qualifier));
+        return put;
+    }
+}
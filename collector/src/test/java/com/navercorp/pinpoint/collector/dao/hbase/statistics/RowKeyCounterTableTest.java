@@ -0,0 +1,203 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase.statistics;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.apache.hadoop.hbase.client.Increment;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class RowKeyCounterTableTest {
+
+    private static final byte[] FAMILY = {'C'};
+
+    @Test
+    public void createBulkIncrement() {
+        RowKeyCounterTable counterTable = new RowKeyCounterTable();
+
+        final long timeSlot = 60000;
+        counterTable.increment(new CallRowKey("app1", (short) 1000, timeSlot), new ResponseColumnName("agent1", (short) 100));
+        counterTable.increment(new CallRowKey("app1", (short) 1000, timeSlot), new ResponseColumnName("agent1", (short) 100));
+        counterTable.increment(new CallRowKey("app1", (short) 1000, timeSlot), new ResponseColumnName("agent2", (short) 100), 5);
+        counterTable.increment(new CallRowKey("app2", (short) 1000, timeSlot), new ResponseColumnName("agent3", (short) 100));
+
+        List<Increment> incrementList = counterTable.createBulkIncrement(FAMILY, null);
+        Assert.assertEquals(2, incrementList.size());
+
+        Increment app1 = findIncrement(incrementList, new CallRowKey("app1", (short) 1000, timeSlot));
+        Assert.assertEquals(2L, getValue(app1, new ResponseColumnName("agent1", (short) 100)));
+        Assert.assertEquals(5L, getValue(app1, new ResponseColumnName("agent2", (short) 100)));
+
+        Increment app2 = findIncrement(incrementList, new CallRowKey("app2", (short) 1000, timeSlot));
+        Assert.assertEquals(1L, getValue(app2, new ResponseColumnName("agent3", (short) 100)));
+    }
+
+    @Test
+    public void createBulkIncrement_reset() {
+        RowKeyCounterTable counterTable = new RowKeyCounterTable();
+
+        final CallRowKey rowKey = new CallRowKey("app1", (short) 1000, 60000);
+        counterTable.increment(rowKey, new ResponseColumnName("agent1", (short) 100));
+        counterTable.increment(rowKey, new ResponseColumnName("agent2", (short) 100));
+        Assert.assertEquals(1, counterTable.createBulkIncrement(FAMILY, null).size());
+
+        // only updated columns are flushed
+        counterTable.increment(rowKey, new ResponseColumnName("agent1", (short) 100), 3);
+        List<Increment> incrementList = counterTable.createBulkIncrement(FAMILY, null);
+        Assert.assertEquals(1, incrementList.size());
+        Assert.assertEquals(1, incrementList.get(0).numColumns());
+        Assert.assertEquals(3L, getValue(incrementList.get(0), new ResponseColumnName("agent1", (short) 100)));
+    }
+
+    @Test
+    public void evictIdleRow() {
+        RowKeyCounterTable counterTable = new RowKeyCounterTable();
+
+        counterTable.increment(new CallRowKey("app1", (short) 1000, 60000), new ResponseColumnName("agent1", (short) 100));
+        Assert.assertEquals(1, counterTable.createBulkIncrement(FAMILY, null).size());
+        Assert.assertEquals(1, counterTable.getRowSize());
+
+        // next time slot
+        counterTable.increment(new CallRowKey("app1", (short) 1000, 120000), new ResponseColumnName("agent1", (short) 100));
+        Assert.assertEquals(1, counterTable.createBulkIncrement(FAMILY, null).size());
+        // old time slot is kept by the standby generation
+        Assert.assertEquals(2, counterTable.getRowSize());
+
+        Assert.assertTrue(counterTable.createBulkIncrement(FAMILY, null).isEmpty());
+        Assert.assertEquals(1, counterTable.getRowSize());
+
+        Assert.assertTrue(counterTable.createBulkIncrement(FAMILY, null).isEmpty());
+        Assert.assertEquals(0, counterTable.getRowSize());
+    }
+
+    @Test
+    public void concurrentIncrement() throws Exception {
+        final RowKeyCounterTable counterTable = new RowKeyCounterTable(4);
+
+        final int writerThreads = 4;
+        final int incrementCount = 200000;
+        final int rowSize = 8;
+        final int columnSize = 4;
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(writerThreads);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final List<Future<?>> writerList = new ArrayList<>();
+        for (int thread = 0; thread < writerThreads; thread++) {
+            final int threadIndex = thread;
+            Future<?> writer = executorService.submit(new Runnable() {
+                @Override
+                public void run() {
+                    Uninterruptibles.awaitUninterruptibly(startLatch);
+                    for (int i = 0; i < incrementCount; i++) {
+                        final int key = threadIndex + i;
+                        RowKey rowKey = new CallRowKey("app" + (key % rowSize), (short) 1000, 60000);
+                        ColumnName columnName = new ResponseColumnName("agent" + ((key / rowSize) % columnSize), (short) 100);
+                        counterTable.increment(rowKey, columnName);
+                    }
+                }
+            });
+            writerList.add(writer);
+        }
+
+        final Map<String, Long> totals = new HashMap<>();
+        startLatch.countDown();
+        try {
+            // flush while writers are running
+            while (!isDone(writerList)) {
+                sum(totals, counterTable.createBulkIncrement(FAMILY, null));
+            }
+            for (Future<?> writer : writerList) {
+                writer.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        sum(totals, counterTable.createBulkIncrement(FAMILY, null));
+
+        long total = 0;
+        for (Long value : totals.values()) {
+            total += value;
+        }
+        Assert.assertEquals((long) writerThreads * incrementCount, total);
+        Assert.assertEquals(rowSize * columnSize, totals.size());
+
+        final long expectedPerCell = (long) writerThreads * incrementCount / (rowSize * columnSize);
+        for (Map.Entry<String, Long> entry : totals.entrySet()) {
+            Assert.assertEquals(entry.getKey(), expectedPerCell, (long) entry.getValue());
+        }
+    }
+
+    private boolean isDone(List<Future<?>> futureList) {
+        for (Future<?> future : futureList) {
+            if (!future.isDone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void sum(Map<String, Long> totals, List<Increment> incrementList) {
+        for (Increment increment : incrementList) {
+            for (NavigableMap<byte[], Long> columns : increment.getFamilyMapOfLongs().values()) {
+                for (Map.Entry<byte[], Long> column : columns.entrySet()) {
+                    final String key = Arrays.toString(increment.getRow()) + Arrays.toString(column.getKey());
+                    final Long old = totals.get(key);
+                    totals.put(key, old == null ? column.getValue() : old + column.getValue());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void roundToPowerOfTwo() {
+        Assert.assertEquals(1, RowKeyCounterTable.roundToPowerOfTwo(1));
+        Assert.assertEquals(16, RowKeyCounterTable.roundToPowerOfTwo(16));
+        Assert.assertEquals(32, RowKeyCounterTable.roundToPowerOfTwo(17));
+    }
+
+    private Increment findIncrement(List<Increment> incrementList, RowKey rowKey) {
+        for (Increment increment : incrementList) {
+            if (Arrays.equals(increment.getRow(), rowKey.getRowKey())) {
+                return increment;
+            }
+        }
+        throw new AssertionError("increment not found. rowKey:" + rowKey);
+    }
+
+    private long getValue(Increment increment, ColumnName columnName) {
+        for (Map.Entry<byte[], NavigableMap<byte[], Long>> familyEntry : increment.getFamilyMapOfLongs().entrySet()) {
+            Assert.assertArrayEquals(FAMILY, familyEntry.getKey());
+            for (Map.Entry<byte[], Long> entry : familyEntry.getValue().entrySet()) {
+                if (Arrays.equals(entry.getKey(), columnName.getColumnName())) {
+                    return entry.getValue();
+                }
+            }
+        }
+        throw new AssertionError("column not found. columnName:" + columnName);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.receiver.udp;
+
+import com.navercorp.pinpoint.collector.receiver.DispatchWorker;
+import com.navercorp.pinpoint.collector.receiver.DispatchWorkerOption;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.util.SocketUtils;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class NioUDPReceiverTest {
+
+    private static final String ADDRESS = "127.0.0.1";
+
+    @Test
+    public void packetBatch() throws IOException {
+        DatagramChannel receiveChannel = DatagramChannel.open();
+        DatagramChannel sendChannel = DatagramChannel.open();
+        try {
+            receiveChannel.bind(new InetSocketAddress(ADDRESS, 0));
+            receiveChannel.configureBlocking(false);
+            sendChannel.connect(receiveChannel.getLocalAddress());
+
+            sendChannel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}));
+            sendChannel.write(ByteBuffer.wrap(new byte[0]));
+            sendChannel.write(ByteBuffer.wrap(new byte[]{4, 5}));
+
+            PacketBatch batch = new PacketBatch(8, PacketBatch.UDP_MAX_PACKET_LENGTH * 2);
+            int readCount = 0;
+            long deadline = System.currentTimeMillis() + 3000;
+            while (readCount < 2 && System.currentTimeMillis() < deadline) {
+                readCount += batch.read(receiveChannel);
+            }
+            // zero length packet is skipped
+            Assert.assertEquals(2, batch.size());
+            Assert.assertArrayEquals(new byte[]{1, 2, 3}, toBytes(batch.getPacket(0)));
+            Assert.assertArrayEquals(new byte[]{4, 5}, toBytes(batch.getPacket(1)));
+            Assert.assertEquals(sendChannel.getLocalAddress(), batch.getPacket(1).getSocketAddress());
+
+            batch.clear();
+            Assert.assertTrue(batch.isEmpty());
+        } finally {
+            sendChannel.close();
+            receiveChannel.close();
+        }
+    }
+
+    @Test
+    public void receive() throws Exception {
+        final int port = SocketUtils.findAvailableUdpPort(11999);
+        final int packetCount = 100;
+
+        final CountDownLatch latch = new CountDownLatch(packetCount);
+        final List<byte[]> received = new CopyOnWriteArrayList<>();
+        PacketHandlerFactory<DatagramPacket> packetHandlerFactory = new PacketHandlerFactory<DatagramPacket>() {
+            @Override
+            public PacketHandler<DatagramPacket> createPacketHandler() {
+                return new PacketHandler<DatagramPacket>() {
+                    @Override
+                    public void receive(DatagramSocket localSocket, DatagramPacket packet) {
+                        received.add(toBytes(packet));
+                        latch.countDown();
+                    }
+                };
+            }
+        };
+
+        DispatchWorker worker = new DispatchWorker(new DispatchWorkerOption("test-worker", 2, 1024, 100, false));
+        worker.start();
+        NioUDPReceiver receiver = new NioUDPReceiver("test", packetHandlerFactory, worker, 1024 * 1024, new InetSocketAddress(ADDRESS, port), 2, 8, true);
+        DatagramSocket sendSocket = new DatagramSocket();
+        try {
+            receiver.start();
+            sendSocket.connect(new InetSocketAddress(ADDRESS, port));
+            for (int i = 0; i < packetCount; i++) {
+                byte[] data = new byte[]{(byte) i, 1, 2, 3};
+                sendSocket.send(new DatagramPacket(data, data.length));
+            }
+
+            Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(packetCount, received.size());
+            for (byte[] data : received) {
+                Assert.assertEquals(4, data.length);
+            }
+        } finally {
+            sendSocket.close();
+            receiver.shutdown();
+            worker.shutdown();
+        }
+    }
+
+    private static byte[] toBytes(DatagramPacket packet) {
+        return Arrays.copyOfRange(packet.getData(), packet.getOffset(), packet.getOffset() + packet.getLength());
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.receiver.udp;
+
+import com.navercorp.pinpoint.collector.util.DefaultObjectPool;
+import com.navercorp.pinpoint.collector.util.PooledObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PacketDispatchTaskTest {
+
+    @Test
+    public void recycle() throws Exception {
+        final AtomicInteger receiveCount = new AtomicInteger();
+        final PacketHandler<DatagramPacket> packetHandler = new PacketHandler<DatagramPacket>() {
+            @Override
+            public void receive(DatagramSocket localSocket, DatagramPacket packet) {
+                receiveCount.incrementAndGet();
+            }
+        };
+        final PacketHandlerFactory<DatagramPacket> packetHandlerFactory = new PacketHandlerFactory<DatagramPacket>() {
+            @Override
+            public PacketHandler<DatagramPacket> createPacketHandler() {
+                return packetHandler;
+            }
+        };
+
+        DatagramSocket socket = new DatagramSocket(0);
+        try {
+            DefaultObjectPool<PacketDispatchTask> pool = new DefaultObjectPool<>(new PacketDispatchTaskFactory(socket, packetHandlerFactory), 1);
+            Assert.assertEquals(1, pool.size());
+
+            PooledObject<PacketDispatchTask> pooledObject = pool.getObject();
+            PacketDispatchTask task = pooledObject.getObject();
+            task.setPooledObject(pooledObject);
+            task.getPacket().setLength(10);
+            Assert.assertEquals(0, pool.size());
+
+            task.run();
+            Assert.assertEquals(1, receiveCount.get());
+            Assert.assertEquals(1, pool.size());
+            Assert.assertEquals(task.getPacket().getData().length, task.getPacket().getLength());
+
+            // returned only once
+            task.returnObject();
+            Assert.assertEquals(1, pool.size());
+
+            PooledObject<PacketDispatchTask> reused = pool.getObject();
+            Assert.assertSame(task, reused.getObject());
+        } finally {
+            socket.close();
+        }
+    }
+
+}
@@ -117,6 +117,16 @@ public final class HBaseTables {
     public static final TableName MAP_STATISTICS_SELF_VER2 = TableName.valueOf("ApplicationMapStatisticsSelf_Ver2");
     public static final byte[] MAP_STATISTICS_SELF_VER2_CF_COUNTER = Bytes.toBytes("C");
 
+    // rollup of MAP_STATISTICS_*_VER2, see MapStatisticsRollup
+    public static final TableName MAP_STATISTICS_CALLER_VER2_5M = TableName.valueOf("ApplicationMapStatisticsCaller_Ver2_5m");
+    public static final TableName MAP_STATISTICS_CALLER_VER2_1H = TableName.valueOf("ApplicationMapStatisticsCaller_Ver2_1h");
+
+    public static final TableName MAP_STATISTICS_CALLEE_VER2_5M = TableName.valueOf("ApplicationMapStatisticsCallee_Ver2_5m");
+    public static final TableName MAP_STATISTICS_CALLEE_VER2_1H = TableName.valueOf("ApplicationMapStatisticsCallee_Ver2_1h");
+
+    public static final TableName MAP_STATISTICS_SELF_VER2_5M = TableName.valueOf("ApplicationMapStatisticsSelf_Ver2_5m");
+    public static final TableName MAP_STATISTICS_SELF_VER2_1H = TableName.valueOf("ApplicationMapStatisticsSelf_Ver2_1h");
+
     public static final TableName HOST_APPLICATION_MAP_VER2 = TableName.valueOf("HostApplicationMap_Ver2");
     public static final byte[] HOST_APPLICATION_MAP_VER2_CF_MAP = Bytes.toBytes("M");
 
@@ -74,6 +74,14 @@ public interface HbaseOperations2 {
     void put(TableName tableName, final Put put);
     void put(TableName tableName, final List<Put> puts);
 
+    /**
+     * Atomically applies the put if the column holds the compare value.
+     *
+     * @param compareValue expected value of the column, null to check the column does not exist
+     * @return true if the put was applied
+     */
+    boolean checkAndPut(TableName tableName, final byte[] rowName, final byte[] familyName, final byte[] qualifier, final byte[] compareValue, final Put put);
+
     /**
      * If asyncOperation is not set, then execute put method instead of asyncPut method.
      */
@@ -368,6 +368,17 @@ public class HbaseTemplate2 extends HbaseAccessor implements HbaseOperations2, I
         });
     }
 
+    @Override
+    public boolean checkAndPut(TableName tableName, final byte[] rowName, final byte[] familyName, final byte[] qualifier, final byte[] compareValue, final Put put) {
+        assertAccessAvailable();
+        return execute(tableName, new TableCallback<Boolean>() {
+            @Override
+            public Boolean doInTable(Table table) throws Throwable {
+                return table.checkAndPut(rowName, familyName, qualifier, compareValue, put);
+            }
+        });
+    }
+
     @Override
     public boolean asyncPut(TableName tableName, byte[] rowName, byte[] familyName, byte[] qualifier, byte[] value) {
         return asyncPut(tableName, rowName, familyName, qualifier, null, value);
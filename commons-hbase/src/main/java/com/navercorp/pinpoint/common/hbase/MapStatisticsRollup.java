@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase;
+
+import com.navercorp.pinpoint.common.util.DefaultTimeSlot;
+import com.navercorp.pinpoint.common.util.TimeSlot;
+import org.apache.hadoop.hbase.TableName;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coarser resolutions of the 1 minute map statistics tables.
+ * A rollup table has the same row key, column family and column layout as its source table,
+ * the row key only holds the start of the rollup time slot instead of the minute.
+ *
+ * @see HBaseTables#MAP_STATISTICS_CALLER_VER2
+ * @see HBaseTables#MAP_STATISTICS_CALLEE_VER2
+ * @see HBaseTables#MAP_STATISTICS_SELF_VER2
+ */
+public enum MapStatisticsRollup {
+
+    FIVE_MINUTES(TimeUnit.MINUTES.toMillis(5), HBaseTables.MAP_STATISTICS_CALLER_VER2_5M, HBaseTables.MAP_STATISTICS_CALLEE_VER2_5M, HBaseTables.MAP_STATISTICS_SELF_VER2_5M),
+    // no coarser rollup, the web never uses a time window over 1 hour
+    ONE_HOUR(TimeUnit.HOURS.toMillis(1), HBaseTables.MAP_STATISTICS_CALLER_VER2_1H, HBaseTables.MAP_STATISTICS_CALLEE_VER2_1H, HBaseTables.MAP_STATISTICS_SELF_VER2_1H);
+
+    private final long resolution;
+    private final TimeSlot timeSlot;
+    private final TableName callerTable;
+    private final TableName calleeTable;
+    private final TableName selfTable;
+
+    MapStatisticsRollup(long resolution, TableName callerTable, TableName calleeTable, TableName selfTable) {
+        this.resolution = resolution;
+        this.timeSlot = new DefaultTimeSlot(resolution);
+        this.callerTable = callerTable;
+        this.calleeTable = calleeTable;
+        this.selfTable = selfTable;
+    }
+
+    public long getResolution() {
+        return resolution;
+    }
+
+    public long getTimeSlot(long time) {
+        return timeSlot.getTimeSlot(time);
+    }
+
+    /**
+     * @return rollup of {@link HBaseTables#MAP_STATISTICS_CALLER_VER2}
+     */
+    public TableName getCallerTable() {
+        return callerTable;
+    }
+
+    /**
+     * @return rollup of {@link HBaseTables#MAP_STATISTICS_CALLEE_VER2}
+     */
+    public TableName getCalleeTable() {
+        return calleeTable;
+    }
+
+    /**
+     * @return rollup of {@link HBaseTables#MAP_STATISTICS_SELF_VER2}
+     */
+    public TableName getSelfTable() {
+        return selfTable;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.journal;
+
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Mutation;
+
+public class DisabledMutationJournal implements MutationJournal {
+
+    public static final DisabledMutationJournal INSTANCE = new DisabledMutationJournal();
+
+    @Override
+    public boolean isAvailable() {
+        return false;
+    }
+
+    @Override
+    public boolean append(TableName tableName, Mutation mutation) {
+        return false;
+    }
+
+    @Override
+    public int replay(JournalReplayHandler handler) {
+        return 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return true;
+    }
+
+    @Override
+    public long getAppendCount() {
+        return -1L;
+    }
+
+    @Override
+    public long getReplayCount() {
+        return -1L;
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return -1L;
+    }
+
+    @Override
+    public int getSegmentCount() {
+        return 0;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.journal;
+
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Increment;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.Put;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically replays the {@link MutationJournal} into HBase.
+ * Replay stops at the first failed mutation and resumes from it on the next period.
+ */
+public class JournalReplayer implements JournalReplayHandler {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final MutationJournal journal;
+    private final HbaseOperations2 hbaseTemplate;
+    private final long replayPeriodMillis;
+
+    private ScheduledExecutorService executor;
+
+    public JournalReplayer(MutationJournal journal, HbaseOperations2 hbaseTemplate, long replayPeriodMillis) {
+        if (journal == null) {
+            throw new NullPointerException("journal must not be null");
+        }
+        if (hbaseTemplate == null) {
+            throw new NullPointerException("hbaseTemplate must not be null");
+        }
+        if (replayPeriodMillis <= 0) {
+            throw new IllegalArgumentException("replayPeriodMillis must be positive");
+        }
+        this.journal = journal;
+        this.hbaseTemplate = hbaseTemplate;
+        this.replayPeriodMillis = replayPeriodMillis;
+    }
+
+    public void start() {
+        if (!journal.isAvailable()) {
+            return;
+        }
+        this.executor = Executors.newSingleThreadScheduledExecutor(PinpointThreadFactory.createThreadFactory(this.getClass().getSimpleName(), true));
+        this.executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                replay();
+            }
+        }, replayPeriodMillis, replayPeriodMillis, TimeUnit.MILLISECONDS);
+        logger.info("{} started. replayPeriod:{}", this.getClass().getSimpleName(), replayPeriodMillis);
+    }
+
+    public void stop() {
+        final ScheduledExecutorService executor = this.executor;
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(3000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.executor = null;
+    }
+
+    int replay() {
+        try {
+            if (journal.isEmpty()) {
+                return 0;
+            }
+            final int replayed = journal.replay(this);
+            if (replayed > 0) {
+                logger.info("replayed {} mutations. journal segments:{}", replayed, journal.getSegmentCount());
+            }
+            return replayed;
+        } catch (Throwable th) {
+            logger.error("replay failed. Caused:{}", th.getMessage(), th);
+            return 0;
+        }
+    }
+
+    @Override
+    public boolean handle(TableName tableName, Mutation mutation) {
+        try {
+            if (mutation instanceof Put) {
+                hbaseTemplate.put(tableName, (Put) mutation);
+            } else if (mutation instanceof Increment) {
+                hbaseTemplate.increment(tableName, (Increment) mutation);
+            } else {
+                logger.warn("unsupported mutation:{}", mutation);
+            }
+            return true;
+        } catch (Exception e) {
+            // HBase not recovered yet
+            if (logger.isDebugEnabled()) {
+                logger.debug("replay {} failed, retry later. Caused:{}", tableName, e.getMessage(), e);
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.journal;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * Memory-mapped, append-only segment file.
+ * <pre>
+ * record : length(int) crc32(int) payload(length bytes)
+ * </pre>
+ * The length is written last, so a record torn by a crash reads as the end of the segment.
+ * Unused space of the file is zero-filled, and a zero length marks the end of the segment.
+ */
+final class JournalSegment implements Closeable {
+
+    static final String FILE_PREFIX = "journal-";
+    static final String FILE_SUFFIX = ".seg";
+
+    static final int RECORD_HEADER_SIZE = 8;
+
+    private final long sequence;
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    // guarded by MappedMutationJournal
+    private int writePosition;
+    private int recordCount;
+
+    private JournalSegment(long sequence, File file, RandomAccessFile randomAccessFile, MappedByteBuffer buffer) {
+        this.sequence = sequence;
+        this.file = file;
+        this.randomAccessFile = randomAccessFile;
+        this.buffer = buffer;
+        this.capacity = buffer.capacity();
+    }
+
+    static JournalSegment create(File directory, long sequence, int segmentSize) throws IOException {
+        final File file = new File(directory, getFileName(sequence));
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.setLength(segmentSize);
+            final MappedByteBuffer buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            return new JournalSegment(sequence, file, randomAccessFile, buffer);
+        } catch (IOException e) {
+            randomAccessFile.close();
+            throw e;
+        }
+    }
+
+    static JournalSegment open(File file) throws IOException {
+        final long sequence = parseSequence(file.getName());
+        if (sequence == -1) {
+            throw new IllegalArgumentException("invalid segment file:" + file);
+        }
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            final long length = randomAccessFile.length();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("segment too large:" + file);
+            }
+            final MappedByteBuffer buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+            final JournalSegment segment = new JournalSegment(sequence, file, randomAccessFile, buffer);
+            segment.recover();
+            return segment;
+        } catch (IOException e) {
+            randomAccessFile.close();
+            throw e;
+        }
+    }
+
+    static String getFileName(long sequence) {
+        return FILE_PREFIX + String.format("%020d", sequence) + FILE_SUFFIX;
+    }
+
+    static long parseSequence(String fileName) {
+        if (!fileName.startsWith(FILE_PREFIX) || !fileName.endsWith(FILE_SUFFIX)) {
+            return -1;
+        }
+        final String sequence = fileName.substring(FILE_PREFIX.length(), fileName.length() - FILE_SUFFIX.length());
+        try {
+            return Long.parseLong(sequence);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * finds the end of the valid records after restart
+     */
+    private void recover() {
+        int position = 0;
+        int count = 0;
+        while (true) {
+            final int next = nextPosition(position);
+            if (next == -1) {
+                break;
+            }
+            position = next;
+            count++;
+        }
+        this.writePosition = position;
+        this.recordCount = count;
+    }
+
+    boolean append(byte[] payload) {
+        final int position = this.writePosition;
+        final int recordSize = RECORD_HEADER_SIZE + payload.length;
+        if (recordSize > capacity - position) {
+            return false;
+        }
+        buffer.putInt(position + 4, crc32(payload));
+        final ByteBuffer writeBuffer = buffer.duplicate();
+        writeBuffer.position(position + RECORD_HEADER_SIZE);
+        writeBuffer.put(payload);
+        // commit
+        buffer.putInt(position, payload.length);
+        this.writePosition = position + recordSize;
+        this.recordCount++;
+        return true;
+    }
+
+    /**
+     * @return payload of the record at the given position, or null if there is no valid record
+     */
+    byte[] read(int position) {
+        final int length = readLength(position);
+        if (length <= 0) {
+            return null;
+        }
+        final byte[] payload = new byte[length];
+        final ByteBuffer readBuffer = buffer.duplicate();
+        readBuffer.position(position + RECORD_HEADER_SIZE);
+        readBuffer.get(payload);
+        final int crc = buffer.getInt(position + 4);
+        if (crc != crc32(payload)) {
+            return null;
+        }
+        return payload;
+    }
+
+    /**
+     * @return position of the next record, or -1 if there is no valid record at the given position
+     */
+    int nextPosition(int position) {
+        final byte[] payload = read(position);
+        if (payload == null) {
+            return -1;
+        }
+        return position + RECORD_HEADER_SIZE + payload.length;
+    }
+
+    private int readLength(int position) {
+        if (position < 0 || capacity - position < RECORD_HEADER_SIZE) {
+            return -1;
+        }
+        final int length = buffer.getInt(position);
+        if (length > capacity - position - RECORD_HEADER_SIZE) {
+            return -1;
+        }
+        return length;
+    }
+
+    private static int crc32(byte[] payload) {
+        final CRC32 crc32 = new CRC32();
+        crc32.update(payload, 0, payload.length);
+        return (int) crc32.getValue();
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    int getWritePosition() {
+        return writePosition;
+    }
+
+    int getRecordCount() {
+        return recordCount;
+    }
+
+    boolean isEmpty() {
+        return recordCount == 0;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        randomAccessFile.close();
+    }
+
+    boolean delete() {
+        try {
+            close();
+        } catch (IOException ignore) {
+            // skip
+        }
+        return file.delete();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("JournalSegment{");
+        sb.append("file=").append(file);
+        sb.append(", writePosition=").append(writePosition);
+        sb.append(", recordCount=").append(recordCount);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,378 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.journal;
+
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link MutationJournal} backed by memory-mapped segment files.
+ * <p>
+ * Mutations are appended to the active segment. When it is full, it is sealed and a new segment is created,
+ * as long as the number of segments stays within the disk quota. Replay reads sealed segments in order
+ * and deletes a segment once all of its mutations are replayed. The replay position is checkpointed
+ * when replay stops in the middle of a segment, so replay is at-least-once after a crash.
+ */
+public class MappedMutationJournal implements MutationJournal {
+
+    static final String CHECKPOINT_FILE_NAME = "journal.checkpoint";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final File directory;
+    private final int segmentSize;
+    private final int maxSegmentCount;
+
+    // guarded by this
+    private final Deque<JournalSegment> sealedSegments = new ArrayDeque<>();
+    private JournalSegment activeSegment;
+    private long nextSequence;
+    private boolean closed;
+
+    private final Object replayLock = new Object();
+    // position in the first sealed segment. guarded by replayLock
+    private int replayPosition;
+
+    private final AtomicLong appendCount = new AtomicLong();
+    private final AtomicLong replayCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    public MappedMutationJournal(File directory, int segmentSize, long maxDiskSize) throws IOException {
+        if (directory == null) {
+            throw new NullPointerException("directory must not be null");
+        }
+        if (segmentSize <= JournalSegment.RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("segmentSize too small:" + segmentSize);
+        }
+        if (maxDiskSize < segmentSize) {
+            throw new IllegalArgumentException("maxDiskSize must be greater than or equal to segmentSize");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegmentCount = (int) Math.min(Integer.MAX_VALUE, maxDiskSize / segmentSize);
+
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("can not create directory:" + directory);
+        }
+        if (!directory.isDirectory()) {
+            throw new IOException("not a directory:" + directory);
+        }
+        load();
+    }
+
+    private void load() throws IOException {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            throw new IOException("can not list directory:" + directory);
+        }
+        Arrays.sort(files);
+        long lastSequence = -1;
+        for (File file : files) {
+            final long sequence = JournalSegment.parseSequence(file.getName());
+            if (sequence == -1) {
+                continue;
+            }
+            lastSequence = Math.max(lastSequence, sequence);
+            final JournalSegment segment = JournalSegment.open(file);
+            if (segment.isEmpty()) {
+                segment.delete();
+                continue;
+            }
+            logger.info("recover {}", segment);
+            sealedSegments.add(segment);
+        }
+        this.nextSequence = lastSequence + 1;
+
+        final JournalSegment first = sealedSegments.peekFirst();
+        if (first != null) {
+            this.replayPosition = readCheckpoint(first.getSequence());
+        } else {
+            deleteCheckpoint();
+        }
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public boolean append(TableName tableName, Mutation mutation) {
+        if (tableName == null) {
+            throw new NullPointerException("tableName must not be null");
+        }
+        if (mutation == null) {
+            throw new NullPointerException("mutation must not be null");
+        }
+        if (!MutationCodec.isSupported(mutation)) {
+            return drop();
+        }
+        final byte[] payload = MutationCodec.encode(tableName, mutation);
+        if (JournalSegment.RECORD_HEADER_SIZE + payload.length > segmentSize) {
+            logger.warn("mutation too large. size:{}", payload.length);
+            return drop();
+        }
+
+        synchronized (this) {
+            if (closed) {
+                return drop();
+            }
+            if (activeSegment == null || !activeSegment.append(payload)) {
+                if (!roll()) {
+                    return drop();
+                }
+                if (!activeSegment.append(payload)) {
+                    return drop();
+                }
+            }
+        }
+        appendCount.incrementAndGet();
+        return true;
+    }
+
+    private boolean drop() {
+        droppedCount.incrementAndGet();
+        return false;
+    }
+
+    // guarded by this
+    private boolean roll() {
+        seal();
+        if (getSegmentCount0() >= maxSegmentCount) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("disk quota exceeded. segments:{}", getSegmentCount0());
+            }
+            return false;
+        }
+        try {
+            this.activeSegment = JournalSegment.create(directory, nextSequence++, segmentSize);
+            return true;
+        } catch (IOException e) {
+            logger.warn("segment create failed. Caused:{}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    // guarded by this
+    private void seal() {
+        final JournalSegment activeSegment = this.activeSegment;
+        if (activeSegment == null) {
+            return;
+        }
+        this.activeSegment = null;
+        if (activeSegment.isEmpty()) {
+            activeSegment.delete();
+            return;
+        }
+        activeSegment.force();
+        sealedSegments.addLast(activeSegment);
+    }
+
+    @Override
+    public int replay(JournalReplayHandler handler) {
+        if (handler == null) {
+            throw new NullPointerException("handler must not be null");
+        }
+        synchronized (replayLock) {
+            int count = 0;
+            JournalSegment segment;
+            while ((segment = nextReplaySegment()) != null) {
+                int position = this.replayPosition;
+                byte[] payload;
+                while ((payload = segment.read(position)) != null) {
+                    if (!replay(handler, payload)) {
+                        this.replayPosition = position;
+                        writeCheckpoint(segment.getSequence(), position);
+                        return count;
+                    }
+                    position += JournalSegment.RECORD_HEADER_SIZE + payload.length;
+                    count++;
+                }
+                removeReplayedSegment(segment);
+            }
+            return count;
+        }
+    }
+
+    private boolean replay(JournalReplayHandler handler, byte[] payload) {
+        final MutationCodec.JournalRecord record;
+        try {
+            record = MutationCodec.decode(payload);
+        } catch (Exception e) {
+            logger.warn("invalid journal record, skipped. Caused:{}", e.getMessage(), e);
+            return true;
+        }
+        try {
+            if (!handler.handle(record.getTableName(), record.getMutation())) {
+                return false;
+            }
+        } catch (Exception e) {
+            logger.warn("replay failed. Caused:{}", e.getMessage(), e);
+            return false;
+        }
+        replayCount.incrementAndGet();
+        return true;
+    }
+
+    private synchronized JournalSegment nextReplaySegment() {
+        if (closed) {
+            return null;
+        }
+        if (sealedSegments.isEmpty()) {
+            // replay the active segment as well
+            seal();
+        }
+        return sealedSegments.peekFirst();
+    }
+
+    private void removeReplayedSegment(JournalSegment segment) {
+        synchronized (this) {
+            sealedSegments.remove(segment);
+        }
+        if (!segment.delete()) {
+            logger.warn("segment delete failed. {}", segment);
+        }
+        this.replayPosition = 0;
+        deleteCheckpoint();
+    }
+
+    private int readCheckpoint(long sequence) {
+        final File checkpoint = new File(directory, CHECKPOINT_FILE_NAME);
+        if (!checkpoint.exists()) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(checkpoint))) {
+            final long checkpointSequence = in.readLong();
+            final int position = in.readInt();
+            if (checkpointSequence != sequence) {
+                return 0;
+            }
+            logger.info("replay checkpoint. sequence:{} position:{}", checkpointSequence, position);
+            return position;
+        } catch (IOException e) {
+            logger.warn("checkpoint read failed. Caused:{}", e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    private void writeCheckpoint(long sequence, int position) {
+        final File temp = new File(directory, CHECKPOINT_FILE_NAME + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(temp))) {
+            out.writeLong(sequence);
+            out.writeInt(position);
+        } catch (IOException e) {
+            logger.warn("checkpoint write failed. Caused:{}", e.getMessage(), e);
+            return;
+        }
+        final File checkpoint = new File(directory, CHECKPOINT_FILE_NAME);
+        if (!temp.renameTo(checkpoint)) {
+            logger.warn("checkpoint rename failed. {}", checkpoint);
+        }
+    }
+
+    private void deleteCheckpoint() {
+        final File checkpoint = new File(directory, CHECKPOINT_FILE_NAME);
+        if (checkpoint.exists() && !checkpoint.delete()) {
+            logger.warn("checkpoint delete failed. {}", checkpoint);
+        }
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        if (!sealedSegments.isEmpty()) {
+            return false;
+        }
+        return activeSegment == null || activeSegment.isEmpty();
+    }
+
+    @Override
+    public long getAppendCount() {
+        return appendCount.get();
+    }
+
+    @Override
+    public long getReplayCount() {
+        return replayCount.get();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    @Override
+    public synchronized int getSegmentCount() {
+        return getSegmentCount0();
+    }
+
+    private int getSegmentCount0() {
+        int count = sealedSegments.size();
+        if (activeSegment != null) {
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (activeSegment != null) {
+                activeSegment.force();
+                closeQuietly(activeSegment);
+            }
+            for (JournalSegment segment : sealedSegments) {
+                closeQuietly(segment);
+            }
+        }
+        logger.info("{} closed", this);
+    }
+
+    private void closeQuietly(JournalSegment segment) {
+        try {
+            segment.close();
+        } catch (IOException e) {
+            logger.warn("segment close failed. Caused:{}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("MappedMutationJournal{");
+        sb.append("directory=").append(directory);
+        sb.append(", segmentSize=").append(segmentSize);
+        sb.append(", maxSegmentCount=").append(maxSegmentCount);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.journal;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Increment;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.Put;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * Encodes a journal record.
+ * <pre>
+ * type(byte) tableName(prefixed string) row(prefixed bytes) columnCount(vint) columns...
+ * Put column : family(prefixed bytes) qualifier(prefixed bytes) timestamp(long) value(prefixed bytes)
+ * Increment column : family(prefixed bytes) qualifier(prefixed bytes) amount(svlong)
+ * </pre>
+ */
+final class MutationCodec {
+
+    static final byte TYPE_PUT = 1;
+    static final byte TYPE_INCREMENT = 2;
+
+    private MutationCodec() {
+    }
+
+    static boolean isSupported(Mutation mutation) {
+        return mutation instanceof Put || mutation instanceof Increment;
+    }
+
+    static byte[] encode(TableName tableName, Mutation mutation) {
+        if (tableName == null) {
+            throw new NullPointerException("tableName must not be null");
+        }
+        if (mutation instanceof Put) {
+            return encodePut(tableName, (Put) mutation);
+        }
+        if (mutation instanceof Increment) {
+            return encodeIncrement(tableName, (Increment) mutation);
+        }
+        throw new IllegalArgumentException("unsupported mutation:" + mutation);
+    }
+
+    private static byte[] encodePut(TableName tableName, Put put) {
+        final Buffer buffer = new AutomaticBuffer(256);
+        buffer.putByte(TYPE_PUT);
+        buffer.putPrefixedString(tableName.getNameAsString());
+        buffer.putPrefixedBytes(put.getRow());
+        buffer.putVInt(put.size());
+        for (List<Cell> cellList : put.getFamilyCellMap().values()) {
+            for (Cell cell : cellList) {
+                buffer.putPrefixedBytes(CellUtil.cloneFamily(cell));
+                buffer.putPrefixedBytes(CellUtil.cloneQualifier(cell));
+                buffer.putLong(cell.getTimestamp());
+                buffer.putPrefixedBytes(CellUtil.cloneValue(cell));
+            }
+        }
+        return buffer.getBuffer();
+    }
+
+    private static byte[] encodeIncrement(TableName tableName, Increment increment) {
+        final Buffer buffer = new AutomaticBuffer(256);
+        buffer.putByte(TYPE_INCREMENT);
+        buffer.putPrefixedString(tableName.getNameAsString());
+        buffer.putPrefixedBytes(increment.getRow());
+        final Map<byte[], NavigableMap<byte[], Long>> familyMap = increment.getFamilyMapOfLongs();
+        int columnCount = 0;
+        for (NavigableMap<byte[], Long> columnMap : familyMap.values()) {
+            columnCount += columnMap.size();
+        }
+        buffer.putVInt(columnCount);
+        for (Map.Entry<byte[], NavigableMap<byte[], Long>> familyEntry : familyMap.entrySet()) {
+            for (Map.Entry<byte[], Long> columnEntry : familyEntry.getValue().entrySet()) {
+                buffer.putPrefixedBytes(familyEntry.getKey());
+                buffer.putPrefixedBytes(columnEntry.getKey());
+                buffer.putSVLong(columnEntry.getValue());
+            }
+        }
+        return buffer.getBuffer();
+    }
+
+    static JournalRecord decode(byte[] bytes) {
+        final Buffer buffer = new FixedBuffer(bytes);
+        final byte type = buffer.readByte();
+        final TableName tableName = TableName.valueOf(buffer.readPrefixedString());
+        final byte[] row = buffer.readPrefixedBytes();
+        final int columnCount = buffer.readVInt();
+        switch (type) {
+            case TYPE_PUT:
+                final Put put = new Put(row);
+                for (int i = 0; i < columnCount; i++) {
+                    final byte[] family = buffer.readPrefixedBytes();
+                    final byte[] qualifier = buffer.readPrefixedBytes();
+                    final long timestamp = buffer.readLong();
+                    final byte[] value = buffer.readPrefixedBytes();
+                    put.addColumn(family, qualifier, timestamp, value);
+                }
+                return new JournalRecord(tableName, put);
+            case TYPE_INCREMENT:
+                final Increment increment = new Increment(row);
+                for (int i = 0; i < columnCount; i++) {
+                    final byte[] family = buffer.readPrefixedBytes();
+                    final byte[] qualifier = buffer.readPrefixedBytes();
+                    final long amount = buffer.readSVLong();
+                    increment.addColumn(family, qualifier, amount);
+                }
+                return new JournalRecord(tableName, increment);
+            default:
+                throw new IllegalStateException("unknown type:" + type);
+        }
+    }
+
+    static final class JournalRecord {
+        private final TableName tableName;
+        private final Mutation mutation;
+
+        JournalRecord(TableName tableName, Mutation mutation) {
+            this.tableName = tableName;
+            this.mutation = mutation;
+        }
+
+        TableName getTableName() {
+            return tableName;
+        }
+
+        Mutation getMutation() {
+            return mutation;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.journal;
+
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Mutation;
+
+/**
+ * Local journal of {@link org.apache.hadoop.hbase.client.Put}/{@link org.apache.hadoop.hbase.client.Increment} mutations
+ * which could not be written to HBase. Mutations are replayed in the order they were appended.
+ */
+public interface MutationJournal {
+
+    boolean isAvailable();
+
+    /**
+     * @return false if the mutation is not supported or the disk quota is exceeded
+     */
+    boolean append(TableName tableName, Mutation mutation);
+
+    /**
+     * Replays journaled mutations until the handler fails or the journal is empty.
+     *
+     * @return number of replayed mutations
+     */
+    int replay(JournalReplayHandler handler);
+
+    boolean isEmpty();
+
+    long getAppendCount();
+
+    long getReplayCount();
+
+    long getDroppedCount();
+
+    int getSegmentCount();
+
+    void close();
+}
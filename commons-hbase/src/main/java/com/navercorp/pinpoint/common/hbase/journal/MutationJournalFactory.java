@@ -0,0 +1,42 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+
+public class MutationJournalFactory {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MutationJournalFactory.class);
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    public static final long DEFAULT_MAX_DISK_SIZE = 1024L * 1024 * 1024;
+
+    public static MutationJournal create(boolean enable, String directory, int segmentSize, long maxDiskSize) throws IOException {
+        if (!enable) {
+            return DisabledMutationJournal.INSTANCE;
+        }
+        if (directory == null || directory.isEmpty()) {
+            throw new IllegalArgumentException("directory must not be empty");
+        }
+        LOGGER.info("create MutationJournal. directory:{} segmentSize:{} maxDiskSize:{}", directory, segmentSize, maxDiskSize);
+        return new MappedMutationJournal(new File(directory), segmentSize, maxDiskSize);
+    }
+}
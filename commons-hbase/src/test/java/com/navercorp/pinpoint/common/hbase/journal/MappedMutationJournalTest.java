@@ -0,0 +1,209 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.journal;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Increment;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MappedMutationJournalTest {
+
+    private static final TableName TABLE_NAME = TableName.valueOf("TraceV2");
+    private static final byte[] FAMILY = Bytes.toBytes("S");
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void appendAndReplay() throws IOException {
+        MappedMutationJournal journal = new MappedMutationJournal(directory, 1024, 1024 * 4);
+        try {
+            Assert.assertTrue(journal.isEmpty());
+            Assert.assertTrue(journal.append(TABLE_NAME, newPut("tx1", "span1", 1000)));
+
+            Increment increment = new Increment(Bytes.toBytes("row"));
+            increment.addColumn(FAMILY, Bytes.toBytes("count"), 10);
+            Assert.assertTrue(journal.append(TABLE_NAME, increment));
+            Assert.assertFalse(journal.isEmpty());
+
+            CollectHandler handler = new CollectHandler(Integer.MAX_VALUE);
+            Assert.assertEquals(2, journal.replay(handler));
+
+            Put put = (Put) handler.mutationList.get(0);
+            Assert.assertArrayEquals(Bytes.toBytes("tx1"), put.getRow());
+            Cell cell = put.get(FAMILY, Bytes.toBytes("span1")).get(0);
+            Assert.assertEquals(1000, cell.getTimestamp());
+            Assert.assertArrayEquals(Bytes.toBytes("span1"), CellUtil.cloneValue(cell));
+
+            Increment replayedIncrement = (Increment) handler.mutationList.get(1);
+            Assert.assertEquals(10L, (long) replayedIncrement.getFamilyMapOfLongs().get(FAMILY).get(Bytes.toBytes("count")));
+
+            Assert.assertTrue(journal.isEmpty());
+            Assert.assertEquals(0, journal.getSegmentCount());
+            Assert.assertEquals(2, journal.getReplayCount());
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void replay_resume() throws IOException {
+        MappedMutationJournal journal = new MappedMutationJournal(directory, 1024, 1024 * 4);
+        try {
+            for (int i = 0; i < 3; i++) {
+                journal.append(TABLE_NAME, newPut("tx" + i, "span", i));
+            }
+            // hbase fails on the second mutation
+            CollectHandler handler = new CollectHandler(1);
+            Assert.assertEquals(1, journal.replay(handler));
+            Assert.assertFalse(journal.isEmpty());
+
+            CollectHandler retry = new CollectHandler(Integer.MAX_VALUE);
+            Assert.assertEquals(2, journal.replay(retry));
+            Assert.assertArrayEquals(Bytes.toBytes("tx1"), retry.mutationList.get(0).getRow());
+            Assert.assertArrayEquals(Bytes.toBytes("tx2"), retry.mutationList.get(1).getRow());
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void recover() throws IOException {
+        MappedMutationJournal journal = new MappedMutationJournal(directory, 1024, 1024 * 4);
+        for (int i = 0; i < 3; i++) {
+            journal.append(TABLE_NAME, newPut("tx" + i, "span", i));
+        }
+        journal.replay(new CollectHandler(1));
+        journal.close();
+
+        // restart
+        MappedMutationJournal recovered = new MappedMutationJournal(directory, 1024, 1024 * 4);
+        try {
+            CollectHandler handler = new CollectHandler(Integer.MAX_VALUE);
+            Assert.assertEquals(2, recovered.replay(handler));
+            Assert.assertArrayEquals(Bytes.toBytes("tx1"), handler.mutationList.get(0).getRow());
+            Assert.assertTrue(recovered.isEmpty());
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    public void recover_tornRecord() throws IOException {
+        MappedMutationJournal journal = new MappedMutationJournal(directory, 1024, 1024 * 4);
+        journal.append(TABLE_NAME, newPut("tx0", "span", 0));
+        journal.append(TABLE_NAME, newPut("tx1", "span", 1));
+        journal.close();
+
+        // corrupt the payload of the last record
+        File segmentFile = new File(directory, JournalSegment.getFileName(0));
+        RandomAccessFile file = new RandomAccessFile(segmentFile, "rw");
+        try {
+            final int firstRecordLength = file.readInt();
+            final long secondPayloadOffset = JournalSegment.RECORD_HEADER_SIZE * 2 + firstRecordLength;
+            file.seek(secondPayloadOffset);
+            file.writeByte(~file.readByte());
+        } finally {
+            file.close();
+        }
+
+        MappedMutationJournal recovered = new MappedMutationJournal(directory, 1024, 1024 * 4);
+        try {
+            CollectHandler handler = new CollectHandler(Integer.MAX_VALUE);
+            Assert.assertEquals(1, recovered.replay(handler));
+            Assert.assertArrayEquals(Bytes.toBytes("tx0"), handler.mutationList.get(0).getRow());
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    public void diskQuota() throws IOException {
+        MappedMutationJournal journal = new MappedMutationJournal(directory, 128, 256);
+        try {
+            int appended = 0;
+            while (journal.append(TABLE_NAME, newPut("tx" + appended, "span", appended))) {
+                appended++;
+            }
+            Assert.assertTrue(appended > 0);
+            Assert.assertEquals(2, journal.getSegmentCount());
+            Assert.assertEquals(1, journal.getDroppedCount());
+
+            CollectHandler handler = new CollectHandler(Integer.MAX_VALUE);
+            Assert.assertEquals(appended, journal.replay(handler));
+            // space is available again
+            Assert.assertTrue(journal.append(TABLE_NAME, newPut("tx", "span", 0)));
+        } finally {
+            journal.close();
+        }
+    }
+
+    private Put newPut(String rowKey, String qualifier, long timestamp) {
+        Put put = new Put(Bytes.toBytes(rowKey));
+        put.addColumn(FAMILY, Bytes.toBytes(qualifier), timestamp, Bytes.toBytes(qualifier));
+        return put;
+    }
+
+    private static class CollectHandler implements JournalReplayHandler {
+        private final int limit;
+        private final List<Mutation> mutationList = new ArrayList<>();
+
+        private CollectHandler(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean handle(TableName tableName, Mutation mutation) {
+            Assert.assertEquals(TABLE_NAME, tableName);
+            if (mutationList.size() >= limit) {
+                return false;
+            }
+            mutationList.add(mutation);
+            return true;
+        }
+    }
+}
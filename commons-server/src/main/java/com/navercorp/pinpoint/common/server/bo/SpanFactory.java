@@ -14,6 +14,7 @@ import com.navercorp.pinpoint.thrift.dto.TIntStringValue;
 import com.navercorp.pinpoint.thrift.dto.TSpan;
 import com.navercorp.pinpoint.thrift.dto.TSpanChunk;
 import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
+import com.navercorp.pinpoint.thrift.dto.TraceConstants;
 import org.apache.commons.collections.CollectionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -53,7 +54,7 @@ public class SpanFactory {
         final SpanBo spanBo = newSpanBo(tSpan);
 
         List<TSpanEvent> spanEventList = tSpan.getSpanEventList();
-        List<SpanEventBo> spanEventBoList = buildSpanEventBoList(spanEventList);
+        List<SpanEventBo> spanEventBoList = buildSpanEventBoList(spanEventList, tSpan.getVersion());
         spanBo.addSpanEventBoList(spanEventBoList);
 
         long acceptedTime = acceptedTimeService.getAcceptedTime();
@@ -168,7 +169,7 @@ public class SpanFactory {
         final SpanChunkBo spanChunkBo = newSpanChunkBo(tSpanChunk);
 
         List<TSpanEvent> spanEventList = tSpanChunk.getSpanEventList();
-        List<SpanEventBo> spanEventBoList = buildSpanEventBoList(spanEventList);
+        List<SpanEventBo> spanEventBoList = buildSpanEventBoList(spanEventList, tSpanChunk.getVersion());
         spanChunkBo.addSpanEventBoList(spanEventBoList);
 
 
@@ -211,13 +212,28 @@ public class SpanFactory {
     }
 
 
-    private List<SpanEventBo> buildSpanEventBoList(List<TSpanEvent> spanEventList) {
+    private List<SpanEventBo> buildSpanEventBoList(List<TSpanEvent> spanEventList, byte version) {
         if (CollectionUtils.isEmpty(spanEventList)) {
             return new ArrayList<SpanEventBo>();
         }
+        final boolean compressed = version == TraceConstants.TRACE_V2;
+        // v2 : startElapsed is the delta from the previous event, and the depth is omitted if it is the same as the previous event
+        int startElapsed = 0;
+        int depth = -1;
+
         List<SpanEventBo> spanEventBoList = new ArrayList<SpanEventBo>(spanEventList.size());
         for (TSpanEvent tSpanEvent : spanEventList) {
             final SpanEventBo spanEventBo = buildSpanEventBo(tSpanEvent);
+            if (compressed) {
+                // must be restored before filtering, as the following events refer to this one
+                startElapsed += tSpanEvent.getStartElapsed();
+                spanEventBo.setStartElapsed(startElapsed);
+                if (tSpanEvent.isSetDepth()) {
+                    depth = tSpanEvent.getDepth();
+                } else {
+                    spanEventBo.setDepth(depth);
+                }
+            }
             if (!spanEventFilter.filter(spanEventBo)) {
                 continue;
             }
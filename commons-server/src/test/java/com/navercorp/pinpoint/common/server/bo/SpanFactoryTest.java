@@ -6,10 +6,13 @@ import com.navercorp.pinpoint.common.util.TransactionIdUtils;
 import com.navercorp.pinpoint.thrift.dto.TSpan;
 import com.navercorp.pinpoint.thrift.dto.TSpanChunk;
 import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
+import com.navercorp.pinpoint.thrift.dto.TraceConstants;
 import org.apache.commons.lang3.RandomUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.List;
+
 /**
  * @author Woonduk Kang(emeroad)
  */
@@ -151,4 +154,56 @@ public class SpanFactoryTest {
         Assert.assertEquals(transactionId.getTransactionSequence(), 2);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testBuildSpanBo_v2() throws Exception {
+        TSpan tSpan = random.randomTSpan();
+        tSpan.setVersion(TraceConstants.TRACE_V2);
+        tSpan.setSpanEventList(newCompressedSpanEventList());
+
+        SpanBo spanBo = spanFactory.buildSpanBo(tSpan);
+
+        assertDecompressedSpanEventList(spanBo.getSpanEventBoList());
+    }
+
+    @Test
+    public void testBuildSpanChunkBo_v2() throws Exception {
+        TSpanChunk tSpanChunk = random.randomTSpanChunk();
+        tSpanChunk.setVersion(TraceConstants.TRACE_V2);
+        tSpanChunk.setSpanEventList(newCompressedSpanEventList());
+
+        SpanChunkBo spanChunkBo = spanFactory.buildSpanChunkBo(tSpanChunk);
+
+        assertDecompressedSpanEventList(spanChunkBo.getSpanEventBoList());
+    }
+
+    private List<TSpanEvent> newCompressedSpanEventList() {
+        // startElapsed 10, 15, 15, 40 / depth 1, 2, 2, 1
+        TSpanEvent tSpanEvent1 = newTSpanEvent((short) 0, 10, 1);
+        TSpanEvent tSpanEvent2 = newTSpanEvent((short) 1, 5, 2);
+        TSpanEvent tSpanEvent3 = newTSpanEvent((short) 2, 0, 2);
+        // same depth as the previous event
+        tSpanEvent3.unsetDepth();
+        TSpanEvent tSpanEvent4 = newTSpanEvent((short) 3, 25, 1);
+        return Lists.newArrayList(tSpanEvent1, tSpanEvent2, tSpanEvent3, tSpanEvent4);
+    }
+
+    private TSpanEvent newTSpanEvent(short sequence, int startElapsed, int depth) {
+        TSpanEvent tSpanEvent = new TSpanEvent();
+        tSpanEvent.setSequence(sequence);
+        tSpanEvent.setStartElapsed(startElapsed);
+        tSpanEvent.setDepth(depth);
+        return tSpanEvent;
+    }
+
+    private void assertDecompressedSpanEventList(List<SpanEventBo> spanEventBoList) {
+        Assert.assertEquals(4, spanEventBoList.size());
+        final int[] startElapsed = {10, 15, 15, 40};
+        final int[] depth = {1, 2, 2, 1};
+        for (int i = 0; i < spanEventBoList.size(); i++) {
+            SpanEventBo spanEventBo = spanEventBoList.get(i);
+            Assert.assertEquals(i, spanEventBo.getSequence());
+            Assert.assertEquals(startElapsed[i], spanEventBo.getStartElapsed());
+            Assert.assertEquals(depth[i], spanEventBo.getDepth());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.util;
+
+/**
+ * Metadata (sql, api, string) ids derived from the content instead of a sequence.
+ * Such metadata is not bound to a single agent run, so it is stored with {@link #CONTENT_HASH_AGENT_START_TIME}.
+ */
+public final class ContentHashUtils {
+
+    public static final long CONTENT_HASH_AGENT_START_TIME = 0;
+
+    /**
+     * Failure message of a metadata request whose id is taken by a different content. The agent assigns the next candidate id.
+     */
+    public static final String ID_CONFLICT_MESSAGE = "CONTENT_HASH_ID_CONFLICT";
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // golden ratio, odd so that probing visits every int
+    private static final int PROBE_STEP = 0x9E3779B9;
+
+    private ContentHashUtils() {
+    }
+
+    public static boolean isContentHashAgentStartTime(long agentStartTime) {
+        return agentStartTime == CONTENT_HASH_AGENT_START_TIME;
+    }
+
+    /**
+     * 64bit FNV-1a hash of the chars, stable across jvm and platform.
+     */
+    public static long fingerprint(String value) {
+        if (value == null) {
+            throw new NullPointerException("value must not be null");
+        }
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            final char ch = value.charAt(i);
+            hash ^= ch & 0xff;
+            hash *= FNV_PRIME;
+            hash ^= ch >>> 8;
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    // murmur3 finalizer
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * @param probe collision count, 0 for the first candidate
+     * @return candidate id of the fingerprint, may be 0 which means not exist
+     */
+    public static int toId(long fingerprint, int probe) {
+        final int id = (int) (fingerprint ^ (fingerprint >>> 32));
+        return id + probe * PROBE_STEP;
+    }
+}
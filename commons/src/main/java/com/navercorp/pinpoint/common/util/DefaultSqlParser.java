@@ -33,9 +33,27 @@ public class DefaultSqlParser implements SqlParser {
     private static final int NEXT_TOKEN_NOT_EXIST = -1;
     private static final int NORMALIZED_SQL_BUFFER = 32;
 
+    // literals of a list(IN, VALUES) kept before the rest is collapsed
+    public static final int DEFAULT_MAX_LITERAL_RUN = 32;
+    static final String COLLAPSED_LITERALS = "...";
+
     private static final NormalizedSql NULL_OBJECT = new DefaultNormalizedSql("", "");
 
+    private final int maxLiteralRun;
+
     public DefaultSqlParser() {
+        this(DEFAULT_MAX_LITERAL_RUN);
+    }
+
+    /**
+     * @param maxLiteralRun literals of a consecutive literal list (e.g. <tt>IN (1, 2, 3)</tt>, multi row <tt>VALUES</tt>) kept in the normalized sql.
+     *                      The rest of the list is collapsed into <tt>...</tt>, so the normalized sql does not depend on the length of the list.
+     */
+    public DefaultSqlParser(int maxLiteralRun) {
+        if (maxLiteralRun <= 0) {
+            throw new IllegalArgumentException("maxLiteralRun must be positive");
+        }
+        this.maxLiteralRun = maxLiteralRun;
     }
 
 
@@ -44,216 +62,347 @@ public class DefaultSqlParser implements SqlParser {
         if (sql == null) {
             return NULL_OBJECT;
         }
+        return new Normalizer(sql, maxLiteralRun).normalize();
+    }
 
-        final int length = sql.length();
-        final StringBuilder normalized = new StringBuilder(length + NORMALIZED_SQL_BUFFER);
-        final StringBuilder parsedParameter = new StringBuilder(32);
-        boolean change = false;
-        int replaceIndex = 0;
-        boolean numberTokenStartEnable = true;
-        for (int i = 0; i < length; i++) {
-            final char ch = sql.charAt(i);
-            switch (ch) {
-                // COMMENT start check
-                case '/':
-                    // comment state
-                    final int lookAhead1Char = lookAhead1(sql, i);
-                    // multi line comment and oracle hint /*+ */
-                    if (lookAhead1Char == '*') {
-                        normalized.append("/*");
-                        i += 2;
-                        for (; i < length; i++) {
-                            char stateCh = sql.charAt(i);
-                            if (stateCh == '*') {
-                                if (lookAhead1(sql, i) == '/') {
-                                    normalized.append("*/");
-                                    i++;
-                                    break;
-                                }
-                            }
-                            normalized.append(stateCh);
+    /**
+     * Single pass tokenizer.
+     * Unchanged ranges of the sql are copied in bulk, and the buffers are allocated on the first literal,
+     * so a sql without literals (e.g. PreparedStatement) is returned as it is without copy.
+     */
+    private static class Normalizer {
+
+        private final String sql;
+        private final int length;
+        private final int maxLiteralRun;
+
+        private StringBuilder normalized;
+        private StringBuilder parsedParameter;
+        // start of the range not copied to normalized yet
+        private int copyStart = 0;
+        private int replaceIndex = 0;
+
+        // literal list state
+        private int literalRun = 0;
+        private int depth = 0;
+        private boolean collapsed = false;
+        private int collapsedDepth;
+        private boolean collapsedWhitespace;
+
+        private Normalizer(String sql, int maxLiteralRun) {
+            this.sql = sql;
+            this.length = sql.length();
+            this.maxLiteralRun = maxLiteralRun;
+        }
+
+        private NormalizedSql normalize() {
+            boolean numberTokenStartEnable = true;
+            for (int i = 0; i < length; i++) {
+                final char ch = sql.charAt(i);
+                switch (ch) {
+                    // COMMENT start check
+                    case '/':
+                        // comment state
+                        final int lookAhead1Char = lookAhead1(sql, i);
+                        breakLiteralRun(i);
+                        // multi line comment and oracle hint /*+ */
+                        if (lookAhead1Char == '*') {
+                            i = skipMultiLineComment(i + 2);
+                            break;
+                            // single line comment
+                        } else if (lookAhead1Char == '/') {
+                            i = skipLine(i + 2);
+                            break;
+                        } else {
+                            // unary operator
+                            numberTokenStartEnable = true;
+                            break;
                         }
+//                    case '#'
+//                        # is a single line comment in mysql
+                    case '-':
+                        // single line comment state
+                        if (lookAhead1(sql, i) == '-') {
+                            breakLiteralRun(i);
+                            i = skipLine(i + 2);
+                            break;
+                        } else {
+                            // unary operator, negative number of a literal list
+                            numberTokenStartEnable = true;
+                            skipIfCollapsed(i, false);
+                            break;
+                        }
+
+                        // SYMBOL start check
+                    case '\'':
+                        // empty symbol
+                        if (lookAhead1(sql, i) == '\'') {
+                            // no need to add parameter to output as $ is not converted
+                            literal(i, i + 2);
+                            i++;
+                            break;
+                        } else {
+                            i = symbol(i);
+                            break;
+                        }
+
+                        // number start check
+                    case '0':
+                    case '1':
+                    case '2':
+                    case '3':
+                    case '4':
+                    case '5':
+                    case '6':
+                    case '7':
+                    case '8':
+                    case '9':
+                        // http://www.h2database.com/html/grammar.html look at the state machine more
+                        if (numberTokenStartEnable) {
+                            i = number(i);
+                            break;
+                        } else {
+                            breakLiteralRun(i);
+                            break;
+                        }
+
+                        // empty space
+                    case ' ':
+                    case '\t':
+                    case '\n':
+                    case '\r':
+                        numberTokenStartEnable = true;
+                        skipIfCollapsed(i, true);
                         break;
-                        // single line comment
-                    } else if (lookAhead1Char == '/') {
-                        normalized.append("//");
-                        i += 2;
-                        i = readLine(sql, normalized, i);
+                    // http://msdn.microsoft.com/en-us/library/ms174986.aspx
+                    case '*':
+                    case '+':
+                    case '%':
+                    case '=':
+                    case '<':
+                    case '>':
+                    case '&':
+                    case '|':
+                    case '^':
+                    case '~':
+                    case '!':
+                        numberTokenStartEnable = true;
+                        breakLiteralRun(i);
                         break;
 
-                    } else {
-                        // unary operator
+                    case '(':
                         numberTokenStartEnable = true;
-                        normalized.append(ch);
+                        depth++;
+                        skipIfCollapsed(i, false);
                         break;
-                    }
-//                case '#'
-//                    # is a single line comment in mysql
-                case '-':
-                    // single line comment state
-                    if (lookAhead1(sql, i) == '-') {
-                        normalized.append("--");
-                        i += 2;
-                        i = readLine(sql, normalized, i);
+                    case ')':
+                        numberTokenStartEnable = true;
+                        depth--;
+                        skipIfCollapsed(i, false);
                         break;
-                    } else {
-                        // unary operator
+                    case ',':
                         numberTokenStartEnable = true;
-                        normalized.append(ch);
+                        skipIfCollapsed(i, false);
+                        break;
+                    case ';':
+                        numberTokenStartEnable = true;
+                        breakLiteralRun(i);
                         break;
-                    }
 
-                    // SYMBOL start check
-                case '\'':
-                    // empty symbol
-                    if (lookAhead1(sql, i) == '\'') {
-                        normalized.append("''");
-                        // no need to add parameter to output as $ is not converted
-                        i += 2;
+                    case '?':
+                        // bind variable of a literal list
+                        numberTokenStartEnable = true;
+                        literal(i, i + 1);
                         break;
-                    } else {
-                        change = true;
-                        normalized.append('\'');
-                        i++;
-                        appendOutputSeparator(parsedParameter);
-                        for (; i < length; i++) {
-                            char stateCh = sql.charAt(i);
-                            if (stateCh == '\'') {
-                                // a consecutive ' is the same as \'
-                                if (lookAhead1(sql, i) == '\'') {
-                                    i++;
-                                    appendOutputParam(parsedParameter, "''");
-                                    continue;
-                                } else {
-                                    normalized.append(replaceIndex++);
-                                    normalized.append(SYMBOL_REPLACE);
-                                    normalized.append('\'');
-//                                    outputParam.append(',');
-                                    break;
-                                }
-                            }
-                            appendSeparatorCheckOutputParam(parsedParameter, stateCh);
-                        }
+
+                    case '.':
+                    case '_':
+                    case '@': // Assignment Operator
+                    case ':': // Oracle's bind variable is possible with :bindvalue
+                        numberTokenStartEnable = false;
+                        breakLiteralRun(i);
                         break;
-                    }
 
-                    // number start check
-                case '0':
-                case '1':
-                case '2':
-                case '3':
-                case '4':
-                case '5':
-                case '6':
-                case '7':
-                case '8':
-                case '9':
-                    // http://www.h2database.com/html/grammar.html look at the state machine more
-                    if (numberTokenStartEnable) {
-                        change = true;
-                        normalized.append(replaceIndex++);
-                        normalized.append(NUMBER_REPLACE);
-                        // number token start
-                        appendOutputSeparator(parsedParameter);
-                        appendOutputParam(parsedParameter, ch);
-                        i++;
-                        tokenEnd:
-                        for (; i < length; i++) {
-                            char stateCh = sql.charAt(i);
-                            switch (stateCh) {
-                                case '0':
-                                case '1':
-                                case '2':
-                                case '3':
-                                case '4':
-                                case '5':
-                                case '6':
-                                case '7':
-                                case '8':
-                                case '9':
-                                case '.':
-                                case 'E':
-                                case 'e':
-                                    appendOutputParam(parsedParameter, stateCh);
-                                    break;
-                                default:
-                                    // should look at the token outside the loop - not here
-//                                    outputParam.append(SEPARATOR);
-                                    i--;
-                                    break tokenEnd;
-                            }
+                    default:
+                        // what if it's in a different language??
+                        if (ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z') {
+                            numberTokenStartEnable = false;
+                        } else {
+                            numberTokenStartEnable = true;
                         }
+                        breakLiteralRun(i);
                         break;
-                    } else {
-                        normalized.append(ch);
-                        break;
-                    }
+                }
+            }
+            breakLiteralRun(length);
 
-                    // empty space
-                case ' ':
-                case '\t':
-                case '\n':
-                case '\r':
-                    numberTokenStartEnable = true;
-                    normalized.append(ch);
-                    break;
-                // http://msdn.microsoft.com/en-us/library/ms174986.aspx
-                case '*':
-                case '+':
-                case '%':
-                case '=':
-                case '<':
-                case '>':
-                case '&':
-                case '|':
-                case '^':
-                case '~':
-                case '!':
-                    numberTokenStartEnable = true;
-                    normalized.append(ch);
-                    break;
+            if (normalized == null) {
+                // Reuse if not modified.
+                // 1. new strings are not generated
+                // 2. reuse hashcodes
+                return new DefaultNormalizedSql(sql, "");
+            }
+            normalized.append(sql, copyStart, length);
+            final String parsedParameterString = parsedParameter == null ? "" : parsedParameter.toString();
+            return new DefaultNormalizedSql(normalized.toString(), parsedParameterString);
+        }
 
-                case '(':
-                case ')':
-                case ',':
-                case ';':
-                    numberTokenStartEnable = true;
-                    normalized.append(ch);
-                    break;
+        private int skipMultiLineComment(int i) {
+            for (; i < length; i++) {
+                if (sql.charAt(i) == '*' && lookAhead1(sql, i) == '/') {
+                    return i + 1;
+                }
+            }
+            return i;
+        }
 
-                case '.':
-                case '_':
-                case '@': // Assignment Operator
-                case ':': // Oracle's bind variable is possible with :bindvalue
-                    numberTokenStartEnable = false;
-                    normalized.append(ch);
+        private int skipLine(int i) {
+            for (; i < length; i++) {
+                if (sql.charAt(i) == '\n') {
                     break;
+                }
+            }
+            return i;
+        }
 
-                default:
-                    // what if it's in a different language??
-                    if (ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z') {
-                        numberTokenStartEnable = false;
-                    } else {
-                        numberTokenStartEnable = true;
+        private int symbol(final int start) {
+            int i = start + 1;
+            for (; i < length; i++) {
+                if (sql.charAt(i) == '\'') {
+                    // a consecutive ' is the same as \'
+                    if (lookAhead1(sql, i) == '\'') {
+                        i++;
+                        continue;
                     }
-                    normalized.append(ch);
                     break;
+                }
             }
-        }
-        if (change) {
-            String parsedParameterString;
-            if (parsedParameter.length() > 0) {
-                parsedParameterString = parsedParameter.toString();
+            final boolean closed = i < length;
+            final int end = closed ? i + 1 : length;
+            if (literal(start, end)) {
+                return end - 1;
+            }
+
+            // quote is kept
+            appendNormalized(start + 1);
+            appendOutputSeparator();
+            for (int index = start + 1; index < i; index++) {
+                final char stateCh = sql.charAt(index);
+                if (stateCh == '\'') {
+                    parsedParameter.append("''");
+                    index++;
+                } else if (stateCh == ',') {
+                    parsedParameter.append(",,");
+                } else {
+                    parsedParameter.append(stateCh);
+                }
+            }
+            if (closed) {
+                normalized.append(replaceIndex++);
+                normalized.append(SYMBOL_REPLACE);
+                copyStart = i;
             } else {
-                parsedParameterString = "";
+                // unterminated, the rest is dropped
+                copyStart = length;
             }
+            return end - 1;
+        }
 
-            return new DefaultNormalizedSql(normalized.toString(), parsedParameterString);
-        } else {
-            // Reuse if not modified.
-            // 1. new strings are not generated
-            // 2. reuse hashcodes
-            return new DefaultNormalizedSql(sql, "");
+        private int number(final int start) {
+            int i = start + 1;
+            tokenEnd:
+            for (; i < length; i++) {
+                switch (sql.charAt(i)) {
+                    case '0':
+                    case '1':
+                    case '2':
+                    case '3':
+                    case '4':
+                    case '5':
+                    case '6':
+                    case '7':
+                    case '8':
+                    case '9':
+                    case '.':
+                    case 'E':
+                    case 'e':
+                        break;
+                    default:
+                        break tokenEnd;
+                }
+            }
+            if (literal(start, i)) {
+                return i - 1;
+            }
+            appendNormalized(start);
+            normalized.append(replaceIndex++);
+            normalized.append(NUMBER_REPLACE);
+            appendOutputSeparator();
+            parsedParameter.append(sql, start, i);
+            copyStart = i;
+            return i - 1;
+        }
+
+        /**
+         * @return true if the literal is collapsed
+         */
+        private boolean literal(int start, int end) {
+            literalRun++;
+            if (literalRun <= maxLiteralRun) {
+                return false;
+            }
+            if (!collapsed) {
+                appendNormalized(start);
+                normalized.append(COLLAPSED_LITERALS);
+                collapsed = true;
+                collapsedDepth = depth;
+            }
+            collapsedWhitespace = false;
+            copyStart = end;
+            return true;
+        }
+
+        private void skipIfCollapsed(int index, boolean whitespace) {
+            if (collapsed) {
+                collapsedWhitespace = whitespace;
+                copyStart = index + 1;
+            }
+        }
+
+        private void breakLiteralRun(int index) {
+            literalRun = 0;
+            if (!collapsed) {
+                return;
+            }
+            collapsed = false;
+            // keep parentheses balanced
+            for (int i = depth; i < collapsedDepth; i++) {
+                normalized.append(')');
+            }
+            for (int i = collapsedDepth; i < depth; i++) {
+                normalized.append('(');
+            }
+            if (collapsedWhitespace) {
+                normalized.append(' ');
+            }
+            copyStart = index;
+        }
+
+        private void appendNormalized(int end) {
+            if (normalized == null) {
+                normalized = new StringBuilder(length + NORMALIZED_SQL_BUFFER);
+                parsedParameter = new StringBuilder(32);
+            }
+            normalized.append(sql, copyStart, end);
+            copyStart = end;
+        }
+
+        private void appendOutputSeparator() {
+            if (parsedParameter.length() == 0) {
+                // first parameter
+                return;
+            }
+            parsedParameter.append(SEPARATOR);
         }
     }
 
@@ -269,30 +418,6 @@ public class DefaultSqlParser implements SqlParser {
         return index;
     }
 
-    private void appendOutputSeparator(StringBuilder output) {
-        if (output.length() == 0) {
-            // first parameter
-            return;
-        }
-        output.append(SEPARATOR);
-    }
-
-    private void appendOutputParam(StringBuilder output, String str) {
-        output.append(str);
-    }
-
-    private void appendSeparatorCheckOutputParam(StringBuilder output, char ch) {
-        if (ch == ',') {
-            output.append(",,");
-        } else {
-            output.append(ch);
-        }
-    }
-
-    private void appendOutputParam(StringBuilder output, char ch) {
-        output.append(ch);
-    }
-
     /**
      * look up the next character in a string
      *
@@ -300,7 +425,7 @@ public class DefaultSqlParser implements SqlParser {
      * @param index
      * @return
      */
-    private int lookAhead1(String sql, int index) {
+    private static int lookAhead1(String sql, int index) {
         index++;
         if (index < sql.length()) {
             return sql.charAt(index);
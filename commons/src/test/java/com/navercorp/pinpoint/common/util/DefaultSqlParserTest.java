@@ -195,6 +195,34 @@ public class DefaultSqlParserTest {
         assertEqual("select * from table where a='a'", "select * from table where a='0$'", "a");
     }
 
+    @Test
+    public void emptySymbolState() {
+        assertEqual("a='' and b=1", "a='' and b=0#", "1");
+        assertEqual("'','a'", "'','0$'", "a");
+    }
+
+    @Test
+    public void collapseLiteralList() {
+        SqlParser sqlParser = new DefaultSqlParser(3);
+
+        NormalizedSql in = sqlParser.normalizedSql("select * from t where id in (1, 2, 3, 4, 5) and a = 'b'");
+        Assert.assertEquals("select * from t where id in (0#, 1#, 2#, ...) and a = '3$'", in.getNormalizedSql());
+        Assert.assertEquals("1,2,3,b", in.getParseParameter());
+        // independent of the length of the list
+        NormalizedSql longIn = sqlParser.normalizedSql("select * from t where id in (1, 2, 3, 4, 5, 6, 7, 8, 9, 10) and a = 'b'");
+        Assert.assertEquals(in.getNormalizedSql(), longIn.getNormalizedSql());
+
+        NormalizedSql values = sqlParser.normalizedSql("insert into t values (1, 'a'), (2, 'b'), (3, 'c')");
+        Assert.assertEquals("insert into t values (0#, '1$'), (2#, ...)", values.getNormalizedSql());
+        Assert.assertEquals("1,a,2", values.getParseParameter());
+
+        NormalizedSql bindVariable = sqlParser.normalizedSql("select * from t where id in (?, ?, ?, ?, ?)");
+        Assert.assertEquals("select * from t where id in (?, ?, ?, ...)", bindVariable.getNormalizedSql());
+
+        NormalizedSql shortList = sqlParser.normalizedSql("select * from t where id in (?, ?, ?) and b = 1 and c in (?, ?)");
+        Assert.assertEquals("select * from t where id in (?, ?, ?) and b = 0# and c in (?, ?)", shortList.getNormalizedSql());
+    }
+
     //    @Test
     public void charout() {
         for (int i = 11; i < 67; i++) {
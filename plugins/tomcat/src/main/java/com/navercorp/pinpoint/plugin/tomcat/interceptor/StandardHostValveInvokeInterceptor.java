@@ -223,7 +223,7 @@ public class StandardHostValveInvokeInterceptor implements AroundInterceptor {
             }
             return trace;
         } else {
-            final Trace trace = traceContext.newTraceObject();
+            final Trace trace = traceContext.newTraceObject(TomcatConstants.TOMCAT, requestURI);
             if (trace.canSampled()) {
                 SpanRecorder recorder = trace.getSpanRecorder();
                 recordRootSpan(recorder, request);
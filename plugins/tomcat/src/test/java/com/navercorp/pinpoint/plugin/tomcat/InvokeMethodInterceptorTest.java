@@ -44,6 +44,8 @@ import com.navercorp.pinpoint.bootstrap.logging.PLoggerFactory;
 import com.navercorp.pinpoint.plugin.tomcat.interceptor.StandardHostValveInvokeInterceptor;
 import com.navercorp.pinpoint.profiler.context.DefaultMethodDescriptor;
 import com.navercorp.pinpoint.profiler.logging.Slf4jLoggerBinder;
+import com.navercorp.pinpoint.plugin.tomcat.TomcatConstants;
+import com.navercorp.pinpoint.common.trace.ServiceType;
 
 /**
  * @author emeroad
@@ -104,12 +106,12 @@ public class InvokeMethodInterceptorTest {
         interceptor.before("target", new Object[]{request, response});
         interceptor.after("target", new Object[]{request, response}, new Object(), null);
 
-        verify(traceContext, times(1)).newTraceObject();
+        verify(traceContext, times(1)).newTraceObject(TomcatConstants.TOMCAT, "/hellotest.nhn");
 
         interceptor.before("target", new Object[]{request, response});
         interceptor.after("target", new Object[]{request, response}, new Object(), null);
 
-        verify(traceContext, times(2)).newTraceObject();
+        verify(traceContext, times(2)).newTraceObject(TomcatConstants.TOMCAT, "/hellotest.nhn");
     }
 
     @Test
@@ -130,7 +132,7 @@ public class InvokeMethodInterceptorTest {
         interceptor.before("target",  new Object[]{request, response});
         interceptor.after("target", new Object[]{request, response}, new Object(), null);
 
-        verify(traceContext, never()).newTraceObject();
+        verify(traceContext, never()).newTraceObject(any(ServiceType.class), anyString());
         verify(traceContext, never()).disableSampling();
         verify(traceContext, never()).continueTraceObject(any(TraceId.class));
 
@@ -138,7 +140,7 @@ public class InvokeMethodInterceptorTest {
         interceptor.before("target", new Object[]{request, response});
         interceptor.after("target", new Object[]{request, response}, new Object(), null);
 
-        verify(traceContext, never()).newTraceObject();
+        verify(traceContext, never()).newTraceObject(any(ServiceType.class), anyString());
         verify(traceContext, never()).disableSampling();
         verify(traceContext, never()).continueTraceObject(any(TraceId.class));
     }
@@ -95,8 +95,8 @@ public class AsyncChildTrace implements Trace {
         return this.traceRoot.getTraceId();
     }
 
-    private SpanEventRecorder wrappedSpanEventRecorder(WrappedSpanEventRecorder wrappedSpanEventRecorder, SpanEvent spanEvent) {
-        wrappedSpanEventRecorder.setWrapped(spanEvent);
+    private SpanEventRecorder wrappedSpanEventRecorder(WrappedSpanEventRecorder wrappedSpanEventRecorder, SpanEventFrame frame) {
+        wrappedSpanEventRecorder.setWrapped(frame);
         return wrappedSpanEventRecorder;
     }
 
@@ -115,25 +115,30 @@ public class AsyncChildTrace implements Trace {
         return traceBlockBegin(DEFAULT_STACKID);
     }
 
-    public SpanEvent traceBlockBegin0(final int stackId) {
+    public SpanEventFrame traceBlockBegin0(final int stackId) {
         if (closed) {
             if (isWarn) {
                 stackDump("already closed trace");
             }
-            final SpanEvent dummy = newSpanEvent(stackId);
+            final SpanEventFrame dummy = newFrame(stackId);
             return dummy;
         }
         // Set properties for the case when stackFrame is not used as part of Span.
-        final SpanEvent spanEvent = newSpanEvent(stackId);
-        this.callStack.push(spanEvent);
-        return spanEvent;
+        final SpanEventFrame frame = this.callStack.newFrame();
+        initFrame(frame, stackId);
+        this.callStack.push(frame);
+        return frame;
     }
 
-    private SpanEvent newSpanEvent(int stackId) {
-        final SpanEvent spanEvent = new SpanEvent(traceRoot);
-        spanEvent.markStartTime();
-        spanEvent.setStackId(stackId);
-        return spanEvent;
+    private SpanEventFrame newFrame(int stackId) {
+        final SpanEventFrame frame = new SpanEventFrame(traceRoot);
+        initFrame(frame, stackId);
+        return frame;
+    }
+
+    private void initFrame(SpanEventFrame frame, int stackId) {
+        frame.markStartTime();
+        frame.setStackId(stackId);
     }
 
     private void stackDump(String caused) {
@@ -143,11 +148,11 @@ public class AsyncChildTrace implements Trace {
 
     @Override
     public SpanEventRecorder traceBlockBegin(int stackId) {
-        final SpanEvent spanEvent = traceBlockBegin0(stackId);
-        spanEvent.setAsyncId(asyncId);
-        spanEvent.setAsyncSequence(asyncSequence);
+        final SpanEventFrame frame = traceBlockBegin0(stackId);
+        frame.setAsyncId(asyncId);
+        frame.setAsyncSequence(asyncSequence);
 
-        return wrappedSpanEventRecorder(wrappedSpanEventRecorder, spanEvent);
+        return wrappedSpanEventRecorder(wrappedSpanEventRecorder, frame);
     }
 
     @Override
@@ -164,25 +169,30 @@ public class AsyncChildTrace implements Trace {
             return;
         }
 
-        final SpanEvent spanEvent = callStack.pop();
-        if (spanEvent == null) {
+        final SpanEventFrame frame = callStack.pop();
+        if (frame == null) {
             if (isWarn) {
                 stackDump("call stack is empty.");
             }
             return;
         }
+        if (callStack.isDummy(frame)) {
+            // frames beyond the max depth are not recorded
+            return;
+        }
 
-        if (spanEvent.getStackId() != stackId) {
+        if (frame.getStackId() != stackId) {
             // stack dump will make debugging easy.
             if (isWarn) {
-                stackDump("not matched stack id. expected=" + stackId + ", current=" + spanEvent.getStackId());
+                stackDump("not matched stack id. expected=" + stackId + ", current=" + frame.getStackId());
             }
         }
 
-        if (spanEvent.isTimeRecording()) {
-            spanEvent.markAfterTime();
+        if (frame.isTimeRecording()) {
+            frame.markAfterTime();
         }
-        logSpan(spanEvent);
+        // the popped frame is reused by the next push, store the wire format instead
+        logSpan(frame.toSpanEvent());
     }
 
     private void logSpan(SpanEvent spanEvent) {
@@ -204,11 +214,11 @@ public class AsyncChildTrace implements Trace {
     }
 
     public int getCallStackFrameId0() {
-        final SpanEvent spanEvent = callStack.peek();
-        if (spanEvent == null) {
+        final SpanEventFrame frame = callStack.peek();
+        if (frame == null) {
             return ROOT_STACKID;
         } else {
-            return spanEvent.getStackId();
+            return frame.getStackId();
         }
     }
 
@@ -261,25 +271,25 @@ public class AsyncChildTrace implements Trace {
 
     @Override
     public SpanEventRecorder currentSpanEventRecorder() {
-        SpanEvent spanEvent = callStack.peek();
-        if (spanEvent == null) {
+        SpanEventFrame frame = callStack.peek();
+        if (frame == null) {
             if (isWarn) {
                 stackDump("call stack is empty");
             }
             // make dummy.
-            spanEvent = new SpanEvent(traceRoot);
+            frame = new SpanEventFrame(traceRoot);
         }
 
-        return wrappedSpanEventRecorder(this.wrappedSpanEventRecorder, spanEvent);
+        return wrappedSpanEventRecorder(this.wrappedSpanEventRecorder, frame);
     }
 
     @Override
     public int getCallStackFrameId() {
-        final SpanEvent spanEvent = callStack.peek();
-        if (spanEvent == null) {
+        final SpanEventFrame frame = callStack.peek();
+        if (frame == null) {
             return ROOT_STACKID;
         } else {
-            return spanEvent.getStackId();
+            return frame.getStackId();
         }
     }
 
@@ -22,15 +22,27 @@ package com.navercorp.pinpoint.profiler.context;
 public interface CallStack {
     int getIndex();
 
-    int push(SpanEvent spanEvent);
+    int push(SpanEventFrame frame);
 
-    SpanEvent pop();
+    SpanEventFrame pop();
 
-    SpanEvent peek();
+    SpanEventFrame peek();
 
     boolean empty();
 
-    SpanEvent[] copyStackFrame();
+    SpanEventFrame[] copyStackFrame();
 
     int getMaxDepth();
+
+    /**
+     * Returns the frame for the next {@link #push(SpanEventFrame)}.
+     * A frame popped from the same depth is reset and reused instead of allocating a new one.
+     * Once the stack overflows, the same dummy frame is reset and returned.
+     */
+    SpanEventFrame newFrame();
+
+    /**
+     * @return true if the frame is the dummy frame of an overflowed stack, which must not be recorded
+     */
+    boolean isDummy(SpanEventFrame frame);
 }
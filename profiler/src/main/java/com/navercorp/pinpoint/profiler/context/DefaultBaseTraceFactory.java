@@ -22,6 +22,7 @@ import com.navercorp.pinpoint.bootstrap.context.Trace;
 import com.navercorp.pinpoint.bootstrap.context.TraceId;
 import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
 import com.navercorp.pinpoint.common.annotations.InterfaceAudience;
+import com.navercorp.pinpoint.common.trace.ServiceType;
 import com.navercorp.pinpoint.common.util.Assert;
 import com.navercorp.pinpoint.profiler.context.active.ActiveTraceHandle;
 import com.navercorp.pinpoint.profiler.context.active.ActiveTraceRepository;
@@ -33,6 +34,7 @@ import com.navercorp.pinpoint.profiler.context.recorder.RecorderFactory;
 import com.navercorp.pinpoint.profiler.context.recorder.WrappedSpanEventRecorder;
 import com.navercorp.pinpoint.profiler.context.storage.Storage;
 import com.navercorp.pinpoint.profiler.context.storage.StorageFactory;
+import com.navercorp.pinpoint.profiler.sampler.SamplingRuleTable;
 
 
 /**
@@ -45,6 +47,7 @@ public class DefaultBaseTraceFactory implements BaseTraceFactory {
 
     private final StorageFactory storageFactory;
     private final Sampler sampler;
+    private final SamplingRuleTable samplingRuleTable;
 
     private final IdGenerator idGenerator;
     private final AsyncContextFactory asyncContextFactory;
@@ -58,13 +61,14 @@ public class DefaultBaseTraceFactory implements BaseTraceFactory {
 
 
     public DefaultBaseTraceFactory(TraceRootFactory traceRootFactory, CallStackFactory callStackFactory, StorageFactory storageFactory,
-                                   Sampler sampler, IdGenerator idGenerator, AsyncContextFactory asyncContextFactory,
+                                   Sampler sampler, SamplingRuleTable samplingRuleTable, IdGenerator idGenerator, AsyncContextFactory asyncContextFactory,
                                    SpanFactory spanFactory, RecorderFactory recorderFactory, ActiveTraceRepository activeTraceRepository) {
 
         this.traceRootFactory = Assert.requireNonNull(traceRootFactory, "traceRootFactory must not be null");
         this.callStackFactory = Assert.requireNonNull(callStackFactory, "callStackFactory must not be null");
         this.storageFactory = Assert.requireNonNull(storageFactory, "storageFactory must not be null");
         this.sampler = Assert.requireNonNull(sampler, "sampler must not be null");
+        this.samplingRuleTable = Assert.requireNonNull(samplingRuleTable, "samplingRuleTable must not be null");
         this.idGenerator = Assert.requireNonNull(idGenerator, "idGenerator must not be null");
         this.asyncContextFactory = Assert.requireNonNull(asyncContextFactory, "asyncContextFactory must not be null");
 
@@ -108,8 +112,22 @@ public class DefaultBaseTraceFactory implements BaseTraceFactory {
 
     @Override
     public Trace newTraceObject() {
-        // TODO need to modify how to inject a datasender
         final boolean sampling = sampler.isSampling();
+        return newTraceObject0(sampling);
+    }
+
+    @Override
+    public Trace newTraceObject(ServiceType serviceType, String entryPoint) {
+        Sampler sampler = samplingRuleTable.getSampler(serviceType, entryPoint);
+        if (sampler == null) {
+            sampler = this.sampler;
+        }
+        final boolean sampling = sampler.isSampling();
+        return newTraceObject0(sampling);
+    }
+
+    private Trace newTraceObject0(boolean sampling) {
+        // TODO need to modify how to inject a datasender
         if (sampling) {
             final TraceRoot traceRoot = traceRootFactory.newTraceRoot();
             final Span span = spanFactory.newSpan(traceRoot);
@@ -30,7 +30,8 @@ public class DefaultCallStack implements CallStack {
     protected static final int STACK_SIZE = 8;
     protected static final int DEFAULT_INDEX = 0;
 
-    protected SpanEvent[] stack = new SpanEvent[STACK_SIZE];
+    // popped frames stay in their slot and are reused by the next push of the same depth
+    protected SpanEventFrame[] stack = new SpanEventFrame[STACK_SIZE];
 
     protected final TraceRoot traceRoot;
     protected final int maxDepth;
@@ -38,6 +39,9 @@ public class DefaultCallStack implements CallStack {
     protected int overflowIndex = 0;
     protected short sequence;
 
+    // shared by every overflowed frame
+    private SpanEventFrame dummyFrame;
+
     public DefaultCallStack(TraceRoot traceRoot) {
         this(traceRoot, -1);
     }
@@ -58,61 +62,89 @@ public class DefaultCallStack implements CallStack {
     }
 
     @Override
-    public int push(final SpanEvent spanEvent) {
+    public int push(final SpanEventFrame frame) {
         if (isOverflow()) {
             overflowIndex++;
             return index + overflowIndex;
         }
 
         checkExtend(index + 1);
-        spanEvent.setSequence(sequence++);
-        stack[index++] = spanEvent;
-        markDepth(spanEvent, index);
+        frame.setSequence(sequence++);
+        stack[index++] = frame;
+        markDepth(frame, index);
         return index;
     }
 
-    protected void markDepth(SpanEvent spanEvent, int index) {
-        spanEvent.setDepth(index);
+    protected void markDepth(SpanEventFrame frame, int index) {
+        frame.setDepth(index);
     }
 
     protected void checkExtend(final int size) {
-        final SpanEvent[] originalStack = this.stack;
+        final SpanEventFrame[] originalStack = this.stack;
         if (size >= originalStack.length) {
             final int copyStackSize = originalStack.length << 1;
-            final SpanEvent[] copyStack = new SpanEvent[copyStackSize];
+            final SpanEventFrame[] copyStack = new SpanEventFrame[copyStackSize];
             System.arraycopy(originalStack, 0, copyStack, 0, originalStack.length);
             this.stack = copyStack;
         }
     }
 
     @Override
-    public SpanEvent pop() {
+    public SpanEventFrame newFrame() {
+        if (isOverflow()) {
+            return dummyFrame();
+        }
+        final SpanEventFrame[] stack = this.stack;
+        if (index < stack.length) {
+            final SpanEventFrame recycled = stack[index];
+            if (recycled != null) {
+                recycled.reset();
+                return recycled;
+            }
+        }
+        return new SpanEventFrame(traceRoot);
+    }
+
+    @Override
+    public boolean isDummy(SpanEventFrame frame) {
+        return frame != null && frame == this.dummyFrame;
+    }
+
+    @Override
+    public SpanEventFrame pop() {
         if (isOverflow() && overflowIndex > 0) {
             overflowIndex--;
-            return newDummySpanEvent();
+            return dummyFrame();
         }
 
-        final SpanEvent spanEvent = peek();
-        if (spanEvent != null) {
-            stack[index - 1] = null;
+        final SpanEventFrame frame = peek();
+        if (frame != null) {
             index--;
         }
 
-        return spanEvent;
+        return frame;
     }
 
-    private SpanEvent newDummySpanEvent() {
-        return new SpanEvent(traceRoot);
+    private SpanEventFrame dummyFrame() {
+        SpanEventFrame dummyFrame = this.dummyFrame;
+        if (dummyFrame == null) {
+            dummyFrame = new SpanEventFrame(traceRoot);
+            this.dummyFrame = dummyFrame;
+        } else {
+            // drop whatever was recorded on the previous overflowed frame
+            dummyFrame.reset();
+        }
+        return dummyFrame;
     }
 
     @Override
-    public SpanEvent peek() {
+    public SpanEventFrame peek() {
         if (index == DEFAULT_INDEX) {
             return null;
         }
 
         if (isOverflow() && overflowIndex > 0) {
-            return newDummySpanEvent();
+            return dummyFrame();
         }
 
         return stack[index - 1];
@@ -124,11 +156,13 @@ public class DefaultCallStack implements CallStack {
     }
 
     @Override
-    public SpanEvent[] copyStackFrame() {
+    public SpanEventFrame[] copyStackFrame() {
         // without synchronization arraycopy, last index is null reference
-        final SpanEvent[] currentStack = this.stack;
-        final SpanEvent[] copyStack = new SpanEvent[currentStack.length];
-        System.arraycopy(currentStack, 0, copyStack, 0, currentStack.length);
+        final SpanEventFrame[] currentStack = this.stack;
+        final SpanEventFrame[] copyStack = new SpanEventFrame[currentStack.length];
+        // slots above the index hold recycled frames
+        final int length = Math.min(index, currentStack.length);
+        System.arraycopy(currentStack, 0, copyStack, 0, length);
         return copyStack;
     }
 
@@ -146,7 +180,7 @@ public class DefaultCallStack implements CallStack {
     public String toString() {
         StringBuilder builder = new StringBuilder();
         builder.append("{stack=");
-        builder.append(Arrays.toString(stack));
+        builder.append(Arrays.toString(copyStackFrame()));
         builder.append(", index=");
         builder.append(index);
         builder.append("}");
@@ -81,8 +81,8 @@ public final class DefaultTrace implements Trace, TraceRootSupport {
         return this.span.getTraceRoot();
     }
 
-    private SpanEventRecorder wrappedSpanEventRecorder(WrappedSpanEventRecorder wrappedSpanEventRecorder, SpanEvent spanEvent) {
-        wrappedSpanEventRecorder.setWrapped(spanEvent);
+    private SpanEventRecorder wrappedSpanEventRecorder(WrappedSpanEventRecorder wrappedSpanEventRecorder, SpanEventFrame frame) {
+        wrappedSpanEventRecorder.setWrapped(frame);
         return wrappedSpanEventRecorder;
     }
 
@@ -97,20 +97,25 @@ public final class DefaultTrace implements Trace, TraceRootSupport {
             if (isWarn) {
                 stackDump("already closed trace");
             }
-            final SpanEvent dummy = newSpanEvent(stackId);
+            final SpanEventFrame dummy = newFrame(stackId);
             return wrappedSpanEventRecorder(this.wrappedSpanEventRecorder, dummy);
         }
         // Set properties for the case when stackFrame is not used as part of Span.
-        final SpanEvent spanEvent = newSpanEvent(stackId);
-        this.callStack.push(spanEvent);
-        return wrappedSpanEventRecorder(this.wrappedSpanEventRecorder, spanEvent);
+        final SpanEventFrame frame = this.callStack.newFrame();
+        initFrame(frame, stackId);
+        this.callStack.push(frame);
+        return wrappedSpanEventRecorder(this.wrappedSpanEventRecorder, frame);
     }
 
-    private SpanEvent newSpanEvent(int stackId) {
-        final SpanEvent spanEvent = new SpanEvent(getTraceRoot());
-        spanEvent.markStartTime();
-        spanEvent.setStackId(stackId);
-        return spanEvent;
+    private SpanEventFrame newFrame(int stackId) {
+        final SpanEventFrame frame = new SpanEventFrame(getTraceRoot());
+        initFrame(frame, stackId);
+        return frame;
+    }
+
+    private void initFrame(SpanEventFrame frame, int stackId) {
+        frame.markStartTime();
+        frame.setStackId(stackId);
     }
 
 
@@ -133,25 +138,30 @@ public final class DefaultTrace implements Trace, TraceRootSupport {
             return;
         }
 
-        final SpanEvent spanEvent = callStack.pop();
-        if (spanEvent == null) {
+        final SpanEventFrame frame = callStack.pop();
+        if (frame == null) {
             if (isWarn) {
                 stackDump("call stack is empty.");
             }
             return;
         }
+        if (callStack.isDummy(frame)) {
+            // frames beyond the max depth are not recorded
+            return;
+        }
 
-        if (spanEvent.getStackId() != stackId) {
+        if (frame.getStackId() != stackId) {
             // stack dump will make debugging easy.
             if (isWarn) {
-                stackDump("not matched stack id. expected=" + stackId + ", current=" + spanEvent.getStackId());
+                stackDump("not matched stack id. expected=" + stackId + ", current=" + frame.getStackId());
             }
         }
 
-        if (spanEvent.isTimeRecording()) {
-            spanEvent.markAfterTime();
+        if (frame.isTimeRecording()) {
+            frame.markAfterTime();
         }
-        logSpan(spanEvent);
+        // the popped frame is reused by the next push, store the wire format instead
+        logSpan(frame.toSpanEvent());
     }
 
 
@@ -276,25 +286,25 @@ public final class DefaultTrace implements Trace, TraceRootSupport {
 
     @Override
     public SpanEventRecorder currentSpanEventRecorder() {
-        SpanEvent spanEvent = callStack.peek();
-        if (spanEvent == null) {
+        SpanEventFrame frame = callStack.peek();
+        if (frame == null) {
             if (isWarn) {
                 stackDump("call stack is empty");
             }
             // make dummy.
-            spanEvent = new SpanEvent(getTraceRoot());
+            frame = new SpanEventFrame(getTraceRoot());
         }
 
-        return wrappedSpanEventRecorder(this.wrappedSpanEventRecorder, spanEvent);
+        return wrappedSpanEventRecorder(this.wrappedSpanEventRecorder, frame);
     }
 
     @Override
     public int getCallStackFrameId() {
-        final SpanEvent spanEvent = callStack.peek();
-        if (spanEvent == null) {
+        final SpanEventFrame frame = callStack.peek();
+        if (frame == null) {
             return ROOT_STACKID;
         } else {
-            return spanEvent.getStackId();
+            return frame.getStackId();
         }
     }
 
@@ -19,6 +19,7 @@ package com.navercorp.pinpoint.profiler.context;
 import com.navercorp.pinpoint.bootstrap.context.Trace;
 import com.navercorp.pinpoint.bootstrap.context.TraceId;
 import com.navercorp.pinpoint.common.annotations.InterfaceAudience;
+import com.navercorp.pinpoint.common.trace.ServiceType;
 import com.navercorp.pinpoint.common.util.Assert;
 import com.navercorp.pinpoint.exception.PinpointException;
 import org.slf4j.Logger;
@@ -117,6 +118,15 @@ public class DefaultTraceFactory implements TraceFactory {
         return trace;
     }
 
+    @Override
+    public Trace newTraceObject(ServiceType serviceType, String entryPoint) {
+        final Reference<Trace> reference = checkAndGet();
+        final Trace trace = this.baseTraceFactory.newTraceObject(serviceType, entryPoint);
+
+        bind(reference, trace);
+        return trace;
+    }
+
     private void bind(Reference<Trace> reference, Trace trace) {
         reference.set(trace);
 
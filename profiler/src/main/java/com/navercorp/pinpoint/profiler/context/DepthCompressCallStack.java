@@ -34,11 +34,11 @@ public class DepthCompressCallStack extends DefaultCallStack {
     }
 
     @Override
-    protected void markDepth(SpanEvent spanEvent, int depth) {
+    protected void markDepth(SpanEventFrame frame, int depth) {
         // compact same depth
         if (latestStackIndex != index) {
             latestStackIndex = index;
-            spanEvent.setDepth(latestStackIndex);
+            frame.setDepth(latestStackIndex);
         }
     }
 
@@ -19,6 +19,7 @@ package com.navercorp.pinpoint.profiler.context;
 import com.navercorp.pinpoint.bootstrap.context.Trace;
 import com.navercorp.pinpoint.bootstrap.context.TraceId;
 import com.navercorp.pinpoint.common.annotations.InterfaceAudience;
+import com.navercorp.pinpoint.common.trace.ServiceType;
 import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -91,6 +92,15 @@ public class LoggingBaseTraceFactory implements BaseTraceFactory {
         return baseTraceFactory.newTraceObject();
     }
 
+    @Override
+    public Trace newTraceObject(ServiceType serviceType, String entryPoint) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("newTraceObject(serviceType:{}, entryPoint:{})", serviceType, entryPoint);
+        }
+
+        return baseTraceFactory.newTraceObject(serviceType, entryPoint);
+    }
+
     @Override
     @InterfaceAudience.LimitedPrivate("vert.x")
     public Trace newAsyncTraceObject() {
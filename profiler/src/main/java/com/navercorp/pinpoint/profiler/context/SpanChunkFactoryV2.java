@@ -76,7 +76,9 @@ public class SpanChunkFactoryV2 implements SpanChunkFactory {
         spanChunk.setApplicationServiceType(applicationServiceType.getCode());
 
 
-        final long keyTime = first.getStartTime();
+        // startElapsed of the first event is relative to the trace start time, same as the span,
+        // so the collector can restore the events without the span
+        final long keyTime = traceRoot.getTraceStartTime();
         spanChunk.setKeyTime(keyTime);
         // TODO change data compression timing to another thread  eg: DataSender thread
         spanEventCompressor.compress(spanEventList, keyTime);
@@ -71,6 +71,10 @@ public class SpanEvent extends TSpanEvent implements FrameAttachment {
         return startTime;
     }
 
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
     public void markAfterTime() {
         this.afterTime = System.currentTimeMillis();
     }
@@ -79,6 +83,10 @@ public class SpanEvent extends TSpanEvent implements FrameAttachment {
         return afterTime;
     }
 
+    public void setAfterTime(long afterTime) {
+        this.afterTime = afterTime;
+    }
+
     public int getStackId() {
         return stackId;
     }
@@ -0,0 +1,353 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context;
+
+import com.navercorp.pinpoint.bootstrap.context.FrameAttachment;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.thrift.dto.TAnnotation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Call stack frame of a trace.
+ * Frames hold primitive fields only and are reused by the {@link CallStack} of a trace,
+ * the wire format {@link SpanEvent} is created by {@link #toSpanEvent()} when the frame is stored.
+ */
+public class SpanEventFrame implements FrameAttachment {
+
+    private static final int UNSET_DEPTH = -1;
+    private static final long UNSET_NEXT_SPAN_ID = -1;
+
+    private final TraceRoot traceRoot;
+
+    private int stackId;
+    private boolean timeRecording = true;
+    private Object frameObject;
+    private long startTime;
+    private long afterTime;
+
+    private short sequence;
+    private int depth = UNSET_DEPTH;
+    private short serviceType;
+    private String rpc;
+    private String endPoint;
+    private String destinationId;
+    private long nextSpanId = UNSET_NEXT_SPAN_ID;
+
+    private int apiId;
+    private boolean apiIdSet;
+
+    private int exceptionClassId;
+    private String exceptionMessage;
+    private boolean exceptionInfoSet;
+
+    private int asyncId;
+    private boolean asyncIdSet;
+    private short asyncSequence;
+    private boolean asyncSequenceSet;
+    private int nextAsyncId;
+    private boolean nextAsyncIdSet;
+    private AsyncId asyncIdObject;
+
+    // reused across frames, copied into the SpanEvent
+    private final List<Annotation> annotations = new ArrayList<Annotation>();
+
+    public SpanEventFrame(TraceRoot traceRoot) {
+        if (traceRoot == null) {
+            throw new NullPointerException("traceRoot must not be null");
+        }
+        this.traceRoot = traceRoot;
+    }
+
+    public TraceRoot getTraceRoot() {
+        return traceRoot;
+    }
+
+    public void markStartTime() {
+        this.startTime = System.currentTimeMillis();
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
+    public void markAfterTime() {
+        this.afterTime = System.currentTimeMillis();
+    }
+
+    public long getAfterTime() {
+        return afterTime;
+    }
+
+    public void setAfterTime(long afterTime) {
+        this.afterTime = afterTime;
+    }
+
+    public int getStackId() {
+        return stackId;
+    }
+
+    public void setStackId(int stackId) {
+        this.stackId = stackId;
+    }
+
+    public boolean isTimeRecording() {
+        return timeRecording;
+    }
+
+    public void setTimeRecording(boolean timeRecording) {
+        this.timeRecording = timeRecording;
+    }
+
+    public short getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(short sequence) {
+        this.sequence = sequence;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public short getServiceType() {
+        return serviceType;
+    }
+
+    public void setServiceType(short serviceType) {
+        this.serviceType = serviceType;
+    }
+
+    public String getRpc() {
+        return rpc;
+    }
+
+    public void setRpc(String rpc) {
+        this.rpc = rpc;
+    }
+
+    public String getEndPoint() {
+        return endPoint;
+    }
+
+    public void setEndPoint(String endPoint) {
+        this.endPoint = endPoint;
+    }
+
+    public String getDestinationId() {
+        return destinationId;
+    }
+
+    public void setDestinationId(String destinationId) {
+        this.destinationId = destinationId;
+    }
+
+    public long getNextSpanId() {
+        return nextSpanId;
+    }
+
+    public void setNextSpanId(long nextSpanId) {
+        this.nextSpanId = nextSpanId;
+    }
+
+    public int getApiId() {
+        return apiId;
+    }
+
+    public void setApiId(int apiId) {
+        this.apiId = apiId;
+        this.apiIdSet = true;
+    }
+
+    public void setExceptionInfo(int exceptionClassId, String exceptionMessage) {
+        this.exceptionClassId = exceptionClassId;
+        this.exceptionMessage = exceptionMessage;
+        this.exceptionInfoSet = true;
+    }
+
+    public int getAsyncId() {
+        return asyncId;
+    }
+
+    public void setAsyncId(int asyncId) {
+        this.asyncId = asyncId;
+        this.asyncIdSet = true;
+    }
+
+    public short getAsyncSequence() {
+        return asyncSequence;
+    }
+
+    public void setAsyncSequence(short asyncSequence) {
+        this.asyncSequence = asyncSequence;
+        this.asyncSequenceSet = true;
+    }
+
+    public int getNextAsyncId() {
+        return nextAsyncId;
+    }
+
+    public void setNextAsyncId(int nextAsyncId) {
+        this.nextAsyncId = nextAsyncId;
+        this.nextAsyncIdSet = true;
+    }
+
+    public AsyncId getAsyncIdObject() {
+        return asyncIdObject;
+    }
+
+    public void setAsyncIdObject(AsyncId asyncIdObject) {
+        this.asyncIdObject = asyncIdObject;
+    }
+
+    public void addAnnotation(Annotation annotation) {
+        this.annotations.add(annotation);
+    }
+
+    public List<Annotation> getAnnotations() {
+        return annotations;
+    }
+
+    @Override
+    public Object attachFrameObject(Object attachObject) {
+        final Object before = this.frameObject;
+        this.frameObject = attachObject;
+        return before;
+    }
+
+    @Override
+    public Object getFrameObject() {
+        return this.frameObject;
+    }
+
+    @Override
+    public Object detachFrameObject() {
+        final Object delete = this.frameObject;
+        this.frameObject = null;
+        return delete;
+    }
+
+    /**
+     * Converts the recorded fields into the wire format.
+     * The frame can be reset and reused afterwards.
+     */
+    public SpanEvent toSpanEvent() {
+        final SpanEvent spanEvent = new SpanEvent(traceRoot);
+        spanEvent.setStackId(stackId);
+        spanEvent.setTimeRecording(timeRecording);
+        spanEvent.setStartTime(startTime);
+        spanEvent.setAfterTime(afterTime);
+
+        spanEvent.setSequence(sequence);
+        if (depth != UNSET_DEPTH) {
+            spanEvent.setDepth(depth);
+        }
+        spanEvent.setServiceType(serviceType);
+        if (rpc != null) {
+            spanEvent.setRpc(rpc);
+        }
+        if (endPoint != null) {
+            spanEvent.setEndPoint(endPoint);
+        }
+        if (destinationId != null) {
+            spanEvent.setDestinationId(destinationId);
+        }
+        if (nextSpanId != UNSET_NEXT_SPAN_ID) {
+            spanEvent.setNextSpanId(nextSpanId);
+        }
+        if (apiIdSet) {
+            spanEvent.setApiId(apiId);
+        }
+        if (exceptionInfoSet) {
+            spanEvent.setExceptionInfo(exceptionClassId, exceptionMessage);
+        }
+        if (asyncIdSet) {
+            spanEvent.setAsyncId(asyncId);
+        }
+        if (asyncSequenceSet) {
+            spanEvent.setAsyncSequence(asyncSequence);
+        }
+        if (nextAsyncIdSet) {
+            spanEvent.setNextAsyncId(nextAsyncId);
+        }
+        spanEvent.setAsyncIdObject(asyncIdObject);
+
+        final List<Annotation> annotations = this.annotations;
+        if (!annotations.isEmpty()) {
+            spanEvent.setAnnotations(new ArrayList<TAnnotation>(annotations));
+        }
+        return spanEvent;
+    }
+
+    /**
+     * Resets every field so that the frame can be pushed again.
+     */
+    public void reset() {
+        this.stackId = 0;
+        this.timeRecording = true;
+        this.frameObject = null;
+        this.startTime = 0;
+        this.afterTime = 0;
+
+        this.sequence = 0;
+        this.depth = UNSET_DEPTH;
+        this.serviceType = 0;
+        this.rpc = null;
+        this.endPoint = null;
+        this.destinationId = null;
+        this.nextSpanId = UNSET_NEXT_SPAN_ID;
+
+        this.apiId = 0;
+        this.apiIdSet = false;
+
+        this.exceptionClassId = 0;
+        this.exceptionMessage = null;
+        this.exceptionInfoSet = false;
+
+        this.asyncId = 0;
+        this.asyncIdSet = false;
+        this.asyncSequence = 0;
+        this.asyncSequenceSet = false;
+        this.nextAsyncId = 0;
+        this.nextAsyncIdSet = false;
+        this.asyncIdObject = null;
+
+        this.annotations.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "SpanEventFrame{" +
+                "stackId=" + stackId +
+                ", sequence=" + sequence +
+                ", depth=" + depth +
+                ", serviceType=" + serviceType +
+                ", apiId=" + apiId +
+                ", annotations=" + annotations +
+                '}';
+    }
+}
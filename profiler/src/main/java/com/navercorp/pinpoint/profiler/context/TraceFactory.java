@@ -19,6 +19,7 @@ package com.navercorp.pinpoint.profiler.context;
 import com.navercorp.pinpoint.bootstrap.context.Trace;
 import com.navercorp.pinpoint.bootstrap.context.TraceId;
 import com.navercorp.pinpoint.common.annotations.InterfaceAudience;
+import com.navercorp.pinpoint.common.trace.ServiceType;
 
 /**
  * @author Woonduk Kang(emeroad)
@@ -43,6 +44,8 @@ public interface TraceFactory {
 
     Trace newTraceObject();
 
+    Trace newTraceObject(ServiceType serviceType, String entryPoint);
+
     @InterfaceAudience.LimitedPrivate("vert.x")
     Trace newAsyncTraceObject();
 }
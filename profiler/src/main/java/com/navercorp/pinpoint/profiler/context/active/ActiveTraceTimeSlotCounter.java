@@ -0,0 +1,145 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.active;
+
+import com.navercorp.pinpoint.common.trace.HistogramSchema;
+import com.navercorp.pinpoint.common.trace.HistogramSlot;
+import com.navercorp.pinpoint.common.trace.SlotType;
+import com.navercorp.pinpoint.common.util.Assert;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts active traces by start time, so the histogram can be built without scanning every active trace.
+ * <p>
+ * Start times are grouped into time slots of {@link #TIME_SLOT_SIZE} ms, kept in a ring long enough to cover the slow slot of the schema.
+ * Each bucket packs the time slot and the number of traces started in it. A bucket is recycled when a newer time slot arrives,
+ * and the traces left in it are older than the ring, that is very slow, so they are derived from the total count.
+ */
+class ActiveTraceTimeSlotCounter {
+
+    static final long NOT_COUNTED = -1;
+
+    // 64ms
+    private static final int TIME_SLOT_SHIFT = 6;
+    static final int TIME_SLOT_SIZE = 1 << TIME_SLOT_SHIFT;
+
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final HistogramSchema histogramSchema;
+
+    private final AtomicInteger totalCount = new AtomicInteger();
+    private final AtomicLongArray buckets;
+    private final int bucketMask;
+
+    ActiveTraceTimeSlotCounter(HistogramSchema histogramSchema) {
+        this.histogramSchema = Assert.requireNonNull(histogramSchema, "histogramSchema must not be null");
+
+        final int slowSlotTime = histogramSchema.getSlowSlot().getSlotTime();
+        final int bucketSize = roundUpToPowerOfTwo((slowSlotTime >> TIME_SLOT_SHIFT) + 2);
+        this.buckets = new AtomicLongArray(bucketSize);
+        this.bucketMask = bucketSize - 1;
+    }
+
+    static int roundUpToPowerOfTwo(int value) {
+        if (value <= 1) {
+            return 1;
+        }
+        return Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * @return the time slot the trace is counted in, or {@link #NOT_COUNTED} if it only counts as very slow
+     */
+    long increment(long startTime) {
+        totalCount.incrementAndGet();
+
+        final long timeSlot = startTime >> TIME_SLOT_SHIFT;
+        final int index = (int) (timeSlot & bucketMask);
+        while (true) {
+            final long bucket = buckets.get(index);
+            final long bucketTimeSlot = bucket >>> COUNT_BITS;
+            final long newBucket;
+            if (bucketTimeSlot == timeSlot) {
+                newBucket = bucket + 1;
+            } else if (bucketTimeSlot < timeSlot) {
+                // recycle
+                newBucket = (timeSlot << COUNT_BITS) | 1;
+            } else {
+                // older than the ring
+                return NOT_COUNTED;
+            }
+            if (buckets.compareAndSet(index, bucket, newBucket)) {
+                return timeSlot;
+            }
+        }
+    }
+
+    void decrement(long timeSlot) {
+        totalCount.decrementAndGet();
+        if (timeSlot == NOT_COUNTED) {
+            return;
+        }
+
+        final int index = (int) (timeSlot & bucketMask);
+        while (true) {
+            final long bucket = buckets.get(index);
+            if ((bucket >>> COUNT_BITS) != timeSlot || (bucket & COUNT_MASK) == 0) {
+                // recycled, counted as very slow
+                return;
+            }
+            if (buckets.compareAndSet(index, bucket, bucket - 1)) {
+                return;
+            }
+        }
+    }
+
+    int getTotalCount() {
+        return totalCount.get();
+    }
+
+    ActiveTraceHistogram getHistogram(long currentTime) {
+        // read total first, traces registered during the scan can only make very slow count smaller
+        final int total = totalCount.get();
+
+        int fastCount = 0;
+        int normalCount = 0;
+        int slowCount = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            final long bucket = buckets.get(i);
+            final int count = (int) (bucket & COUNT_MASK);
+            if (count == 0) {
+                continue;
+            }
+            final long startTime = (bucket >>> COUNT_BITS) << TIME_SLOT_SHIFT;
+            final long elapsedTime = currentTime - startTime;
+            final HistogramSlot slot = histogramSchema.findHistogramSlot((int) Math.min(elapsedTime, Integer.MAX_VALUE), false);
+            final SlotType slotType = slot.getSlotType();
+            if (slotType == SlotType.FAST) {
+                fastCount += count;
+            } else if (slotType == SlotType.NORMAL) {
+                normalCount += count;
+            } else if (slotType == SlotType.SLOW) {
+                slowCount += count;
+            }
+        }
+        final int verySlowCount = Math.max(0, total - fastCount - normalCount - slowCount);
+        return new DefaultActiveTraceHistogram(histogramSchema, fastCount, normalCount, slowCount, verySlowCount);
+    }
+}
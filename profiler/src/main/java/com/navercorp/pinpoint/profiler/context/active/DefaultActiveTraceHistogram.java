@@ -38,6 +38,14 @@ public class DefaultActiveTraceHistogram implements ActiveTraceHistogram {
         this.histogramSchema = Assert.requireNonNull(histogramSchema, "histogramSchema must not be null");
     }
 
+    public DefaultActiveTraceHistogram(HistogramSchema histogramSchema, int fastCount, int normalCount, int slowCount, int verySlowCount) {
+        this(histogramSchema);
+        this.fastCount = fastCount;
+        this.normalCount = normalCount;
+        this.slowCount = slowCount;
+        this.verySlowCount = verySlowCount;
+    }
+
     public void increment(HistogramSlot slot) {
         Assert.requireNonNull(slot, "slot must not be null");
 
@@ -16,11 +16,8 @@
 
 package com.navercorp.pinpoint.profiler.context.active;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.navercorp.pinpoint.common.trace.BaseHistogramSchema;
 import com.navercorp.pinpoint.common.trace.HistogramSchema;
-import com.navercorp.pinpoint.common.trace.HistogramSlot;
 import com.navercorp.pinpoint.common.util.Assert;
 import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
 import com.navercorp.pinpoint.profiler.monitor.metric.response.ResponseTimeCollector;
@@ -28,12 +25,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
+ * Active traces are kept in an open addressing table indexed by the hash of the trace id.
+ * A handle remembers its slot, so register and purge are a few CAS operations without lock or LRU bookkeeping.
+ * The histogram is maintained incrementally by {@link ActiveTraceTimeSlotCounter}.
+ *
  * @author Taejin Koo
  */
 public class DefaultActiveTraceRepository implements ActiveTraceRepository {
@@ -41,16 +42,21 @@ public class DefaultActiveTraceRepository implements ActiveTraceRepository {
     // memory leak defense threshold
     private static final int DEFAULT_MAX_ACTIVE_TRACE_SIZE = 1024 * 10;
 
+    private static final int MAX_PROBE = 64;
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final boolean isDebug = logger.isDebugEnabled();
 
-    // oom safe cache
-    private final ConcurrentMap<ActiveTraceHandle, ActiveTrace> activeTraceInfoMap;
+    private final AtomicReferenceArray<ActiveTrace> activeTraceTable;
+    private final int tableMask;
+    private final int maxActiveTraceSize;
+    private final AtomicInteger activeTraceCount = new AtomicInteger();
 
     private final ResponseTimeCollector responseTimeCollector;
 
     private final HistogramSchema histogramSchema = BaseHistogramSchema.NORMAL_SCHEMA;
     private final ActiveTraceHistogram emptyActiveTraceHistogram = new EmptyActiveTraceHistogram(histogramSchema);
+    private final ActiveTraceTimeSlotCounter timeSlotCounter = new ActiveTraceTimeSlotCounter(histogramSchema);
 
     public DefaultActiveTraceRepository(ResponseTimeCollector responseTimeCollector) {
         this(responseTimeCollector, DEFAULT_MAX_ACTIVE_TRACE_SIZE);
@@ -58,29 +64,36 @@ public class DefaultActiveTraceRepository implements ActiveTraceRepository {
 
     public DefaultActiveTraceRepository(ResponseTimeCollector responseTimeCollector, int maxActiveTraceSize) {
         this.responseTimeCollector = Assert.requireNonNull(responseTimeCollector, "responseTimeCollector must not be null");
-        this.activeTraceInfoMap = createCache(maxActiveTraceSize);
+        if (maxActiveTraceSize <= 0) {
+            throw new IllegalArgumentException("maxActiveTraceSize must be positive");
+        }
+        this.maxActiveTraceSize = maxActiveTraceSize;
+        // load factor 0.5
+        final int tableSize = ActiveTraceTimeSlotCounter.roundUpToPowerOfTwo(Math.min(maxActiveTraceSize, 1 << 29) * 2);
+        this.activeTraceTable = new AtomicReferenceArray<ActiveTrace>(tableSize);
+        this.tableMask = tableSize - 1;
     }
 
-    private ConcurrentMap<ActiveTraceHandle, ActiveTrace> createCache(int maxActiveTraceSize) {
-        final CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
-        cacheBuilder.concurrencyLevel(64);
-        cacheBuilder.initialCapacity(maxActiveTraceSize);
-        cacheBuilder.maximumSize(maxActiveTraceSize);
-
-        final Cache<ActiveTraceHandle, ActiveTrace> localCache = cacheBuilder.build();
-        return localCache.asMap();
+    private static int hash(long id) {
+        final long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32);
     }
 
-
-    private void remove(ActiveTraceHandle key, long purgeTime) {
+    private void remove(DefaultActiveTraceHandle handle, long purgeTime) {
         if (isDebug) {
-            logger.debug("remove ActiveTrace key:{}", key);
+            logger.debug("remove ActiveTrace key:{}", handle);
+        }
+        final ActiveTrace activeTrace = handle.activeTrace;
+        if (!this.activeTraceTable.compareAndSet(handle.index, activeTrace, null)) {
+            // already purged
+            return;
         }
-        final ActiveTrace activeTrace = this.activeTraceInfoMap.remove(key);
-        if (activeTrace != null) {
-            final long responseTime = purgeTime - activeTrace.getStartTime();
-            responseTimeCollector.add(responseTime);
+        this.activeTraceCount.decrementAndGet();
+        if (handle.timeSlot != DefaultActiveTraceHandle.NOT_STARTED) {
+            this.timeSlotCounter.decrement(handle.timeSlot);
         }
+        final long responseTime = purgeTime - activeTrace.getStartTime();
+        responseTimeCollector.add(responseTime);
     }
 
     @Override
@@ -108,28 +121,44 @@ public class DefaultActiveTraceRepository implements ActiveTraceRepository {
             logger.debug("register ActiveTrace key:{}", activeTrace);
         }
 
-        final long id = activeTrace.getId();
-        final ActiveTraceHandle handle = new DefaultActiveTraceHandle(id);
-        final ActiveTrace old = this.activeTraceInfoMap.put(handle, activeTrace);
-        if (old != null) {
-            if (logger.isWarnEnabled()) {
-                logger.warn("old activeTrace exist:{}", old);
+        if (this.activeTraceCount.incrementAndGet() > maxActiveTraceSize) {
+            this.activeTraceCount.decrementAndGet();
+            return overflow(activeTrace);
+        }
+        final int start = hash(activeTrace.getId());
+        for (int probe = 0; probe < MAX_PROBE; probe++) {
+            final int index = (start + probe) & tableMask;
+            if (this.activeTraceTable.get(index) == null && this.activeTraceTable.compareAndSet(index, null, activeTrace)) {
+                final long startTime = activeTrace.getStartTime();
+                final long timeSlot = isStarted(startTime) ? timeSlotCounter.increment(startTime) : DefaultActiveTraceHandle.NOT_STARTED;
+                return new DefaultActiveTraceHandle(index, activeTrace, timeSlot);
             }
         }
-        return handle;
+        this.activeTraceCount.decrementAndGet();
+        return overflow(activeTrace);
+    }
+
+    private ActiveTraceHandle overflow(ActiveTrace activeTrace) {
+        if (isDebug) {
+            logger.debug("activeTrace table full, untracked activeTrace:{}", activeTrace);
+        }
+        return new UntrackedActiveTraceHandle(activeTrace.getStartTime());
     }
 
 
     // @ThreadSafe
     @Override
     public List<ActiveTraceSnapshot> snapshot() {
-        if (this.activeTraceInfoMap.isEmpty()) {
+        if (this.activeTraceCount.get() == 0) {
             return Collections.emptyList();
         }
-        final Collection<ActiveTrace> activeTraceCollection = this.activeTraceInfoMap.values();
-        final List<ActiveTraceSnapshot> collectData = new ArrayList<ActiveTraceSnapshot>(activeTraceCollection.size());
+        final List<ActiveTraceSnapshot> collectData = new ArrayList<ActiveTraceSnapshot>(this.activeTraceCount.get());
 
-        for (ActiveTrace trace : activeTraceCollection) {
+        for (int i = 0; i < this.activeTraceTable.length(); i++) {
+            final ActiveTrace trace = this.activeTraceTable.get(i);
+            if (trace == null) {
+                continue;
+            }
             final long startTime = trace.getStartTime();
             // not started
             if (!isStarted(startTime)) {
@@ -148,13 +177,16 @@ public class DefaultActiveTraceRepository implements ActiveTraceRepository {
     // @ThreadSafe
     @Override
     public List<Long> getThreadIdList() {
-        if (this.activeTraceInfoMap.isEmpty()) {
+        if (this.activeTraceCount.get() == 0) {
             return Collections.emptyList();
         }
-        final Collection<ActiveTrace> activeTraceCollection = this.activeTraceInfoMap.values();
-        final List<Long> collectData = new ArrayList<Long>(activeTraceCollection.size());
+        final List<Long> collectData = new ArrayList<Long>(this.activeTraceCount.get());
 
-        for (ActiveTrace trace : activeTraceCollection) {
+        for (int i = 0; i < this.activeTraceTable.length(); i++) {
+            final ActiveTrace trace = this.activeTraceTable.get(i);
+            if (trace == null) {
+                continue;
+            }
             final long startTime = trace.getStartTime();
             // not started
             if (!isStarted(startTime)) {
@@ -172,24 +204,10 @@ public class DefaultActiveTraceRepository implements ActiveTraceRepository {
     // @ThreadSafe
     @Override
     public ActiveTraceHistogram getActiveTraceHistogram(long currentTime) {
-        if (this.activeTraceInfoMap.isEmpty()) {
+        if (this.timeSlotCounter.getTotalCount() == 0) {
             return emptyActiveTraceHistogram;
         }
-        final Collection<ActiveTrace> activeTraceCollection = this.activeTraceInfoMap.values();
-
-
-        final DefaultActiveTraceHistogram histogram = new DefaultActiveTraceHistogram(histogramSchema);
-        for (ActiveTrace activeTraceInfo : activeTraceCollection) {
-            final long startTime = activeTraceInfo.getStartTime();
-            if (!isStarted(startTime)) {
-                continue;
-            }
-            final int elapsedTime = (int) (currentTime - startTime);
-            final HistogramSlot slot = histogramSchema.findHistogramSlot(elapsedTime, false);
-            histogram.increment(slot);
-        }
-
-        return histogram;
+        return this.timeSlotCounter.getHistogram(currentTime);
     }
 
     private boolean isStarted(long startTime) {
@@ -198,10 +216,17 @@ public class DefaultActiveTraceRepository implements ActiveTraceRepository {
 
 
     private class DefaultActiveTraceHandle implements ActiveTraceHandle {
-        private final long id;
 
-        DefaultActiveTraceHandle(long id) {
-            this.id = id;
+        private static final long NOT_STARTED = Long.MIN_VALUE;
+
+        private final int index;
+        private final ActiveTrace activeTrace;
+        private final long timeSlot;
+
+        DefaultActiveTraceHandle(int index, ActiveTrace activeTrace, long timeSlot) {
+            this.index = index;
+            this.activeTrace = activeTrace;
+            this.timeSlot = timeSlot;
         }
 
         @Override
@@ -210,24 +235,31 @@ public class DefaultActiveTraceRepository implements ActiveTraceRepository {
         }
 
         @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
+        public String toString() {
+            return "DefaultActiveTraceHandle{" +
+                    "id=" + activeTrace.getId() +
+                    ", index=" + index +
+                    '}';
+        }
+    }
 
-            DefaultActiveTraceHandle that = (DefaultActiveTraceHandle) o;
+    // table full, only response time is collected
+    private class UntrackedActiveTraceHandle implements ActiveTraceHandle {
+        private final long startTime;
 
-            return id == that.id;
+        UntrackedActiveTraceHandle(long startTime) {
+            this.startTime = startTime;
         }
 
         @Override
-        public int hashCode() {
-            return (int) (id ^ (id >>> 32));
+        public void purge(long purgeTime) {
+            responseTimeCollector.add(purgeTime - startTime);
         }
 
         @Override
         public String toString() {
-            return "DefaultActiveTraceHandle{" +
-                    "id=" + id +
+            return "UntrackedActiveTraceHandle{" +
+                    "startTime=" + startTime +
                     '}';
         }
     }
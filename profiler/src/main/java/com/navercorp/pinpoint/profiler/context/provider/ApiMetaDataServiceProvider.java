@@ -18,8 +18,12 @@ package com.navercorp.pinpoint.profiler.context.provider;
 
 import com.google.inject.Inject;
 import com.google.inject.Provider;
+import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
 import com.navercorp.pinpoint.profiler.context.module.AgentId;
 import com.navercorp.pinpoint.profiler.context.module.AgentStartTime;
+import com.navercorp.pinpoint.profiler.metadata.ContentHashApiMetaDataService;
+import com.navercorp.pinpoint.profiler.metadata.ContentHashCache;
+import com.navercorp.pinpoint.profiler.metadata.ContentHashCacheFactory;
 import com.navercorp.pinpoint.profiler.metadata.DefaultApiMetaDataService;
 import com.navercorp.pinpoint.profiler.metadata.ApiMetaDataService;
 import com.navercorp.pinpoint.profiler.sender.EnhancedDataSender;
@@ -28,15 +32,22 @@ import com.navercorp.pinpoint.profiler.sender.EnhancedDataSender;
  * @author Woonduk Kang(emeroad)
  */
 public class ApiMetaDataServiceProvider implements Provider<ApiMetaDataService> {
+    private static final int API_CACHE_SIZE = 1024;
+
+    private final ProfilerConfig profilerConfig;
     private final String agentId;
     private final long agentStartTime;
     private final Provider<EnhancedDataSender> enhancedDataSenderProvider;
 
     @Inject
-    public ApiMetaDataServiceProvider(@AgentId String agentId, @AgentStartTime long agentStartTime, Provider<EnhancedDataSender> enhancedDataSenderProvider) {
+    public ApiMetaDataServiceProvider(ProfilerConfig profilerConfig, @AgentId String agentId, @AgentStartTime long agentStartTime, Provider<EnhancedDataSender> enhancedDataSenderProvider) {
+        if (profilerConfig == null) {
+            throw new NullPointerException("profilerConfig must not be null");
+        }
         if (enhancedDataSenderProvider == null) {
             throw new NullPointerException("enhancedDataSenderProvider must not be null");
         }
+        this.profilerConfig = profilerConfig;
         this.agentId = agentId;
         this.agentStartTime = agentStartTime;
         this.enhancedDataSenderProvider = enhancedDataSenderProvider;
@@ -45,6 +56,11 @@ public class ApiMetaDataServiceProvider implements Provider<ApiMetaDataService>
     @Override
     public ApiMetaDataService get() {
         final EnhancedDataSender enhancedDataSender = this.enhancedDataSenderProvider.get();
+        if (profilerConfig.isMetaDataContentHashEnable()) {
+            final ContentHashCacheFactory contentHashCacheFactory = new ContentHashCacheFactory(profilerConfig.getMetaDataContentHashStorePath(), agentId);
+            final ContentHashCache apiCache = contentHashCacheFactory.createCache("api", API_CACHE_SIZE);
+            return new ContentHashApiMetaDataService(agentId, enhancedDataSender, apiCache);
+        }
         return new DefaultApiMetaDataService(agentId, agentStartTime, enhancedDataSender);
     }
 }
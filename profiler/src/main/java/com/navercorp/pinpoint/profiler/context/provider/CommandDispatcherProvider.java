@@ -25,6 +25,8 @@ import com.navercorp.pinpoint.profiler.receiver.ProfilerCommandLocatorBuilder;
 import com.navercorp.pinpoint.profiler.receiver.ProfilerCommandServiceLocator;
 import com.navercorp.pinpoint.profiler.receiver.service.ActiveThreadService;
 import com.navercorp.pinpoint.profiler.receiver.service.EchoService;
+import com.navercorp.pinpoint.profiler.receiver.service.SamplingRuleService;
+import com.navercorp.pinpoint.profiler.sampler.SamplingRuleTable;
 
 /**
  * @author Woonduk Kang(emeroad)
@@ -33,18 +35,23 @@ public class CommandDispatcherProvider implements Provider<CommandDispatcher> {
 
     private final ProfilerConfig profilerConfig;
     private final ActiveTraceRepository activeTraceRepository;
+    private final SamplingRuleTable samplingRuleTable;
 
     @Inject
-    public CommandDispatcherProvider(ProfilerConfig profilerConfig, Provider<ActiveTraceRepository> activeTraceRepositoryProvider) {
+    public CommandDispatcherProvider(ProfilerConfig profilerConfig, Provider<ActiveTraceRepository> activeTraceRepositoryProvider, SamplingRuleTable samplingRuleTable) {
         if (profilerConfig == null) {
             throw new NullPointerException("profilerConfig must not be null");
         }
         if (activeTraceRepositoryProvider == null) {
             throw new NullPointerException("activeTraceRepositoryProvider must not be null");
         }
+        if (samplingRuleTable == null) {
+            throw new NullPointerException("samplingRuleTable must not be null");
+        }
 
         this.profilerConfig = profilerConfig;
         this.activeTraceRepository = activeTraceRepositoryProvider.get();
+        this.samplingRuleTable = samplingRuleTable;
     }
 
     @Override
@@ -55,6 +62,9 @@ public class CommandDispatcherProvider implements Provider<CommandDispatcher> {
             ActiveThreadService activeThreadService = new ActiveThreadService(profilerConfig, activeTraceRepository);
             builder.addService(activeThreadService);
         }
+        if (profilerConfig.isSamplingEnable()) {
+            builder.addService(new SamplingRuleService(samplingRuleTable));
+        }
 
         ProfilerCommandServiceLocator commandServiceLocator = builder.build();
         CommandDispatcher commandDispatcher = new CommandDispatcher(commandServiceLocator);
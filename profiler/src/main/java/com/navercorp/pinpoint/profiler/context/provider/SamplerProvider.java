@@ -37,9 +37,14 @@ public class SamplerProvider implements Provider<Sampler> {
     @Override
     public Sampler get() {
         boolean samplingEnable = profilerConfig.isSamplingEnable();
-        int samplingRate = profilerConfig.getSamplingRate();
 
         SamplerFactory samplerFactory = new SamplerFactory();
+        if (profilerConfig.isSamplingAdaptiveEnable()) {
+            int samplingAdaptiveThroughput = profilerConfig.getSamplingAdaptiveThroughput();
+            return samplerFactory.createAdaptiveSampler(samplingEnable, samplingAdaptiveThroughput);
+        }
+
+        int samplingRate = profilerConfig.getSamplingRate();
         return samplerFactory.createSampler(samplingEnable, samplingRate);
     }
 }
@@ -20,6 +20,7 @@ import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
 import com.navercorp.pinpoint.profiler.context.module.SpanStatClientFactory;
+import com.navercorp.pinpoint.profiler.sender.AsyncQueueFactory;
 import com.navercorp.pinpoint.profiler.sender.DataSender;
 import com.navercorp.pinpoint.profiler.sender.TcpDataSender;
 import com.navercorp.pinpoint.profiler.sender.UdpDataSenderFactory;
@@ -47,6 +48,9 @@ public class SpanDataSenderProvider  implements Provider<DataSender> {
     private final int sendBufferSize;
     private final String ioType;
     private final String transportType;
+    private final String writeQueueType;
+    private final String writeQueueWaitStrategy;
+    private final boolean packing;
 
     @Inject
     public SpanDataSenderProvider(ProfilerConfig profilerConfig, @SpanStatClientFactory Provider<PinpointClientFactory> clientFactoryProvider) {
@@ -66,6 +70,9 @@ public class SpanDataSenderProvider  implements Provider<DataSender> {
         this.sendBufferSize = profilerConfig.getSpanDataSenderSocketSendBufferSize();
         this.ioType = profilerConfig.getSpanDataSenderSocketType();
         this.transportType = profilerConfig.getSpanDataSenderTransportType();
+        this.writeQueueType = profilerConfig.getSpanDataSenderWriteQueueType();
+        this.writeQueueWaitStrategy = profilerConfig.getSpanDataSenderWriteQueueWaitStrategy();
+        this.packing = profilerConfig.isSpanDataSenderPackingEnable();
     }
 
     @Override
@@ -79,7 +86,8 @@ public class SpanDataSenderProvider  implements Provider<DataSender> {
             InetSocketAddress address = new InetSocketAddress(ip, port);
             return new TcpDataSender("SpanDataSender", address, pinpointClientFactory);
         } else {
-            UdpDataSenderFactory factory = new UdpDataSenderFactory(ip, port, UDP_EXECUTOR_NAME, writeQueueSize, timeout, sendBufferSize);
+            AsyncQueueFactory queueFactory = new AsyncQueueFactory(writeQueueType, writeQueueWaitStrategy);
+            UdpDataSenderFactory factory = new UdpDataSenderFactory(ip, port, UDP_EXECUTOR_NAME, writeQueueSize, timeout, sendBufferSize, queueFactory, packing);
             return factory.create(ioType);
         }
     }
@@ -94,6 +102,9 @@ public class SpanDataSenderProvider  implements Provider<DataSender> {
         sb.append(", sendBufferSize=").append(sendBufferSize);
         sb.append(", ioType='").append(ioType).append('\'');
         sb.append(", transportType='").append(transportType).append('\'');
+        sb.append(", writeQueueType='").append(writeQueueType).append('\'');
+        sb.append(", writeQueueWaitStrategy='").append(writeQueueWaitStrategy).append('\'');
+        sb.append(", packing=").append(packing);
         sb.append('}');
         return sb.toString();
     }
@@ -25,6 +25,7 @@ import com.navercorp.pinpoint.profiler.context.module.SpanDataSender;
 import com.navercorp.pinpoint.profiler.context.storage.BufferedStorageFactory;
 import com.navercorp.pinpoint.profiler.context.storage.SpanStorageFactory;
 import com.navercorp.pinpoint.profiler.context.storage.StorageFactory;
+import com.navercorp.pinpoint.profiler.context.storage.TailSamplingStorageFactory;
 import com.navercorp.pinpoint.profiler.context.storage.TraceLogDelegateStorage;
 import com.navercorp.pinpoint.profiler.context.storage.TraceLogDelegateStorageFactory;
 import com.navercorp.pinpoint.profiler.sender.DataSender;
@@ -69,6 +70,11 @@ public class StorageFactoryProvider implements Provider<StorageFactory> {
     }
 
     private StorageFactory newStorageFactory() {
+        if (profilerConfig.isSamplingTailEnable()) {
+            int slowThreshold = this.profilerConfig.getSamplingTailSlowThreshold();
+            int bufferSize = this.profilerConfig.getSamplingTailBufferSize();
+            return new TailSamplingStorageFactory(this.spanDataSender, this.spanPostProcessor, this.spanChunkFactory, slowThreshold, bufferSize);
+        }
         if (profilerConfig.isIoBufferingEnable()) {
             int ioBufferingBufferSize = this.profilerConfig.getIoBufferingBufferSize();
             return new BufferedStorageFactory(ioBufferingBufferSize, this.spanDataSender, this.spanPostProcessor, this.spanChunkFactory);
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.provider;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
+import com.navercorp.pinpoint.profiler.context.module.AgentId;
+import com.navercorp.pinpoint.profiler.context.module.AgentStartTime;
+import com.navercorp.pinpoint.profiler.metadata.ContentHashCache;
+import com.navercorp.pinpoint.profiler.metadata.ContentHashCacheFactory;
+import com.navercorp.pinpoint.profiler.metadata.ContentHashStringMetaDataService;
+import com.navercorp.pinpoint.profiler.metadata.DefaultStringMetaDataService;
+import com.navercorp.pinpoint.profiler.metadata.StringMetaDataService;
+import com.navercorp.pinpoint.profiler.sender.EnhancedDataSender;
+
+public class StringMetaDataServiceProvider implements Provider<StringMetaDataService> {
+
+    private static final int STRING_CACHE_SIZE = 1024;
+
+    private final ProfilerConfig profilerConfig;
+    private final String agentId;
+    private final long agentStartTime;
+    private final Provider<EnhancedDataSender> enhancedDataSenderProvider;
+
+    @Inject
+    public StringMetaDataServiceProvider(ProfilerConfig profilerConfig, @AgentId String agentId, @AgentStartTime long agentStartTime, Provider<EnhancedDataSender> enhancedDataSenderProvider) {
+        if (profilerConfig == null) {
+            throw new NullPointerException("profilerConfig must not be null");
+        }
+        if (enhancedDataSenderProvider == null) {
+            throw new NullPointerException("enhancedDataSenderProvider must not be null");
+        }
+        this.profilerConfig = profilerConfig;
+        this.agentId = agentId;
+        this.agentStartTime = agentStartTime;
+        this.enhancedDataSenderProvider = enhancedDataSenderProvider;
+    }
+
+    @Override
+    public StringMetaDataService get() {
+        final EnhancedDataSender enhancedDataSender = this.enhancedDataSenderProvider.get();
+        if (profilerConfig.isMetaDataContentHashEnable()) {
+            final ContentHashCacheFactory contentHashCacheFactory = new ContentHashCacheFactory(profilerConfig.getMetaDataContentHashStorePath(), agentId);
+            final ContentHashCache stringCache = contentHashCacheFactory.createCache("string", STRING_CACHE_SIZE);
+            return new ContentHashStringMetaDataService(agentId, enhancedDataSender, stringCache);
+        }
+        return new DefaultStringMetaDataService(agentId, agentStartTime, enhancedDataSender);
+    }
+}
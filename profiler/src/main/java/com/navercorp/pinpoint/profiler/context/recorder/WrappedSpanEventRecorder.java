@@ -24,7 +24,7 @@ import com.navercorp.pinpoint.profiler.context.Annotation;
 import com.navercorp.pinpoint.profiler.context.AsyncContextFactory;
 import com.navercorp.pinpoint.profiler.context.AsyncId;
 import com.navercorp.pinpoint.profiler.context.DefaultTrace;
-import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.SpanEventFrame;
 import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
 import com.navercorp.pinpoint.profiler.metadata.SqlMetaDataService;
 import com.navercorp.pinpoint.profiler.metadata.StringMetaDataService;
@@ -49,7 +49,7 @@ public class WrappedSpanEventRecorder extends AbstractRecorder implements SpanEv
     private final AsyncContextFactory asyncContextFactory;
     private final AsyncState asyncState;
 
-    private SpanEvent spanEvent;
+    private SpanEventFrame frame;
 
     public WrappedSpanEventRecorder(AsyncContextFactory asyncContextFactory, final StringMetaDataService stringMetaDataService, final SqlMetaDataService sqlMetaCacheService, AsyncState asyncState) {
         super(stringMetaDataService, sqlMetaCacheService);
@@ -59,8 +59,8 @@ public class WrappedSpanEventRecorder extends AbstractRecorder implements SpanEv
         this.asyncState = asyncState;
     }
 
-    public void setWrapped(final SpanEvent spanEvent) {
-        this.spanEvent = spanEvent;
+    public void setWrapped(final SpanEventFrame frame) {
+        this.frame = frame;
     }
 
     @Override
@@ -105,12 +105,12 @@ public class WrappedSpanEventRecorder extends AbstractRecorder implements SpanEv
 
 
     private void recordSqlParam(TIntStringStringValue tIntStringStringValue) {
-        spanEvent.addAnnotation(new Annotation(AnnotationKey.SQL_ID.getCode(), tIntStringStringValue));
+        frame.addAnnotation(new Annotation(AnnotationKey.SQL_ID.getCode(), tIntStringStringValue));
     }
 
     @Override
     public void recordDestinationId(String destinationId) {
-        spanEvent.setDestinationId(destinationId);
+        frame.setDestinationId(destinationId);
     }
 
     @Override
@@ -118,19 +118,19 @@ public class WrappedSpanEventRecorder extends AbstractRecorder implements SpanEv
         if (nextSpanId == -1) {
             return;
         }
-        spanEvent.setNextSpanId(nextSpanId);
+        frame.setNextSpanId(nextSpanId);
     }
 
     @Override
     public void recordAsyncId(int asyncId) {
-        spanEvent.setAsyncId(asyncId);
+        frame.setAsyncId(asyncId);
     }
 
 
     @Override
     public AsyncContext recordNextAsyncContext() {
-        final SpanEvent spanEvent = this.spanEvent;
-        final TraceRoot traceRoot = spanEvent.getTraceRoot();
+        final SpanEventFrame frame = this.frame;
+        final TraceRoot traceRoot = frame.getTraceRoot();
 
         final AsyncId asyncIdObject = getAsyncIdObject();
         final AsyncContext asyncContext = asyncContextFactory.newAsyncContext(traceRoot, asyncIdObject);
@@ -139,8 +139,8 @@ public class WrappedSpanEventRecorder extends AbstractRecorder implements SpanEv
 
     @Override
     public AsyncContext recordNextAsyncContext(boolean asyncStateSupport) {
-        final SpanEvent spanEvent = this.spanEvent;
-        final TraceRoot traceRoot = spanEvent.getTraceRoot();
+        final SpanEventFrame frame = this.frame;
+        final TraceRoot traceRoot = frame.getTraceRoot();
         final AsyncId asyncIdObject = getAsyncIdObject();
 
         final AsyncState asyncState = this.asyncState;
@@ -158,22 +158,22 @@ public class WrappedSpanEventRecorder extends AbstractRecorder implements SpanEv
     @Deprecated
     @Override
     public void recordNextAsyncId(int nextAsyncId) {
-        spanEvent.setNextAsyncId(nextAsyncId);
+        frame.setNextAsyncId(nextAsyncId);
     }
 
     @Override
     public void recordAsyncSequence(short asyncSequence) {
-        spanEvent.setAsyncSequence(asyncSequence);
+        frame.setAsyncSequence(asyncSequence);
     }
 
     @Override
     void maskErrorCode(int errorCode) {
-        this.spanEvent.getTraceRoot().getShared().maskErrorCode(errorCode);
+        this.frame.getTraceRoot().getShared().maskErrorCode(errorCode);
     }
 
     @Override
     void setExceptionInfo(int exceptionClassId, String exceptionMessage) {
-        this.spanEvent.setExceptionInfo(exceptionClassId, exceptionMessage);
+        this.frame.setExceptionInfo(exceptionClassId, exceptionMessage);
     }
 
     @Override
@@ -182,64 +182,58 @@ public class WrappedSpanEventRecorder extends AbstractRecorder implements SpanEv
     }
 
     void setApiId0(final int apiId) {
-        spanEvent.setApiId(apiId);
+        frame.setApiId(apiId);
     }
 
     void addAnnotation(Annotation annotation) {
-        spanEvent.addAnnotation(annotation);
+        frame.addAnnotation(annotation);
     }
 
     @Override
     public void recordServiceType(ServiceType serviceType) {
-        spanEvent.setServiceType(serviceType.getCode());
+        frame.setServiceType(serviceType.getCode());
     }
 
     @Override
     public void recordRpcName(String rpc) {
-        spanEvent.setRpc(rpc);
+        frame.setRpc(rpc);
     }
 
     @Override
     public void recordEndPoint(String endPoint) {
-        spanEvent.setEndPoint(endPoint);
+        frame.setEndPoint(endPoint);
     }
 
     @Override
     public void recordTime(boolean time) {
-        spanEvent.setTimeRecording(time);
+        frame.setTimeRecording(time);
         if (time) {
-            if(!spanEvent.isSetStartElapsed()) {
-                spanEvent.markStartTime();
-            }
-        } else {
-            spanEvent.setEndElapsed(0);
-            spanEvent.setEndElapsedIsSet(false);
-            spanEvent.setStartElapsed(0);
-            spanEvent.setStartElapsedIsSet(false);
+            // elapsed times are calculated when the frame is stored
+            frame.markStartTime();
         }
     }
 
     @Override
     public Object detachFrameObject() {
-        return spanEvent.detachFrameObject();
+        return frame.detachFrameObject();
     }
 
     @Override
     public Object getFrameObject() {
-        return spanEvent.getFrameObject();
+        return frame.getFrameObject();
     }
 
     @Override
     public Object attachFrameObject(Object frameObject) {
-        return spanEvent.attachFrameObject(frameObject);
+        return frame.attachFrameObject(frameObject);
     }
 
     public AsyncId getAsyncIdObject() {
-        AsyncId asyncIdObject = spanEvent.getAsyncIdObject();
+        AsyncId asyncIdObject = frame.getAsyncIdObject();
         if (asyncIdObject == null) {
             asyncIdObject = asyncContextFactory.newAsyncId();
-            spanEvent.setAsyncIdObject(asyncIdObject);
-            spanEvent.setNextAsyncId(asyncIdObject.getAsyncId());
+            frame.setAsyncIdObject(asyncIdObject);
+            frame.setNextAsyncId(asyncIdObject.getAsyncId());
         }
         return asyncIdObject;
     }
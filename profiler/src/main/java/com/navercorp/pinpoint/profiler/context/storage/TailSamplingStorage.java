@@ -0,0 +1,150 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.common.util.CollectionUtils;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanChunk;
+import com.navercorp.pinpoint.profiler.context.SpanChunkFactory;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.SpanPostProcessor;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.profiler.sender.DataSender;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps span events in memory until the trace ends, and sends them only if the transaction turned out to be
+ * slow or erroneous. Otherwise only the span is sent so that the server map statistics stay intact.
+ * A trace storing more span events than the buffer size is always sent, streaming span chunks like {@link BufferedStorage}.
+ */
+public class TailSamplingStorage implements Storage {
+    private static final Logger logger = LoggerFactory.getLogger(TailSamplingStorage.class);
+    private static final boolean isDebug = logger.isDebugEnabled();
+
+    private final TraceRoot traceRoot;
+    private final DataSender dataSender;
+    private final SpanPostProcessor spanPostProcessor;
+    private final SpanChunkFactory spanChunkFactory;
+
+    private final int slowThreshold;
+    private final int bufferSize;
+
+    private List<SpanEvent> storage;
+    private boolean streaming = false;
+
+    public TailSamplingStorage(TraceRoot traceRoot, DataSender dataSender, SpanPostProcessor spanPostProcessor, SpanChunkFactory spanChunkFactory,
+                               int slowThreshold, int bufferSize) {
+        this.traceRoot = Assert.requireNonNull(traceRoot, "traceRoot must not be null");
+        this.dataSender = Assert.requireNonNull(dataSender, "dataSender must not be null");
+        this.spanPostProcessor = Assert.requireNonNull(spanPostProcessor, "spanPostProcessor must not be null");
+        this.spanChunkFactory = Assert.requireNonNull(spanChunkFactory, "spanChunkFactory must not be null");
+        this.slowThreshold = slowThreshold;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public void store(SpanEvent spanEvent) {
+        List<SpanEvent> storage = this.storage;
+        if (storage == null) {
+            storage = new ArrayList<SpanEvent>();
+            this.storage = storage;
+        }
+        storage.add(spanEvent);
+
+        if (storage.size() >= bufferSize) {
+            if (isDebug && !streaming) {
+                logger.debug("[TailSamplingStorage] buffer overflow, streaming span-chunk. traceRoot:{}", traceRoot);
+            }
+            this.streaming = true;
+            sendSpanChunk(clearBuffer());
+        }
+    }
+
+    @Override
+    public void store(Span span) {
+        final List<SpanEvent> storage = clearBuffer();
+        if (isSampled(span.getElapsed())) {
+            span = spanPostProcessor.postProcess(span, storage);
+        } else {
+            span = spanPostProcessor.postProcess(span, null);
+            if (isDebug) {
+                logger.debug("[TailSamplingStorage] Drop span-event {}", storage);
+            }
+        }
+        dataSender.send(span);
+
+        if (isDebug) {
+            logger.debug("[TailSamplingStorage] Flush span {}", span);
+        }
+    }
+
+    @Override
+    public void flush() {
+        final List<SpanEvent> storage = clearBuffer();
+        if (CollectionUtils.isEmpty(storage)) {
+            return;
+        }
+        final long elapsedTime = System.currentTimeMillis() - traceRoot.getTraceStartTime();
+        if (isSampled(elapsedTime)) {
+            sendSpanChunk(storage);
+        } else if (isDebug) {
+            logger.debug("[TailSamplingStorage] Drop span-event {}", storage);
+        }
+    }
+
+    boolean isSampled(long elapsedTime) {
+        if (streaming) {
+            return true;
+        }
+        if (traceRoot.getShared().getErrorCode() != 0) {
+            return true;
+        }
+        return elapsedTime >= slowThreshold;
+    }
+
+    private void sendSpanChunk(List<SpanEvent> spanEventList) {
+        final SpanChunk spanChunk = spanChunkFactory.create(traceRoot, spanEventList);
+        if (isDebug) {
+            logger.debug("[TailSamplingStorage] Flush span-chunk {}", spanChunk);
+        }
+        dataSender.send(spanChunk);
+    }
+
+    private List<SpanEvent> clearBuffer() {
+        final List<SpanEvent> copy = this.storage;
+        this.storage = null;
+        return copy;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public String toString() {
+        return "TailSamplingStorage{" +
+                "slowThreshold=" + slowThreshold +
+                ", bufferSize=" + bufferSize +
+                ", dataSender=" + dataSender +
+                '}';
+    }
+}
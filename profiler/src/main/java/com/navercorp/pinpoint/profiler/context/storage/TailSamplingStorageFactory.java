@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.profiler.context.SpanChunkFactory;
+import com.navercorp.pinpoint.profiler.context.SpanPostProcessor;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.profiler.sender.DataSender;
+
+public class TailSamplingStorageFactory implements StorageFactory {
+
+    private final DataSender dataSender;
+    private final SpanPostProcessor spanPostProcessor;
+    private final SpanChunkFactory spanChunkFactory;
+    private final int slowThreshold;
+    private final int bufferSize;
+
+    public TailSamplingStorageFactory(DataSender dataSender, SpanPostProcessor spanPostProcessor, SpanChunkFactory spanChunkFactory, int slowThreshold, int bufferSize) {
+        if (dataSender == null) {
+            throw new NullPointerException("dataSender must not be null");
+        }
+        if (spanPostProcessor == null) {
+            throw new NullPointerException("spanPostProcessor must not be null");
+        }
+        if (spanChunkFactory == null) {
+            throw new NullPointerException("spanChunkFactory must not be null");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive");
+        }
+        this.dataSender = dataSender;
+        this.spanPostProcessor = spanPostProcessor;
+        this.spanChunkFactory = spanChunkFactory;
+        this.slowThreshold = slowThreshold;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public Storage createStorage(TraceRoot traceRoot) {
+        return new TailSamplingStorage(traceRoot, dataSender, spanPostProcessor, spanChunkFactory, slowThreshold, bufferSize);
+    }
+
+    @Override
+    public String toString() {
+        return "TailSamplingStorageFactory{" +
+                "dataSender=" + dataSender +
+                ", slowThreshold=" + slowThreshold +
+                ", bufferSize=" + bufferSize +
+                ", spanChunkFactory=" + spanChunkFactory +
+                '}';
+    }
+}
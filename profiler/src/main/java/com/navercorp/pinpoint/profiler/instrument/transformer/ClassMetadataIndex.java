@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.instrument.transformer;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.navercorp.pinpoint.profiler.instrument.classreading.InternalClassMetadata;
+
+/**
+ * Metadata of the classes already read, indexed by class internal name.
+ * Walking the interface/super/annotation hierarchy looks up here before reading the class file from the class loader again.
+ * Like {@link HierarchyCaches}, the class loader is not part of the key.
+ */
+public class ClassMetadataIndex {
+    private final boolean active;
+    private final Cache<String, InternalClassMetadata> index;
+
+    public ClassMetadataIndex(final int size) {
+        if (size <= 0) {
+            this.active = false;
+            this.index = null;
+            return;
+        }
+
+        this.active = true;
+        this.index = CacheBuilder.newBuilder()
+                .maximumSize(size)
+                .concurrencyLevel(4)
+                .build();
+    }
+
+    public InternalClassMetadata get(final String classInternalName) {
+        if (!this.active || classInternalName == null) {
+            return null;
+        }
+        return this.index.getIfPresent(classInternalName);
+    }
+
+    public void put(final InternalClassMetadata classMetadata) {
+        if (!this.active || classMetadata == null || classMetadata.getClassInternalName() == null) {
+            return;
+        }
+        this.index.put(classMetadata.getClassInternalName(), classMetadata);
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("{");
+        sb.append("active=").append(active);
+        if (active) {
+            sb.append(", size=").append(index.size());
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+}
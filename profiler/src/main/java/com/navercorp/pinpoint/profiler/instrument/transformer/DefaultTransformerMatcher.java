@@ -43,11 +43,20 @@ public class DefaultTransformerMatcher implements TransformerMatcher {
     private HierarchyCaches interfaceCaches;
     private HierarchyCaches annotationCaches;
     private HierarchyCaches superCaches;
+    private final ClassMetadataIndex classMetadataIndex;
 
     public DefaultTransformerMatcher(final InstrumentMatcherCacheConfig cacheConfig) {
+        this(cacheConfig, new ClassMetadataIndex(cacheConfig.getClassMetadataIndexSize()));
+    }
+
+    public DefaultTransformerMatcher(final InstrumentMatcherCacheConfig cacheConfig, final ClassMetadataIndex classMetadataIndex) {
+        if (classMetadataIndex == null) {
+            throw new NullPointerException("classMetadataIndex must not be null");
+        }
         this.interfaceCaches = new HierarchyCaches(cacheConfig.getInterfaceCacheSize(), cacheConfig.getInterfaceCacheEntrySize());
         this.annotationCaches = new HierarchyCaches(cacheConfig.getAnnotationCacheSize(), cacheConfig.getAnnotationCacheEntrySize());
         this.superCaches = new HierarchyCaches(cacheConfig.getSuperCacheSize(), cacheConfig.getSuperCacheEntrySize());
+        this.classMetadataIndex = classMetadataIndex;
     }
 
     public boolean match(ClassLoader classLoader, MatcherOperand operand, InternalClassMetadata classMetadata) {
@@ -227,8 +236,15 @@ public class DefaultTransformerMatcher implements TransformerMatcher {
             return null;
         }
 
+        final InternalClassMetadata indexed = this.classMetadataIndex.get(classInternalName);
+        if (indexed != null) {
+            return indexed;
+        }
+
         try {
-            return InternalClassMetadataReader.readInternalClassMetadata(classLoader, classInternalName);
+            final InternalClassMetadata classMetadata = InternalClassMetadataReader.readInternalClassMetadata(classLoader, classInternalName);
+            this.classMetadataIndex.put(classMetadata);
+            return classMetadata;
         } catch (Exception e) {
             if (logger.isInfoEnabled()) {
                 logger.info("Failed to read metadata of class. classLoader={}, internalName={}", classLoader, classInternalName, e);
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.instrument.transformer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Prefix trie of package internal names.
+ * Finding the packages of a class takes one walk over the class name, regardless of the number of registered packages.
+ */
+class PackageInternalNameIndex<T> {
+
+    private static final char[] EMPTY_KEYS = new char[0];
+
+    private final Node<T> root = new Node<T>();
+    private boolean empty = true;
+
+    void put(final String packageInternalName, final T value) {
+        if (packageInternalName == null) {
+            throw new NullPointerException("packageInternalName must not be null");
+        }
+        Node<T> node = this.root;
+        for (int i = 0; i < packageInternalName.length(); i++) {
+            node = node.getOrCreateChild(packageInternalName.charAt(i));
+        }
+        node.addValue(value);
+        this.empty = false;
+    }
+
+    // sorted by package name length.
+    List<T> find(final String classInternalName) {
+        List<T> result = null;
+        Node<T> node = this.root;
+        for (int i = 0; ; i++) {
+            if (node.values != null) {
+                if (result == null) {
+                    result = new ArrayList<T>(node.values.size());
+                }
+                result.addAll(node.values);
+            }
+            if (i == classInternalName.length()) {
+                break;
+            }
+            node = node.getChild(classInternalName.charAt(i));
+            if (node == null) {
+                break;
+            }
+        }
+
+        if (result == null) {
+            return Collections.emptyList();
+        }
+        return result;
+    }
+
+    boolean isEmpty() {
+        return empty;
+    }
+
+    private static class Node<T> {
+        private char[] keys = EMPTY_KEYS;
+        private Node<T>[] children;
+        private List<T> values;
+
+        private Node<T> getChild(final char key) {
+            final char[] keys = this.keys;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) {
+                    return this.children[i];
+                }
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Node<T> getOrCreateChild(final char key) {
+            final Node<T> child = getChild(key);
+            if (child != null) {
+                return child;
+            }
+
+            final int length = this.keys.length;
+            final char[] newKeys = new char[length + 1];
+            final Node<T>[] newChildren = new Node[length + 1];
+            System.arraycopy(this.keys, 0, newKeys, 0, length);
+            if (length > 0) {
+                System.arraycopy(this.children, 0, newChildren, 0, length);
+            }
+            final Node<T> newChild = new Node<T>();
+            newKeys[length] = key;
+            newChildren[length] = newChild;
+
+            this.keys = newKeys;
+            this.children = newChildren;
+            return newChild;
+        }
+
+        private void addValue(final T value) {
+            if (this.values == null) {
+                this.values = new ArrayList<T>(2);
+            }
+            if (!this.values.contains(value)) {
+                this.values.add(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.metadata;
+
+import com.navercorp.pinpoint.bootstrap.context.MethodDescriptor;
+import com.navercorp.pinpoint.common.util.ContentHashUtils;
+import com.navercorp.pinpoint.profiler.sender.EnhancedDataSender;
+import com.navercorp.pinpoint.thrift.dto.TApiMetaData;
+
+/**
+ * Api metadata identified by the content hash of the full name of the method.
+ */
+public class ContentHashApiMetaDataService implements ApiMetaDataService {
+
+    private final ContentHashCache apiCache;
+
+    private final String agentId;
+    private final EnhancedDataSender enhancedDataSender;
+
+    public ContentHashApiMetaDataService(String agentId, EnhancedDataSender enhancedDataSender, ContentHashCache apiCache) {
+        if (agentId == null) {
+            throw new NullPointerException("agentId must not be null");
+        }
+        if (enhancedDataSender == null) {
+            throw new NullPointerException("enhancedDataSender must not be null");
+        }
+        if (apiCache == null) {
+            throw new NullPointerException("apiCache must not be null");
+        }
+        this.agentId = agentId;
+        this.enhancedDataSender = enhancedDataSender;
+        this.apiCache = apiCache;
+    }
+
+    @Override
+    public int cacheApi(final MethodDescriptor methodDescriptor) {
+        final String fullName = methodDescriptor.getFullName();
+        final Result result = this.apiCache.put(fullName);
+
+        methodDescriptor.setApiId(result.getId());
+
+        if (result.isNewValue()) {
+            final TApiMetaData apiMetadata = new TApiMetaData();
+            apiMetadata.setAgentId(agentId);
+            apiMetadata.setAgentStartTime(ContentHashUtils.CONTENT_HASH_AGENT_START_TIME);
+
+            apiMetadata.setApiId(result.getId());
+            apiMetadata.setApiInfo(methodDescriptor.getApiDescriptor());
+            apiMetadata.setLine(methodDescriptor.getLineNumber());
+            apiMetadata.setType(methodDescriptor.getType());
+
+            this.enhancedDataSender.request(apiMetadata, new ContentHashResponseListener(apiCache, fullName, result.getId()));
+        }
+
+        return result.getId();
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.metadata;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.navercorp.pinpoint.common.util.ContentHashUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metadata cache assigning ids from the content hash instead of a sequence, so the id of a value is the same across restarts.
+ * <p>
+ * A hash collision is resolved by probing the next candidate. Ids forgotten by eviction may collide with a value sent before,
+ * the collector rejects such an id and the value probes the next candidate as well. The assigned ids are recorded in {@link MetaDataIdStore}
+ * once the collector acknowledges them, which keeps ids stable regardless of the order values show up,
+ * and lets an acknowledged value skip sending after eviction or restart.
+ * <p>
+ * An acknowledgement expires well before the metadata rows of the collector (180 days for sql and string, 1 year for api),
+ * so a value still in use is sent again before its row is deleted.
+ * The ids and acknowledgements are bounded by the cache size.
+ */
+public class ContentHashCache implements MetaDataCache<String> {
+
+    static final long DEFAULT_ACK_EXPIRE_MILLIS = TimeUnit.DAYS.toMillis(30);
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final ConcurrentMap<String, Result> cache;
+
+    private final MetaDataIdStore idStore;
+
+    private final long ackExpireMillis;
+
+    // fingerprint -> id
+    private final ConcurrentMap<Long, IdEntry> idMap;
+    // id -> fingerprint, same entries as idMap
+    private final ConcurrentMap<Integer, Long> fingerprintMap = new ConcurrentHashMap<Integer, Long>();
+
+    private final Set<Long> inFlight = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+
+    // ids taken by a different content on the collector
+    private final Set<Integer> conflictIds = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+
+    public ContentHashCache(int cacheSize, MetaDataIdStore idStore) {
+        this(cacheSize, DEFAULT_ACK_EXPIRE_MILLIS, idStore);
+    }
+
+    public ContentHashCache(int cacheSize, long ackExpireMillis, MetaDataIdStore idStore) {
+        if (idStore == null) {
+            throw new NullPointerException("idStore must not be null");
+        }
+        if (ackExpireMillis <= 0) {
+            throw new IllegalArgumentException("ackExpireMillis must be positive");
+        }
+        this.ackExpireMillis = ackExpireMillis;
+        this.cache = createCache(cacheSize, ackExpireMillis);
+        this.idMap = createIdMap(cacheSize);
+        this.idStore = idStore;
+        load(idStore.load(System.currentTimeMillis() - ackExpireMillis, cacheSize));
+    }
+
+    private ConcurrentMap<String, Result> createCache(int maxCacheSize, long ackExpireMillis) {
+        final CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
+        cacheBuilder.concurrencyLevel(64);
+        cacheBuilder.initialCapacity(maxCacheSize);
+        cacheBuilder.maximumSize(maxCacheSize);
+        // revisit the acknowledgement of a value in use
+        cacheBuilder.expireAfterWrite(ackExpireMillis, TimeUnit.MILLISECONDS);
+        Cache<String, Result> localCache = cacheBuilder.build();
+        return localCache.asMap();
+    }
+
+    private ConcurrentMap<Long, IdEntry> createIdMap(int maxCacheSize) {
+        final CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
+        cacheBuilder.concurrencyLevel(64);
+        cacheBuilder.maximumSize(maxCacheSize);
+        Cache<Long, IdEntry> localCache = cacheBuilder.removalListener(new RemovalListener<Long, IdEntry>() {
+            @Override
+            public void onRemoval(RemovalNotification<Long, IdEntry> notification) {
+                final Long fingerprint = notification.getKey();
+                final IdEntry idEntry = notification.getValue();
+                if (fingerprint != null && idEntry != null) {
+                    fingerprintMap.remove(idEntry.id, fingerprint);
+                }
+            }
+        }).build();
+        return localCache.asMap();
+    }
+
+    private void load(List<MetaDataIdStore.Entry> entryList) {
+        for (MetaDataIdStore.Entry entry : entryList) {
+            final Long fingerprint = entry.getFingerprint();
+            final Integer id = entry.getId();
+            final Long before = fingerprintMap.putIfAbsent(id, fingerprint);
+            if (before != null) {
+                logger.warn("duplicated metadata id in store. id:{}", id);
+                continue;
+            }
+            idMap.put(fingerprint, new IdEntry(id, entry.getAckTime()));
+        }
+    }
+
+    @Override
+    public Result put(String value) {
+        final Result find = this.cache.get(value);
+        if (find != null) {
+            return find;
+        }
+
+        final long fingerprint = ContentHashUtils.fingerprint(value);
+        final IdEntry idEntry = getIdEntry(fingerprint);
+        final Result result = new Result(false, idEntry.id);
+        final Result before = this.cache.putIfAbsent(value, result);
+        if (before != null) {
+            return before;
+        }
+        if (idEntry.isAcknowledged(System.currentTimeMillis() - ackExpireMillis) || !inFlight.add(fingerprint)) {
+            // already sent
+            return result;
+        }
+        return new Result(true, idEntry.id);
+    }
+
+    private IdEntry getIdEntry(long fingerprint) {
+        final IdEntry idEntry = idMap.get(fingerprint);
+        if (idEntry != null) {
+            return idEntry;
+        }
+        return assignId(fingerprint);
+    }
+
+    // first seen value only
+    private synchronized IdEntry assignId(long fingerprint) {
+        final IdEntry assigned = idMap.get(fingerprint);
+        if (assigned != null) {
+            return assigned;
+        }
+        for (int probe = 0; ; probe++) {
+            final int candidate = ContentHashUtils.toId(fingerprint, probe);
+            // zero means not exist.
+            if (candidate == 0 || conflictIds.contains(candidate)) {
+                continue;
+            }
+            if (fingerprintMap.putIfAbsent(candidate, fingerprint) == null) {
+                final IdEntry idEntry = new IdEntry(candidate, IdEntry.NOT_ACKNOWLEDGED);
+                idMap.put(fingerprint, idEntry);
+                if (probe > 0 && logger.isDebugEnabled()) {
+                    logger.debug("metadata id collision. fingerprint:{} probe:{}", fingerprint, probe);
+                }
+                return idEntry;
+            }
+        }
+    }
+
+    /**
+     * The collector stored the value, it is not sent again until the acknowledgement expires.
+     */
+    public void acknowledge(String value, int id) {
+        final long fingerprint = ContentHashUtils.fingerprint(value);
+        inFlight.remove(fingerprint);
+        final long ackTime = System.currentTimeMillis();
+        final IdEntry idEntry = idMap.get(fingerprint);
+        if (idEntry != null && idEntry.id == id) {
+            idEntry.ackTime = ackTime;
+        }
+        idStore.append(fingerprint, id, ackTime);
+    }
+
+    /**
+     * The collector holds a different value for the id, the value is sent again with the next candidate id on next use.
+     */
+    public void conflict(String value, int id) {
+        final long fingerprint = ContentHashUtils.fingerprint(value);
+        synchronized (this) {
+            conflictIds.add(id);
+            final IdEntry idEntry = idMap.get(fingerprint);
+            if (idEntry != null && idEntry.id == id) {
+                idMap.remove(fingerprint);
+            }
+            this.cache.remove(value);
+        }
+        inFlight.remove(fingerprint);
+    }
+
+    /**
+     * Sending failed, the value is sent again on next use.
+     */
+    public void reject(String value) {
+        final long fingerprint = ContentHashUtils.fingerprint(value);
+        this.cache.remove(value);
+        inFlight.remove(fingerprint);
+    }
+
+    @Override
+    public String toString() {
+        return "ContentHashCache{" +
+                "idStore=" + idStore +
+                ", ids=" + idMap.size() +
+                '}';
+    }
+
+    private static class IdEntry {
+
+        private static final long NOT_ACKNOWLEDGED = -1;
+
+        private final int id;
+        private volatile long ackTime;
+
+        private IdEntry(int id, long ackTime) {
+            this.id = id;
+            this.ackTime = ackTime;
+        }
+
+        private boolean isAcknowledged(long expireTime) {
+            return ackTime != NOT_ACKNOWLEDGED && ackTime >= expireTime;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.metadata;
+
+import com.navercorp.pinpoint.common.util.StringUtils;
+
+import java.io.File;
+
+/**
+ * Creates {@link ContentHashCache} stored under <tt>storePath/agentId/</tt>.
+ */
+public class ContentHashCacheFactory {
+
+    static final String DEFAULT_STORE_DIR = "pinpoint-metadata";
+
+    private final File storeDir;
+
+    public ContentHashCacheFactory(String storePath, String agentId) {
+        if (agentId == null) {
+            throw new NullPointerException("agentId must not be null");
+        }
+        final File baseDir = StringUtils.isEmpty(storePath) ? new File(System.getProperty("java.io.tmpdir"), DEFAULT_STORE_DIR) : new File(storePath);
+        this.storeDir = new File(baseDir, agentId);
+    }
+
+    public ContentHashCache createCache(String name, int cacheSize) {
+        if (name == null) {
+            throw new NullPointerException("name must not be null");
+        }
+        final MetaDataIdStore idStore = new MetaDataIdStore(new File(storeDir, name + ".id"));
+        return new ContentHashCache(cacheSize, idStore);
+    }
+
+    @Override
+    public String toString() {
+        return "ContentHashCacheFactory{" +
+                "storeDir=" + storeDir +
+                '}';
+    }
+}
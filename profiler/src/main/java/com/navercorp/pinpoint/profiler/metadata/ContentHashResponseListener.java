@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.metadata;
+
+import com.navercorp.pinpoint.common.util.ContentHashUtils;
+import com.navercorp.pinpoint.rpc.Future;
+import com.navercorp.pinpoint.rpc.FutureListener;
+import com.navercorp.pinpoint.rpc.ResponseMessage;
+import com.navercorp.pinpoint.thrift.dto.TResult;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializerFactory;
+import com.navercorp.pinpoint.thrift.util.SerializationUtils;
+import org.apache.thrift.TBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Acknowledges the metadata to {@link ContentHashCache} when the collector stored it.
+ * An id taken by a different content on the collector makes the value get the next candidate id.
+ */
+public class ContentHashResponseListener implements FutureListener<ResponseMessage> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentHashResponseListener.class);
+
+    private final ContentHashCache contentHashCache;
+    private final String value;
+    private final int id;
+
+    public ContentHashResponseListener(ContentHashCache contentHashCache, String value, int id) {
+        if (contentHashCache == null) {
+            throw new NullPointerException("contentHashCache must not be null");
+        }
+        if (value == null) {
+            throw new NullPointerException("value must not be null");
+        }
+        this.contentHashCache = contentHashCache;
+        this.value = value;
+        this.id = id;
+    }
+
+    @Override
+    public void onComplete(Future<ResponseMessage> future) {
+        final TResult result = getResult(future);
+        if (result == null) {
+            contentHashCache.reject(value);
+            return;
+        }
+        if (result.isSuccess()) {
+            contentHashCache.acknowledge(value, id);
+            return;
+        }
+        if (ContentHashUtils.ID_CONFLICT_MESSAGE.equals(result.getMessage())) {
+            logger.info("metadata id conflict. id:{}", id);
+            contentHashCache.conflict(value, id);
+            return;
+        }
+        logger.info("metadata request fail. id:{} Caused:{}", id, result.getMessage());
+        contentHashCache.reject(value);
+    }
+
+    private TResult getResult(Future<ResponseMessage> future) {
+        if (future == null || !future.isSuccess()) {
+            return null;
+        }
+        final ResponseMessage responseMessage = future.getResult();
+        if (responseMessage == null) {
+            return null;
+        }
+        final TBase<?, ?> tbase = SerializationUtils.deserialize(responseMessage.getMessage(), HeaderTBaseDeserializerFactory.DEFAULT_FACTORY, null);
+        if (!(tbase instanceof TResult)) {
+            logger.warn("Invalid response:{}", tbase);
+            return null;
+        }
+        return (TResult) tbase;
+    }
+}
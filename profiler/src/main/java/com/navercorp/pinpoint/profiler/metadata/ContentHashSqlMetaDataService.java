@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.metadata;
+
+import com.navercorp.pinpoint.bootstrap.context.ParsingResult;
+import com.navercorp.pinpoint.common.util.ContentHashUtils;
+import com.navercorp.pinpoint.profiler.sender.EnhancedDataSender;
+import com.navercorp.pinpoint.thrift.dto.TSqlMetaData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sql metadata identified by the content hash of the normalized sql.
+ * Metadata is sent with {@link ContentHashUtils#CONTENT_HASH_AGENT_START_TIME} and only until the collector acknowledges it.
+ */
+public class ContentHashSqlMetaDataService implements SqlMetaDataService {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final boolean isDebug = logger.isDebugEnabled();
+
+    private final ContentHashCache sqlCache;
+    private final CachingSqlNormalizer cachingSqlNormalizer;
+
+    private final String agentId;
+    private final EnhancedDataSender enhancedDataSender;
+
+    public ContentHashSqlMetaDataService(String agentId, EnhancedDataSender enhancedDataSender, ContentHashCache sqlCache) {
+        if (agentId == null) {
+            throw new NullPointerException("agentId must not be null");
+        }
+        if (enhancedDataSender == null) {
+            throw new NullPointerException("enhancedDataSender must not be null");
+        }
+        if (sqlCache == null) {
+            throw new NullPointerException("sqlCache must not be null");
+        }
+        this.agentId = agentId;
+        this.enhancedDataSender = enhancedDataSender;
+        this.sqlCache = sqlCache;
+        this.cachingSqlNormalizer = new DefaultCachingSqlNormalizer(sqlCache);
+    }
+
+    @Override
+    public ParsingResult parseSql(final String sql) {
+        // lazy sql normalization
+        return this.cachingSqlNormalizer.wrapSql(sql);
+    }
+
+    @Override
+    public boolean cacheSql(ParsingResult parsingResult) {
+        if (parsingResult == null) {
+            return false;
+        }
+        // lazy sql parsing
+        boolean isNewValue = this.cachingSqlNormalizer.normalizedSql(parsingResult);
+        if (isNewValue) {
+            if (isDebug) {
+                logger.debug("NewSQLParsingResult:{}", parsingResult);
+            }
+            final String sql = parsingResult.getSql();
+            final int sqlId = parsingResult.getId();
+
+            final TSqlMetaData sqlMetaData = new TSqlMetaData();
+            sqlMetaData.setAgentId(agentId);
+            sqlMetaData.setAgentStartTime(ContentHashUtils.CONTENT_HASH_AGENT_START_TIME);
+            sqlMetaData.setSqlId(sqlId);
+            sqlMetaData.setSql(sql);
+            this.enhancedDataSender.request(sqlMetaData, new ContentHashResponseListener(sqlCache, sql, sqlId));
+        }
+        return isNewValue;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.metadata;
+
+import com.navercorp.pinpoint.common.util.ContentHashUtils;
+import com.navercorp.pinpoint.profiler.sender.EnhancedDataSender;
+import com.navercorp.pinpoint.thrift.dto.TStringMetaData;
+
+/**
+ * String metadata identified by the content hash of the value.
+ */
+public class ContentHashStringMetaDataService implements StringMetaDataService {
+
+    private final ContentHashCache stringCache;
+
+    private final String agentId;
+    private final EnhancedDataSender enhancedDataSender;
+
+    public ContentHashStringMetaDataService(String agentId, EnhancedDataSender enhancedDataSender, ContentHashCache stringCache) {
+        if (agentId == null) {
+            throw new NullPointerException("agentId must not be null");
+        }
+        if (enhancedDataSender == null) {
+            throw new NullPointerException("enhancedDataSender must not be null");
+        }
+        if (stringCache == null) {
+            throw new NullPointerException("stringCache must not be null");
+        }
+        this.agentId = agentId;
+        this.enhancedDataSender = enhancedDataSender;
+        this.stringCache = stringCache;
+    }
+
+    @Override
+    public int cacheString(final String value) {
+        if (value == null) {
+            return 0;
+        }
+        final Result result = this.stringCache.put(value);
+        if (result.isNewValue()) {
+            final TStringMetaData stringMetaData = new TStringMetaData();
+            stringMetaData.setAgentId(agentId);
+            stringMetaData.setAgentStartTime(ContentHashUtils.CONTENT_HASH_AGENT_START_TIME);
+            stringMetaData.setStringId(result.getId());
+            stringMetaData.setStringValue(value);
+            this.enhancedDataSender.request(stringMetaData, new ContentHashResponseListener(stringCache, value, result.getId()));
+        }
+        return result.getId();
+    }
+}
@@ -30,11 +30,25 @@ public class DefaultCachingSqlNormalizer implements CachingSqlNormalizer {
 
     private static final DefaultParsingResult EMPTY_OBJECT = new DefaultParsingResult("");
 
-    private final SimpleCache<String> sqlCache;
+    private static final int NORMALIZED_SQL_CACHE_SIZE = 256;
+    // long sql (e.g. bulk insert) is rarely the same, not worth holding
+    private static final int MAX_CACHED_SQL_LENGTH = 4096;
+
+    private final MetaDataCache<String> sqlCache;
     private final SqlParser sqlParser;
 
+    // direct mapped by the hash of the raw sql, a racy overwrite only costs a re-parse
+    private final NormalizedSqlEntry[] normalizedSqlCache = new NormalizedSqlEntry[NORMALIZED_SQL_CACHE_SIZE];
+
     public DefaultCachingSqlNormalizer(int cacheSize) {
-        this.sqlCache = new SimpleCache<String>(cacheSize);
+        this(new SimpleCache<String>(cacheSize));
+    }
+
+    public DefaultCachingSqlNormalizer(MetaDataCache<String> sqlCache) {
+        if (sqlCache == null) {
+            throw new NullPointerException("sqlCache must not be null");
+        }
+        this.sqlCache = sqlCache;
         this.sqlParser = new DefaultSqlParser();
     }
 
@@ -69,7 +83,7 @@ public class DefaultCachingSqlNormalizer implements CachingSqlNormalizer {
         final ParsingResultInternal parsingResultInternal = (ParsingResultInternal) parsingResult;
 
         final String originalSql = parsingResultInternal.getOriginalSql();
-        final NormalizedSql normalizedSql = this.sqlParser.normalizedSql(originalSql);
+        final NormalizedSql normalizedSql = normalize(originalSql);
 
         final Result cachingResult = this.sqlCache.put(normalizedSql.getNormalizedSql());
 
@@ -88,5 +102,29 @@ public class DefaultCachingSqlNormalizer implements CachingSqlNormalizer {
         return cachingResult.isNewValue();
     }
 
+    private NormalizedSql normalize(String originalSql) {
+        final int hashCode = originalSql.hashCode();
+        final int index = (hashCode ^ (hashCode >>> 16)) & (NORMALIZED_SQL_CACHE_SIZE - 1);
+        final NormalizedSqlEntry entry = normalizedSqlCache[index];
+        if (entry != null && entry.originalSql.equals(originalSql)) {
+            return entry.normalizedSql;
+        }
+
+        final NormalizedSql normalizedSql = this.sqlParser.normalizedSql(originalSql);
+        if (originalSql.length() <= MAX_CACHED_SQL_LENGTH) {
+            normalizedSqlCache[index] = new NormalizedSqlEntry(originalSql, normalizedSql);
+        }
+        return normalizedSql;
+    }
+
+    private static class NormalizedSqlEntry {
+        private final String originalSql;
+        private final NormalizedSql normalizedSql;
+
+        private NormalizedSqlEntry(String originalSql, NormalizedSql normalizedSql) {
+            this.originalSql = originalSql;
+            this.normalizedSql = normalizedSql;
+        }
+    }
 
 }
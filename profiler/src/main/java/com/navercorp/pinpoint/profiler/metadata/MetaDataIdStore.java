@@ -0,0 +1,226 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.metadata;
+
+import com.navercorp.pinpoint.common.Charsets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append only file of the content hash ids acknowledged by the collector.
+ * One <tt>fingerprint id ackTime checksum</tt> entry per line, a broken line (e.g. killed while writing) is skipped on load.
+ * <p>
+ * The file is compacted on load. Expired and duplicated entries are dropped, and only the latest acknowledged entries are kept.
+ */
+public class MetaDataIdStore {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final File file;
+
+    public MetaDataIdStore(File file) {
+        if (file == null) {
+            throw new NullPointerException("file must not be null");
+        }
+        this.file = file;
+    }
+
+    /**
+     * @param expireTime entries acknowledged before this time are dropped
+     * @param maxSize    max number of entries, the latest acknowledged entries are kept
+     * @return entries in acknowledged order
+     */
+    public List<Entry> load(long expireTime, int maxSize) {
+        if (!file.isFile()) {
+            return Collections.emptyList();
+        }
+        // latest entry of each fingerprint, in acknowledged order
+        final Map<Long, Entry> entryMap = new LinkedHashMap<Long, Entry>();
+        int lineCount = 0;
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), Charsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineCount++;
+                final Entry entry = parse(line);
+                if (entry == null) {
+                    logger.debug("invalid metadata id entry:{}", line);
+                    continue;
+                }
+                entryMap.remove(entry.getFingerprint());
+                if (entry.getAckTime() >= expireTime) {
+                    entryMap.put(entry.getFingerprint(), entry);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("metadata id store load fail. file:{} Caused:{}", file, e.getMessage(), e);
+            return Collections.emptyList();
+        } finally {
+            close(reader);
+        }
+
+        final List<Entry> entryList = new ArrayList<Entry>(entryMap.values());
+        final List<Entry> result = entryList.subList(Math.max(0, entryList.size() - maxSize), entryList.size());
+        if (result.size() != lineCount) {
+            compact(result);
+        }
+        logger.info("metadata id store loaded. file:{} size:{} lines:{}", file, result.size(), lineCount);
+        return result;
+    }
+
+    private Entry parse(String line) {
+        final String[] entry = line.split(" ");
+        if (entry.length != 4) {
+            return null;
+        }
+        try {
+            final long fingerprint = Long.parseLong(entry[0]);
+            final int id = Integer.parseInt(entry[1]);
+            final long ackTime = Long.parseLong(entry[2]);
+            if (Integer.parseInt(entry[3]) != checksum(fingerprint, id, ackTime)) {
+                return null;
+            }
+            return new Entry(fingerprint, id, ackTime);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private synchronized void compact(List<Entry> entryList) {
+        final File compactFile = new File(file.getPath() + ".compact");
+        boolean written = false;
+        Writer writer = null;
+        try {
+            writer = new OutputStreamWriter(new FileOutputStream(compactFile, false), Charsets.UTF_8);
+            for (Entry entry : entryList) {
+                writer.write(toLine(entry.getFingerprint(), entry.getId(), entry.getAckTime()));
+            }
+            writer.flush();
+            written = true;
+        } catch (IOException e) {
+            logger.warn("metadata id store compact fail. file:{} Caused:{}", file, e.getMessage(), e);
+        } finally {
+            close(writer);
+        }
+        if (!written) {
+            compactFile.delete();
+            return;
+        }
+        // renameTo does not replace an existing file on some platforms
+        if (!compactFile.renameTo(file)) {
+            if (!file.delete() || !compactFile.renameTo(file)) {
+                logger.warn("metadata id store compact fail. file:{}", file);
+                compactFile.delete();
+            }
+        }
+    }
+
+    public synchronized void append(long fingerprint, int id, long ackTime) {
+        Writer writer = null;
+        try {
+            final File parent = file.getParentFile();
+            if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+                logger.warn("metadata id store directory create fail. dir:{}", parent);
+                return;
+            }
+            writer = new OutputStreamWriter(new FileOutputStream(file, true), Charsets.UTF_8);
+            writer.write(toLine(fingerprint, id, ackTime));
+            writer.flush();
+        } catch (IOException e) {
+            logger.warn("metadata id store append fail. file:{} Caused:{}", file, e.getMessage(), e);
+        } finally {
+            close(writer);
+        }
+    }
+
+    private static String toLine(long fingerprint, int id, long ackTime) {
+        return Long.toString(fingerprint) + ' ' + id + ' ' + ackTime + ' ' + checksum(fingerprint, id, ackTime) + '\n';
+    }
+
+    private static int checksum(long fingerprint, int id, long ackTime) {
+        final int hash = (int) (fingerprint ^ (fingerprint >>> 32)) * 31 + id;
+        return hash * 31 + (int) (ackTime ^ (ackTime >>> 32));
+    }
+
+    private void close(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException ignore) {
+            // skip
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MetaDataIdStore{" +
+                "file=" + file +
+                '}';
+    }
+
+    public static class Entry {
+
+        private final long fingerprint;
+        private final int id;
+        private final long ackTime;
+
+        public Entry(long fingerprint, int id, long ackTime) {
+            this.fingerprint = fingerprint;
+            this.id = id;
+            this.ackTime = ackTime;
+        }
+
+        public long getFingerprint() {
+            return fingerprint;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public long getAckTime() {
+            return ackTime;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{" +
+                    "fingerprint=" + fingerprint +
+                    ", id=" + id +
+                    ", ackTime=" + ackTime +
+                    '}';
+        }
+    }
+}
@@ -26,7 +26,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 /**
  * @author emeroad
  */
-public class SimpleCache<T> {
+public class SimpleCache<T> implements MetaDataCache<T> {
     // zero means not exist.
     private final AtomicInteger idGen;
     private final ConcurrentMap<T, Result> cache;
@@ -55,6 +55,7 @@ public class SimpleCache<T> {
         return cache;
     }
 
+    @Override
     public Result put(T value) {
         final Result find = this.cache.get(value);
         if (find != null) {
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.receiver.service;
+
+import com.navercorp.pinpoint.profiler.receiver.ProfilerRequestCommandService;
+import com.navercorp.pinpoint.profiler.sampler.SamplingRuleTable;
+import com.navercorp.pinpoint.thrift.dto.TResult;
+import com.navercorp.pinpoint.thrift.dto.command.TCmdSamplingRule;
+import org.apache.thrift.TBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replaces the sampling rules of the agent at runtime.
+ * The rules are not persisted, <tt>profiler.sampling.rule</tt> of pinpoint.config applies again after a restart.
+ */
+public class SamplingRuleService implements ProfilerRequestCommandService {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final SamplingRuleTable samplingRuleTable;
+
+    public SamplingRuleService(SamplingRuleTable samplingRuleTable) {
+        if (samplingRuleTable == null) {
+            throw new NullPointerException("samplingRuleTable must not be null");
+        }
+        this.samplingRuleTable = samplingRuleTable;
+    }
+
+    @Override
+    public TBase<?, ?> requestCommandService(TBase tbase) {
+        logger.info("{} execute {}.", this, tbase);
+
+        final TCmdSamplingRule param = (TCmdSamplingRule) tbase;
+        samplingRuleTable.update(param.getSamplingRule());
+
+        final TResult result = new TResult(true);
+        result.setMessage(samplingRuleTable.toString());
+        return result;
+    }
+
+    @Override
+    public Class<? extends TBase> getCommandClazz() {
+        return TCmdSamplingRule.class;
+    }
+
+}
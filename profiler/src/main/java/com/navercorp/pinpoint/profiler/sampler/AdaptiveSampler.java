@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
+import com.navercorp.pinpoint.common.util.Clock;
+import com.navercorp.pinpoint.common.util.MathUtils;
+import com.navercorp.pinpoint.common.util.SystemClock;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the number of sampled transactions per second near the target throughput.
+ * The 1-in-N sampling rate is recalculated from the request rate of the previous window,
+ * and the sampled count of the current window is capped at the target so that bursts do not overflow the sender.
+ */
+public class AdaptiveSampler implements Sampler {
+
+    static final long WINDOW_SIZE = 1000;
+
+    private final int targetThroughput;
+    private final Clock clock;
+
+    private final AtomicLong windowStartTime;
+    private final AtomicInteger requestCounter = new AtomicInteger(0);
+    private final AtomicInteger sampledCounter = new AtomicInteger(0);
+
+    private volatile int samplingRate = 1;
+
+    public AdaptiveSampler(int targetThroughput) {
+        this(targetThroughput, SystemClock.INSTANCE);
+    }
+
+    AdaptiveSampler(int targetThroughput, Clock clock) {
+        if (targetThroughput <= 0) {
+            throw new IllegalArgumentException("Invalid targetThroughput " + targetThroughput);
+        }
+        if (clock == null) {
+            throw new NullPointerException("clock must not be null");
+        }
+        this.targetThroughput = targetThroughput;
+        this.clock = clock;
+        this.windowStartTime = new AtomicLong(clock.getTime());
+    }
+
+    @Override
+    public boolean isSampling() {
+        rollWindow(clock.getTime());
+
+        final int requestCount = MathUtils.fastAbs(requestCounter.getAndIncrement());
+        if (requestCount % samplingRate != 0) {
+            return false;
+        }
+        return sampledCounter.incrementAndGet() <= targetThroughput;
+    }
+
+    private void rollWindow(long currentTime) {
+        final long windowStartTime = this.windowStartTime.get();
+        final long elapsedTime = currentTime - windowStartTime;
+        if (elapsedTime < WINDOW_SIZE) {
+            return;
+        }
+        if (!this.windowStartTime.compareAndSet(windowStartTime, currentTime)) {
+            // another thread rolled the window
+            return;
+        }
+        final int requestCount = requestCounter.getAndSet(0);
+        this.samplingRate = calculateSamplingRate(requestCount, elapsedTime);
+        sampledCounter.set(0);
+    }
+
+    int calculateSamplingRate(int requestCount, long elapsedTime) {
+        final long requestPerWindow = (requestCount * WINDOW_SIZE) / elapsedTime;
+        if (requestPerWindow <= targetThroughput) {
+            return 1;
+        }
+        final long samplingRate = (requestPerWindow + targetThroughput - 1) / targetThroughput;
+        return (int) Math.min(samplingRate, Integer.MAX_VALUE);
+    }
+
+    int getSamplingRate() {
+        return samplingRate;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveSampler{" +
+                "targetThroughput=" + targetThroughput +
+                ", samplingRate=" + samplingRate +
+                '}';
+    }
+}
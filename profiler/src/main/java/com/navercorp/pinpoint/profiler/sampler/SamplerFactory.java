@@ -31,4 +31,11 @@ public class SamplerFactory {
         }
         return new SamplingRateSampler(samplingRate);
     }
+
+    public Sampler createAdaptiveSampler(boolean sampling, int targetThroughput) {
+        if (!sampling || targetThroughput <= 0) {
+            return new FalseSampler();
+        }
+        return new AdaptiveSampler(targetThroughput);
+    }
 }
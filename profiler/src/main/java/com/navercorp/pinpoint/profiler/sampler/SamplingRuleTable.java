@@ -0,0 +1,262 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sampling rules keyed by entry point (URL path, RPC name).
+ * Rules are written as comma separated <tt>[serviceType:]pattern:samplingRate</tt> entries. A pattern ending with <tt>*</tt>
+ * matches by prefix, and the longest prefix wins. Exact patterns take precedence over prefix patterns.
+ * e.g. <tt>/health:0, /api/checkout:1, /static/*:100, TOMCAT:/internal/*:0</tt>
+ * <p>
+ * A rule prefixed by a service type name (upper case letters, digits and '_') only applies to entry points of that service type,
+ * and takes precedence over rules without a service type.
+ * <p>
+ * Rules are compiled into an immutable snapshot, so lookups are lock-free and {@link #update(String)} can swap them at runtime.
+ * Each rule owns its sampler, so a busy entry point does not consume the sampling counter of the others.
+ */
+public class SamplingRuleTable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SamplingRuleTable.class);
+
+    private static final char PREFIX_WILDCARD = '*';
+
+    private final SamplerFactory samplerFactory = new SamplerFactory();
+
+    private volatile Rules rules = Rules.EMPTY;
+
+    public SamplingRuleTable() {
+    }
+
+    public SamplingRuleTable(String ruleString) {
+        update(ruleString);
+    }
+
+    /**
+     * @return the sampler of the matched rule, or null if no rule matches the entry point
+     */
+    public Sampler getSampler(String entryPoint) {
+        return getSampler(null, entryPoint);
+    }
+
+    /**
+     * @param serviceType service type of the entry point, nullable
+     * @return the sampler of the matched rule, or null if no rule matches the entry point
+     */
+    public Sampler getSampler(ServiceType serviceType, String entryPoint) {
+        if (entryPoint == null) {
+            return null;
+        }
+        return rules.find(serviceType, entryPoint);
+    }
+
+    public void update(String ruleString) {
+        final Rules newRules = compile(ruleString);
+        this.rules = newRules;
+        logger.info("sampling rule updated. {}", newRules);
+    }
+
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    private Rules compile(String ruleString) {
+        if (ruleString == null) {
+            return Rules.EMPTY;
+        }
+        final RuleGroup defaultGroup = new RuleGroup();
+        final Map<String, RuleGroup> serviceTypeGroupMap = new HashMap<String, RuleGroup>();
+
+        for (String rule : ruleString.split(",")) {
+            rule = rule.trim();
+            if (rule.isEmpty()) {
+                continue;
+            }
+            final int separator = rule.lastIndexOf(':');
+            if (separator <= 0) {
+                logger.warn("invalid sampling rule:{}", rule);
+                continue;
+            }
+            String pattern = rule.substring(0, separator).trim();
+            final int samplingRate;
+            try {
+                samplingRate = Integer.parseInt(rule.substring(separator + 1).trim());
+            } catch (NumberFormatException e) {
+                logger.warn("invalid sampling rate. rule:{}", rule);
+                continue;
+            }
+
+            String serviceTypeName = null;
+            final int serviceTypeSeparator = pattern.indexOf(':');
+            if (serviceTypeSeparator > 0 && isServiceTypeName(pattern, serviceTypeSeparator)) {
+                serviceTypeName = pattern.substring(0, serviceTypeSeparator);
+                pattern = pattern.substring(serviceTypeSeparator + 1).trim();
+            }
+            if (pattern.isEmpty()) {
+                logger.warn("invalid sampling rule:{}", rule);
+                continue;
+            }
+
+            RuleGroup group = defaultGroup;
+            if (serviceTypeName != null) {
+                group = serviceTypeGroupMap.get(serviceTypeName);
+                if (group == null) {
+                    group = new RuleGroup();
+                    serviceTypeGroupMap.put(serviceTypeName, group);
+                }
+            }
+
+            final Sampler sampler = samplerFactory.createSampler(true, samplingRate);
+            group.put(pattern, sampler);
+        }
+        if (defaultGroup.isEmpty() && serviceTypeGroupMap.isEmpty()) {
+            return Rules.EMPTY;
+        }
+        return new Rules(defaultGroup, serviceTypeGroupMap);
+    }
+
+    private static boolean isServiceTypeName(String pattern, int length) {
+        for (int i = 0; i < length; i++) {
+            final char c = pattern.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "SamplingRuleTable{" + rules + '}';
+    }
+
+    private static class Rules {
+
+        private static final Rules EMPTY = new Rules(new RuleGroup(), new HashMap<String, RuleGroup>());
+
+        private final RuleGroup defaultGroup;
+        private final Map<String, RuleGroup> serviceTypeGroupMap;
+
+        private Rules(RuleGroup defaultGroup, Map<String, RuleGroup> serviceTypeGroupMap) {
+            this.defaultGroup = defaultGroup;
+            this.serviceTypeGroupMap = serviceTypeGroupMap;
+        }
+
+        private boolean isEmpty() {
+            return defaultGroup.isEmpty() && serviceTypeGroupMap.isEmpty();
+        }
+
+        private Sampler find(ServiceType serviceType, String entryPoint) {
+            if (serviceType != null && !serviceTypeGroupMap.isEmpty()) {
+                final RuleGroup group = serviceTypeGroupMap.get(serviceType.getName());
+                if (group != null) {
+                    final Sampler sampler = group.find(entryPoint);
+                    if (sampler != null) {
+                        return sampler;
+                    }
+                }
+            }
+            return defaultGroup.find(entryPoint);
+        }
+
+        @Override
+        public String toString() {
+            return "defaultRules=" + defaultGroup + ", serviceTypeRules=" + serviceTypeGroupMap;
+        }
+    }
+
+    private static class RuleGroup {
+
+        private final Map<String, Sampler> exactRuleMap = new HashMap<String, Sampler>();
+        private final Node prefixRoot = new Node();
+        private int prefixRuleCount;
+
+        private void put(String pattern, Sampler sampler) {
+            if (pattern.charAt(pattern.length() - 1) == PREFIX_WILDCARD) {
+                prefixRoot.put(pattern.substring(0, pattern.length() - 1), sampler);
+                prefixRuleCount++;
+            } else {
+                exactRuleMap.put(pattern, sampler);
+            }
+        }
+
+        private boolean isEmpty() {
+            return exactRuleMap.isEmpty() && prefixRuleCount == 0;
+        }
+
+        private Sampler find(String entryPoint) {
+            if (!exactRuleMap.isEmpty()) {
+                final Sampler sampler = exactRuleMap.get(entryPoint);
+                if (sampler != null) {
+                    return sampler;
+                }
+            }
+            if (prefixRuleCount == 0) {
+                return null;
+            }
+            return prefixRoot.findLongestPrefix(entryPoint);
+        }
+
+        @Override
+        public String toString() {
+            return "{exactRules=" + exactRuleMap.size() + ", prefixRules=" + prefixRuleCount + '}';
+        }
+    }
+
+    // prefix trie, immutable once compiled
+    private static class Node {
+
+        private final Map<Character, Node> children = new HashMap<Character, Node>();
+        private Sampler sampler;
+
+        private void put(String prefix, Sampler sampler) {
+            Node node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                final Character key = prefix.charAt(i);
+                Node child = node.children.get(key);
+                if (child == null) {
+                    child = new Node();
+                    node.children.put(key, child);
+                }
+                node = child;
+            }
+            node.sampler = sampler;
+        }
+
+        private Sampler findLongestPrefix(String entryPoint) {
+            Node node = this;
+            Sampler matched = node.sampler;
+            for (int i = 0; i < entryPoint.length(); i++) {
+                node = node.children.get(entryPoint.charAt(i));
+                if (node == null) {
+                    break;
+                }
+                if (node.sampler != null) {
+                    matched = node.sampler;
+                }
+            }
+            return matched;
+        }
+    }
+}
@@ -56,7 +56,15 @@ public abstract class AbstractDataSender implements DataSender {
     }
 
     protected AsyncQueueingExecutor<Object> createAsyncQueueingExecutor(int queueSize, String executorName) {
-        final AsyncQueueingExecutor<Object> executor = new AsyncQueueingExecutor<Object>(queueSize, executorName);
+        return createAsyncQueueingExecutor(queueSize, executorName, AsyncQueueFactory.DEFAULT);
+    }
+
+    protected AsyncQueueingExecutor<Object> createAsyncQueueingExecutor(int queueSize, String executorName, AsyncQueueFactory queueFactory) {
+        if (queueFactory == null) {
+            throw new NullPointerException("queueFactory must not be null");
+        }
+        final AsyncQueue<Object> queue = queueFactory.createQueue(queueSize);
+        final AsyncQueueingExecutor<Object> executor = new AsyncQueueingExecutor<Object>(queue, executorName);
         executor.setListener(new AsyncQueueingExecutorListener<Object>() {
             @Override
             public void execute(Collection<Object> messageList) {
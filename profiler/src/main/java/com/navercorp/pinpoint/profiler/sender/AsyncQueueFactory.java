@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+/**
+ * Creates the {@link AsyncQueue} of {@link AsyncQueueingExecutor}.
+ */
+public class AsyncQueueFactory {
+
+    public static final AsyncQueueFactory DEFAULT = new AsyncQueueFactory(AsyncQueueType.LINKED, WaitStrategy.PARK);
+
+    private final AsyncQueueType queueType;
+    private final WaitStrategy waitStrategy;
+
+    public AsyncQueueFactory(String queueTypeName, String waitStrategyName) {
+        this(AsyncQueueType.valueOf(toUpperCase(queueTypeName, "queueTypeName")), WaitStrategy.valueOf(toUpperCase(waitStrategyName, "waitStrategyName")));
+    }
+
+    public AsyncQueueFactory(AsyncQueueType queueType, WaitStrategy waitStrategy) {
+        if (queueType == null) {
+            throw new NullPointerException("queueType must not be null");
+        }
+        if (waitStrategy == null) {
+            throw new NullPointerException("waitStrategy must not be null");
+        }
+        this.queueType = queueType;
+        this.waitStrategy = waitStrategy;
+    }
+
+    private static String toUpperCase(String name, String parameterName) {
+        if (name == null) {
+            throw new NullPointerException(parameterName + " must not be null");
+        }
+        return name.trim().toUpperCase();
+    }
+
+    public <T> AsyncQueue<T> createQueue(int capacity) {
+        if (queueType == AsyncQueueType.RING) {
+            return new MpscRingAsyncQueue<T>(capacity, waitStrategy);
+        } else if (queueType == AsyncQueueType.LINKED) {
+            return new LinkedAsyncQueue<T>(capacity);
+        } else {
+            throw new IllegalArgumentException("Unknown type.");
+        }
+    }
+
+    public AsyncQueueType getQueueType() {
+        return queueType;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncQueueFactory{" +
+                "queueType=" + queueType +
+                ", waitStrategy=" + waitStrategy +
+                '}';
+    }
+}
@@ -17,10 +17,10 @@
 package com.navercorp.pinpoint.profiler.sender;
 
 import java.util.Collection;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,18 +34,29 @@ public class AsyncQueueingExecutor<T> implements Runnable {
 
     private static final AsyncQueueingExecutorListener EMPTY_LISTENER = new EmptyAsyncQueueingExecutorListener();
 
+    public static final int DEFAULT_MIN_DRAIN_SIZE = 10;
+    public static final int DEFAULT_MAX_DRAIN_SIZE = 128;
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final boolean isWarn = logger.isWarnEnabled();
 
-    private final LinkedBlockingQueue<T> queue;
+    private final AsyncQueue<T> queue;
     private final AtomicBoolean isRun = new AtomicBoolean(true);
     private final Thread executeThread;
     private final String executorName;
 
+    private final int minDrainSize;
     private final int maxDrainSize;
+    // Caution. single thread only. grows while the queue keeps a backlog, shrinks when the backlog is gone.
+    private int drainSize;
     // Caution. single thread only. this Collection is simpler than ArrayList.
     private final Collection<T> drain;
 
+    // offered count is derived from these counters to keep the producer path free of shared counter updates.
+    private final AtomicLong droppedCount = new AtomicLong();
+    // Caution. updated by executeThread only.
+    private final AtomicLong drainedCount = new AtomicLong();
+
     private AsyncQueueingExecutorListener<T> listener = EMPTY_LISTENER;
 
 
@@ -54,13 +65,32 @@ public class AsyncQueueingExecutor<T> implements Runnable {
     }
 
     public AsyncQueueingExecutor(int queueSize, String executorName) {
+        this(new LinkedAsyncQueue<T>(queueSize), executorName);
+    }
+
+    public AsyncQueueingExecutor(AsyncQueue<T> queue, String executorName) {
+        this(queue, executorName, DEFAULT_MIN_DRAIN_SIZE, DEFAULT_MAX_DRAIN_SIZE);
+    }
+
+    public AsyncQueueingExecutor(AsyncQueue<T> queue, String executorName, int minDrainSize, int maxDrainSize) {
+        if (queue == null) {
+            throw new NullPointerException("queue must not be null");
+        }
         if (executorName == null) {
             throw new NullPointerException("executorName must not be null");
         }
+        if (minDrainSize <= 0) {
+            throw new IllegalArgumentException("minDrainSize must be greater than 0");
+        }
+        if (maxDrainSize < minDrainSize) {
+            throw new IllegalArgumentException("maxDrainSize must be greater than or equal to minDrainSize");
+        }
         // BEFORE executeThread start
-        this.maxDrainSize = 10;
+        this.minDrainSize = minDrainSize;
+        this.maxDrainSize = maxDrainSize;
+        this.drainSize = minDrainSize;
         this.drain = new UnsafeArrayCollection<T>(maxDrainSize);
-        this.queue = new LinkedBlockingQueue<T>(queueSize);
+        this.queue = queue;
 
         this.executeThread = this.createExecuteThread(executorName);
         this.executorName = executeThread.getName();
@@ -75,7 +105,7 @@ public class AsyncQueueingExecutor<T> implements Runnable {
 
     @Override
     public void run() {
-        logger.info("{} started.", executorName);
+        logger.info("{} started. queue:{}", executorName, queue);
         doExecute();
     }
 
@@ -84,11 +114,13 @@ public class AsyncQueueingExecutor<T> implements Runnable {
         while (isRun()) {
             try {
                 Collection<T> dtoList = getDrainQueue();
-                int drainSize = takeN(dtoList, this.maxDrainSize);
+                int drainSize = takeN(dtoList, this.drainSize);
                 if (drainSize > 0) {
                     doExecute(dtoList);
+                    adjustDrainSize(drainSize);
                     continue;
                 }
+                this.drainSize = minDrainSize;
 
                 while (isRun()) {
                     T dto = takeOne();
@@ -104,6 +136,20 @@ public class AsyncQueueingExecutor<T> implements Runnable {
         flushQueue();
     }
 
+    private void adjustDrainSize(int lastDrainSize) {
+        final int currentDrainSize = this.drainSize;
+        if (lastDrainSize == currentDrainSize) {
+            // queue still has a backlog. take a bigger batch next time.
+            this.drainSize = Math.min(currentDrainSize << 1, maxDrainSize);
+        } else if (lastDrainSize < (currentDrainSize >> 1)) {
+            this.drainSize = Math.max(currentDrainSize >> 1, minDrainSize);
+        }
+    }
+
+    int getDrainSize() {
+        return drainSize;
+    }
+
     private void flushQueue() {
         boolean debugEnabled = logger.isDebugEnabled();
         if (debugEnabled) {
@@ -124,7 +170,11 @@ public class AsyncQueueingExecutor<T> implements Runnable {
 
     protected T takeOne() {
         try {
-            return queue.poll(1000 * 2, TimeUnit.MILLISECONDS);
+            final T dto = queue.poll(1000 * 2, TimeUnit.MILLISECONDS);
+            if (dto != null) {
+                drainedCount.lazySet(drainedCount.get() + 1);
+            }
+            return dto;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             return null;
@@ -132,7 +182,11 @@ public class AsyncQueueingExecutor<T> implements Runnable {
     }
 
     protected int takeN(Collection<T> drain, int maxDrainSize) {
-        return queue.drainTo(drain, maxDrainSize);
+        final int drainSize = queue.drainTo(drain, maxDrainSize);
+        if (drainSize > 0) {
+            drainedCount.lazySet(drainedCount.get() + drainSize);
+        }
+        return drainSize;
     }
 
     public boolean execute(T data) {
@@ -150,6 +204,7 @@ public class AsyncQueueingExecutor<T> implements Runnable {
         }
         boolean offer = queue.offer(data);
         if (!offer) {
+            droppedCount.incrementAndGet();
             if (isWarn) {
                 logger.warn("{} Drop data. queue is full. size:{}", executorName, queue.size());
             }
@@ -176,6 +231,25 @@ public class AsyncQueueingExecutor<T> implements Runnable {
         return queue.isEmpty();
     }
 
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * @return number of data passed to {@link #execute(Object)} while running, including dropped data.
+     */
+    public long getOfferedCount() {
+        return getDrainedCount() + queue.size() + getDroppedCount();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getDrainedCount() {
+        return drainedCount.get();
+    }
+
     public boolean isRun() {
         return isRun.get();
     }
@@ -194,7 +268,7 @@ public class AsyncQueueingExecutor<T> implements Runnable {
             logger.warn("{} stopped incompletely.", executorName);
         }
 
-        logger.info("{} stopped.", executorName);
+        logger.info("{} stopped. offered:{}, dropped:{}, drained:{}", executorName, getOfferedCount(), getDroppedCount(), getDrainedCount());
     }
 
     Collection<T> getDrainQueue() {
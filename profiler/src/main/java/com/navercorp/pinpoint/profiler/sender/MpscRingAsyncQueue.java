@@ -0,0 +1,189 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, array backed, lock-free multi-producer/single-consumer queue.
+ * <p>
+ * Producers claim a slot by CAS on the producer index and publish the element with an ordered store.
+ * the consumer is the only thread which clears slots and moves the consumer index, so no node is allocated per offer
+ * and producers never block each other on a lock.
+ * Caution. poll() and drainTo() must be called by single thread only.
+ */
+public class MpscRingAsyncQueue<T> implements AsyncQueue<T> {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final AtomicReferenceArray<T> buffer;
+    private final int capacity;
+    private final int mask;
+
+    private final AtomicLong producerIndex = new AtomicLong();
+    // shared by producers. stale value is safe because it is only a lower bound of the consumer index.
+    private volatile long consumerIndexCache = 0;
+
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    private final WaitStrategy waitStrategy;
+
+    public MpscRingAsyncQueue(int capacity) {
+        this(capacity, WaitStrategy.PARK);
+    }
+
+    public MpscRingAsyncQueue(int capacity, WaitStrategy waitStrategy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity");
+        }
+        if (waitStrategy == null) {
+            throw new NullPointerException("waitStrategy must not be null");
+        }
+        this.capacity = roundToPowerOfTwo(capacity);
+        this.mask = this.capacity - 1;
+        this.buffer = new AtomicReferenceArray<T>(this.capacity);
+        this.waitStrategy = waitStrategy;
+    }
+
+    static int roundToPowerOfTwo(int value) {
+        if (value > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity is too large. capacity:" + value);
+        }
+        final int highestOneBit = Integer.highestOneBit(value);
+        if (highestOneBit == value) {
+            return value;
+        }
+        return highestOneBit << 1;
+    }
+
+    @Override
+    public boolean offer(T element) {
+        if (element == null) {
+            throw new NullPointerException("element must not be null");
+        }
+        long currentProducerIndex;
+        do {
+            currentProducerIndex = producerIndex.get();
+            final long wrapPoint = currentProducerIndex - capacity;
+            if (consumerIndexCache <= wrapPoint) {
+                final long currentConsumerIndex = consumerIndex.get();
+                if (currentConsumerIndex <= wrapPoint) {
+                    // full
+                    return false;
+                }
+                consumerIndexCache = currentConsumerIndex;
+            }
+        } while (!producerIndex.compareAndSet(currentProducerIndex, currentProducerIndex + 1));
+
+        buffer.lazySet(offset(currentProducerIndex), element);
+        return true;
+    }
+
+    private T poll() {
+        final long currentConsumerIndex = consumerIndex.get();
+        final int offset = offset(currentConsumerIndex);
+        T element = buffer.get(offset);
+        if (element == null) {
+            if (currentConsumerIndex == producerIndex.get()) {
+                return null;
+            }
+            // slot is claimed by a producer but not published yet.
+            do {
+                element = buffer.get(offset);
+            } while (element == null);
+        }
+        buffer.lazySet(offset, null);
+        consumerIndex.lazySet(currentConsumerIndex + 1);
+        return element;
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        T element = poll();
+        if (element != null) {
+            return element;
+        }
+
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int idleCount = 0;
+        while (true) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            element = poll();
+            if (element != null) {
+                return element;
+            }
+            if (deadline - System.nanoTime() <= 0) {
+                return null;
+            }
+            waitStrategy.idle(idleCount++);
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<T> drain, int maxElements) {
+        int count = 0;
+        while (count < maxElements) {
+            final T element = poll();
+            if (element == null) {
+                break;
+            }
+            drain.add(element);
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public int size() {
+        // read consumerIndex first. producerIndex is always greater than or equal to consumerIndex
+        final long currentConsumerIndex = consumerIndex.get();
+        final long currentProducerIndex = producerIndex.get();
+        final long size = currentProducerIndex - currentConsumerIndex;
+        if (size > capacity) {
+            return capacity;
+        }
+        return (int) size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return consumerIndex.get() == producerIndex.get();
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    private int offset(long index) {
+        return (int) (index & mask);
+    }
+
+    @Override
+    public String toString() {
+        return "MpscRingAsyncQueue{" +
+                "capacity=" + capacity +
+                ", size=" + size() +
+                ", waitStrategy=" + waitStrategy +
+                '}';
+    }
+}
@@ -21,6 +21,7 @@ import com.navercorp.pinpoint.thrift.dto.TSpanChunk;
 import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializer;
 import com.navercorp.pinpoint.thrift.io.SpanStreamConstants;
+import org.apache.thrift.TBase;
 import org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,70 +61,56 @@ public class SpanStreamSendDataSerializer {
     public PartitionedByteBufferLocator serializeSpanStream(HeaderTBaseSerializer serializer, TSpan span) {
         PartitionedByteBufferLocator.Builder partitionedByteBufferLocatorBuilder = new PartitionedByteBufferLocator.Builder();
 
-        List<TSpanEvent> spanEventList = span.getSpanEventList();
-        if (spanEventList != null) {
-            for (TSpanEvent spanEvent : spanEventList) {
-                int bufferStartIndex = serializer.getInterBufferSize();
-                try {
-                    byte[] buffer = serializer.continueSerialize(spanEvent);
-                    int bufferEndIndex = serializer.getInterBufferSize();
-
-                    partitionedByteBufferLocatorBuilder.addIndex(bufferStartIndex, bufferEndIndex);
-                } catch (TException e) {
-                    logger.warn("Serialize fail. value:{}.", spanEvent, e);
-                    serializer.reset(bufferStartIndex);
-                }
-            }
-        }
+        final List<TSpanEvent> spanEventList = span.getSpanEventList();
+        addSpanEventList(serializer, spanEventList, partitionedByteBufferLocatorBuilder);
 
-        TSpan copiedSpan = copySpanWithoutSpanEvent(span);
+        // serialize the span itself without its events instead of deep copying the whole span
+        span.setSpanEventList(Collections.<TSpanEvent>emptyList());
         try {
-            int bufferStartIndex = serializer.getInterBufferSize();
-            byte[] buffer = serializer.continueSerialize(copiedSpan);
-            int bufferEndIndex = serializer.getInterBufferSize();
+            return addLastBuffer(serializer, span, partitionedByteBufferLocatorBuilder);
+        } finally {
+            span.setSpanEventList(spanEventList);
+        }
+    }
 
-            partitionedByteBufferLocatorBuilder.addIndex(bufferStartIndex, bufferEndIndex);
+    public PartitionedByteBufferLocator serializeSpanChunkStream(HeaderTBaseSerializer serializer, TSpanChunk spanChunk) {
+        PartitionedByteBufferLocator.Builder partitionedByteBufferLocatorBuilder = new PartitionedByteBufferLocator.Builder();
 
-            partitionedByteBufferLocatorBuilder.setBuffer(buffer);
+        final List<TSpanEvent> spanEventList = spanChunk.getSpanEventList();
+        addSpanEventList(serializer, spanEventList, partitionedByteBufferLocatorBuilder);
 
-            return partitionedByteBufferLocatorBuilder.build();
-        } catch (TException e) {
-            logger.warn("Serialize fail. value:{}.", copiedSpan, e);
+        spanChunk.setSpanEventList(Collections.<TSpanEvent>emptyList());
+        try {
+            return addLastBuffer(serializer, spanChunk, partitionedByteBufferLocatorBuilder);
+        } finally {
+            spanChunk.setSpanEventList(spanEventList);
         }
-
-        return null;
-    }
-
-    private TSpan copySpanWithoutSpanEvent(TSpan span) {
-        TSpan copiedSpan = span.deepCopy();
-        copiedSpan.setSpanEventList(Collections.EMPTY_LIST);
-        return copiedSpan;
     }
 
-    public PartitionedByteBufferLocator serializeSpanChunkStream(HeaderTBaseSerializer serializer, TSpanChunk spanChunk) {
-        PartitionedByteBufferLocator.Builder partitionedByteBufferLocatorBuilder = new PartitionedByteBufferLocator.Builder();
+    private void addSpanEventList(HeaderTBaseSerializer serializer, List<TSpanEvent> spanEventList, PartitionedByteBufferLocator.Builder partitionedByteBufferLocatorBuilder) {
+        if (spanEventList == null) {
+            return;
+        }
 
-        List<TSpanEvent> spanEventList = spanChunk.getSpanEventList();
-        if (spanEventList != null) {
-            for (TSpanEvent spanEvent : spanEventList) {
-                int bufferStartIndex = serializer.getInterBufferSize();
-                try {
-                    byte[] buffer = serializer.continueSerialize(spanEvent);
-                    int bufferEndIndex = serializer.getInterBufferSize();
-
-                    partitionedByteBufferLocatorBuilder.addIndex(bufferStartIndex, bufferEndIndex);
-                } catch (TException e) {
-                    logger.warn("Serialize fail. value:{}.", spanEvent, e);
-                    serializer.reset(bufferStartIndex);
-                }
+        for (TSpanEvent spanEvent : spanEventList) {
+            int bufferStartIndex = serializer.getInterBufferSize();
+            try {
+                serializer.continueWrite(spanEvent);
+                int bufferEndIndex = serializer.getInterBufferSize();
+
+                partitionedByteBufferLocatorBuilder.addIndex(bufferStartIndex, bufferEndIndex);
+            } catch (TException e) {
+                logger.warn("Serialize fail. value:{}.", spanEvent, e);
+                serializer.reset(bufferStartIndex);
             }
         }
+    }
 
-        TSpanChunk copiedSpanChunk = copySpanChunkWithoutSpanEvent(spanChunk);
-
+    private PartitionedByteBufferLocator addLastBuffer(HeaderTBaseSerializer serializer, TBase<?, ?> base, PartitionedByteBufferLocator.Builder partitionedByteBufferLocatorBuilder) {
         try {
             int bufferStartIndex = serializer.getInterBufferSize();
-            byte[] buffer = serializer.continueSerialize(copiedSpanChunk);
+            // the inter buffer is taken only once, after every partition has been written
+            byte[] buffer = serializer.continueSerialize(base);
             int bufferEndIndex = serializer.getInterBufferSize();
 
             partitionedByteBufferLocatorBuilder.addIndex(bufferStartIndex, bufferEndIndex);
@@ -132,16 +119,10 @@ public class SpanStreamSendDataSerializer {
 
             return partitionedByteBufferLocatorBuilder.build();
         } catch (TException e) {
-            logger.warn("Serialize fail. value:{}.", copiedSpanChunk, e);
+            logger.warn("Serialize fail. value:{}.", base, e);
         }
 
         return null;
     }
 
-    private TSpanChunk copySpanChunkWithoutSpanEvent(TSpanChunk spanChunk) {
-        TSpanChunk copiedSpanChunk = spanChunk.deepCopy();
-        copiedSpanChunk.setSpanEventList(Collections.EMPTY_LIST);
-        return copiedSpanChunk;
-    }
-
 }
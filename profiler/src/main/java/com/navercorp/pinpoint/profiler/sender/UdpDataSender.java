@@ -27,6 +27,7 @@ import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetSocketAddress;
 import java.net.SocketException;
+import java.util.Collection;
 
 /**
  * @author netspider
@@ -52,11 +53,25 @@ public class UdpDataSender extends AbstractDataSender implements DataSender {
 
     private final AsyncQueueingExecutor<Object> executor;
 
+    // pack multiple messages into a single datagram. the collector must be able to unpack multi-message datagrams.
+    private final boolean packing;
+    // Caution. not thread safe
+    private final byte[] packingBuffer;
+    private int packingBufferSize = 0;
+
     public UdpDataSender(String host, int port, String threadName, int queueSize) {
         this(host, port, threadName, queueSize, SOCKET_TIMEOUT, SEND_BUFFER_SIZE);
     }
 
     public UdpDataSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize) {
+        this(host, port, threadName, queueSize, timeout, sendBufferSize, AsyncQueueFactory.DEFAULT);
+    }
+
+    public UdpDataSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, AsyncQueueFactory queueFactory) {
+        this(host, port, threadName, queueSize, timeout, sendBufferSize, queueFactory, false);
+    }
+
+    public UdpDataSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, AsyncQueueFactory queueFactory, boolean packing) {
         if (host == null ) {
             throw new NullPointerException("host must not be null");
         }
@@ -72,12 +87,18 @@ public class UdpDataSender extends AbstractDataSender implements DataSender {
         if (sendBufferSize <= 0) {
             throw new IllegalArgumentException("sendBufferSize");
         }
+        if (queueFactory == null) {
+            throw new NullPointerException("queueFactory must not be null");
+        }
 
         // TODO If fail to create socket, stop agent start
-        logger.info("UdpDataSender initialized. host={}, port={}", host, port);
+        logger.info("UdpDataSender initialized. host={}, port={}, packing={}", host, port, packing);
         this.udpSocket = createSocket(host, port, timeout, sendBufferSize);
 
-        this.executor = createAsyncQueueingExecutor(queueSize, threadName);
+        this.packing = packing;
+        this.packingBuffer = packing ? new byte[UDP_MAX_PACKET_LENGTH] : null;
+
+        this.executor = createAsyncQueueingExecutor(queueSize, threadName, queueFactory);
     }
 
     @Override
@@ -111,6 +132,67 @@ public class UdpDataSender extends AbstractDataSender implements DataSender {
         }
     }
 
+    @Override
+    protected void sendPacketN(Collection<Object> messageList) {
+        if (!packing) {
+            super.sendPacketN(messageList);
+            return;
+        }
+
+        // No need to copy because this runs with single thread.
+        final Object[] dataList = messageList.toArray();
+        final int size = messageList.size();
+        for (int i = 0; i < size; i++) {
+            try {
+                packPacket(dataList[i]);
+            } catch (Throwable th) {
+                logger.warn("Unexpected Error. Cause:{}", th.getMessage(), th);
+            }
+        }
+        flushPackingBuffer();
+    }
+
+    private void packPacket(Object message) {
+        if (!(message instanceof TBase)) {
+            logger.warn("packPacket fail. invalid type:{}", message != null ? message.getClass() : null);
+            return;
+        }
+        final TBase dto = (TBase) message;
+        final byte[] internalBufferData = serialize(this.serializer, dto);
+        if (internalBufferData == null) {
+            logger.warn("interBufferData is null");
+            return;
+        }
+
+        final int internalBufferSize = this.serializer.getInterBufferSize();
+        if (isLimit(internalBufferSize)) {
+            logger.warn("discard packet. Caused:too large message. size:{}, {}", internalBufferSize, dto);
+            return;
+        }
+        if (isLimit(packingBufferSize + internalBufferSize)) {
+            flushPackingBuffer();
+        }
+        System.arraycopy(internalBufferData, 0, packingBuffer, packingBufferSize, internalBufferSize);
+        packingBufferSize += internalBufferSize;
+    }
+
+    private void flushPackingBuffer() {
+        if (packingBufferSize == 0) {
+            return;
+        }
+        reusePacket.setData(packingBuffer, 0, packingBufferSize);
+        try {
+            udpSocket.send(reusePacket);
+            if (isDebug) {
+                logger.debug("Packed data sent. size:{}", packingBufferSize);
+            }
+        } catch (IOException e) {
+            logger.info("packet send error. size:{}", packingBufferSize, e);
+        } finally {
+            packingBufferSize = 0;
+        }
+    }
+
     protected void sendPacket(Object message) {
         if (message instanceof TBase) {
             final TBase dto = (TBase) message;
@@ -25,6 +25,10 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
 /**
  * @author emeroad
  * @author jaehong.kim
@@ -39,11 +43,11 @@ public abstract class CallStackTest {
 
 
     abstract TraceRoot getLocalTraceId();
-    abstract SpanEvent getSpanEvent();
+    abstract SpanEventFrame getSpanEvent();
 
 
-    private SpanEvent createSpanEventStackFrame(TraceRoot traceRoot) {
-        SpanEvent spanEvent = new SpanEvent(traceRoot);
+    private SpanEventFrame createSpanEventStackFrame(TraceRoot traceRoot) {
+        SpanEventFrame spanEvent = new SpanEventFrame(traceRoot);
         return spanEvent;
     }
 
@@ -52,7 +56,7 @@ public abstract class CallStackTest {
         CallStack callStack = newCallStack();
         int initialIndex = callStack.getIndex();
         assertEquals("initial index", initialIndex, 0);
-        SpanEvent spanEvent = createSpanEventStackFrame(getLocalTraceId());
+        SpanEventFrame spanEvent = createSpanEventStackFrame(getLocalTraceId());
         int index = callStack.push(spanEvent);
         assertEquals("initial index", index, 1);
         callStack.pop();
@@ -145,4 +149,101 @@ public abstract class CallStackTest {
         assertNull(callStack.pop());
         assertNull(callStack.peek());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void overflow_dummySpanEvent() {
+        final int maxDepth = 2;
+        CallStack callStack = newCallStack(maxDepth);
+
+        for (int i = 0; i <= maxDepth; i++) {
+            SpanEventFrame frame = callStack.newFrame();
+            assertFalse(callStack.isDummy(frame));
+            callStack.push(frame);
+        }
+
+        // overflow
+        SpanEventFrame dummy = callStack.newFrame();
+        assertTrue(callStack.isDummy(dummy));
+        dummy.setStackId(10);
+        callStack.push(dummy);
+
+        SpanEventFrame nextDummy = callStack.newFrame();
+        assertSame(dummy, nextDummy);
+        // reset
+        assertEquals(0, nextDummy.getStackId());
+        callStack.push(nextDummy);
+
+        assertSame(dummy, callStack.peek());
+        assertSame(dummy, callStack.pop());
+        assertSame(dummy, callStack.pop());
+
+        for (int i = 0; i <= maxDepth; i++) {
+            assertFalse(callStack.isDummy(callStack.pop()));
+        }
+        assertTrue(callStack.empty());
+    }
+
+    @Test
+    public void recycleFrame() {
+        CallStack callStack = newCallStack();
+
+        SpanEventFrame first = callStack.newFrame();
+        first.setStackId(10);
+        first.setApiId(100);
+        first.addAnnotation(new Annotation(1, "value"));
+        callStack.push(first);
+
+        SpanEventFrame child = callStack.newFrame();
+        assertNotSame(first, child);
+        callStack.push(child);
+        assertSame(child, callStack.pop());
+        assertSame(first, callStack.pop());
+        assertTrue(callStack.empty());
+
+        SpanEventFrame recycled = callStack.newFrame();
+        assertSame(first, recycled);
+        assertEquals(0, recycled.getStackId());
+        assertEquals(0, recycled.getApiId());
+        assertTrue(recycled.getAnnotations().isEmpty());
+
+        callStack.push(recycled);
+        assertSame(child, callStack.newFrame());
+    }
+
+    @Test
+    public void recycleFrame_allocationCount() {
+        CallStack callStack = newCallStack();
+        final Set<SpanEventFrame> allocated = Collections.newSetFromMap(new IdentityHashMap<SpanEventFrame, Boolean>());
+
+        // 1000 sibling calls of depth 3
+        final int callCount = 1000;
+        final int depth = 3;
+        for (int i = 0; i < callCount; i++) {
+            for (int j = 0; j < depth; j++) {
+                SpanEventFrame frame = callStack.newFrame();
+                allocated.add(frame);
+                callStack.push(frame);
+            }
+            for (int j = 0; j < depth; j++) {
+                callStack.pop();
+            }
+        }
+        // one frame per depth instead of one per call
+        assertEquals(depth, allocated.size());
+    }
+
+    @Test
+    public void copyStackFrame() {
+        CallStack callStack = newCallStack();
+        SpanEventFrame first = callStack.newFrame();
+        callStack.push(first);
+        SpanEventFrame child = callStack.newFrame();
+        callStack.push(child);
+        callStack.pop();
+
+        SpanEventFrame[] copy = callStack.copyStackFrame();
+        assertSame(first, copy[0]);
+        // popped frame is pooled but not part of the stack
+        assertNull(copy[1]);
+    }
+}
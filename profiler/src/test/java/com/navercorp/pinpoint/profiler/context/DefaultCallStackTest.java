@@ -27,13 +27,13 @@ import static org.mockito.Mockito.mock;
  */
 public class DefaultCallStackTest extends CallStackTest {
 
-    private SpanEvent spanEvent;
+    private SpanEventFrame spanEvent;
     private TraceRoot internalTraceId;
 
     @Before
     public void before() {
         this.internalTraceId = mock(TraceRoot.class);
-        this.spanEvent = new SpanEvent(internalTraceId);
+        this.spanEvent = new SpanEventFrame(internalTraceId);
     }
 
     @Override
@@ -52,7 +52,7 @@ public class DefaultCallStackTest extends CallStackTest {
     }
 
     @Override
-    public SpanEvent getSpanEvent() {
+    public SpanEventFrame getSpanEvent() {
         return spanEvent;
     }
 }
\ No newline at end of file
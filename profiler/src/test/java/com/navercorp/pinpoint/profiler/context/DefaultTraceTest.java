@@ -29,6 +29,7 @@ import com.navercorp.pinpoint.profiler.context.id.TransactionIdEncoder;
 import com.navercorp.pinpoint.profiler.context.recorder.DefaultSpanRecorder;
 import com.navercorp.pinpoint.profiler.context.recorder.WrappedSpanEventRecorder;
 import com.navercorp.pinpoint.profiler.context.storage.SpanStorage;
+import com.navercorp.pinpoint.profiler.context.storage.Storage;
 import com.navercorp.pinpoint.profiler.logging.Slf4jLoggerBinderInitializer;
 import com.navercorp.pinpoint.profiler.metadata.SqlMetaDataService;
 import com.navercorp.pinpoint.profiler.metadata.StringMetaDataService;
@@ -38,6 +39,10 @@ import org.junit.*;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -98,4 +103,36 @@ public class DefaultTraceTest {
         trace.traceBlockEnd();
         trace.close();
     }
+
+    @Test
+    public void overflow() {
+        when(traceRoot.getShared()).thenReturn(shared);
+
+        TraceId traceId = new DefaultTraceId(agentId, System.currentTimeMillis(), 0);
+        when(traceRoot.getTraceId()).thenReturn(traceId);
+
+        final int maxDepth = 2;
+        CallStackFactory callStackFactory = new CallStackFactoryV1(maxDepth);
+        CallStack callStack = callStackFactory.newCallStack(traceRoot);
+
+        SpanFactory spanFactory = new DefaultSpanFactory("appName", agentId, 0, ServiceType.STAND_ALONE, encoder);
+        Storage storage = mock(Storage.class);
+
+        final Span span = spanFactory.newSpan(traceRoot);
+        final SpanRecorder spanRecorder = new DefaultSpanRecorder(span, true, true, stringMetaDataService, sqlMetaDataService);
+        final WrappedSpanEventRecorder wrappedSpanEventRecorder = new WrappedSpanEventRecorder(asyncContextFactory, stringMetaDataService, sqlMetaDataService, null);
+
+        Trace trace = new DefaultTrace(span, callStack, storage, asyncContextFactory, true, spanRecorder, wrappedSpanEventRecorder, ActiveTraceHandle.EMPTY_HANDLE);
+        final int callCount = maxDepth + 3;
+        for (int i = 0; i < callCount; i++) {
+            trace.traceBlockBegin();
+        }
+        for (int i = 0; i < callCount; i++) {
+            trace.traceBlockEnd();
+        }
+        trace.close();
+
+        // frames beyond the max depth are not recorded
+        verify(storage, times(maxDepth + 1)).store(any(SpanEvent.class));
+    }
 }
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context;
+
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+import static org.mockito.Mockito.mock;
+
+public class SpanEventFrameTest {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final TraceRoot traceRoot = mock(TraceRoot.class);
+
+    @Test
+    public void toSpanEvent() {
+        SpanEventFrame frame = new SpanEventFrame(traceRoot);
+        frame.setStackId(10);
+        frame.setStartTime(100);
+        frame.setAfterTime(150);
+        frame.setSequence((short) 3);
+        frame.setDepth(2);
+        frame.setServiceType((short) 1010);
+        frame.setRpc("rpc");
+        frame.setEndPoint("endPoint");
+        frame.setDestinationId("destinationId");
+        frame.setNextSpanId(1234);
+        frame.setApiId(5);
+        frame.setExceptionInfo(7, "message");
+        frame.setAsyncId(8);
+        frame.setAsyncSequence((short) 9);
+        frame.setNextAsyncId(11);
+        frame.addAnnotation(new Annotation(12, "value"));
+
+        SpanEvent spanEvent = frame.toSpanEvent();
+        Assert.assertSame(traceRoot, spanEvent.getTraceRoot());
+        Assert.assertEquals(10, spanEvent.getStackId());
+        Assert.assertEquals(100, spanEvent.getStartTime());
+        Assert.assertEquals(150, spanEvent.getAfterTime());
+        Assert.assertEquals(3, spanEvent.getSequence());
+        Assert.assertEquals(2, spanEvent.getDepth());
+        Assert.assertEquals(1010, spanEvent.getServiceType());
+        Assert.assertEquals("rpc", spanEvent.getRpc());
+        Assert.assertEquals("endPoint", spanEvent.getEndPoint());
+        Assert.assertEquals("destinationId", spanEvent.getDestinationId());
+        Assert.assertEquals(1234, spanEvent.getNextSpanId());
+        Assert.assertEquals(5, spanEvent.getApiId());
+        Assert.assertEquals(7, spanEvent.getExceptionInfo().getIntValue());
+        Assert.assertEquals("message", spanEvent.getExceptionInfo().getStringValue());
+        Assert.assertEquals(8, spanEvent.getAsyncId());
+        Assert.assertEquals(9, spanEvent.getAsyncSequence());
+        Assert.assertEquals(11, spanEvent.getNextAsyncId());
+        Assert.assertEquals(1, spanEvent.getAnnotationsSize());
+        Assert.assertEquals(12, spanEvent.getAnnotations().get(0).getKey());
+
+        // the stored event must not share the recycled list
+        frame.reset();
+        Assert.assertEquals(1, spanEvent.getAnnotationsSize());
+    }
+
+    @Test
+    public void toSpanEvent_unset() {
+        SpanEventFrame frame = new SpanEventFrame(traceRoot);
+        SpanEvent spanEvent = frame.toSpanEvent();
+
+        Assert.assertTrue(spanEvent.isSetSequence());
+        Assert.assertTrue(spanEvent.isSetServiceType());
+        Assert.assertFalse(spanEvent.isSetDepth());
+        Assert.assertFalse(spanEvent.isSetNextSpanId());
+        Assert.assertFalse(spanEvent.isSetApiId());
+        Assert.assertFalse(spanEvent.isSetExceptionInfo());
+        Assert.assertFalse(spanEvent.isSetAsyncId());
+        Assert.assertFalse(spanEvent.isSetAsyncSequence());
+        Assert.assertFalse(spanEvent.isSetNextAsyncId());
+        Assert.assertFalse(spanEvent.isSetAnnotations());
+        Assert.assertFalse(spanEvent.isSetRpc());
+        Assert.assertFalse(spanEvent.isSetEndPoint());
+        Assert.assertFalse(spanEvent.isSetDestinationId());
+    }
+
+    @Test
+    public void reset() {
+        SpanEventFrame frame = new SpanEventFrame(traceRoot);
+        frame.setApiId(5);
+        frame.setDepth(3);
+        frame.setTimeRecording(false);
+        frame.attachFrameObject("frameObject");
+        frame.addAnnotation(new Annotation(12, "value"));
+
+        frame.reset();
+
+        Assert.assertTrue(frame.isTimeRecording());
+        Assert.assertNull(frame.getFrameObject());
+        Assert.assertTrue(frame.getAnnotations().isEmpty());
+        SpanEvent spanEvent = frame.toSpanEvent();
+        Assert.assertFalse(spanEvent.isSetApiId());
+        Assert.assertFalse(spanEvent.isSetDepth());
+    }
+
+    @Test
+    public void allocation() throws Exception {
+        final Method allocatedBytes = getThreadAllocatedBytesMethod();
+        Assume.assumeNotNull(allocatedBytes);
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+
+        final int callCount = 10000;
+        // warm up
+        pushPopNewFrame(callCount);
+        pushPopRecycledFrame(callCount);
+
+        final long newFrameStart = (Long) allocatedBytes.invoke(threadMXBean, threadId);
+        pushPopNewFrame(callCount);
+        final long newFrameBytes = (Long) allocatedBytes.invoke(threadMXBean, threadId) - newFrameStart;
+
+        final long recycledFrameStart = (Long) allocatedBytes.invoke(threadMXBean, threadId);
+        pushPopRecycledFrame(callCount);
+        final long recycledFrameBytes = (Long) allocatedBytes.invoke(threadMXBean, threadId) - recycledFrameStart;
+
+        logger.debug("allocated bytes for {} calls. new frame:{} recycled frame:{}", callCount, newFrameBytes, recycledFrameBytes);
+        Assert.assertTrue("new frame per call:" + newFrameBytes + " recycled frame:" + recycledFrameBytes,
+                recycledFrameBytes * 10 < newFrameBytes);
+    }
+
+    private CallStack pushPopNewFrame(int callCount) {
+        // previous behavior: a new frame per call
+        final CallStack callStack = new DefaultCallStack(traceRoot);
+        for (int i = 0; i < callCount; i++) {
+            SpanEventFrame frame = new SpanEventFrame(traceRoot);
+            frame.setApiId(i);
+            frame.setServiceType((short) 1010);
+            callStack.push(frame);
+            callStack.pop();
+        }
+        return callStack;
+    }
+
+    private CallStack pushPopRecycledFrame(int callCount) {
+        final CallStack callStack = new DefaultCallStack(traceRoot);
+        for (int i = 0; i < callCount; i++) {
+            SpanEventFrame frame = callStack.newFrame();
+            frame.setApiId(i);
+            frame.setServiceType((short) 1010);
+            callStack.push(frame);
+            callStack.pop();
+        }
+        return callStack;
+    }
+
+    private Method getThreadAllocatedBytesMethod() {
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        try {
+            final Class<?> sunThreadMXBean = Class.forName("com.sun.management.ThreadMXBean");
+            if (!sunThreadMXBean.isInstance(threadMXBean)) {
+                return null;
+            }
+            final Method isSupported = sunThreadMXBean.getMethod("isThreadAllocatedMemoryEnabled");
+            if (!(Boolean) isSupported.invoke(threadMXBean)) {
+                return null;
+            }
+            return sunThreadMXBean.getMethod("getThreadAllocatedBytes", long.class);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.active;
+
+import com.navercorp.pinpoint.profiler.monitor.metric.response.ResponseTimeCollector;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class DefaultActiveTraceRepositoryTest {
+
+    private static final long CURRENT_TIME = 1000000;
+
+    @Test
+    public void registerAndPurge() {
+        ResponseTimeCollector responseTimeCollector = mock(ResponseTimeCollector.class);
+        DefaultActiveTraceRepository repository = new DefaultActiveTraceRepository(responseTimeCollector);
+
+        ActiveTraceHandle handle1 = repository.register(1, CURRENT_TIME - 100, 10);
+        ActiveTraceHandle handle2 = repository.register(2, CURRENT_TIME - 100, 11);
+        // not started
+        repository.register(3, 0, 12);
+
+        Assert.assertEquals(2, repository.snapshot().size());
+        Assert.assertEquals(2, repository.getThreadIdList().size());
+
+        handle1.purge(CURRENT_TIME);
+        // purged twice
+        handle1.purge(CURRENT_TIME);
+        verify(responseTimeCollector, times(1)).add(100);
+
+        Assert.assertEquals(1, repository.snapshot().size());
+        Assert.assertEquals(Long.valueOf(11), repository.getThreadIdList().get(0));
+
+        handle2.purge(CURRENT_TIME);
+        Assert.assertEquals(0, repository.snapshot().size());
+        Assert.assertTrue(repository.getActiveTraceHistogram(CURRENT_TIME) instanceof EmptyActiveTraceHistogram);
+    }
+
+    @Test
+    public void activeTraceHistogram() {
+        DefaultActiveTraceRepository repository = new DefaultActiveTraceRepository(mock(ResponseTimeCollector.class));
+
+        repository.register(1, CURRENT_TIME - 100, 1);
+        repository.register(2, CURRENT_TIME - 200, 1);
+        repository.register(3, CURRENT_TIME - 2000, 1);
+        ActiveTraceHandle slow = repository.register(4, CURRENT_TIME - 4000, 1);
+        repository.register(5, CURRENT_TIME - 60000, 1);
+        repository.register(6, CURRENT_TIME - 120000, 1);
+
+        ActiveTraceHistogram histogram = repository.getActiveTraceHistogram(CURRENT_TIME);
+        Assert.assertEquals(2, histogram.getFastCount());
+        Assert.assertEquals(1, histogram.getNormalCount());
+        Assert.assertEquals(1, histogram.getSlowCount());
+        Assert.assertEquals(2, histogram.getVerySlowCount());
+
+        slow.purge(CURRENT_TIME);
+        // time goes by
+        histogram = repository.getActiveTraceHistogram(CURRENT_TIME + 10000);
+        Assert.assertEquals(0, histogram.getFastCount());
+        Assert.assertEquals(0, histogram.getNormalCount());
+        Assert.assertEquals(0, histogram.getSlowCount());
+        Assert.assertEquals(5, histogram.getVerySlowCount());
+    }
+
+    @Test
+    public void recycleTimeSlot() {
+        DefaultActiveTraceRepository repository = new DefaultActiveTraceRepository(mock(ResponseTimeCollector.class));
+
+        ActiveTraceHandle old = repository.register(1, CURRENT_TIME, 1);
+        // same bucket of the ring
+        final long newStartTime = CURRENT_TIME + 1024 * ActiveTraceTimeSlotCounter.TIME_SLOT_SIZE;
+        repository.register(2, newStartTime, 1);
+        old.purge(newStartTime);
+
+        ActiveTraceHistogram histogram = repository.getActiveTraceHistogram(newStartTime);
+        Assert.assertEquals(1, histogram.getFastCount());
+        Assert.assertEquals(0, histogram.getVerySlowCount());
+    }
+
+    @Test
+    public void overflow() {
+        ResponseTimeCollector responseTimeCollector = mock(ResponseTimeCollector.class);
+        DefaultActiveTraceRepository repository = new DefaultActiveTraceRepository(responseTimeCollector, 2);
+
+        repository.register(1, CURRENT_TIME, 1);
+        repository.register(2, CURRENT_TIME, 1);
+        ActiveTraceHandle handle = repository.register(3, CURRENT_TIME, 1);
+        Assert.assertEquals(2, repository.snapshot().size());
+
+        handle.purge(CURRENT_TIME + 10);
+        verify(responseTimeCollector).add(10);
+    }
+}
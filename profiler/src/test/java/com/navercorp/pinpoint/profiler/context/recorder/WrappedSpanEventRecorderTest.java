@@ -17,7 +17,7 @@
 package com.navercorp.pinpoint.profiler.context.recorder;
 
 import com.navercorp.pinpoint.profiler.context.AsyncContextFactory;
-import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.SpanEventFrame;
 import com.navercorp.pinpoint.profiler.context.id.Shared;
 import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
 import com.navercorp.pinpoint.profiler.metadata.SqlMetaDataService;
@@ -55,15 +55,15 @@ public class WrappedSpanEventRecorderTest {
     public void testSetExceptionInfo_RootMarkError() throws Exception {
         when(traceRoot.getShared()).thenReturn(shared);
 
-        SpanEvent spanEvent = new SpanEvent(traceRoot);
+        SpanEventFrame frame = new SpanEventFrame(traceRoot);
         WrappedSpanEventRecorder recorder = new WrappedSpanEventRecorder(asyncContextFactory, stringMetaDataService, sqlMetaDataService, null);
-        recorder.setWrapped(spanEvent);
+        recorder.setWrapped(frame);
 
         final String exceptionMessage1 = "exceptionMessage1";
         final Exception exception1 = new Exception(exceptionMessage1);
         recorder.recordException(false, exception1);
 
-        Assert.assertEquals("Exception recoding", exceptionMessage1, spanEvent.getExceptionInfo().getStringValue());
+        Assert.assertEquals("Exception recoding", exceptionMessage1, frame.toSpanEvent().getExceptionInfo().getStringValue());
         verify(shared, never()).maskErrorCode(anyInt());
 
 
@@ -71,21 +71,21 @@ public class WrappedSpanEventRecorderTest {
         final Exception exception2 = new Exception(exceptionMessage2);
         recorder.recordException(true, exception2);
 
-        Assert.assertEquals("Exception recoding", exceptionMessage2, spanEvent.getExceptionInfo().getStringValue());
+        Assert.assertEquals("Exception recoding", exceptionMessage2, frame.toSpanEvent().getExceptionInfo().getStringValue());
         verify(shared, only()).maskErrorCode(1);
     }
 
     @Test
     public void testRecordAPIId() throws Exception {
-        SpanEvent spanEvent = new SpanEvent(traceRoot);
+        SpanEventFrame frame = new SpanEventFrame(traceRoot);
         WrappedSpanEventRecorder recorder = new WrappedSpanEventRecorder(asyncContextFactory, stringMetaDataService, sqlMetaDataService, null);
-        recorder.setWrapped(spanEvent);
+        recorder.setWrapped(frame);
 
 
         final int API_ID = 1000;
         recorder.recordApiId(API_ID);
 
-        Assert.assertEquals("API ID", spanEvent.getApiId(), API_ID);
+        Assert.assertEquals("API ID", frame.toSpanEvent().getApiId(), API_ID);
     }
 
 
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.bootstrap.context.TraceId;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanChunkFactory;
+import com.navercorp.pinpoint.profiler.context.SpanChunkFactoryV1;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.SpanPostProcessor;
+import com.navercorp.pinpoint.profiler.context.SpanPostProcessorV1;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceId;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceRoot;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTransactionIdEncoder;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.profiler.context.id.TransactionIdEncoder;
+import com.navercorp.pinpoint.profiler.sender.CountingDataSender;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TailSamplingStorageTest {
+
+    private static final int SLOW_THRESHOLD = 1000;
+
+    private final String agentId = "agentId";
+    private final long agentStartTime = System.currentTimeMillis();
+    private final SpanPostProcessor spanPostProcessor = new SpanPostProcessorV1();
+
+    private final TransactionIdEncoder encoder = new DefaultTransactionIdEncoder(agentId, agentStartTime);
+
+    private final SpanChunkFactory spanChunkFactory = new SpanChunkFactoryV1("applicationName", agentId, agentStartTime, ServiceType.STAND_ALONE, encoder);
+    private final CountingDataSender countingDataSender = new CountingDataSender();
+
+    @Before
+    public void before() {
+        countingDataSender.stop();
+    }
+
+    private TraceRoot newTraceRoot(long traceStartTime) {
+        TraceId traceId = new DefaultTraceId(agentId, agentStartTime, 100);
+        return new DefaultTraceRoot(traceId, agentId, traceStartTime, 100);
+    }
+
+    private TailSamplingStorage newStorage(TraceRoot traceRoot, int bufferSize) {
+        return new TailSamplingStorage(traceRoot, countingDataSender, spanPostProcessor, spanChunkFactory, SLOW_THRESHOLD, bufferSize);
+    }
+
+    @Test
+    public void testStore_fast() {
+        TraceRoot traceRoot = newTraceRoot(System.currentTimeMillis());
+        TailSamplingStorage storage = newStorage(traceRoot, 10);
+
+        storage.store(new SpanEvent(traceRoot));
+        storage.store(new SpanEvent(traceRoot));
+        Span span = new Span(traceRoot);
+        span.setElapsed(10);
+        storage.store(span);
+
+        Assert.assertEquals(1, countingDataSender.getTotalCount());
+        Assert.assertEquals(1, countingDataSender.getSpanCounter());
+        Assert.assertFalse(span.isSetSpanEventList());
+    }
+
+    @Test
+    public void testStore_slow() {
+        TraceRoot traceRoot = newTraceRoot(System.currentTimeMillis());
+        TailSamplingStorage storage = newStorage(traceRoot, 10);
+
+        storage.store(new SpanEvent(traceRoot));
+        storage.store(new SpanEvent(traceRoot));
+        Span span = new Span(traceRoot);
+        span.setElapsed(SLOW_THRESHOLD);
+        storage.store(span);
+
+        Assert.assertEquals(1, countingDataSender.getSpanCounter());
+        Assert.assertEquals(2, span.getSpanEventListSize());
+    }
+
+    @Test
+    public void testStore_error() {
+        TraceRoot traceRoot = newTraceRoot(System.currentTimeMillis());
+        TailSamplingStorage storage = newStorage(traceRoot, 10);
+
+        storage.store(new SpanEvent(traceRoot));
+        traceRoot.getShared().maskErrorCode(1);
+        Span span = new Span(traceRoot);
+        span.setElapsed(10);
+        storage.store(span);
+
+        Assert.assertEquals(1, countingDataSender.getSpanCounter());
+        Assert.assertEquals(1, span.getSpanEventListSize());
+    }
+
+    @Test
+    public void testStore_overflow() {
+        TraceRoot traceRoot = newTraceRoot(System.currentTimeMillis());
+        TailSamplingStorage storage = newStorage(traceRoot, 2);
+
+        storage.store(new SpanEvent(traceRoot));
+        storage.store(new SpanEvent(traceRoot));
+        storage.store(new SpanEvent(traceRoot));
+        Assert.assertEquals(1, countingDataSender.getSpanChunkCounter());
+
+        Span span = new Span(traceRoot);
+        span.setElapsed(10);
+        storage.store(span);
+
+        Assert.assertEquals(1, countingDataSender.getSpanCounter());
+        Assert.assertEquals(1, span.getSpanEventListSize());
+    }
+
+    @Test
+    public void testFlush_fast() {
+        TraceRoot traceRoot = newTraceRoot(System.currentTimeMillis());
+        TailSamplingStorage storage = newStorage(traceRoot, 10);
+
+        storage.store(new SpanEvent(traceRoot));
+        storage.flush();
+
+        Assert.assertEquals(0, countingDataSender.getTotalCount());
+    }
+
+    @Test
+    public void testFlush_slow() {
+        TraceRoot traceRoot = newTraceRoot(System.currentTimeMillis() - SLOW_THRESHOLD);
+        TailSamplingStorage storage = newStorage(traceRoot, 10);
+
+        storage.store(new SpanEvent(traceRoot));
+        storage.flush();
+
+        Assert.assertEquals(1, countingDataSender.getTotalCount());
+        Assert.assertEquals(1, countingDataSender.getSpanChunkCounter());
+    }
+}
@@ -23,6 +23,7 @@ import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.InterfaceInte
 import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.MatcherOperand;
 import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.PackageInternalNameMatcherOperand;
 import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.SuperClassInternalNameMatcherOperand;
+import com.navercorp.pinpoint.profiler.instrument.classreading.DefaultInternalClassMetadata;
 import com.navercorp.pinpoint.profiler.instrument.classreading.InternalClassMetadata;
 import com.navercorp.pinpoint.profiler.instrument.classreading.InternalClassMetadataReader;
 import com.navercorp.pinpoint.profiler.util.JavaAssistUtils;
@@ -31,6 +32,8 @@ import org.junit.Test;
 import javax.annotation.Resource;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
 
 import static org.junit.Assert.*;
 
@@ -176,6 +179,32 @@ public class DefaultTransformerMatcherTest {
         assertFalse(result);
     }
 
+    @Test
+    public void classMetadataIndex() throws Exception {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+
+        InstrumentMatcherCacheConfig config = new InstrumentMatcherCacheConfig();
+        ClassMetadataIndex classMetadataIndex = new ClassMetadataIndex(16);
+        TransformerMatcher matcher = new DefaultTransformerMatcher(config, classMetadataIndex);
+
+        // not exist in class loader.
+        InternalClassMetadata parentClassMetadata = new DefaultInternalClassMetadata("test/Parent", "java/lang/Object", Arrays.asList("java/lang/Runnable"), Collections.<String>emptyList(), false, false, false, false);
+        InternalClassMetadata childClassMetadata = new DefaultInternalClassMetadata("test/Child", "test/Parent", Collections.<String>emptyList(), Collections.<String>emptyList(), false, false, false, false);
+
+        MatcherOperand operand = new InterfaceInternalNameMatcherOperand("java/lang/Runnable", true);
+        assertFalse(matcher.match(classLoader, operand, childClassMetadata));
+
+        classMetadataIndex.put(parentClassMetadata);
+        assertTrue(matcher.match(classLoader, operand, childClassMetadata));
+
+        InternalClassMetadata grandChildClassMetadata = new DefaultInternalClassMetadata("test/GrandChild", "test/Child", Collections.<String>emptyList(), Collections.<String>emptyList(), false, false, false, false);
+        operand = new SuperClassInternalNameMatcherOperand("test/Parent", true);
+        assertFalse(matcher.match(classLoader, operand, grandChildClassMetadata));
+
+        classMetadataIndex.put(childClassMetadata);
+        assertTrue(matcher.match(classLoader, operand, grandChildClassMetadata));
+    }
+
     class ExtendsThread extends Thread {
     }
 
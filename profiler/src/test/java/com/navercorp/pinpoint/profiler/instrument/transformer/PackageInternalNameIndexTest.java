@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.instrument.transformer;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PackageInternalNameIndexTest {
+
+    @Test
+    public void find() {
+        PackageInternalNameIndex<String> index = new PackageInternalNameIndex<String>();
+        assertTrue(index.isEmpty());
+
+        index.put("com/navercorp/pinpoint", "pinpoint");
+        index.put("com/navercorp", "navercorp");
+        index.put("com/navercorp", "navercorp");
+        // same length with com/navercorp
+        index.put("org/springfra", "spring");
+
+        // sorted by package name length.
+        assertEquals(Arrays.asList("navercorp", "pinpoint"), index.find("com/navercorp/pinpoint/Test"));
+        assertEquals(Arrays.asList("navercorp"), index.find("com/navercorp/Test"));
+        assertEquals(Arrays.asList("spring"), index.find("org/springframework/Test"));
+        assertEquals(Collections.emptyList(), index.find("com/naver/Test"));
+        assertEquals(Collections.emptyList(), index.find("com"));
+    }
+
+    @Test
+    public void prefix() {
+        PackageInternalNameIndex<String> index = new PackageInternalNameIndex<String>();
+        index.put("com/navercorp/pinpoint", "pinpoint");
+
+        // same as String.startsWith()
+        assertEquals(Arrays.asList("pinpoint"), index.find("com/navercorp/pinpointtest/Test"));
+        assertEquals(Arrays.asList("pinpoint"), index.find("com/navercorp/pinpoint"));
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.metadata;
+
+import com.navercorp.pinpoint.common.Charsets;
+import com.navercorp.pinpoint.common.util.ContentHashUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ContentHashCacheTest {
+
+    private File storeFile;
+
+    @Before
+    public void setUp() throws IOException {
+        storeFile = File.createTempFile("metadata", ".id");
+        storeFile.delete();
+    }
+
+    @After
+    public void tearDown() {
+        storeFile.delete();
+    }
+
+    @Test
+    public void put() {
+        ContentHashCache cache = new ContentHashCache(1024, new MetaDataIdStore(storeFile));
+
+        Result test = cache.put("test");
+        Assert.assertTrue(test.isNewValue());
+        Assert.assertEquals(ContentHashUtils.toId(ContentHashUtils.fingerprint("test"), 0), test.getId());
+
+        Result recheck = cache.put("test");
+        Assert.assertEquals(test.getId(), recheck.getId());
+        Assert.assertFalse(recheck.isNewValue());
+    }
+
+    @Test
+    public void acknowledge() {
+        ContentHashCache cache = new ContentHashCache(1024, new MetaDataIdStore(storeFile));
+        Result test = cache.put("test");
+        cache.acknowledge("test", test.getId());
+
+        // restart
+        ContentHashCache restarted = new ContentHashCache(1024, new MetaDataIdStore(storeFile));
+        Result afterRestart = restarted.put("test");
+        Assert.assertEquals(test.getId(), afterRestart.getId());
+        Assert.assertFalse(afterRestart.isNewValue());
+
+        Result notAcknowledged = restarted.put("new");
+        Assert.assertTrue(notAcknowledged.isNewValue());
+    }
+
+    @Test
+    public void reject() {
+        ContentHashCache cache = new ContentHashCache(1024, new MetaDataIdStore(storeFile));
+        Result test = cache.put("test");
+        cache.reject("test");
+
+        Result resend = cache.put("test");
+        Assert.assertEquals(test.getId(), resend.getId());
+        Assert.assertTrue(resend.isNewValue());
+    }
+
+    @Test
+    public void conflict() {
+        ContentHashCache cache = new ContentHashCache(1024, new MetaDataIdStore(storeFile));
+        Result test = cache.put("test");
+        cache.conflict("test", test.getId());
+
+        Result resend = cache.put("test");
+        Assert.assertEquals(ContentHashUtils.toId(ContentHashUtils.fingerprint("test"), 1), resend.getId());
+        Assert.assertTrue(resend.isNewValue());
+        cache.acknowledge("test", resend.getId());
+
+        // restart
+        ContentHashCache restarted = new ContentHashCache(1024, new MetaDataIdStore(storeFile));
+        Result afterRestart = restarted.put("test");
+        Assert.assertEquals(resend.getId(), afterRestart.getId());
+        Assert.assertFalse(afterRestart.isNewValue());
+    }
+
+    @Test
+    public void eviction() {
+        ContentHashCache cache = new ContentHashCache(1, new MetaDataIdStore(storeFile));
+        Result test = cache.put("test");
+        cache.acknowledge("test", test.getId());
+        cache.put("evict");
+
+        // the acknowledgement is bounded by the cache size too
+        Result afterEviction = cache.put("test");
+        Assert.assertEquals(test.getId(), afterEviction.getId());
+        Assert.assertTrue(afterEviction.isNewValue());
+    }
+
+    @Test
+    public void acknowledgeExpired() {
+        final long fingerprint = ContentHashUtils.fingerprint("test");
+        final int id = ContentHashUtils.toId(fingerprint, 0);
+        MetaDataIdStore idStore = new MetaDataIdStore(storeFile);
+        idStore.append(fingerprint, id, System.currentTimeMillis() - ContentHashCache.DEFAULT_ACK_EXPIRE_MILLIS - 1000);
+
+        ContentHashCache cache = new ContentHashCache(1024, idStore);
+        Result test = cache.put("test");
+        Assert.assertEquals(id, test.getId());
+        Assert.assertTrue(test.isNewValue());
+    }
+
+    @Test
+    public void acknowledgeExpired_runtime() throws InterruptedException {
+        ContentHashCache cache = new ContentHashCache(1024, 10, new MetaDataIdStore(storeFile));
+        Result test = cache.put("test");
+        cache.acknowledge("test", test.getId());
+        Assert.assertFalse(cache.put("test").isNewValue());
+
+        Thread.sleep(50);
+        Result resend = cache.put("test");
+        Assert.assertEquals(test.getId(), resend.getId());
+        Assert.assertTrue(resend.isNewValue());
+    }
+
+    @Test
+    public void compactOnLoad() throws IOException {
+        MetaDataIdStore idStore = new MetaDataIdStore(storeFile);
+        final long now = System.currentTimeMillis();
+        idStore.append(1, 1, now - 10000);
+        idStore.append(2, 2, now);
+        // acknowledged again
+        idStore.append(1, 1, now);
+        idStore.append(3, 3, now - 10000);
+
+        List<MetaDataIdStore.Entry> entryList = idStore.load(now - 5000, 1024);
+        Assert.assertEquals(2, entryList.size());
+        Assert.assertEquals(2, entryList.get(0).getFingerprint());
+        Assert.assertEquals(1, entryList.get(1).getFingerprint());
+        Assert.assertEquals(2, readLines(storeFile).size());
+
+        // latest entries are kept
+        List<MetaDataIdStore.Entry> limited = new MetaDataIdStore(storeFile).load(now - 5000, 1);
+        Assert.assertEquals(1, limited.size());
+        Assert.assertEquals(1, limited.get(0).getFingerprint());
+        Assert.assertEquals(1, readLines(storeFile).size());
+    }
+
+    @Test
+    public void collision() {
+        final long fingerprint = ContentHashUtils.fingerprint("test");
+        // another value already owns the id
+        MetaDataIdStore idStore = new MetaDataIdStore(storeFile);
+        idStore.append(fingerprint + 1, ContentHashUtils.toId(fingerprint, 0), System.currentTimeMillis());
+
+        ContentHashCache cache = new ContentHashCache(1024, idStore);
+        Result test = cache.put("test");
+        Assert.assertEquals(ContentHashUtils.toId(fingerprint, 1), test.getId());
+        cache.acknowledge("test", test.getId());
+
+        ContentHashCache restarted = new ContentHashCache(1024, new MetaDataIdStore(storeFile));
+        Assert.assertEquals(test.getId(), restarted.put("test").getId());
+    }
+
+    private List<String> readLines(File file) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), Charsets.UTF_8));
+        try {
+            List<String> lines = new ArrayList<String>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+            return lines;
+        } finally {
+            reader.close();
+        }
+    }
+}
@@ -83,6 +83,11 @@ public class MetricTraceFactory implements TraceFactory {
         return delegate.newTraceObject();
     }
 
+    @Override
+    public Trace newTraceObject(ServiceType serviceType, String entryPoint) {
+        return delegate.newTraceObject(serviceType, entryPoint);
+    }
+
     @Override
     public Trace removeTraceObject() {
         final Trace trace = delegate.removeTraceObject();
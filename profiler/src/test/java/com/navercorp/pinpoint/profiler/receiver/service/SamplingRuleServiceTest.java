@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.receiver.service;
+
+import com.navercorp.pinpoint.profiler.sampler.FalseSampler;
+import com.navercorp.pinpoint.profiler.sampler.SamplingRuleTable;
+import com.navercorp.pinpoint.thrift.dto.TResult;
+import com.navercorp.pinpoint.thrift.dto.command.TCmdSamplingRule;
+import org.apache.thrift.TBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SamplingRuleServiceTest {
+
+    @Test
+    public void requestCommandService() {
+        SamplingRuleTable samplingRuleTable = new SamplingRuleTable();
+        SamplingRuleService samplingRuleService = new SamplingRuleService(samplingRuleTable);
+        Assert.assertEquals(TCmdSamplingRule.class, samplingRuleService.getCommandClazz());
+
+        TCmdSamplingRule command = new TCmdSamplingRule();
+        command.setSamplingRule("/health:0");
+        TBase<?, ?> response = samplingRuleService.requestCommandService(command);
+
+        Assert.assertTrue(response instanceof TResult);
+        Assert.assertTrue(((TResult) response).isSuccess());
+        Assert.assertTrue(samplingRuleTable.getSampler("/health") instanceof FalseSampler);
+
+        command.setSamplingRule("");
+        samplingRuleService.requestCommandService(command);
+        Assert.assertTrue(samplingRuleTable.isEmpty());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import com.navercorp.pinpoint.common.util.MockClock;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AdaptiveSamplerTest {
+
+    @Test
+    public void limitThroughput() {
+        MockClock clock = new MockClock();
+        clock.setTime(1000);
+        AdaptiveSampler sampler = new AdaptiveSampler(10, clock);
+
+        // first window : capped at the target throughput
+        Assert.assertEquals(10, countSampling(sampler, 1000));
+
+        // second window : 1 out of 100
+        clock.setTime(2000);
+        Assert.assertEquals(10, countSampling(sampler, 1000));
+        Assert.assertEquals(100, sampler.getSamplingRate());
+    }
+
+    @Test
+    public void lowTraffic() {
+        MockClock clock = new MockClock();
+        clock.setTime(1000);
+        AdaptiveSampler sampler = new AdaptiveSampler(10, clock);
+
+        countSampling(sampler, 1000);
+        clock.setTime(2000);
+        countSampling(sampler, 5);
+
+        clock.setTime(3000);
+        Assert.assertEquals(5, countSampling(sampler, 5));
+        Assert.assertEquals(1, sampler.getSamplingRate());
+    }
+
+    @Test
+    public void calculateSamplingRate() {
+        AdaptiveSampler sampler = new AdaptiveSampler(10, new MockClock());
+
+        Assert.assertEquals(1, sampler.calculateSamplingRate(0, 1000));
+        Assert.assertEquals(1, sampler.calculateSamplingRate(10, 1000));
+        Assert.assertEquals(2, sampler.calculateSamplingRate(11, 1000));
+        // idle for a while
+        Assert.assertEquals(1, sampler.calculateSamplingRate(100, 10000));
+    }
+
+    private int countSampling(AdaptiveSampler sampler, int requestCount) {
+        int sampledCount = 0;
+        for (int i = 0; i < requestCount; i++) {
+            if (sampler.isSampling()) {
+                sampledCount++;
+            }
+        }
+        return sampledCount;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.common.trace.ServiceTypeFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SamplingRuleTableTest {
+
+    @Test
+    public void getSampler() {
+        SamplingRuleTable samplingRuleTable = new SamplingRuleTable("/health:0, /api/checkout:1, /api/*:10, /api/order/*:2");
+
+        Assert.assertTrue(samplingRuleTable.getSampler("/health") instanceof FalseSampler);
+        Assert.assertTrue(samplingRuleTable.getSampler("/api/checkout") instanceof TrueSampler);
+        // longest prefix
+        Assert.assertSame(samplingRuleTable.getSampler("/api/order/"), samplingRuleTable.getSampler("/api/order/123"));
+        Assert.assertNotSame(samplingRuleTable.getSampler("/api/order/123"), samplingRuleTable.getSampler("/api/user"));
+        Assert.assertSame(samplingRuleTable.getSampler("/api/"), samplingRuleTable.getSampler("/api/user"));
+
+        Assert.assertNull(samplingRuleTable.getSampler("/health/detail"));
+        Assert.assertNull(samplingRuleTable.getSampler("/ap"));
+        Assert.assertNull(samplingRuleTable.getSampler(null));
+    }
+
+    @Test
+    public void independentSampler() {
+        SamplingRuleTable samplingRuleTable = new SamplingRuleTable("/a:2,/b:2");
+
+        Sampler a = samplingRuleTable.getSampler("/a");
+        Sampler b = samplingRuleTable.getSampler("/b");
+        Assert.assertTrue(a.isSampling());
+        Assert.assertFalse(a.isSampling());
+        // counter of /b is not consumed by /a
+        Assert.assertTrue(b.isSampling());
+    }
+
+    @Test
+    public void update() {
+        SamplingRuleTable samplingRuleTable = new SamplingRuleTable();
+        Assert.assertTrue(samplingRuleTable.isEmpty());
+        Assert.assertNull(samplingRuleTable.getSampler("/health"));
+
+        samplingRuleTable.update("/health:0");
+        Assert.assertTrue(samplingRuleTable.getSampler("/health") instanceof FalseSampler);
+
+        samplingRuleTable.update(null);
+        Assert.assertNull(samplingRuleTable.getSampler("/health"));
+    }
+
+    @Test
+    public void invalidRule() {
+        SamplingRuleTable samplingRuleTable = new SamplingRuleTable("/health, /a:b, :1, /api/*:3");
+
+        Assert.assertNull(samplingRuleTable.getSampler("/health"));
+        Assert.assertNull(samplingRuleTable.getSampler("/a"));
+        Assert.assertTrue(samplingRuleTable.getSampler("/api/test") instanceof SamplingRateSampler);
+    }
+
+    @Test
+    public void wildcardOnly() {
+        SamplingRuleTable samplingRuleTable = new SamplingRuleTable("*:0");
+
+        Assert.assertTrue(samplingRuleTable.getSampler("/any") instanceof FalseSampler);
+        Assert.assertTrue(samplingRuleTable.getSampler("") instanceof FalseSampler);
+    }
+
+    @Test
+    public void serviceTypeRule() {
+        ServiceType tomcat = ServiceTypeFactory.of(1010, "TOMCAT");
+        ServiceType jetty = ServiceTypeFactory.of(1030, "JETTY");
+        SamplingRuleTable samplingRuleTable = new SamplingRuleTable("/api/*:0, TOMCAT:/api/*:1, TOMCAT:/internal:0, JETTY_9:/x:1");
+        Assert.assertFalse(samplingRuleTable.isEmpty());
+
+        // service type rule takes precedence
+        Assert.assertTrue(samplingRuleTable.getSampler(tomcat, "/api/user") instanceof TrueSampler);
+        Assert.assertTrue(samplingRuleTable.getSampler(jetty, "/api/user") instanceof FalseSampler);
+        Assert.assertTrue(samplingRuleTable.getSampler("/api/user") instanceof FalseSampler);
+
+        // service type rule only applies to its service type
+        Assert.assertTrue(samplingRuleTable.getSampler(tomcat, "/internal") instanceof FalseSampler);
+        Assert.assertNull(samplingRuleTable.getSampler(jetty, "/internal"));
+        Assert.assertNull(samplingRuleTable.getSampler("/internal"));
+    }
+
+    @Test
+    public void serviceTypeRule_colonInPattern() {
+        SamplingRuleTable samplingRuleTable = new SamplingRuleTable("/a:b:0, TOMCAT:/c:d:1");
+
+        Assert.assertTrue(samplingRuleTable.getSampler("/a:b") instanceof FalseSampler);
+        Assert.assertTrue(samplingRuleTable.getSampler(ServiceTypeFactory.of(1010, "TOMCAT"), "/c:d") instanceof TrueSampler);
+        Assert.assertNull(samplingRuleTable.getSampler("/c:d"));
+    }
+
+    @Test
+    public void serviceTypeRule_emptyPattern() {
+        SamplingRuleTable samplingRuleTable = new SamplingRuleTable("TOMCAT::0");
+
+        Assert.assertTrue(samplingRuleTable.isEmpty());
+    }
+}
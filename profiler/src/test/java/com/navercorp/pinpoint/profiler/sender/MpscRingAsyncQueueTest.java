@@ -0,0 +1,161 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class MpscRingAsyncQueueTest {
+
+    @Test
+    public void roundToPowerOfTwo() {
+        Assert.assertEquals(1, MpscRingAsyncQueue.roundToPowerOfTwo(1));
+        Assert.assertEquals(8, MpscRingAsyncQueue.roundToPowerOfTwo(5));
+        Assert.assertEquals(8, MpscRingAsyncQueue.roundToPowerOfTwo(8));
+        Assert.assertEquals(8192, MpscRingAsyncQueue.roundToPowerOfTwo(1024 * 5));
+    }
+
+    @Test
+    public void offerAndDrain() {
+        MpscRingAsyncQueue<Integer> queue = new MpscRingAsyncQueue<Integer>(4);
+        Assert.assertTrue(queue.isEmpty());
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(queue.offer(i));
+        }
+        Assert.assertFalse(queue.offer(4));
+        Assert.assertEquals(4, queue.size());
+
+        List<Integer> drain = new ArrayList<Integer>();
+        Assert.assertEquals(3, queue.drainTo(drain, 3));
+        Assert.assertEquals(Integer.valueOf(0), drain.get(0));
+        Assert.assertEquals(Integer.valueOf(2), drain.get(2));
+
+        Assert.assertTrue(queue.offer(4));
+        drain.clear();
+        Assert.assertEquals(2, queue.drainTo(drain, 10));
+        Assert.assertEquals(Integer.valueOf(3), drain.get(0));
+        Assert.assertEquals(Integer.valueOf(4), drain.get(1));
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void pollTimeout() throws InterruptedException {
+        MpscRingAsyncQueue<Integer> queue = new MpscRingAsyncQueue<Integer>(4, WaitStrategy.PARK);
+        Assert.assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+
+        queue.offer(1);
+        Assert.assertEquals(Integer.valueOf(1), queue.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void multiProducer() throws InterruptedException {
+        final int producerCount = 8;
+        final int messageCount = 10000;
+        final MpscRingAsyncQueue<Integer> queue = new MpscRingAsyncQueue<Integer>(1024, WaitStrategy.YIELD);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(producerCount);
+        try {
+            for (int i = 0; i < producerCount; i++) {
+                executorService.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            startLatch.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        for (int j = 0; j < messageCount; j++) {
+                            while (!queue.offer(j)) {
+                                Thread.yield();
+                            }
+                        }
+                    }
+                });
+            }
+            startLatch.countDown();
+
+            long sum = 0;
+            int received = 0;
+            while (received < producerCount * messageCount) {
+                Integer value = queue.poll(5, TimeUnit.SECONDS);
+                Assert.assertNotNull(value);
+                sum += value;
+                received++;
+            }
+            long expectedSum = (long) producerCount * messageCount * (messageCount - 1) / 2;
+            Assert.assertEquals(expectedSum, sum);
+            Assert.assertTrue(queue.isEmpty());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void executorCounter() throws InterruptedException {
+        AsyncQueue<Object> queue = new MpscRingAsyncQueue<Object>(2);
+        AsyncQueueingExecutor<Object> executor = new AsyncQueueingExecutor<Object>(queue, "MpscRingAsyncQueueTest");
+        final CountDownLatch blockLatch = new CountDownLatch(1);
+        final CountDownLatch executeLatch = new CountDownLatch(3);
+        executor.setListener(new AsyncQueueingExecutorListener<Object>() {
+            @Override
+            public void execute(Collection<Object> messageList) {
+                for (int i = 0; i < messageList.size(); i++) {
+                    execute((Object) null);
+                }
+            }
+
+            @Override
+            public void execute(Object message) {
+                try {
+                    blockLatch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                executeLatch.countDown();
+            }
+        });
+        try {
+            // first message is taken by the executor thread and blocked
+            executor.execute("first");
+            while (!executor.isEmpty()) {
+                Thread.sleep(1);
+            }
+            executor.execute("second");
+            executor.execute("third");
+            Assert.assertFalse(executor.execute("dropped"));
+
+            blockLatch.countDown();
+            Assert.assertTrue(executeLatch.await(5, TimeUnit.SECONDS));
+
+            Assert.assertEquals(1, executor.getDroppedCount());
+            Assert.assertEquals(3, executor.getDrainedCount());
+            Assert.assertEquals(4, executor.getOfferedCount());
+        } finally {
+            executor.stop();
+        }
+    }
+}
@@ -34,6 +34,7 @@ import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializer;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializerFactory;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializerFactory;
+import org.apache.thrift.TBase;
 import org.apache.thrift.TException;
 import org.junit.Assert;
 import org.junit.Test;
@@ -134,6 +135,53 @@ public class SpanStreamSendDataSerializerTest {
         }
     }
 
+    @Test
+    public void serializeSpanStream_keepSpanEventList() throws Exception {
+        SpanStreamSendDataSerializer serializer = new SpanStreamSendDataSerializer();
+        HeaderTBaseSerializerFactory factory = new HeaderTBaseSerializerFactory();
+
+        List<TSpanEvent> spanEventList = newTSpanEventList(5);
+        TSpan span = new TSpan();
+        span.setAgentId("agentId");
+        span.setSpanEventList(spanEventList);
+
+        PartitionedByteBufferLocator partitionedByteBufferLocator = serializer.serializeSpanStream(factory.createSerializer(), span);
+
+        // span event partitions + span partition
+        Assert.assertEquals(6, partitionedByteBufferLocator.getPartitionedCount());
+        for (int i = 0; i < spanEventList.size(); i++) {
+            TSpanEvent spanEvent = (TSpanEvent) deserialize(partitionedByteBufferLocator.getByteBuffer(i));
+            Assert.assertEquals(i, spanEvent.getSequence());
+        }
+
+        TSpan deserializedSpan = (TSpan) deserialize(partitionedByteBufferLocator.getByteBuffer(5));
+        Assert.assertEquals("agentId", deserializedSpan.getAgentId());
+        Assert.assertEquals(0, deserializedSpan.getSpanEventListSize());
+
+        // original span is left untouched
+        Assert.assertSame(spanEventList, span.getSpanEventList());
+    }
+
+    @Test
+    public void serializeSpanChunkStream_keepSpanEventList() throws Exception {
+        SpanStreamSendDataSerializer serializer = new SpanStreamSendDataSerializer();
+        HeaderTBaseSerializerFactory factory = new HeaderTBaseSerializerFactory();
+
+        List<TSpanEvent> spanEventList = newTSpanEventList(3);
+        TSpanChunk spanChunk = new TSpanChunk();
+        spanChunk.setAgentId("agentId");
+        spanChunk.setSpanEventList(spanEventList);
+
+        PartitionedByteBufferLocator partitionedByteBufferLocator = serializer.serializeSpanChunkStream(factory.createSerializer(), spanChunk);
+
+        Assert.assertEquals(4, partitionedByteBufferLocator.getPartitionedCount());
+        TSpanChunk deserializedSpanChunk = (TSpanChunk) deserialize(partitionedByteBufferLocator.getByteBuffer(3));
+        Assert.assertEquals("agentId", deserializedSpanChunk.getAgentId());
+        Assert.assertEquals(0, deserializedSpanChunk.getSpanEventListSize());
+
+        Assert.assertSame(spanEventList, spanChunk.getSpanEventList());
+    }
+
     private Span createSpan(List<SpanEvent> spanEventList) {
         TraceRoot traceRoot = newInternalTraceId();
 
@@ -164,4 +212,22 @@ public class SpanStreamSendDataSerializerTest {
         return spanEventList;
     }
 
+    private List<TSpanEvent> newTSpanEventList(int size) {
+        List<TSpanEvent> spanEventList = new ArrayList<TSpanEvent>(size);
+        for (int i = 0; i < size; i++) {
+            TSpanEvent spanEvent = new TSpanEvent();
+            spanEvent.setSequence((short) i);
+            spanEvent.setDepth(1);
+            spanEventList.add(spanEvent);
+        }
+        return spanEventList;
+    }
+
+    private TBase<?, ?> deserialize(ByteBuffer byteBuffer) throws TException {
+        HeaderTBaseDeserializer deserializer = new HeaderTBaseDeserializerFactory().createDeserializer();
+        List<TBase<?, ?>> tBaseList = deserializer.deserializeList(byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(), byteBuffer.remaining());
+        Assert.assertEquals(1, tBaseList.size());
+        return tBaseList.get(0);
+    }
+
 }
@@ -19,6 +19,8 @@ package com.navercorp.pinpoint.profiler.sender;
 import com.navercorp.pinpoint.profiler.logging.Slf4jLoggerBinderInitializer;
 import com.navercorp.pinpoint.profiler.sender.UdpDataSender;
 import com.navercorp.pinpoint.thrift.dto.TAgentInfo;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializer;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializerFactory;
 
 import org.junit.Assert;
 
@@ -29,6 +31,11 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.springframework.util.SocketUtils;
 
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -95,6 +102,32 @@ public class UdpDataSenderTest {
     }
 
     
+    @Test
+    public void sendPacked() throws Exception {
+        DatagramSocket receiver = new DatagramSocket(new InetSocketAddress("localhost", PORT));
+        receiver.setSoTimeout(3000);
+        UdpDataSender sender = new UdpDataSender("localhost", PORT, "test", 128, 1000, 1024*64*100, AsyncQueueFactory.DEFAULT, true);
+        try {
+            List<Object> messageList = new ArrayList<Object>();
+            for (int i = 0; i < 10; i++) {
+                TAgentInfo agentInfo = new TAgentInfo();
+                agentInfo.setAgentId("agentId" + i);
+                messageList.add(agentInfo);
+            }
+            sender.sendPacketN(messageList);
+
+            DatagramPacket packet = new DatagramPacket(new byte[UdpDataSender.UDP_MAX_PACKET_LENGTH], UdpDataSender.UDP_MAX_PACKET_LENGTH);
+            receiver.receive(packet);
+
+            HeaderTBaseDeserializer deserializer = new HeaderTBaseDeserializerFactory().createDeserializer();
+            List<TBase<?, ?>> tBaseList = deserializer.deserializeList(packet.getData(), packet.getOffset(), packet.getLength());
+            Assert.assertEquals(messageList, tBaseList);
+        } finally {
+            sender.stop();
+            receiver.close();
+        }
+    }
+
     private boolean sendMessage_getLimit(TBase tbase, long waitTimeMillis) throws InterruptedException {
         final AtomicBoolean limitCounter = new AtomicBoolean(false);
         final CountDownLatch latch = new CountDownLatch(1);
@@ -99,6 +99,50 @@ public class HeaderTBaseDeserializer {
         return tBaseList;
     }
 
+    /**
+     * Deserialize all Thrift objects written back to back in the given range.
+     * a datagram packed by the agent contains multiple messages, an unpacked one contains exactly one.
+     *
+     * @param buffer The array to read from
+     * @param offset start offset of the data
+     * @param length length of the data
+     */
+    public List<TBase<?, ?>> deserializeList(byte[] buffer, int offset, int length) throws TException {
+        final List<TBase<?, ?>> tBaseList = new ArrayList<TBase<?, ?>>(1);
+        deserializeList(buffer, offset, length, tBaseList);
+        return tBaseList;
+    }
+
+    /**
+     * Same as {@link #deserializeList(byte[], int, int)}, but adds the Thrift objects to the given list
+     * so that the caller can reuse it.
+     *
+     * @return number of deserialized objects
+     */
+    public int deserializeList(byte[] buffer, int offset, int length, List<TBase<?, ?>> tBaseList) throws TException {
+        int count = 0;
+        trans.reset(buffer, offset, length);
+        try {
+            while (trans.getBytesRemainingInBuffer() > 0) {
+                // read header without allocation
+                final byte signature = protocol.readByte();
+                final byte version = protocol.readByte();
+                final short type = bytesToShort(protocol.readByte(), protocol.readByte());
+                if (HeaderUtils.validateSignature(signature) == HeaderUtils.FAIL) {
+                    throw new TException("Invalid Signature:" + new Header(signature, version, type));
+                }
+                TBase<?, ?> base = locator.tBaseLookup(type);
+                base.read(protocol);
+                tBaseList.add(base);
+                count++;
+            }
+        } finally {
+            trans.clear();
+            protocol.reset();
+        }
+        return count;
+    }
+
     private int validate(Header header) throws TException {
         final byte signature = header.getSignature();
         final int result = HeaderUtils.validateSignature(signature);
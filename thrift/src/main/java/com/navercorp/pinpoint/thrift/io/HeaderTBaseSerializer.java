@@ -65,10 +65,20 @@ public class HeaderTBaseSerializer {
     }
     
     public byte[] continueSerialize(TBase<?, ?> base) throws TException {
+        continueWrite(base);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Append the Thrift object to the inter buffer without taking a snapshot of it.
+     * Use {@link #continueSerialize(TBase)} for the last object to get the whole buffer at once.
+     *
+     * @param base The object to serialize
+     */
+    public void continueWrite(TBase<?, ?> base) throws TException {
         final Header header = locator.headerLookup(base);
         writeHeader(header);
         base.write(protocol);
-        return baos.toByteArray();
     }
     
     public void reset() {
@@ -103,6 +103,12 @@ public enum TCommandType {
         public TBase newObject() {
             return new TCmdActiveThreadLightDumpRes();
         }
+    },
+    SAMPLING_RULE((short) 760, TCmdSamplingRule.class) {
+        @Override
+        public TBase newObject() {
+            return new TCmdSamplingRule();
+        }
     };
 
     private final short code;
@@ -112,6 +112,10 @@ struct TCommandEcho {
     1: string	message
 }
 
+struct TCmdSamplingRule {
+    1: string	samplingRule
+}
+
 enum TRouteResult {
     OK = 0,
 
@@ -23,6 +23,7 @@ import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializerFactory;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializer;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializerFactory;
 
+import org.apache.thrift.TBase;
 import org.apache.thrift.TException;
 import org.junit.Assert;
 import org.junit.Test;
@@ -30,6 +31,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * @author emeroad
@@ -74,6 +76,34 @@ public class HeaderTBaseSerializerTest {
         Assert.assertEquals(deserialize, tAgentInfo);
     }
 
+    @Test
+    public void deserializeList() throws Exception {
+        HeaderTBaseSerializer serializer = new HeaderTBaseSerializerFactory().createSerializer();
+        HeaderTBaseDeserializer deserializer = new HeaderTBaseDeserializerFactory().createDeserializer();
+
+        TAgentInfo first = new TAgentInfo();
+        first.setAgentId("agentId1");
+        TAgentInfo second = new TAgentInfo();
+        second.setAgentId("agentId2");
+
+        byte[] firstBytes = serializer.serialize(first);
+        byte[] secondBytes = serializer.serialize(second);
+
+        // packed datagram with garbage at the end of the buffer
+        byte[] packed = new byte[firstBytes.length + secondBytes.length + 10];
+        System.arraycopy(firstBytes, 0, packed, 0, firstBytes.length);
+        System.arraycopy(secondBytes, 0, packed, firstBytes.length, secondBytes.length);
+
+        List<TBase<?, ?>> tBaseList = deserializer.deserializeList(packed, 0, firstBytes.length + secondBytes.length);
+        Assert.assertEquals(2, tBaseList.size());
+        Assert.assertEquals(first, tBaseList.get(0));
+        Assert.assertEquals(second, tBaseList.get(1));
+
+        List<TBase<?, ?>> single = deserializer.deserializeList(packed, 0, firstBytes.length);
+        Assert.assertEquals(1, single.size());
+        Assert.assertEquals(first, single.get(0));
+    }
+
     public void dump(byte[] data) {
         String s = Arrays.toString(data);
         logger.debug("size:{} data:{}", data.length, s);
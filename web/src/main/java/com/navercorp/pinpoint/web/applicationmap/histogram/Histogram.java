@@ -30,6 +30,18 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 @JsonSerialize(using = HistogramSerializer.class)
 public class Histogram {
 
+    // counter index, also the column order of TimeHistogramColumns
+    static final int FAST = 0;
+    static final int NORMAL = 1;
+    static final int SLOW = 2;
+    static final int VERY_SLOW = 3;
+    static final int ERROR = 4;
+    static final int FAST_ERROR = 5;
+    static final int NORMAL_ERROR = 6;
+    static final int SLOW_ERROR = 7;
+    static final int VERY_SLOW_ERROR = 8;
+    static final int BUCKET_SIZE = 9;
+
     private final HistogramSchema schema;
 
     private long fastCount;
@@ -64,55 +76,112 @@ public class Histogram {
 
     // TODO one may extract slot number from this class
     public void addCallCount(final short slotTime, final long count) {
-        final HistogramSchema schema = this.schema;
+        final int bucket = findBucket(this.schema, slotTime);
+        if (bucket == -1) {
+            throw new IllegalArgumentException("slot not found slotTime=" + slotTime + ", count=" + count + ", schema=" + schema);
+        }
+        addCount(bucket, count);
+    }
 
+    /**
+     * @return counter index of the slot, -1 if not found
+     * @see TimeHistogramColumns
+     */
+    static int findBucket(final HistogramSchema schema, final short slotTime) {
         if (slotTime <= schema.getVerySlowErrorSlot().getSlotTime()) {
-            this.verySlowErrorCount += count;
-            return;
+            return VERY_SLOW_ERROR;
         }
 
         if (slotTime <= schema.getSlowErrorSlot().getSlotTime()) {
-            this.slowErrorCount += count;
-            return;
+            return SLOW_ERROR;
         }
 
 
         if (slotTime <= schema.getNormalErrorSlot().getSlotTime()) {
-            this.normalErrorCount += count;
-            return;
+            return NORMAL_ERROR;
         }
 
         if (slotTime <= schema.getFastErrorSlot().getSlotTime()) {
-            this.fastErrorCount += count;
-            return;
+            return FAST_ERROR;
         }
 
         if (slotTime <= schema.getErrorSlot().getSlotTime()) {
-            this.errorCount += count;
-            return;
+            return ERROR;
         }
 
         if (slotTime == schema.getVerySlowSlot().getSlotTime()) { // 0 is slow slotTime
-            this.verySlowCount += count;
-            return;
+            return VERY_SLOW;
         }
 
         if (slotTime <= schema.getFastSlot().getSlotTime()) {
-            this.fastCount += count;
-            return;
+            return FAST;
         }
 
         if (slotTime <= schema.getNormalSlot().getSlotTime()) {
-            this.normalCount += count;
-            return;
+            return NORMAL;
         }
 
         if (slotTime <= schema.getSlowSlot().getSlotTime()) {
-            this.slowCount += count;
-            return;
+            return SLOW;
         }
+        return -1;
+    }
 
-        throw new IllegalArgumentException("slot not found slotTime=" + slotTime + ", count=" + count + ", schema=" + schema);
+    void addCount(final int bucket, final long count) {
+        switch (bucket) {
+            case FAST:
+                this.fastCount += count;
+                return;
+            case NORMAL:
+                this.normalCount += count;
+                return;
+            case SLOW:
+                this.slowCount += count;
+                return;
+            case VERY_SLOW:
+                this.verySlowCount += count;
+                return;
+            case ERROR:
+                this.errorCount += count;
+                return;
+            case FAST_ERROR:
+                this.fastErrorCount += count;
+                return;
+            case NORMAL_ERROR:
+                this.normalErrorCount += count;
+                return;
+            case SLOW_ERROR:
+                this.slowErrorCount += count;
+                return;
+            case VERY_SLOW_ERROR:
+                this.verySlowErrorCount += count;
+                return;
+        }
+        throw new IllegalArgumentException("bucket:" + bucket);
+    }
+
+    long getBucketCount(final int bucket) {
+        switch (bucket) {
+            case FAST:
+                return fastCount;
+            case NORMAL:
+                return normalCount;
+            case SLOW:
+                return slowCount;
+            case VERY_SLOW:
+                return verySlowCount;
+            case ERROR:
+                return errorCount;
+            case FAST_ERROR:
+                return fastErrorCount;
+            case NORMAL_ERROR:
+                return normalErrorCount;
+            case SLOW_ERROR:
+                return slowErrorCount;
+            case VERY_SLOW_ERROR:
+                return verySlowErrorCount;
+        }
+        throw new IllegalArgumentException("bucket:" + bucket);
     }
 
     public HistogramSchema getHistogramSchema() {
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.applicationmap.histogram;
+
+import com.navercorp.pinpoint.common.trace.HistogramSchema;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static com.navercorp.pinpoint.web.applicationmap.histogram.Histogram.BUCKET_SIZE;
+
+/**
+ * Columnar storage of the {@link TimeHistogram}s of a link or an agent.
+ * <p>
+ * Instead of a {@link TimeHistogram} object per timestamp, the counters of every timestamp are kept in a single long array,
+ * {@link Histogram#BUCKET_SIZE} counters per row. A row is found by an open addressing index of the timestamp,
+ * so merging two columns only adds up the arrays. {@link TimeHistogram}s are created only when they are asked for.
+ */
+public class TimeHistogramColumns {
+
+    private static final long[] EMPTY_LONG = new long[0];
+    private static final int[] EMPTY_INDEX = new int[0];
+
+    private static final int INITIAL_INDEX_SIZE = 8;
+
+    private final HistogramSchema schema;
+
+    private long[] timestamps = EMPTY_LONG;
+    private long[] counts = EMPTY_LONG;
+    private int size;
+    // row + 1, 0 is empty
+    private int[] index = EMPTY_INDEX;
+
+    public TimeHistogramColumns(HistogramSchema schema) {
+        if (schema == null) {
+            throw new NullPointerException("schema must not be null");
+        }
+        this.schema = schema;
+    }
+
+    public HistogramSchema getHistogramSchema() {
+        return schema;
+    }
+
+    /**
+     * @return number of timestamps
+     */
+    public int size() {
+        return size;
+    }
+
+    public void addCallCount(long timestamp, short slotTime, long count) {
+        final int bucket = Histogram.findBucket(schema, slotTime);
+        if (bucket == -1) {
+            throw new IllegalArgumentException("slot not found slotTime=" + slotTime + ", count=" + count + ", schema=" + schema);
+        }
+        final int row = getRow(timestamp);
+        counts[row * BUCKET_SIZE + bucket] += count;
+    }
+
+    public void add(TimeHistogram timeHistogram) {
+        if (timeHistogram == null) {
+            throw new NullPointerException("timeHistogram must not be null");
+        }
+        add(timeHistogram.getTimeStamp(), timeHistogram);
+    }
+
+    public void add(long timestamp, Histogram histogram) {
+        if (histogram == null) {
+            throw new NullPointerException("histogram must not be null");
+        }
+        if (this.schema != histogram.getHistogramSchema()) {
+            throw new IllegalArgumentException("schema not equals. this=" + this + ", histogram=" + histogram);
+        }
+        final int offset = getRow(timestamp) * BUCKET_SIZE;
+        for (int bucket = 0; bucket < BUCKET_SIZE; bucket++) {
+            counts[offset + bucket] += histogram.getBucketCount(bucket);
+        }
+    }
+
+    public void addAll(Collection<TimeHistogram> timeHistograms) {
+        if (timeHistograms == null) {
+            throw new NullPointerException("timeHistograms must not be null");
+        }
+        for (TimeHistogram timeHistogram : timeHistograms) {
+            add(timeHistogram);
+        }
+    }
+
+    public void addAll(TimeHistogramColumns columns) {
+        addAll(columns, null);
+    }
+
+    /**
+     * @param timeWindow refines the timestamps of the columns, null keeps them
+     */
+    public void addAll(TimeHistogramColumns columns, TimeWindow timeWindow) {
+        if (columns == null) {
+            throw new NullPointerException("columns must not be null");
+        }
+        if (this.schema != columns.schema) {
+            throw new IllegalArgumentException("schema not equals. this=" + this + ", columns=" + columns);
+        }
+        final int copySize = columns.size;
+        for (int copyRow = 0; copyRow < copySize; copyRow++) {
+            long timestamp = columns.timestamps[copyRow];
+            if (timeWindow != null) {
+                timestamp = timeWindow.refineTimestamp(timestamp);
+            }
+            final int offset = getRow(timestamp) * BUCKET_SIZE;
+            // arrays may have grown in getRow()
+            final long[] copyCounts = columns.counts;
+            final int copyOffset = copyRow * BUCKET_SIZE;
+            for (int bucket = 0; bucket < BUCKET_SIZE; bucket++) {
+                counts[offset + bucket] += copyCounts[copyOffset + bucket];
+            }
+        }
+    }
+
+    public long getTotalCount() {
+        long totalCount = 0;
+        final int length = size * BUCKET_SIZE;
+        for (int i = 0; i < length; i++) {
+            totalCount += counts[i];
+        }
+        return totalCount;
+    }
+
+    /**
+     * @return sum of every timestamp
+     */
+    public Histogram sum() {
+        final long[] sum = new long[BUCKET_SIZE];
+        for (int row = 0; row < size; row++) {
+            final int offset = row * BUCKET_SIZE;
+            for (int bucket = 0; bucket < BUCKET_SIZE; bucket++) {
+                sum[bucket] += counts[offset + bucket];
+            }
+        }
+        final Histogram histogram = new Histogram(schema);
+        for (int bucket = 0; bucket < BUCKET_SIZE; bucket++) {
+            histogram.addCount(bucket, sum[bucket]);
+        }
+        return histogram;
+    }
+
+    /**
+     * @return a copy of every timestamp as {@link TimeHistogram}, in no particular order
+     */
+    public List<TimeHistogram> toTimeHistograms() {
+        final List<TimeHistogram> timeHistograms = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            final TimeHistogram timeHistogram = new TimeHistogram(schema, timestamps[row]);
+            final int offset = row * BUCKET_SIZE;
+            for (int bucket = 0; bucket < BUCKET_SIZE; bucket++) {
+                timeHistogram.addCount(bucket, counts[offset + bucket]);
+            }
+            timeHistograms.add(timeHistogram);
+        }
+        return timeHistograms;
+    }
+
+    private int getRow(long timestamp) {
+        if (index.length == 0) {
+            index = new int[INITIAL_INDEX_SIZE];
+        }
+        final int mask = index.length - 1;
+        int slot = hash(timestamp) & mask;
+        while (true) {
+            final int entry = index[slot];
+            if (entry == 0) {
+                return newRow(timestamp, slot);
+            }
+            if (timestamps[entry - 1] == timestamp) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private int newRow(long timestamp, int slot) {
+        if (size == timestamps.length) {
+            final int capacity = Math.max(4, size * 2);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            counts = Arrays.copyOf(counts, capacity * BUCKET_SIZE);
+        }
+        final int row = size++;
+        timestamps[row] = timestamp;
+        index[slot] = row + 1;
+        if (size * 2 > index.length) {
+            rehash(index.length * 2);
+        }
+        return row;
+    }
+
+    private void rehash(int indexSize) {
+        final int[] newIndex = new int[indexSize];
+        final int mask = indexSize - 1;
+        for (int row = 0; row < size; row++) {
+            int slot = hash(timestamps[row]) & mask;
+            while (newIndex[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            newIndex[slot] = row + 1;
+        }
+        this.index = newIndex;
+    }
+
+    private static int hash(long timestamp) {
+        // timestamps are multiples of the window size, spread them over the high bits
+        final long hash = timestamp * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32);
+    }
+
+    @Override
+    public String toString() {
+        return "TimeHistogramColumns{" +
+                "schema=" + schema +
+                ", " + toTimeHistograms() +
+                '}';
+    }
+}
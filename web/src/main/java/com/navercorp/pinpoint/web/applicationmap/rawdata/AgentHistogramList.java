@@ -19,6 +19,7 @@ package com.navercorp.pinpoint.web.applicationmap.rawdata;
 import com.navercorp.pinpoint.common.trace.ServiceType;
 import com.navercorp.pinpoint.web.applicationmap.histogram.Histogram;
 import com.navercorp.pinpoint.web.applicationmap.histogram.TimeHistogram;
+import com.navercorp.pinpoint.web.applicationmap.histogram.TimeHistogramColumns;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.ResponseTime;
 
@@ -81,6 +82,15 @@ public class AgentHistogramList {
         addTimeHistogram(agentId, histogramList);
     }
 
+    public void addAgentHistogram(String agentName, ServiceType serviceType, TimeHistogramColumns timeHistogramColumns) {
+        if (timeHistogramColumns == null) {
+            throw new NullPointerException("timeHistogramColumns must not be null");
+        }
+        Application agentId = new Application(agentName, serviceType);
+        AgentHistogram agentHistogram = getAgentHistogram(agentId);
+        agentHistogram.addTimeHistogram(timeHistogramColumns);
+    }
+
     public void addAgentHistogram(String agentName, ServiceType serviceType, TimeHistogram timeHistogram) {
         Application agentId = new Application(agentName, serviceType);
         addTimeHistogram(agentId, timeHistogram);
@@ -120,7 +130,7 @@ public class AgentHistogramList {
 
         Application agentId = new Application(hostName, serviceType);
         AgentHistogram findAgentHistogram = getAgentHistogram(agentId);
-        findAgentHistogram.addTimeHistogram(agentHistogram.getTimeHistogram());
+        findAgentHistogram.addTimeHistogram(agentHistogram.getTimeHistogramColumns());
     }
 
     public void addAgentHistogram(AgentHistogramList addAgentHistogramList) {
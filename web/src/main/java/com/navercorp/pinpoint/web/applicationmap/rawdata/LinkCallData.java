@@ -18,10 +18,11 @@ package com.navercorp.pinpoint.web.applicationmap.rawdata;
 
 import com.navercorp.pinpoint.common.trace.ServiceType;
 import com.navercorp.pinpoint.web.applicationmap.histogram.TimeHistogram;
+import com.navercorp.pinpoint.web.applicationmap.histogram.TimeHistogramColumns;
 import com.navercorp.pinpoint.web.util.TimeWindow;
 import com.navercorp.pinpoint.web.vo.LinkKey;
 
-import java.util.*;
+import java.util.Collection;
 
 /**
  * representation of caller/callee relationship 
@@ -35,7 +36,7 @@ public class LinkCallData {
     private final String target;
     private final ServiceType targetServiceType;
 
-    private final Map<Long, TimeHistogram> targetHistogramTimeMap;
+    private final TimeHistogramColumns targetHistogramColumns;
     private final TimeWindow timeWindow;
 
     public LinkCallData(LinkKey linkKey) {
@@ -51,7 +52,7 @@ public class LinkCallData {
         this.target = linkKey.getToApplication();
         this.targetServiceType = linkKey.getToServiceType();
 
-        this.targetHistogramTimeMap = new HashMap<>();
+        this.targetHistogramColumns = new TimeHistogramColumns(targetServiceType.getHistogramSchema());
         this.timeWindow = timeWindow;
     }
 
@@ -75,19 +76,24 @@ public class LinkCallData {
         return targetServiceType;
     }
 
+    /**
+     * @return copy of the time histograms, use {@link #getTimeHistogramColumns()} to read the counts without copying
+     */
     public Collection<TimeHistogram> getTimeHistogram() {
-        return targetHistogramTimeMap.values();
+        return targetHistogramColumns.toTimeHistograms();
+    }
+
+    public TimeHistogramColumns getTimeHistogramColumns() {
+        return targetHistogramColumns;
     }
 
     public void addCallData(long timestamp, short slot, long count) {
-        TimeHistogram histogram = getTimeHistogram(timestamp);
-        histogram.addCallCount(slot, count);
+        targetHistogramColumns.addCallCount(refineTimestamp(timestamp), slot, count);
     }
 
     public void addCallData(Collection<TimeHistogram> timeHistogramList) {
         for (TimeHistogram timeHistogram : timeHistogramList) {
-            TimeHistogram histogram = getTimeHistogram(timeHistogram.getTimeStamp());
-            histogram.add(timeHistogram);
+            targetHistogramColumns.add(refineTimestamp(timeHistogram.getTimeStamp()), timeHistogram);
         }
     }
 
@@ -108,29 +114,15 @@ public class LinkCallData {
             throw new IllegalArgumentException("targetServiceType not equals");
         }
 
-        for (Map.Entry<Long, TimeHistogram> copyEntry : copyLinkCallData.targetHistogramTimeMap.entrySet()) {
-            final Long timeStamp = copyEntry.getKey();
-            TimeHistogram histogram = getTimeHistogram(timeStamp);
-            histogram.add(copyEntry.getValue());
-        }
+        targetHistogramColumns.addAll(copyLinkCallData.targetHistogramColumns, timeWindow);
     }
 
-    private TimeHistogram getTimeHistogram(Long timeStamp) {
-        long key = timeWindow != null ? timeWindow.refineTimestamp(timeStamp) : timeStamp;
-        TimeHistogram histogram = targetHistogramTimeMap.get(key);
-        if (histogram == null) {
-            histogram = new TimeHistogram(targetServiceType, key);
-            targetHistogramTimeMap.put(key, histogram);
-        }
-        return histogram;
+    private long refineTimestamp(long timeStamp) {
+        return timeWindow != null ? timeWindow.refineTimestamp(timeStamp) : timeStamp;
     }
 
     public long getTotalCount() {
-        long totalCount = 0;
-        for (TimeHistogram timeHistogram : targetHistogramTimeMap.values()) {
-            totalCount += timeHistogram.getTotalCount();
-        }
-        return totalCount;
+        return targetHistogramColumns.getTotalCount();
     }
 
     @Override
@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.web.controller;
 
 import com.navercorp.pinpoint.thrift.dto.TResult;
+import com.navercorp.pinpoint.thrift.dto.command.TCmdSamplingRule;
 import com.navercorp.pinpoint.thrift.dto.command.TCommandEcho;
 import com.navercorp.pinpoint.thrift.dto.command.TRouteResult;
 import com.navercorp.pinpoint.thrift.io.DeserializerFactory;
@@ -74,8 +75,28 @@ public class CommandController {
         TCommandEcho echo = new TCommandEcho();
         echo.setMessage(message);
 
+        return invoke(agentInfo, echo);
+    }
+
+    @RequestMapping(value = "/samplingRule", method = RequestMethod.POST)
+    @ResponseBody
+    public CodeResult samplingRule(@RequestParam("applicationName") String applicationName, @RequestParam("agentId") String agentId,
+                                   @RequestParam("startTimeStamp") long startTimeStamp, @RequestParam(value = "samplingRule", defaultValue = "") String samplingRule) throws TException {
+
+        AgentInfo agentInfo = agentService.getAgentInfo(applicationName, agentId, startTimeStamp);
+        if (agentInfo == null) {
+            return new CodeResult(CODE_FAIL, String.format("Can't find suitable PinpointServer(%s/%s/%d).", applicationName, agentId, startTimeStamp));
+        }
+
+        TCmdSamplingRule command = new TCmdSamplingRule();
+        command.setSamplingRule(samplingRule);
+
+        return invoke(agentInfo, command);
+    }
+
+    private CodeResult invoke(AgentInfo agentInfo, TBase<?, ?> command) {
         try {
-            PinpointRouteResponse pinpointRouteResponse = agentService.invoke(agentInfo, echo);
+            PinpointRouteResponse pinpointRouteResponse = agentService.invoke(agentInfo, command);
             if (pinpointRouteResponse != null && pinpointRouteResponse.getRouteResult() == TRouteResult.OK) {
                 TBase<?, ?> result = pinpointRouteResponse.getResponse();
                 if (result == null) {
@@ -83,7 +104,8 @@ public class CommandController {
                 } else if (result instanceof TCommandEcho) {
                     return new CodeResult(CODE_SUCCESS, ((TCommandEcho) result).getMessage());
                 } else if (result instanceof TResult) {
-                    return new CodeResult(CODE_FAIL, ((TResult) result).getMessage());
+                    TResult tResult = (TResult) result;
+                    return new CodeResult(tResult.isSuccess() ? CODE_SUCCESS : CODE_FAIL, tResult.getMessage());
                 } else {
                     return new CodeResult(CODE_FAIL, result.toString());
                 }
@@ -16,6 +16,7 @@
 
 package com.navercorp.pinpoint.web.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.util.DateUtils;
 import com.navercorp.pinpoint.common.util.TransactionId;
@@ -23,6 +24,9 @@ import com.navercorp.pinpoint.common.util.TransactionIdComparator;
 import com.navercorp.pinpoint.web.filter.Filter;
 import com.navercorp.pinpoint.web.filter.FilterBuilder;
 import com.navercorp.pinpoint.web.scatter.ScatterData;
+import com.navercorp.pinpoint.web.scatter.ScatterDataChunkHandler;
+import com.navercorp.pinpoint.web.scatter.ScatterDataChunker;
+import com.navercorp.pinpoint.web.scatter.ScatterDensityGrid;
 import com.navercorp.pinpoint.web.service.FilteredMapService;
 import com.navercorp.pinpoint.web.service.ScatterChartService;
 import com.navercorp.pinpoint.web.util.LimitUtils;
@@ -44,7 +48,11 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.ModelAndView;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -67,6 +75,9 @@ public class ScatterChartController {
     @Autowired
     private FilterBuilder filterBuilder;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     private static final String PREFIX_TRANSACTION_ID = "I";
     private static final String PREFIX_TIME = "T";
     private static final String PREFIX_RESPONSE_TIME = "R";
@@ -184,6 +195,109 @@ public class ScatterChartController {
         return mv;
     }
 
+    /**
+     * {@link #getScatterData} without filter, written in chunks as the scan goes instead of after the whole scan.
+     * One json object per line : the chunks in scan order, each {"resultFrom", "resultTo", "scatter"},
+     * then {"complete", "currentServerTime", "from", "to", "resultFrom", "resultTo"}.
+     *
+     * @param chunkSize number of dots per chunk
+     */
+    @RequestMapping(value = "/getScatterDataStream", method = RequestMethod.GET)
+    public void getScatterDataStream(
+            @RequestParam("application") String applicationName,
+            @RequestParam("from") long from,
+            @RequestParam("to") long to,
+            @RequestParam("xGroupUnit") int xGroupUnit,
+            @RequestParam("yGroupUnit") int yGroupUnit,
+            @RequestParam("limit") int limit,
+            @RequestParam(value = "backwardDirection", required = false, defaultValue = "true") boolean backwardDirection,
+            @RequestParam(value = "chunkSize", required = false, defaultValue = "1000") int chunkSize,
+            HttpServletResponse response) throws Exception {
+        if (xGroupUnit <= 0) {
+            throw new IllegalArgumentException("xGroupUnit(" + xGroupUnit + ") must be positive number");
+        }
+        if (yGroupUnit < 0) {
+            throw new IllegalArgumentException("yGroupUnit(" + yGroupUnit + ") may not be negative number");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize(" + chunkSize + ") must be positive number");
+        }
+
+        limit = LimitUtils.checkRange(limit);
+
+        StopWatch watch = new StopWatch();
+        watch.start("getScatterDataStream");
+
+        final Range range = Range.createUncheckedRange(from, to);
+        logger.debug("stream scatter data. RANGE={}, X-Group-Unit:{}, Y-Group-Unit:{}, LIMIT={}, BACKWARD_DIRECTION:{}, CHUNK_SIZE:{}", range, xGroupUnit, yGroupUnit, limit, backwardDirection, chunkSize);
+
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        final OutputStream outputStream = response.getOutputStream();
+
+        final ScatterDataChunkHandler chunkHandler = new ScatterDataChunkHandler() {
+            @Override
+            public void handleChunk(ScatterData chunk) throws IOException {
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("resultFrom", chunk.getOldestAcceptedTime());
+                line.put("resultTo", chunk.getLatestAcceptedTime());
+                line.put("scatter", chunk);
+                writeLine(outputStream, line);
+            }
+        };
+        final ScatterDataChunker chunker = new ScatterDataChunker(from, to, xGroupUnit, Math.max(yGroupUnit, 1), limit, chunkSize, chunkHandler);
+        scatter.selectScatterData(applicationName, range, backwardDirection, chunker);
+        chunker.flush();
+
+        Map<String, Object> lastLine = new LinkedHashMap<>();
+        lastLine.put("complete", chunker.isComplete());
+        lastLine.put("currentServerTime", new ServerTime().getCurrentServerTime());
+        lastLine.put("from", range.getFrom());
+        lastLine.put("to", range.getTo());
+        lastLine.put("resultFrom", chunker.getOldestAcceptedTime());
+        lastLine.put("resultTo", chunker.getLatestAcceptedTime());
+        writeLine(outputStream, lastLine);
+
+        watch.stop();
+        logger.info("Stream scatterData time : {}ms, dots : {}", watch.getLastTaskTimeMillis(), chunker.getDotSize());
+    }
+
+    private void writeLine(OutputStream outputStream, Object value) throws IOException {
+        // writeValue(OutputStream) would close the stream
+        outputStream.write(objectMapper.writeValueAsBytes(value));
+        outputStream.write('\n');
+        outputStream.flush();
+    }
+
+    /**
+     * Counts of success and failed dots per xGroupUnit x yGroupUnit cell, for ranges with too many dots to draw.
+     * The whole range is scanned, there is no limit.
+     *
+     * @param yMax elapsed times over yMax are counted in the top cells
+     */
+    @RequestMapping(value = "/getScatterDensity", method = RequestMethod.GET)
+    @ResponseBody
+    public ScatterDensityGrid getScatterDensity(
+            @RequestParam("application") String applicationName,
+            @RequestParam("from") long from,
+            @RequestParam("to") long to,
+            @RequestParam("xGroupUnit") int xGroupUnit,
+            @RequestParam("yGroupUnit") int yGroupUnit,
+            @RequestParam(value = "yMax", required = false, defaultValue = "10000") int yMax,
+            @RequestParam(value = "backwardDirection", required = false, defaultValue = "true") boolean backwardDirection) {
+        final Range range = Range.createUncheckedRange(from, to);
+        final ScatterDensityGrid densityGrid = new ScatterDensityGrid(from, to, xGroupUnit, yGroupUnit, yMax);
+
+        StopWatch watch = new StopWatch();
+        watch.start("getScatterDensity");
+
+        scatter.selectScatterData(applicationName, range, backwardDirection, densityGrid);
+
+        watch.stop();
+        logger.info("Fetch scatterDensity time : {}ms, dots : {}", watch.getLastTaskTimeMillis(), densityGrid.getTotalCount());
+        return densityGrid;
+    }
+
     private ModelAndView selectScatterData(String applicationName, Range range, int xGroupUnit, int yGroupUnit, int limit, boolean backwardDirection, int version) {
         ModelAndView mv = null;
         if (version == 1) {
@@ -18,6 +18,7 @@ package com.navercorp.pinpoint.web.dao;
 
 import com.navercorp.pinpoint.common.util.TransactionId;
 import com.navercorp.pinpoint.web.scatter.ScatterData;
+import com.navercorp.pinpoint.web.scatter.ScatterDotHandler;
 import com.navercorp.pinpoint.web.vo.LimitedScanResult;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.SelectedScatterArea;
@@ -50,4 +51,9 @@ public interface ApplicationTraceIndexDao {
 
     ScatterData scanTraceScatterData(String applicationName, Range range, int xGroupUnit, int yGroupUnit, int limit, boolean scanBackward);
 
+    /**
+     * Hands the dots over row by row in scan order as the scan goes, without keeping them.
+     */
+    void scanTraceScatterData(String applicationName, Range range, boolean scanBackward, ScatterDotHandler dotHandler);
+
 }
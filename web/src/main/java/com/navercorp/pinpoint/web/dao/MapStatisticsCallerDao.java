@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.web.dao;
 
 import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.util.TimeWindow;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.Range;
 
@@ -28,4 +29,12 @@ import com.navercorp.pinpoint.web.vo.Range;
 public interface MapStatisticsCallerDao {
     LinkDataMap selectCaller(Application callerApplication, Range range);
 
+    /**
+     * @param timeWindow window the result is down sampled to, instead of the window of the range.
+     *                   ignored by default, an implementation backing the server map cache must override it.
+     */
+    default LinkDataMap selectCaller(Application callerApplication, Range range, TimeWindow timeWindow) {
+        return selectCaller(callerApplication, range);
+    }
+
 }
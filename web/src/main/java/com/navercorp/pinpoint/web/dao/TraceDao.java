@@ -18,6 +18,7 @@ package com.navercorp.pinpoint.web.dao;
 
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.util.TransactionId;
@@ -33,5 +34,19 @@ public interface TraceDao {
     
     List<List<SpanBo>> selectAllSpans(List<TransactionId> transactionIdList);
 
+    /**
+     * Passes each transaction to the handler as soon as it is read, instead of collecting them all first.
+     * The handler is called from the calling thread, and the order of the transactions is not guaranteed.
+     */
+    default void selectAllSpans(List<TransactionId> transactionIdList, Consumer<List<SpanBo>> transactionHandler) {
+        if (transactionHandler == null) {
+            throw new NullPointerException("transactionHandler must not be null");
+        }
+        final List<List<SpanBo>> transactionList = selectAllSpans(transactionIdList);
+        for (List<SpanBo> transaction : transactionList) {
+            transactionHandler.accept(transaction);
+        }
+    }
+
 
 }
@@ -30,6 +30,8 @@ import com.navercorp.pinpoint.common.server.bo.ApiMetaDataBo;
 import com.navercorp.pinpoint.common.hbase.HBaseTables;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
+import com.navercorp.pinpoint.common.util.CollectionUtils;
+import com.navercorp.pinpoint.common.util.ContentHashUtils;
 import com.navercorp.pinpoint.web.dao.ApiMetaDataDao;
 
 /**
@@ -58,6 +60,15 @@ public class HbaseApiMetaDataDao implements ApiMetaDataDao {
             throw new NullPointerException("agentId must not be null");
         }
 
+        final List<ApiMetaDataBo> metaDataList = select(agentId, time, apiId);
+        if (CollectionUtils.isEmpty(metaDataList) && !ContentHashUtils.isContentHashAgentStartTime(time)) {
+            // agent using content hash ids
+            return select(agentId, ContentHashUtils.CONTENT_HASH_AGENT_START_TIME, apiId);
+        }
+        return metaDataList;
+    }
+
+    private List<ApiMetaDataBo> select(String agentId, long time, int apiId) {
         ApiMetaDataBo apiMetaDataBo = new ApiMetaDataBo(agentId, time, apiId);
         byte[] sqlId = getDistributedKey(apiMetaDataBo.toRowKey());
         Get get = new Get(sqlId);
@@ -22,6 +22,7 @@ import com.navercorp.pinpoint.common.buffer.Buffer;
 import com.navercorp.pinpoint.common.hbase.HBaseTables;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.LimitEventHandler;
+import com.navercorp.pinpoint.common.hbase.ResultsExtractor;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
 import com.navercorp.pinpoint.common.util.BytesUtils;
 import com.navercorp.pinpoint.common.util.DateUtils;
@@ -33,6 +34,7 @@ import com.navercorp.pinpoint.web.mapper.TraceIndexScatterMapper2;
 import com.navercorp.pinpoint.web.mapper.TraceIndexScatterMapper3;
 import com.navercorp.pinpoint.web.mapper.TransactionIdMapper;
 import com.navercorp.pinpoint.web.scatter.ScatterData;
+import com.navercorp.pinpoint.web.scatter.ScatterDotHandler;
 import com.navercorp.pinpoint.web.vo.LimitedScanResult;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.ResponseTimeRange;
@@ -43,6 +45,7 @@ import org.apache.commons.collections.CollectionUtils;
 import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
 import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
@@ -308,6 +311,47 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
         }
     }
 
+    @Override
+    public void scanTraceScatterData(String applicationName, Range range, boolean scanBackward, ScatterDotHandler dotHandler) {
+        if (applicationName == null) {
+            throw new NullPointerException("applicationName must not be null");
+        }
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        if (dotHandler == null) {
+            throw new NullPointerException("dotHandler must not be null");
+        }
+        logger.debug("scanTraceScatterData with dotHandler");
+        Scan scan = createScan(applicationName, range, scanBackward);
+
+        DotHandlerResultsExtractor resultsExtractor = new DotHandlerResultsExtractor(traceIndexScatterMapper, dotHandler);
+        hbaseOperations2.findParallel(HBaseTables.APPLICATION_TRACE_INDEX, scan, traceIdRowKeyDistributor, resultsExtractor, APPLICATION_TRACE_INDEX_NUM_PARTITIONS);
+    }
+
+    private static class DotHandlerResultsExtractor implements ResultsExtractor<Integer> {
+
+        private final RowMapper<List<Dot>> rowMapper;
+        private final ScatterDotHandler dotHandler;
+
+        private DotHandlerResultsExtractor(RowMapper<List<Dot>> rowMapper, ScatterDotHandler dotHandler) {
+            this.rowMapper = rowMapper;
+            this.dotHandler = dotHandler;
+        }
+
+        @Override
+        public Integer extractData(ResultScanner results) throws Exception {
+            int rowNum = 0;
+            for (Result result : results) {
+                final List<Dot> dotList = rowMapper.mapRow(result, rowNum++);
+                if (!dotHandler.handleDots(dotList)) {
+                    break;
+                }
+            }
+            return rowNum;
+        }
+    }
+
     /**
      * make the hbase filter for selecting values of y-axis(response time) in order to select transactions in scatter chart.
      * 4 bytes for elapsed time should be attached for the prefix of column qualifier for to use this filter.
@@ -31,6 +31,7 @@ import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.RangeFactory;
 
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Scan;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,6 +61,9 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
     @Autowired
     private RangeFactory rangeFactory;
 
+    @Autowired
+    private MapStatisticsRollupPlanner rollupPlanner;
+
     @Autowired
     @Qualifier("statisticsCalleeRowKeyDistributor")
     private RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
@@ -67,18 +71,37 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
 
     @Override
     public LinkDataMap selectCallee(Application calleeApplication, Range range) {
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        final TimeWindow timeWindow = new TimeWindow(range, TimeWindowDownSampler.SAMPLER);
+        return selectCallee(calleeApplication, range, timeWindow);
+    }
+
+    @Override
+    public LinkDataMap selectCallee(Application calleeApplication, Range range, TimeWindow timeWindow) {
         if (calleeApplication == null) {
             throw new NullPointerException("calleeApplication must not be null");
         }
         if (range == null) {
             throw new NullPointerException("range must not be null");
         }
+        if (timeWindow == null) {
+            throw new NullPointerException("timeWindow must not be null");
+        }
 
-        final TimeWindow timeWindow = new TimeWindow(range, TimeWindowDownSampler.SAMPLER);
-        // find distributed key - ver2.
-        final Scan scan = createScan(calleeApplication, range, HBaseTables.MAP_STATISTICS_CALLER_VER2_CF_COUNTER);
         ResultsExtractor<LinkDataMap> resultExtractor = new RowMapReduceResultExtractor<>(mapStatisticsCalleeMapper, new MapStatisticsTimeWindowReducer(timeWindow));
-        LinkDataMap linkDataMap = hbaseOperations2.findParallel(HBaseTables.MAP_STATISTICS_CALLER_VER2, scan, rowKeyDistributorByHashPrefix, resultExtractor, MAP_STATISTICS_CALLER_VER2_NUM_PARTITIONS);
+        // the reducer accumulates every segment into the same LinkDataMap
+        LinkDataMap linkDataMap = null;
+        for (MapStatisticsRollupPlanner.Segment segment : rollupPlanner.plan(range, timeWindow.getWindowSlotSize())) {
+            final TableName tableName = segment.isRollup() ? segment.getRollup().getCallerTable() : HBaseTables.MAP_STATISTICS_CALLER_VER2;
+            // find distributed key - ver2.
+            final Scan scan = createScan(calleeApplication, segment.getRange(), HBaseTables.MAP_STATISTICS_CALLER_VER2_CF_COUNTER);
+            final LinkDataMap segmentLinkDataMap = hbaseOperations2.findParallel(tableName, scan, rowKeyDistributorByHashPrefix, resultExtractor, MAP_STATISTICS_CALLER_VER2_NUM_PARTITIONS);
+            if (segmentLinkDataMap != null) {
+                linkDataMap = segmentLinkDataMap;
+            }
+        }
         logger.debug("Callee data. {}, {}", linkDataMap, range);
         if (linkDataMap != null && linkDataMap.size() > 0) {
             return linkDataMap;
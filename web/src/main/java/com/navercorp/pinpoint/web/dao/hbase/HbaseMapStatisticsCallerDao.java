@@ -31,6 +31,7 @@ import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.RangeFactory;
 
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Scan;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,6 +61,9 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
     @Autowired
     private RangeFactory rangeFactory;
 
+    @Autowired
+    private MapStatisticsRollupPlanner rollupPlanner;
+
     @Autowired
     @Qualifier("statisticsCallerRowKeyDistributor")
     private RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
@@ -67,18 +71,37 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
 
     @Override
     public LinkDataMap selectCaller(Application callerApplication, Range range) {
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        final TimeWindow timeWindow = new TimeWindow(range, TimeWindowDownSampler.SAMPLER);
+        return selectCaller(callerApplication, range, timeWindow);
+    }
+
+    @Override
+    public LinkDataMap selectCaller(Application callerApplication, Range range, TimeWindow timeWindow) {
         if (callerApplication == null) {
             throw new NullPointerException("callerApplication must not be null");
         }
         if (range == null) {
             throw new NullPointerException("range must not be null");
         }
+        if (timeWindow == null) {
+            throw new NullPointerException("timeWindow must not be null");
+        }
 
-        final TimeWindow timeWindow = new TimeWindow(range, TimeWindowDownSampler.SAMPLER);
-        // find distributed key.
-        final Scan scan = createScan(callerApplication, range, HBaseTables.MAP_STATISTICS_CALLEE_VER2_CF_COUNTER);
         ResultsExtractor<LinkDataMap> resultExtractor = new RowMapReduceResultExtractor<>(mapStatisticsCallerMapper, new MapStatisticsTimeWindowReducer(timeWindow));
-        LinkDataMap linkDataMap = hbaseOperations2.findParallel(HBaseTables.MAP_STATISTICS_CALLEE_VER2, scan, rowKeyDistributorByHashPrefix, resultExtractor, MAP_STATISTICS_CALLEE_VER2_NUM_PARTITIONS);
+        // the reducer accumulates every segment into the same LinkDataMap
+        LinkDataMap linkDataMap = null;
+        for (MapStatisticsRollupPlanner.Segment segment : rollupPlanner.plan(range, timeWindow.getWindowSlotSize())) {
+            final TableName tableName = segment.isRollup() ? segment.getRollup().getCalleeTable() : HBaseTables.MAP_STATISTICS_CALLEE_VER2;
+            // find distributed key.
+            final Scan scan = createScan(callerApplication, segment.getRange(), HBaseTables.MAP_STATISTICS_CALLEE_VER2_CF_COUNTER);
+            final LinkDataMap segmentLinkDataMap = hbaseOperations2.findParallel(tableName, scan, rowKeyDistributorByHashPrefix, resultExtractor, MAP_STATISTICS_CALLEE_VER2_NUM_PARTITIONS);
+            if (segmentLinkDataMap != null) {
+                linkDataMap = segmentLinkDataMap;
+            }
+        }
         logger.debug("Caller data. {}, {}", linkDataMap, range);
         if (linkDataMap != null && linkDataMap.size() > 0) {
             return linkDataMap;
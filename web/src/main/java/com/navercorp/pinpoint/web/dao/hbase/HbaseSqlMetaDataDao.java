@@ -27,6 +27,8 @@ import com.navercorp.pinpoint.common.server.bo.SqlMetaDataBo;
 import com.navercorp.pinpoint.common.hbase.HBaseTables;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
+import com.navercorp.pinpoint.common.util.CollectionUtils;
+import com.navercorp.pinpoint.common.util.ContentHashUtils;
 import com.navercorp.pinpoint.web.dao.SqlMetaDataDao;
 
 /**
@@ -53,6 +55,15 @@ public class HbaseSqlMetaDataDao implements SqlMetaDataDao {
             throw new NullPointerException("agentId must not be null");
         }
 
+        final List<SqlMetaDataBo> metaDataList = select(agentId, time, sqlId);
+        if (CollectionUtils.isEmpty(metaDataList) && !ContentHashUtils.isContentHashAgentStartTime(time)) {
+            // agent using content hash ids
+            return select(agentId, ContentHashUtils.CONTENT_HASH_AGENT_START_TIME, sqlId);
+        }
+        return metaDataList;
+    }
+
+    private List<SqlMetaDataBo> select(String agentId, long time, int sqlId) {
         SqlMetaDataBo sqlMetaData = new SqlMetaDataBo(agentId, time, sqlId);
         byte[] rowKey = getDistributedKey(sqlMetaData.toRowKey());
 
@@ -20,6 +20,8 @@ import com.navercorp.pinpoint.common.server.bo.StringMetaDataBo;
 import com.navercorp.pinpoint.common.hbase.HBaseTables;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
+import com.navercorp.pinpoint.common.util.CollectionUtils;
+import com.navercorp.pinpoint.common.util.ContentHashUtils;
 import com.navercorp.pinpoint.web.dao.StringMetaDataDao;
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
 
@@ -53,6 +55,15 @@ public class HbaseStringMetaDataDao implements StringMetaDataDao {
             throw new NullPointerException("agentId must not be null");
         }
 
+        final List<StringMetaDataBo> metaDataList = select(agentId, time, stringId);
+        if (CollectionUtils.isEmpty(metaDataList) && !ContentHashUtils.isContentHashAgentStartTime(time)) {
+            // agent using content hash ids
+            return select(agentId, ContentHashUtils.CONTENT_HASH_AGENT_START_TIME, stringId);
+        }
+        return metaDataList;
+    }
+
+    private List<StringMetaDataBo> select(String agentId, long time, int stringId) {
         StringMetaDataBo stringMetaData = new StringMetaDataBo(agentId, time, stringId);
         byte[] rowKey = getDistributedKey(stringMetaData.toRowKey());
 
@@ -4,10 +4,12 @@ import com.google.common.annotations.Beta;
 import com.google.common.collect.Lists;
 import com.navercorp.pinpoint.common.hbase.HBaseTables;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.HbaseSystemException;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyEncoder;
 import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanEncoder;
+import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
 import com.navercorp.pinpoint.common.util.TransactionId;
 import com.navercorp.pinpoint.web.dao.TraceDao;
 import com.navercorp.pinpoint.web.mapper.CellTraceMapper;
@@ -17,16 +19,34 @@ import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
 import org.apache.hadoop.hbase.filter.CompareFilter;
 import org.apache.hadoop.hbase.filter.Filter;
 import org.apache.hadoop.hbase.filter.QualifierFilter;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
 
 /**
  * @author Woonduk Kang(emeroad)
@@ -54,8 +74,37 @@ public class HbaseTraceDaoV2 implements TraceDao {
     @Value("#{pinpointWebProps['web.hbase.selectAllSpans.limit'] ?: 500}")
     private int selectAllSpansLimit;
 
+    // 0 : serial multi-get
+    @Value("#{pinpointWebProps['web.hbase.selectAllSpans.parallel.maxthreads'] ?: 0}")
+    private int selectAllSpansMaxThreads;
+
+    @Value("#{pinpointWebProps['web.hbase.selectAllSpans.parallel.timeout'] ?: 10000}")
+    private long selectAllSpansTimeout;
+
     private final Filter spanFilter = createSpanQualifierFilter();
 
+    // @Nullable
+    private ExecutorService selectAllSpansExecutor;
+
+    @PostConstruct
+    public void init() {
+        if (selectAllSpansMaxThreads > 0) {
+            logger.info("selectAllSpans parallel maxThreads:{}, timeout:{}ms", selectAllSpansMaxThreads, selectAllSpansTimeout);
+            this.selectAllSpansExecutor = Executors.newFixedThreadPool(selectAllSpansMaxThreads, new PinpointThreadFactory("Pinpoint-trace-multiget", true));
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (selectAllSpansExecutor != null) {
+            selectAllSpansExecutor.shutdown();
+            try {
+                selectAllSpansExecutor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
 
     @Autowired
     @Qualifier("spanMapperV2")
@@ -103,9 +152,146 @@ public class HbaseTraceDaoV2 implements TraceDao {
             return Collections.emptyList();
         }
 
-        List<List<TransactionId>> partitionTransactionIdList = partition(transactionIdList, eachPartitionSize);
+        if (selectAllSpansExecutor == null) {
+            List<List<TransactionId>> partitionTransactionIdList = partition(transactionIdList, eachPartitionSize);
+            return partitionSelect(partitionTransactionIdList, HBaseTables.TRACE_V2_CF_SPAN, null);
+        }
+
+        // keep the order of transactionIdList
+        final List<List<SpanBo>> spanBoList = new ArrayList<>(Collections.<List<SpanBo>>nCopies(transactionIdList.size(), null));
+        parallelSelect(transactionIdList, eachPartitionSize, HBaseTables.TRACE_V2_CF_SPAN, (transaction, index) -> spanBoList.set(index, transaction));
+        return spanBoList;
+    }
+
+    @Override
+    public void selectAllSpans(List<TransactionId> transactionIdList, Consumer<List<SpanBo>> transactionHandler) {
+        if (transactionHandler == null) {
+            throw new NullPointerException("transactionHandler must not be null");
+        }
+        if (CollectionUtils.isEmpty(transactionIdList)) {
+            return;
+        }
+
+        if (selectAllSpansExecutor == null) {
+            // only one partition is held in memory at a time
+            List<List<TransactionId>> partitionTransactionIdList = partition(transactionIdList, selectAllSpansLimit);
+            for (List<TransactionId> partition : partitionTransactionIdList) {
+                List<List<SpanBo>> partitionSpanList = select0(partition, HBaseTables.TRACE_V2_CF_SPAN, null);
+                for (List<SpanBo> transaction : partitionSpanList) {
+                    transactionHandler.accept(transaction);
+                }
+            }
+            return;
+        }
+        parallelSelect(transactionIdList, selectAllSpansLimit, HBaseTables.TRACE_V2_CF_SPAN, (transaction, index) -> transactionHandler.accept(transaction));
+    }
+
+    /**
+     * Executes the multi-get as parallel batches, and hands over the result of each batch as soon as it completes.
+     * Gets are sorted by their distributed row key before being split into batches, so each batch covers
+     * a contiguous range of salt buckets and hits as few regions as possible.
+     * The result handler is called from the calling thread only. At most {@code maxThreads * 2} batches are in flight,
+     * and a batch is released once it is handed over, so memory does not grow with the number of transactions
+     * as long as the handler does not keep them.
+     */
+    private void parallelSelect(List<TransactionId> transactionIdList, int eachPartitionSize, byte[] columnFamily, ObjIntConsumer<List<SpanBo>> resultHandler) {
+        final Queue<MultiGetBatch> pendingQueue = createBatch(transactionIdList, eachPartitionSize, columnFamily);
+        final int batchCount = pendingQueue.size();
+        final int maxRunningBatch = selectAllSpansMaxThreads * 2;
+
+        final CompletionService<MultiGetBatch> completionService = new ExecutorCompletionService<>(selectAllSpansExecutor);
+        final Set<Future<MultiGetBatch>> runningSet = new HashSet<>();
+        boolean success = false;
+        try {
+            while (runningSet.size() < maxRunningBatch && !pendingQueue.isEmpty()) {
+                runningSet.add(submit(completionService, pendingQueue.poll()));
+            }
+            int completed = 0;
+            while (!runningSet.isEmpty()) {
+                final Future<MultiGetBatch> future = completionService.poll(selectAllSpansTimeout, TimeUnit.MILLISECONDS);
+                if (future == null) {
+                    throw new QueryTimeoutException("selectAllSpans timed out. timeout:" + selectAllSpansTimeout + "ms, completed batch:" + completed + "/" + batchCount);
+                }
+                runningSet.remove(future);
+                final MultiGetBatch batch = getBatch(future);
+                // keep HBase busy while the result is handled
+                if (!pendingQueue.isEmpty()) {
+                    runningSet.add(submit(completionService, pendingQueue.poll()));
+                }
+
+                final List<List<SpanBo>> result = batch.result;
+                for (int i = 0; i < result.size(); i++) {
+                    resultHandler.accept(result.get(i), batch.indexes[i]);
+                }
+                completed++;
+            }
+            success = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HbaseSystemException(e);
+        } finally {
+            if (!success) {
+                for (Future<MultiGetBatch> future : runningSet) {
+                    future.cancel(true);
+                }
+            }
+        }
+    }
 
-        return partitionSelect(partitionTransactionIdList, HBaseTables.TRACE_V2_CF_SPAN, null);
+    private Future<MultiGetBatch> submit(CompletionService<MultiGetBatch> completionService, final MultiGetBatch batch) {
+        return completionService.submit(() -> {
+            batch.result = template2.get(HBaseTables.TRACE_V2, batch.getList, spanMapperV2);
+            return batch;
+        });
+    }
+
+    private MultiGetBatch getBatch(Future<MultiGetBatch> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new HbaseSystemException(e);
+        }
+    }
+
+    private Queue<MultiGetBatch> createBatch(List<TransactionId> transactionIdList, int eachPartitionSize, byte[] columnFamily) {
+        if (eachPartitionSize <= 0) {
+            throw new IllegalArgumentException("eachPartitionSize must be positive");
+        }
+        final int size = transactionIdList.size();
+        final byte[][] rowKeys = new byte[size][];
+        final Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            rowKeys[i] = rowKeyEncoder.encodeRowKey(transactionIdList.get(i));
+            order[i] = i;
+        }
+        // the hash prefix of the row key comes first, so this groups Gets by salt bucket (and region)
+        Arrays.sort(order, (index1, index2) -> Bytes.compareTo(rowKeys[index1], rowKeys[index2]));
+
+        // spread small requests over the pool as well
+        final int batchSize = Math.max(1, Math.min(eachPartitionSize, divideRoundUp(size, selectAllSpansMaxThreads)));
+        final Queue<MultiGetBatch> batchQueue = new ArrayDeque<>(divideRoundUp(size, batchSize));
+        for (int from = 0; from < size; from += batchSize) {
+            final int to = Math.min(from + batchSize, size);
+            final MultiGetBatch batch = new MultiGetBatch(to - from);
+            for (int i = from; i < to; i++) {
+                final int index = order[i];
+                batch.getList.add(createGet(rowKeys[index], columnFamily, null));
+                batch.indexes[i - from] = index;
+            }
+            batchQueue.add(batch);
+        }
+        return batchQueue;
+    }
+
+    private static int divideRoundUp(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
     }
 
 
@@ -145,6 +331,10 @@ public class HbaseTraceDaoV2 implements TraceDao {
     private Get createGet(TransactionId transactionId, byte[] columnFamily, Filter filter) {
 
         byte[] transactionIdRowKey = rowKeyEncoder.encodeRowKey(transactionId);
+        return createGet(transactionIdRowKey, columnFamily, filter);
+    }
+
+    private Get createGet(byte[] transactionIdRowKey, byte[] columnFamily, Filter filter) {
         final Get get = new Get(transactionIdRowKey);
 
         get.addFamily(columnFamily);
@@ -162,5 +352,16 @@ public class HbaseTraceDaoV2 implements TraceDao {
         return qualifierPrefixFilter;
     }
 
+    private static class MultiGetBatch {
+        private final List<Get> getList;
+        // index of each Get in the requested transactionIdList
+        private final int[] indexes;
+        private List<List<SpanBo>> result;
+
+        private MultiGetBatch(int size) {
+            this.getList = new ArrayList<>(size);
+            this.indexes = new int[size];
+        }
+    }
 
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.hbase;
+
+import com.navercorp.pinpoint.common.hbase.MapStatisticsRollup;
+import com.navercorp.pinpoint.common.util.DefaultTimeSlot;
+import com.navercorp.pinpoint.common.util.TimeSlot;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits a map statistics query into the segments to scan.
+ * <p>
+ * The aligned middle of the range is read from the coarsest {@link MapStatisticsRollup} table that keeps the query's
+ * time window (the rollup resolution divides the window slot size), and the partial head and tail
+ * are read from finer rollups, down to the 1 minute table.
+ */
+@Component
+public class MapStatisticsRollupPlanner {
+
+    private static final long ONE_MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    private final TimeSlot minuteTimeSlot = new DefaultTimeSlot(ONE_MINUTE);
+
+    private final boolean enable;
+
+    @Autowired
+    public MapStatisticsRollupPlanner(@Value("#{pinpointWebProps['web.servermap.statistics.rollup.enable'] ?: false}") boolean enable) {
+        this.enable = enable;
+    }
+
+    public List<Segment> plan(Range range, long windowSlotSize) {
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        if (!enable) {
+            return Collections.singletonList(new Segment(null, range));
+        }
+
+        final List<MapStatisticsRollup> rollups = getRollups(windowSlotSize);
+        final long from = minuteTimeSlot.getTimeSlot(range.getFrom());
+        final long to = minuteTimeSlot.getTimeSlot(range.getTo());
+        final List<Segment> segments = new ArrayList<>();
+        plan(from, to, rollups, 0, segments);
+        return segments;
+    }
+
+    /**
+     * @return rollups usable for the window, coarsest first
+     */
+    private List<MapStatisticsRollup> getRollups(long windowSlotSize) {
+        final List<MapStatisticsRollup> rollups = new ArrayList<>();
+        for (MapStatisticsRollup rollup : MapStatisticsRollup.values()) {
+            final long resolution = rollup.getResolution();
+            // a rollup row must not straddle two window slots
+            if (resolution <= windowSlotSize && windowSlotSize % resolution == 0) {
+                rollups.add(rollup);
+            }
+        }
+        Collections.reverse(rollups);
+        return rollups;
+    }
+
+    /**
+     * @param from first minute slot (inclusive)
+     * @param to last minute slot (inclusive)
+     */
+    private void plan(long from, long to, List<MapStatisticsRollup> rollups, int rollupIndex, List<Segment> segments) {
+        if (from > to) {
+            return;
+        }
+        for (int i = rollupIndex; i < rollups.size(); i++) {
+            final MapStatisticsRollup rollup = rollups.get(i);
+            final long resolution = rollup.getResolution();
+            // first rollup slot starting at or after from, last rollup slot ending at or before to
+            final long rollupFrom = rollup.getTimeSlot(from + resolution - 1);
+            final long rollupTo = rollup.getTimeSlot(to + ONE_MINUTE) - resolution;
+            if (rollupFrom > rollupTo) {
+                continue;
+            }
+            // the edges are shorter than the resolution, only finer rollups can cover them
+            plan(from, rollupFrom - ONE_MINUTE, rollups, i + 1, segments);
+            segments.add(new Segment(rollup, new Range(rollupFrom, rollupTo)));
+            plan(rollupTo + resolution, to, rollups, i + 1, segments);
+            return;
+        }
+        segments.add(new Segment(null, new Range(from, to)));
+    }
+
+    public static class Segment {
+
+        private final MapStatisticsRollup rollup;
+        private final Range range;
+
+        public Segment(MapStatisticsRollup rollup, Range range) {
+            if (range == null) {
+                throw new NullPointerException("range must not be null");
+            }
+            this.rollup = rollup;
+            this.range = range;
+        }
+
+        public boolean isRollup() {
+            return rollup != null;
+        }
+
+        /**
+         * @return null if the segment is read from the 1 minute table
+         */
+        public MapStatisticsRollup getRollup() {
+            return rollup;
+        }
+
+        public Range getRange() {
+            return range;
+        }
+
+        @Override
+        public String toString() {
+            return "Segment{" +
+                    "rollup=" + rollup +
+                    ", range=" + range +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.scatter;
+
+import com.navercorp.pinpoint.web.vo.scatter.Dot;
+
+import java.util.List;
+
+/**
+ * Cuts the dots of a scatter scan into {@link ScatterData} chunks of about chunkSize dots, in scan order,
+ * so the chunks can be sent while the scan goes on. Stops the scan after limit dots.
+ */
+public class ScatterDataChunker implements ScatterDotHandler {
+
+    private final long from;
+    private final long to;
+    private final int xGroupUnit;
+    private final int yGroupUnit;
+    private final int limit;
+    private final int chunkSize;
+
+    private final ScatterDataChunkHandler chunkHandler;
+
+    private ScatterData chunk;
+    private int chunkDotSize;
+    private int dotSize;
+
+    private long oldestAcceptedTime = Long.MAX_VALUE;
+    private long latestAcceptedTime = Long.MIN_VALUE;
+
+    public ScatterDataChunker(long from, long to, int xGroupUnit, int yGroupUnit, int limit, int chunkSize, ScatterDataChunkHandler chunkHandler) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("negative limit:" + limit);
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive. chunkSize:" + chunkSize);
+        }
+        if (chunkHandler == null) {
+            throw new NullPointerException("chunkHandler must not be null");
+        }
+        this.from = from;
+        this.to = to;
+        this.xGroupUnit = xGroupUnit;
+        this.yGroupUnit = yGroupUnit;
+        this.limit = limit;
+        this.chunkSize = chunkSize;
+        this.chunkHandler = chunkHandler;
+        this.chunk = newChunk();
+    }
+
+    private ScatterData newChunk() {
+        return new ScatterData(from, to, xGroupUnit, yGroupUnit);
+    }
+
+    @Override
+    public boolean handleDots(List<Dot> dotList) throws Exception {
+        if (isLimited()) {
+            return false;
+        }
+        for (Dot dot : dotList) {
+            chunk.addDot(dot);
+        }
+        chunkDotSize += dotList.size();
+        dotSize += dotList.size();
+        if (chunkDotSize >= chunkSize) {
+            flush();
+        }
+        return !isLimited();
+    }
+
+    /**
+     * Hands the remaining dots over, call after the scan.
+     */
+    public void flush() throws Exception {
+        if (chunkDotSize == 0) {
+            return;
+        }
+        final ScatterData flushChunk = this.chunk;
+        this.chunk = newChunk();
+        this.chunkDotSize = 0;
+
+        if (oldestAcceptedTime > flushChunk.getOldestAcceptedTime()) {
+            oldestAcceptedTime = flushChunk.getOldestAcceptedTime();
+        }
+        if (latestAcceptedTime < flushChunk.getLatestAcceptedTime()) {
+            latestAcceptedTime = flushChunk.getLatestAcceptedTime();
+        }
+        chunkHandler.handleChunk(flushChunk);
+    }
+
+    private boolean isLimited() {
+        return dotSize >= limit;
+    }
+
+    /**
+     * @return false if the scan stopped at the limit, same as the complete flag of the scatter data
+     */
+    public boolean isComplete() {
+        return !isLimited();
+    }
+
+    public int getDotSize() {
+        return dotSize;
+    }
+
+    public long getOldestAcceptedTime() {
+        if (oldestAcceptedTime == Long.MAX_VALUE) {
+            return -1;
+        }
+        return oldestAcceptedTime;
+    }
+
+    public long getLatestAcceptedTime() {
+        if (latestAcceptedTime == Long.MIN_VALUE) {
+            return -1;
+        }
+        return latestAcceptedTime;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.scatter;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.navercorp.pinpoint.web.view.ScatterDensityGridSerializer;
+import com.navercorp.pinpoint.web.vo.scatter.Dot;
+
+import java.util.List;
+
+/**
+ * Scatter chart aggregated into fixed cells of xGroupUnit by yGroupUnit, counting success and failed dots per cell.
+ * Elapsed times over yMax fall into the top row. The number of cells does not depend on the number of dots,
+ * which keeps the response small for ranges too busy to show each dot.
+ */
+@JsonSerialize(using = ScatterDensityGridSerializer.class)
+public class ScatterDensityGrid implements ScatterDotHandler {
+
+    public static final int MAX_CELL_SIZE = 100000;
+
+    private final long from;
+    private final long to;
+    private final int xGroupUnit;
+    private final int yGroupUnit;
+
+    private final int xSize;
+    private final int ySize;
+
+    private final int[] successCount;
+    private final int[] failedCount;
+
+    private long totalCount;
+
+    public ScatterDensityGrid(long from, long to, int xGroupUnit, int yGroupUnit, int yMax) {
+        if (from > to) {
+            throw new IllegalArgumentException("from value must be lower or equal to to value");
+        }
+        if (xGroupUnit <= 0) {
+            throw new IllegalArgumentException("xGroupUnit(" + xGroupUnit + ") must be positive number");
+        }
+        if (yGroupUnit <= 0) {
+            throw new IllegalArgumentException("yGroupUnit(" + yGroupUnit + ") must be positive number");
+        }
+        if (yMax <= 0) {
+            throw new IllegalArgumentException("yMax(" + yMax + ") must be positive number");
+        }
+        this.from = from;
+        this.to = to;
+        this.xGroupUnit = xGroupUnit;
+        this.yGroupUnit = yGroupUnit;
+
+        final long xRange = to - from;
+        // negative if the range overflows, the x size alone is bounded before multiplied
+        if (xRange < 0 || xRange / xGroupUnit >= MAX_CELL_SIZE) {
+            throw new IllegalArgumentException("too many cells(" + from + "~" + to + "/" + xGroupUnit + "), raise xGroupUnit. max:" + MAX_CELL_SIZE);
+        }
+        final long xSize = xRange / xGroupUnit + 1;
+        final long ySize = ((long) yMax + yGroupUnit - 1) / yGroupUnit;
+        if (xSize * ySize > MAX_CELL_SIZE) {
+            throw new IllegalArgumentException("too many cells(" + xSize + "x" + ySize + "), raise xGroupUnit or yGroupUnit. max:" + MAX_CELL_SIZE);
+        }
+        this.xSize = (int) xSize;
+        this.ySize = (int) ySize;
+        this.successCount = new int[this.xSize * this.ySize];
+        this.failedCount = new int[this.xSize * this.ySize];
+    }
+
+    @Override
+    public boolean handleDots(List<Dot> dotList) {
+        for (Dot dot : dotList) {
+            addDot(dot);
+        }
+        return true;
+    }
+
+    public void addDot(Dot dot) {
+        if (dot == null) {
+            return;
+        }
+        final long xOffset = dot.getAcceptedTime() - from;
+        final int x = (int) Math.min(Math.max(xOffset / xGroupUnit, 0), xSize - 1);
+        final int y = Math.min(Math.max(dot.getElapsedTime(), 0) / yGroupUnit, ySize - 1);
+
+        final int cell = x * ySize + y;
+        if (dot.getSimpleExceptionCode() == Dot.SUCCESS_STATE) {
+            successCount[cell]++;
+        } else {
+            failedCount[cell]++;
+        }
+        totalCount++;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    public int getXGroupUnit() {
+        return xGroupUnit;
+    }
+
+    public int getYGroupUnit() {
+        return yGroupUnit;
+    }
+
+    public int getXSize() {
+        return xSize;
+    }
+
+    public int getYSize() {
+        return ySize;
+    }
+
+    public int getSuccessCount(int x, int y) {
+        return successCount[x * ySize + y];
+    }
+
+    public int getFailedCount(int x, int y) {
+        return failedCount[x * ySize + y];
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ScatterDensityGrid{" +
+                "from=" + from +
+                ", to=" + to +
+                ", xGroupUnit=" + xGroupUnit +
+                ", yGroupUnit=" + yGroupUnit +
+                ", xSize=" + xSize +
+                ", ySize=" + ySize +
+                ", totalCount=" + totalCount +
+                '}';
+    }
+}
@@ -145,34 +145,18 @@ public class FilteredMapServiceImpl implements FilteredMapService {
         StopWatch watch = new StopWatch();
         watch.start();
 
-        List<List<SpanBo>> originalList = this.traceDao.selectAllSpans(traceIdSet);
-        List<SpanBo> filteredTransactionList = filterList(originalList, filter);
-
-        LoadFactor statistics = new LoadFactor(range);
+        final LoadFactor statistics = new LoadFactor(range);
 
         // TODO need to handle these separately by node type (like fromToFilter)
 
-        // scan transaction list
-        for (SpanBo span : filteredTransactionList) {
-            if (sourceApplication.equals(span.getApplicationId(), registry.findServiceType(span.getApplicationServiceType()))) {
-                List<SpanEventBo> spanEventBoList = span.getSpanEventBoList();
-                if (spanEventBoList == null) {
-                    continue;
-                }
-
-                // find dest elapsed time
-                for (SpanEventBo spanEventBo : spanEventBoList) {
-                    if (destinationApplication.equals(spanEventBo.getDestinationId(), registry.findServiceType(spanEventBo.getServiceType()))) {
-                        // find exception
-                        boolean hasException = spanEventBo.hasException();
-                        // add sample
-                        // TODO : need timeslot value instead of the actual value
-                        statistics.addSample(span.getStartTime() + spanEventBo.getStartElapsed(), spanEventBo.getEndElapsed(), 1, hasException);
-                        break;
-                    }
+        // scan each transaction as it is read
+        this.traceDao.selectAllSpans(traceIdSet, transaction -> {
+            if (filter.include(transaction)) {
+                for (SpanBo span : transaction) {
+                    addLinkSample(statistics, span, sourceApplication, destinationApplication);
                 }
             }
-        }
+        });
 
         watch.stop();
         logger.info("Fetch link statistics elapsed. {}ms", watch.getLastTaskTimeMillis());
@@ -180,24 +164,26 @@ public class FilteredMapServiceImpl implements FilteredMapService {
         return statistics;
     }
 
-    private List<SpanBo> filterList(List<List<SpanBo>> transactionList, Filter filter) {
-        final List<SpanBo> filteredResult = new ArrayList<>();
-        for (List<SpanBo> transaction : transactionList) {
-            if (filter.include(transaction)) {
-                filteredResult.addAll(transaction);
-            }
+    private void addLinkSample(LoadFactor statistics, SpanBo span, Application sourceApplication, Application destinationApplication) {
+        if (!sourceApplication.equals(span.getApplicationId(), registry.findServiceType(span.getApplicationServiceType()))) {
+            return;
+        }
+        List<SpanEventBo> spanEventBoList = span.getSpanEventBoList();
+        if (spanEventBoList == null) {
+            return;
         }
-        return filteredResult;
-    }
 
-    private List<List<SpanBo>> filterList2(List<List<SpanBo>> transactionList, Filter filter) {
-        final List<List<SpanBo>> filteredResult = new ArrayList<>();
-        for (List<SpanBo> transaction : transactionList) {
-            if (filter.include(transaction)) {
-                filteredResult.add(transaction);
+        // find dest elapsed time
+        for (SpanEventBo spanEventBo : spanEventBoList) {
+            if (destinationApplication.equals(spanEventBo.getDestinationId(), registry.findServiceType(spanEventBo.getServiceType()))) {
+                // find exception
+                boolean hasException = spanEventBo.hasException();
+                // add sample
+                // TODO : need timeslot value instead of the actual value
+                statistics.addSample(span.getStartTime() + spanEventBo.getStartElapsed(), spanEventBo.getEndElapsed(), 1, hasException);
+                break;
             }
         }
-        return filteredResult;
     }
 
     @Override
@@ -209,10 +195,9 @@ public class FilteredMapServiceImpl implements FilteredMapService {
         // FIXME from,to -1
         Range range = new Range(-1, -1);
 
-        final List<List<SpanBo>> filterList = selectFilteredSpan(transactionIdList, Filter.NONE);
         FilteredMapBuilder filteredMapBuilder = new FilteredMapBuilder(applicationFactory, registry, range, version);
         filteredMapBuilder.serverMapDataFilter(serverMapDataFilter);
-        filteredMapBuilder.addTransactions(filterList);
+        selectFilteredSpan(transactionIdList, Filter.NONE, filteredMapBuilder);
         FilteredMap filteredMap = filteredMapBuilder.build();
 
         ApplicationMap map = createMap(range, filteredMap);
@@ -231,10 +216,9 @@ public class FilteredMapServiceImpl implements FilteredMapService {
         StopWatch watch = new StopWatch();
         watch.start();
 
-        final List<List<SpanBo>> filterList = selectFilteredSpan(transactionIdList, filter);
         FilteredMapBuilder filteredMapBuilder = new FilteredMapBuilder(applicationFactory, registry, originalRange, version);
         filteredMapBuilder.serverMapDataFilter(serverMapDataFilter);
-        filteredMapBuilder.addTransactions(filterList);
+        selectFilteredSpan(transactionIdList, filter, filteredMapBuilder);
         FilteredMap filteredMap = filteredMapBuilder.build();
 
         ApplicationMap map = createMap(originalRange, filteredMap);
@@ -248,15 +232,17 @@ public class FilteredMapServiceImpl implements FilteredMapService {
         return applicationMapWithScatterData;
     }
 
-    private List<List<SpanBo>> selectFilteredSpan(List<TransactionId> transactionIdList, Filter filter) {
+    private void selectFilteredSpan(List<TransactionId> transactionIdList, Filter filter, FilteredMapBuilder filteredMapBuilder) {
         // filters out recursive calls by looking at each objects
         // do not filter here if we change to a tree-based collision check in the future. 
         final List<TransactionId> recursiveFilterList = recursiveCallFilter(transactionIdList);
 
-        // FIXME might be better to simply traverse the List<Span> and create a process chain for execution
-        final List<List<SpanBo>> originalList = this.traceDao.selectAllSpans(recursiveFilterList);
-
-        return filterList2(originalList, filter);
+        // transactions are added to the map as each batch arrives, instead of after the whole list is read
+        this.traceDao.selectAllSpans(recursiveFilterList, transaction -> {
+            if (filter.include(transaction)) {
+                filteredMapBuilder.addTransaction(transaction);
+            }
+        });
     }
 
     private ApplicationMap createMap(Range range, FilteredMap filteredMap) {
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.navercorp.pinpoint.common.util.DefaultTimeSlot;
+import com.navercorp.pinpoint.common.util.TimeSlot;
+import com.navercorp.pinpoint.web.applicationmap.histogram.TimeHistogram;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkCallData;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkData;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.util.TimeWindowDownSampler;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the {@link LinkDataMap} of each time window slot that can no longer change, so a repeated or sliding
+ * server map query only reads the recent slots and the partial edges of the range from HBase.
+ * <p>
+ * A slot is cached once it ended before the mutable period, which covers the collector's statistics flush.
+ * Slots are keyed by the window slot size of the query, and the cache is bounded by the estimated heap size of the histograms.
+ */
+public class LinkDataMapCache {
+
+    public interface LinkDataMapLoader {
+        LinkDataMap select(Application application, Range range, TimeWindow timeWindow);
+    }
+
+    private static final long ONE_MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    // rough heap size estimate of the cached objects
+    private static final int LINK_DATA_MAP_WEIGHT = 128;
+    private static final int LINK_CALL_DATA_WEIGHT = 256;
+    private static final int TIME_HISTOGRAM_ROW_WEIGHT = 96;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final TimeSlot minuteTimeSlot = new DefaultTimeSlot(ONE_MINUTE);
+
+    private final LinkDataMapLoader loader;
+    private final long mutablePeriod;
+    private final Cache<SlotKey, LinkDataMap> cache;
+
+    public LinkDataMapCache(LinkDataMapLoader loader, long maxWeight, long mutablePeriod) {
+        if (loader == null) {
+            throw new NullPointerException("loader must not be null");
+        }
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight must be positive");
+        }
+        if (mutablePeriod < 0) {
+            throw new IllegalArgumentException("mutablePeriod must not be negative");
+        }
+        this.loader = loader;
+        this.mutablePeriod = mutablePeriod;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((SlotKey key, LinkDataMap linkDataMap) -> weigh(linkDataMap))
+                .build();
+    }
+
+    public LinkDataMap select(Application application, Range range) {
+        return select(application, range, System.currentTimeMillis());
+    }
+
+    LinkDataMap select(Application application, Range range, long currentTime) {
+        if (application == null) {
+            throw new NullPointerException("application must not be null");
+        }
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        final TimeWindow timeWindow = new TimeWindow(range, TimeWindowDownSampler.SAMPLER);
+        final long slotSize = timeWindow.getWindowSlotSize();
+        final long from = minuteTimeSlot.getTimeSlot(range.getFrom());
+        final long to = minuteTimeSlot.getTimeSlot(range.getTo());
+        final long immutableEnd = minuteTimeSlot.getTimeSlot(currentTime - mutablePeriod);
+
+        // whole window slots only, a slot at the edge of the range holds only a part of its data
+        final long cacheFrom = ceil(from, slotSize);
+        final long cacheEnd = Math.min(floor(to + ONE_MINUTE, slotSize), floor(immutableEnd, slotSize));
+        if (cacheFrom >= cacheEnd) {
+            return loader.select(application, range, timeWindow);
+        }
+
+        final LinkDataMap result = new LinkDataMap(timeWindow);
+        if (from < cacheFrom) {
+            result.addLinkDataMap(loader.select(application, new Range(range.getFrom(), cacheFrom - 1), timeWindow));
+        }
+
+        int hit = 0;
+        long missingFrom = -1;
+        for (long slot = cacheFrom; slot < cacheEnd; slot += slotSize) {
+            final LinkDataMap cached = cache.getIfPresent(new SlotKey(application, slotSize, slot));
+            if (cached == null) {
+                if (missingFrom == -1) {
+                    missingFrom = slot;
+                }
+                continue;
+            }
+            hit++;
+            if (missingFrom != -1) {
+                load(application, missingFrom, slot, timeWindow, result);
+                missingFrom = -1;
+            }
+            result.addLinkDataMap(cached);
+        }
+        if (missingFrom != -1) {
+            load(application, missingFrom, cacheEnd, timeWindow, result);
+        }
+
+        if (cacheEnd <= to) {
+            result.addLinkDataMap(loader.select(application, new Range(cacheEnd, range.getTo()), timeWindow));
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} cached slot:{}/{}", application, hit, (cacheEnd - cacheFrom) / slotSize);
+        }
+        return result;
+    }
+
+    private void load(Application application, long loadFrom, long loadEnd, TimeWindow timeWindow, LinkDataMap result) {
+        final LinkDataMap linkDataMap = loader.select(application, new Range(loadFrom, loadEnd - 1), timeWindow);
+        final Map<Long, LinkDataMap> slotMap = splitBySlot(linkDataMap, timeWindow);
+        final long slotSize = timeWindow.getWindowSlotSize();
+        for (long slot = loadFrom; slot < loadEnd; slot += slotSize) {
+            LinkDataMap slotLinkDataMap = slotMap.get(slot);
+            if (slotLinkDataMap == null) {
+                // no call in this slot is worth caching as well
+                slotLinkDataMap = new LinkDataMap();
+            }
+            cache.put(new SlotKey(application, slotSize, slot), slotLinkDataMap);
+        }
+        result.addLinkDataMap(linkDataMap);
+    }
+
+    private Map<Long, LinkDataMap> splitBySlot(LinkDataMap linkDataMap, TimeWindow timeWindow) {
+        final Map<Long, LinkDataMap> slotMap = new HashMap<>();
+        for (LinkData linkData : linkDataMap.getLinkDataList()) {
+            for (LinkCallData linkCallData : linkData.getLinkCallDataMap().getLinkDataList()) {
+                for (TimeHistogram timeHistogram : linkCallData.getTimeHistogram()) {
+                    final long slot = timeWindow.refineTimestamp(timeHistogram.getTimeStamp());
+                    final LinkDataMap slotLinkDataMap = slotMap.computeIfAbsent(slot, key -> new LinkDataMap());
+
+                    final LinkData slotLinkData = new LinkData(linkData.getFromApplication(), linkData.getToApplication());
+                    slotLinkData.getLinkCallDataMap().addCallData(linkCallData.getSource(), linkCallData.getSourceServiceType(),
+                            linkCallData.getTarget(), linkCallData.getTargetServiceType(), Collections.singletonList(timeHistogram));
+                    slotLinkDataMap.addLinkData(slotLinkData);
+                }
+            }
+        }
+        return slotMap;
+    }
+
+    private static int weigh(LinkDataMap linkDataMap) {
+        int weight = LINK_DATA_MAP_WEIGHT;
+        for (LinkData linkData : linkDataMap.getLinkDataList()) {
+            for (LinkCallData linkCallData : linkData.getLinkCallDataMap().getLinkDataList()) {
+                weight += LINK_CALL_DATA_WEIGHT + linkCallData.getTimeHistogramColumns().size() * TIME_HISTOGRAM_ROW_WEIGHT;
+            }
+        }
+        return weight;
+    }
+
+    private static long ceil(long time, long slotSize) {
+        return floor(time + slotSize - 1, slotSize);
+    }
+
+    private static long floor(long time, long slotSize) {
+        return (time / slotSize) * slotSize;
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    private static class SlotKey {
+        private final Application application;
+        private final long slotSize;
+        private final long slot;
+
+        private SlotKey(Application application, long slotSize, long slot) {
+            this.application = application;
+            this.slotSize = slotSize;
+            this.slot = slot;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            SlotKey slotKey = (SlotKey) o;
+
+            if (slotSize != slotKey.slotSize) return false;
+            if (slot != slotKey.slot) return false;
+            return application.equals(slotKey.application);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = application.hashCode();
+            result = 31 * result + (int) (slotSize ^ (slotSize >>> 32));
+            result = 31 * result + (int) (slot ^ (slot >>> 32));
+            return result;
+        }
+    }
+}
@@ -22,8 +22,11 @@ import com.navercorp.pinpoint.web.dao.MapStatisticsCallerDao;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.Range;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+
 /**
  * @author HyunGil Jeong
  */
@@ -36,13 +39,43 @@ public class LinkDataMapServiceImpl implements LinkDataMapService {
     @Autowired
     private MapStatisticsCalleeDao mapStatisticsCalleeDao;
 
+    @Value("#{pinpointWebProps['web.servermap.cache.enable'] ?: false}")
+    private boolean cacheEnable;
+
+    @Value("#{pinpointWebProps['web.servermap.cache.size.mb'] ?: 64}")
+    private int cacheSizeMb;
+
+    @Value("#{pinpointWebProps['web.servermap.cache.mutable.period'] ?: 300000}")
+    private long cacheMutablePeriod;
+
+    private LinkDataMapCache callerCache;
+
+    private LinkDataMapCache calleeCache;
+
+    @PostConstruct
+    public void init() {
+        if (!cacheEnable) {
+            return;
+        }
+        // split evenly between the caller and callee caches
+        final long maxWeight = cacheSizeMb * 1024L * 1024L / 2;
+        this.callerCache = new LinkDataMapCache(mapStatisticsCallerDao::selectCaller, maxWeight, cacheMutablePeriod);
+        this.calleeCache = new LinkDataMapCache(mapStatisticsCalleeDao::selectCallee, maxWeight, cacheMutablePeriod);
+    }
+
     @Override
     public LinkDataMap selectCallerLinkDataMap(Application application, Range range) {
+        if (callerCache != null) {
+            return callerCache.select(application, range);
+        }
         return mapStatisticsCallerDao.selectCaller(application, range);
     }
 
     @Override
     public LinkDataMap selectCalleeLinkDataMap(Application application, Range range) {
+        if (calleeCache != null) {
+            return calleeCache.select(application, range);
+        }
         return mapStatisticsCalleeDao.selectCallee(application, range);
     }
 }
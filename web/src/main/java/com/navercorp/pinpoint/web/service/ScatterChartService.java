@@ -20,6 +20,7 @@ import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.util.TransactionId;
 import com.navercorp.pinpoint.web.filter.Filter;
 import com.navercorp.pinpoint.web.scatter.ScatterData;
+import com.navercorp.pinpoint.web.scatter.ScatterDotHandler;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.SelectedScatterArea;
 import com.navercorp.pinpoint.web.vo.TransactionMetadataQuery;
@@ -65,4 +66,12 @@ public interface ScatterChartService {
 
     ScatterData selectScatterData(List<TransactionId> transactionIdList, String applicationName, Range range, int xGroupUnit, int yGroupUnit, Filter filter);
 
+    /**
+     * Streams the scatter dots to the dotHandler as the scan goes.
+     *
+     * @see com.navercorp.pinpoint.web.scatter.ScatterDataChunker
+     * @see com.navercorp.pinpoint.web.scatter.ScatterDensityGrid
+     */
+    void selectScatterData(String applicationName, Range range, boolean backwardDirection, ScatterDotHandler dotHandler);
+
 }
@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.web.service.map;
 
 import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataDuplexMap;
+import com.navercorp.pinpoint.web.security.ServerMapDataFilter;
 import com.navercorp.pinpoint.web.vo.Application;
 
 import java.util.List;
@@ -27,4 +28,11 @@ import java.util.List;
 public interface ApplicationsMapCreator {
 
     LinkDataDuplexMap createLinkDataDuplexMap(List<Application> applications, LinkSelectContext linkSelectContext);
+
+    /**
+     * Searches the applications, then every application found from them until the search depth of the context runs out.
+     *
+     * @param serverMapDataFilter excludes applications from the search, may be null
+     */
+    LinkDataDuplexMap traverse(List<Application> applications, LinkSelectContext linkSelectContext, ServerMapDataFilter serverMapDataFilter);
 }
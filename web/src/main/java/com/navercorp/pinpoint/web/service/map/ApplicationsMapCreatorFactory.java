@@ -34,18 +34,28 @@ import java.util.concurrent.TimeUnit;
 @Component
 public class ApplicationsMapCreatorFactory {
 
+    private static final long DEFAULT_TRAVERSE_TIMEOUT = 60000;
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     private final String mode;
 
     private final ExecutorService executorService;
 
+    private final long traverseTimeoutMillis;
+
+    public ApplicationsMapCreatorFactory(String mode, int threadCount) {
+        this(mode, threadCount, DEFAULT_TRAVERSE_TIMEOUT);
+    }
+
     @Autowired
     public ApplicationsMapCreatorFactory(
             @Value("#{pinpointWebProps['web.servermap.creator.mode'] ?: 'serial'}") String mode,
-            @Value("#{pinpointWebProps['web.servermap.creator.parallel.maxthreads'] ?: '16'}") int threadCount) {
+            @Value("#{pinpointWebProps['web.servermap.creator.parallel.maxthreads'] ?: '16'}") int threadCount,
+            @Value("#{pinpointWebProps['web.servermap.creator.parallel.timeout'] ?: '60000'}") long traverseTimeoutMillis) {
         logger.info("ApplicationsMapCreatorFactory mode : {}", mode);
         this.mode = mode;
+        this.traverseTimeoutMillis = traverseTimeoutMillis;
         if (this.mode.equalsIgnoreCase("parallel")) {
             this.executorService = Executors.newFixedThreadPool(threadCount, new PinpointThreadFactory("Pinpoint-parallel-link-selector", true));
         } else {
@@ -55,7 +65,7 @@ public class ApplicationsMapCreatorFactory {
 
     public ApplicationsMapCreator create(ApplicationMapCreator applicationMapCreator) {
         if (mode.equalsIgnoreCase("parallel")) {
-            return new ParallelApplicationsMapCreator(applicationMapCreator, executorService);
+            return new ParallelApplicationsMapCreator(applicationMapCreator, executorService, traverseTimeoutMillis);
         }
         return new SerialApplicationsMapCreator(applicationMapCreator);
     }
@@ -24,11 +24,10 @@ import com.navercorp.pinpoint.web.vo.Range;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Breadth-first link search
+ * Breadth-first link search, depth by depth in serial mode and pipelined in parallel mode
  * not thread safe
  *
  * @author emeroad
@@ -68,35 +67,8 @@ public class BidirectionalLinkSelector implements LinkSelector {
         final SearchDepth callerDepth = new SearchDepth(callerSearchDepth);
         final SearchDepth calleeDepth = new SearchDepth(calleeSearchDepth);
 
-        LinkDataDuplexMap linkDataDuplexMap = new LinkDataDuplexMap();
-        List<Application> applications = filterApplications(sourceApplications);
         LinkSelectContext linkSelectContext = new LinkSelectContext(range, callerDepth, calleeDepth, linkVisitChecker);
-
-        while (!applications.isEmpty()) {
-
-            logger.info("depth search start. callerDepth:{}, calleeDepth:{}, size:{}, nodes:{}", linkSelectContext.getCallerDepth(), linkSelectContext.getCalleeDepth(), applications.size(), applications);
-            LinkDataDuplexMap levelData = applicationsMapCreator.createLinkDataDuplexMap(applications, linkSelectContext);
-            logger.info("depth search end. callerDepth:{}, calleeDepth:{}", linkSelectContext.getCallerDepth(), linkSelectContext.getCalleeDepth());
-
-            linkDataDuplexMap.addLinkDataDuplexMap(levelData);
-
-            List<Application> nextApplications = linkSelectContext.getNextApplications();
-            applications = filterApplications(nextApplications);
-            linkSelectContext = linkSelectContext.advance();
-        }
+        LinkDataDuplexMap linkDataDuplexMap = applicationsMapCreator.traverse(sourceApplications, linkSelectContext, serverMapDataFilter);
         return virtualLinkHandler.processVirtualLinks(linkDataDuplexMap, linkVisitChecker, range);
     }
-
-    private List<Application> filterApplications(List<Application> applications) {
-        if (serverMapDataFilter == null) {
-            return applications;
-        }
-        List<Application> filteredApplications = new ArrayList<>();
-        for (Application application : applications) {
-            if (!serverMapDataFilter.filter(application)) {
-                filteredApplications.add(application);
-            }
-        }
-        return filteredApplications;
-    }
 }
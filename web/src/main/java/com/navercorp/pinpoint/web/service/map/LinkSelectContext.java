@@ -108,6 +108,13 @@ public class LinkSelectContext {
         }
     }
 
+    /**
+     * @return context of the same depth with its own next applications
+     */
+    public LinkSelectContext fork() {
+        return new LinkSelectContext(range, callerDepth, calleeDepth, linkVisitChecker);
+    }
+
     public LinkSelectContext advance() {
         SearchDepth nextCallerDepth = callerDepth.nextDepth();
         SearchDepth nextCalleeDepth = calleeDepth.nextDepth();
@@ -18,15 +18,24 @@ package com.navercorp.pinpoint.web.service.map;
 
 import com.google.common.collect.Sets;
 import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataDuplexMap;
+import com.navercorp.pinpoint.web.security.ServerMapDataFilter;
 import com.navercorp.pinpoint.web.vo.Application;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 /**
@@ -40,15 +49,21 @@ public class ParallelApplicationsMapCreator implements ApplicationsMapCreator {
 
     private final ExecutorService executorService;
 
-    public ParallelApplicationsMapCreator(ApplicationMapCreator applicationMapCreator, ExecutorService executorService) {
+    private final long traverseTimeoutMillis;
+
+    public ParallelApplicationsMapCreator(ApplicationMapCreator applicationMapCreator, ExecutorService executorService, long traverseTimeoutMillis) {
         if (applicationMapCreator == null) {
             throw new NullPointerException("applicationMapCreator must not be null");
         }
         if (executorService == null) {
             throw new NullPointerException("executorService must not be null");
         }
+        if (traverseTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("traverseTimeoutMillis must be positive. traverseTimeoutMillis:" + traverseTimeoutMillis);
+        }
         this.applicationMapCreator = applicationMapCreator;
         this.executorService = executorService;
+        this.traverseTimeoutMillis = traverseTimeoutMillis;
     }
 
     @Override
@@ -82,4 +97,124 @@ public class ParallelApplicationsMapCreator implements ApplicationsMapCreator {
         }
         return linkDataDuplexMapFutures.toArray(new CompletableFuture[linkDataDuplexMapFutures.size()]);
     }
+
+    /**
+     * Pipelined breadth-first search. An application is searched as soon as the search of the application which found it is done,
+     * instead of waiting for the whole depth, so the search takes as long as the slowest path rather than the sum of the slowest
+     * application of each depth. Returns what has been found so far once the timeout passes.
+     */
+    @Override
+    public LinkDataDuplexMap traverse(List<Application> applications, LinkSelectContext linkSelectContext, ServerMapDataFilter serverMapDataFilter) {
+        final Traversal traversal = new Traversal(serverMapDataFilter);
+        for (Application application : applications) {
+            traversal.schedule(application, linkSelectContext.fork());
+        }
+        traversal.release();
+        return traversal.await(traverseTimeoutMillis);
+    }
+
+    private class Traversal {
+
+        private final ServerMapDataFilter serverMapDataFilter;
+
+        // context of the shallowest depth an application is found at
+        private final ConcurrentMap<Application, LinkSelectContext> contextMap = new ConcurrentHashMap<>();
+        // applications found by searching an application, kept to be searched again if the application is found at a shallower depth
+        private final ConcurrentMap<Application, Set<Application>> nextApplicationsMap = new ConcurrentHashMap<>();
+
+        private final Queue<LinkDataDuplexMap> searchResults = new ConcurrentLinkedQueue<>();
+
+        // 1 for the caller until release()
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile boolean stopped = false;
+
+        private Traversal(ServerMapDataFilter serverMapDataFilter) {
+            this.serverMapDataFilter = serverMapDataFilter;
+        }
+
+        private void schedule(Application application, LinkSelectContext linkSelectContext) {
+            if (stopped) {
+                return;
+            }
+            if (serverMapDataFilter != null && serverMapDataFilter.filter(application)) {
+                return;
+            }
+            if (!updateContext(application, linkSelectContext)) {
+                return;
+            }
+            pending.incrementAndGet();
+            try {
+                executorService.execute(() -> search(application, linkSelectContext));
+            } catch (RejectedExecutionException e) {
+                logger.warn("search rejected. application:{}", application, e);
+                release();
+            }
+        }
+
+        private boolean updateContext(Application application, LinkSelectContext linkSelectContext) {
+            while (true) {
+                final LinkSelectContext before = contextMap.putIfAbsent(application, linkSelectContext);
+                if (before == null) {
+                    return true;
+                }
+                // caller and callee depth advance together
+                if (before.getCallerDepth() <= linkSelectContext.getCallerDepth()) {
+                    return false;
+                }
+                if (contextMap.replace(application, before, linkSelectContext)) {
+                    return true;
+                }
+            }
+        }
+
+        private void search(Application application, LinkSelectContext linkSelectContext) {
+            try {
+                if (stopped || contextMap.get(application) != linkSelectContext) {
+                    // found at a shallower depth meanwhile
+                    return;
+                }
+                // LinkVisitChecker skips the caller/callee already searched at a deeper depth
+                final LinkDataDuplexMap searchResult = applicationMapCreator.createMap(application, linkSelectContext);
+                searchResults.add(searchResult);
+
+                final Set<Application> nextApplications = nextApplicationsMap.computeIfAbsent(application, key -> Sets.newConcurrentHashSet());
+                nextApplications.addAll(linkSelectContext.getNextApplications());
+
+                // the application may have been found at a shallower depth during the search
+                final LinkSelectContext current = contextMap.get(application);
+                for (Application nextApplication : nextApplications) {
+                    schedule(nextApplication, current.advance());
+                }
+            } catch (Exception e) {
+                logger.error("Error selecting link. application:{}", application, e);
+            } finally {
+                release();
+            }
+        }
+
+        private void release() {
+            if (pending.decrementAndGet() == 0) {
+                done.countDown();
+            }
+        }
+
+        private LinkDataDuplexMap await(long timeoutMillis) {
+            try {
+                if (!done.await(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    logger.warn("link search timed out, returning partial result. timeout:{}ms, searched:{}", timeoutMillis, searchResults.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("link search interrupted, returning partial result. searched:{}", searchResults.size());
+            }
+            stopped = true;
+
+            final LinkDataDuplexMap resultMap = new LinkDataDuplexMap();
+            for (LinkDataDuplexMap searchResult : searchResults) {
+                resultMap.addLinkDataDuplexMap(searchResult);
+            }
+            return resultMap;
+        }
+    }
 }
@@ -17,10 +17,12 @@
 package com.navercorp.pinpoint.web.service.map;
 
 import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataDuplexMap;
+import com.navercorp.pinpoint.web.security.ServerMapDataFilter;
 import com.navercorp.pinpoint.web.vo.Application;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -49,4 +51,36 @@ public class SerialApplicationsMapCreator implements ApplicationsMapCreator {
         logger.debug("depth search end. callerDepth : {}, calleeDepth : {}", linkSelectContext.getCallerDepth(), linkSelectContext.getCalleeDepth());
         return resultMap;
     }
+
+    @Override
+    public LinkDataDuplexMap traverse(List<Application> sourceApplications, LinkSelectContext linkSelectContext, ServerMapDataFilter serverMapDataFilter) {
+        final LinkDataDuplexMap linkDataDuplexMap = new LinkDataDuplexMap();
+        List<Application> applications = filterApplications(sourceApplications, serverMapDataFilter);
+        while (!applications.isEmpty()) {
+
+            logger.info("depth search start. callerDepth:{}, calleeDepth:{}, size:{}, nodes:{}", linkSelectContext.getCallerDepth(), linkSelectContext.getCalleeDepth(), applications.size(), applications);
+            LinkDataDuplexMap levelData = createLinkDataDuplexMap(applications, linkSelectContext);
+            logger.info("depth search end. callerDepth:{}, calleeDepth:{}", linkSelectContext.getCallerDepth(), linkSelectContext.getCalleeDepth());
+
+            linkDataDuplexMap.addLinkDataDuplexMap(levelData);
+
+            List<Application> nextApplications = linkSelectContext.getNextApplications();
+            applications = filterApplications(nextApplications, serverMapDataFilter);
+            linkSelectContext = linkSelectContext.advance();
+        }
+        return linkDataDuplexMap;
+    }
+
+    private List<Application> filterApplications(List<Application> applications, ServerMapDataFilter serverMapDataFilter) {
+        if (serverMapDataFilter == null) {
+            return applications;
+        }
+        List<Application> filteredApplications = new ArrayList<>();
+        for (Application application : applications) {
+            if (!serverMapDataFilter.filter(application)) {
+                filteredApplications.add(application);
+            }
+        }
+        return filteredApplications;
+    }
 }
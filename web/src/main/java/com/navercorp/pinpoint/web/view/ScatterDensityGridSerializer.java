@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.view;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.navercorp.pinpoint.web.scatter.ScatterDensityGrid;
+
+import java.io.IOException;
+
+/**
+ * cells : [x offset from "from", y, success count, failed count], empty cells are left out
+ */
+public class ScatterDensityGridSerializer extends JsonSerializer<ScatterDensityGrid> {
+
+    @Override
+    public void serialize(ScatterDensityGrid grid, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+        jgen.writeStartObject();
+
+        jgen.writeNumberField("from", grid.getFrom());
+        jgen.writeNumberField("to", grid.getTo());
+        jgen.writeNumberField("xGroupUnit", grid.getXGroupUnit());
+        jgen.writeNumberField("yGroupUnit", grid.getYGroupUnit());
+        jgen.writeNumberField("totalCount", grid.getTotalCount());
+
+        jgen.writeArrayFieldStart("cells");
+        for (int x = 0; x < grid.getXSize(); x++) {
+            for (int y = 0; y < grid.getYSize(); y++) {
+                final int successCount = grid.getSuccessCount(x, y);
+                final int failedCount = grid.getFailedCount(x, y);
+                if (successCount == 0 && failedCount == 0) {
+                    continue;
+                }
+                jgen.writeStartArray();
+                jgen.writeNumber((long) x * grid.getXGroupUnit());
+                jgen.writeNumber(y * grid.getYGroupUnit());
+                jgen.writeNumber(successCount);
+                jgen.writeNumber(failedCount);
+                jgen.writeEndArray();
+            }
+        }
+        jgen.writeEndArray();
+
+        jgen.writeEndObject();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.applicationmap.histogram;
+
+import com.navercorp.pinpoint.common.trace.HistogramSchema;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.common.trace.ServiceTypeFactory;
+import com.navercorp.pinpoint.common.trace.ServiceTypeProperty;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TimeHistogramColumnsTest {
+
+    private final HistogramSchema schema = ServiceType.STAND_ALONE.getHistogramSchema();
+
+    @Test
+    public void addCallCount() {
+        TimeHistogramColumns columns = new TimeHistogramColumns(schema);
+        Map<Long, TimeHistogram> expected = new HashMap<>();
+        short[] slots = {schema.getFastSlot().getSlotTime(), schema.getNormalSlot().getSlotTime(), schema.getSlowSlot().getSlotTime(),
+                schema.getVerySlowSlot().getSlotTime(), schema.getErrorSlot().getSlotTime(), schema.getFastErrorSlot().getSlotTime(),
+                schema.getNormalErrorSlot().getSlotTime(), schema.getSlowErrorSlot().getSlotTime(), schema.getVerySlowErrorSlot().getSlotTime()};
+        for (int i = 0; i < 1000; i++) {
+            long timestamp = (i % 100) * 60000L;
+            short slot = slots[i % slots.length];
+            columns.addCallCount(timestamp, slot, i);
+            expected.computeIfAbsent(timestamp, key -> new TimeHistogram(schema, key)).addCallCount(slot, i);
+        }
+
+        Assert.assertEquals(100, columns.size());
+        List<TimeHistogram> timeHistograms = columns.toTimeHistograms();
+        Assert.assertEquals(expected.size(), timeHistograms.size());
+        Histogram sum = new Histogram(schema);
+        for (TimeHistogram timeHistogram : timeHistograms) {
+            // Histogram.equals() does not compare counts
+            Assert.assertEquals(expected.get(timeHistogram.getTimeStamp()).toString(), timeHistogram.toString());
+            sum.add(timeHistogram);
+        }
+        Assert.assertEquals(sum.toString(), columns.sum().toString());
+        Assert.assertEquals(sum.getTotalCount(), columns.getTotalCount());
+    }
+
+    @Test
+    public void addAll() {
+        TimeHistogramColumns columns = new TimeHistogramColumns(schema);
+        columns.addCallCount(0, schema.getFastSlot().getSlotTime(), 1);
+        columns.addCallCount(60000, schema.getErrorSlot().getSlotTime(), 2);
+
+        TimeHistogramColumns copy = new TimeHistogramColumns(schema);
+        copy.addAll(columns);
+        copy.addAll(columns);
+        Assert.assertEquals(2, copy.size());
+        Assert.assertEquals(6, copy.getTotalCount());
+        Assert.assertEquals(2, copy.sum().getFastCount());
+        Assert.assertEquals(4, copy.sum().getErrorCount());
+
+        // 0 and 60000 are in the same 5 minute window
+        TimeWindow timeWindow = new TimeWindow(new Range(0, 60000 * 60 * 24 * 2));
+        TimeHistogramColumns refined = new TimeHistogramColumns(schema);
+        refined.addAll(columns, timeWindow);
+        Assert.assertEquals(1, refined.size());
+        Assert.assertEquals(3, refined.getTotalCount());
+    }
+
+    @Test
+    public void addSelf() {
+        TimeHistogramColumns columns = new TimeHistogramColumns(schema);
+        columns.addCallCount(0, schema.getFastSlot().getSlotTime(), 1);
+        columns.addAll(columns);
+        Assert.assertEquals(1, columns.size());
+        Assert.assertEquals(2, columns.getTotalCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void schemaNotEquals() {
+        TimeHistogramColumns columns = new TimeHistogramColumns(schema);
+        columns.add(new TimeHistogram(ServiceTypeFactory.of(8000, "Cache", ServiceTypeProperty.TERMINAL), 0));
+    }
+}
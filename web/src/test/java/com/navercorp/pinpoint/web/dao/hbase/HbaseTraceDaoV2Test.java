@@ -0,0 +1,224 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.hbase;
+
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.RowMapper;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyEncoder;
+import com.navercorp.pinpoint.common.util.TransactionId;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HbaseTraceDaoV2Test {
+
+    private static final int SALT_BUCKET_SIZE = 4;
+
+    // [salt][transactionSequence]
+    private static final RowKeyEncoder<TransactionId> ROW_KEY_ENCODER = transactionId -> {
+        final long sequence = transactionId.getTransactionSequence();
+        final byte[] rowKey = new byte[1 + Bytes.SIZEOF_LONG];
+        rowKey[0] = (byte) (sequence % SALT_BUCKET_SIZE);
+        Bytes.putLong(rowKey, 1, sequence);
+        return rowKey;
+    };
+
+    private final List<List<Get>> requestedBatchList = new CopyOnWriteArrayList<>();
+
+    private HbaseOperations2 template2;
+    private HbaseTraceDaoV2 traceDao;
+
+    @Before
+    public void setUp() {
+        this.template2 = mock(HbaseOperations2.class);
+        this.traceDao = newTraceDao(4, 3000);
+    }
+
+    @After
+    public void tearDown() {
+        this.traceDao.destroy();
+    }
+
+    private HbaseTraceDaoV2 newTraceDao(int maxThreads, long timeout) {
+        HbaseTraceDaoV2 traceDao = new HbaseTraceDaoV2();
+        ReflectionTestUtils.setField(traceDao, "template2", template2);
+        ReflectionTestUtils.setField(traceDao, "rowKeyEncoder", ROW_KEY_ENCODER);
+        ReflectionTestUtils.setField(traceDao, "spanMapperV2", mock(RowMapper.class));
+        ReflectionTestUtils.setField(traceDao, "selectAllSpansLimit", 500);
+        ReflectionTestUtils.setField(traceDao, "selectAllSpansMaxThreads", maxThreads);
+        ReflectionTestUtils.setField(traceDao, "selectAllSpansTimeout", timeout);
+        traceDao.init();
+        return traceDao;
+    }
+
+    @Test
+    public void selectAllSpans_keepOrder() {
+        when(template2.get(eq(HBaseTables.TRACE_V2), anyList(), any(RowMapper.class))).thenAnswer(readSpans(0));
+
+        List<TransactionId> transactionIdList = newTransactionIdList(100);
+        List<List<SpanBo>> result = traceDao.selectAllSpans(transactionIdList, 10);
+
+        Assert.assertEquals(transactionIdList.size(), result.size());
+        for (int i = 0; i < transactionIdList.size(); i++) {
+            Assert.assertEquals(transactionIdList.get(i), result.get(i).get(0).getTransactionId());
+        }
+        verify(template2, times(10)).get(eq(HBaseTables.TRACE_V2), anyList(), any(RowMapper.class));
+    }
+
+    @Test
+    public void selectAllSpans_sortedBatch() {
+        when(template2.get(eq(HBaseTables.TRACE_V2), anyList(), any(RowMapper.class))).thenAnswer(readSpans(0));
+
+        traceDao.selectAllSpans(newTransactionIdList(100), 25);
+
+        Assert.assertEquals(SALT_BUCKET_SIZE, requestedBatchList.size());
+        for (List<Get> batch : requestedBatchList) {
+            // 25 transactions per salt bucket
+            final byte salt = batch.get(0).getRow()[0];
+            for (int i = 0; i < batch.size(); i++) {
+                Assert.assertEquals(salt, batch.get(i).getRow()[0]);
+                if (i > 0) {
+                    Assert.assertTrue(Bytes.compareTo(batch.get(i - 1).getRow(), batch.get(i).getRow()) < 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void selectAllSpans_handler() {
+        when(template2.get(eq(HBaseTables.TRACE_V2), anyList(), any(RowMapper.class))).thenAnswer(readSpans(0));
+
+        List<TransactionId> transactionIdList = newTransactionIdList(100);
+        final Thread callerThread = Thread.currentThread();
+        final Set<TransactionId> result = new HashSet<>();
+        traceDao.selectAllSpans(transactionIdList, transaction -> {
+            Assert.assertSame(callerThread, Thread.currentThread());
+            result.add(transaction.get(0).getTransactionId());
+        });
+
+        Assert.assertEquals(new HashSet<>(transactionIdList), result);
+    }
+
+    @Test
+    public void selectAllSpans_handler_boundedBatch() {
+        traceDao.destroy();
+        traceDao = newTraceDao(2, 3000);
+        ReflectionTestUtils.setField(traceDao, "selectAllSpansLimit", 5);
+        when(template2.get(eq(HBaseTables.TRACE_V2), anyList(), any(RowMapper.class))).thenAnswer(readSpans(0));
+
+        final AtomicInteger handled = new AtomicInteger();
+        traceDao.selectAllSpans(newTransactionIdList(100), transaction -> {
+            // (maxThreads * 2) batches in flight + the batch being handled
+            final int handledBatch = handled.getAndIncrement() / 5;
+            Assert.assertTrue(requestedBatchList.size() - handledBatch <= 5);
+        });
+
+        Assert.assertEquals(100, handled.get());
+        Assert.assertEquals(20, requestedBatchList.size());
+    }
+
+    @Test
+    public void selectAllSpans_handler_serial() {
+        traceDao.destroy();
+        traceDao = newTraceDao(0, 100);
+        ReflectionTestUtils.setField(traceDao, "selectAllSpansLimit", 10);
+        when(template2.get(eq(HBaseTables.TRACE_V2), anyList(), any(RowMapper.class))).thenAnswer(readSpans(0));
+
+        List<TransactionId> transactionIdList = newTransactionIdList(100);
+        final List<TransactionId> result = new ArrayList<>();
+        traceDao.selectAllSpans(transactionIdList, transaction -> result.add(transaction.get(0).getTransactionId()));
+
+        Assert.assertEquals(transactionIdList, result);
+        verify(template2, times(10)).get(eq(HBaseTables.TRACE_V2), anyList(), any(RowMapper.class));
+    }
+
+    @Test(expected = QueryTimeoutException.class)
+    public void selectAllSpans_timeout() {
+        traceDao.destroy();
+        traceDao = newTraceDao(4, 100);
+        when(template2.get(eq(HBaseTables.TRACE_V2), anyList(), any(RowMapper.class))).thenAnswer(readSpans(3000));
+
+        traceDao.selectAllSpans(newTransactionIdList(10), 500);
+    }
+
+    @Test
+    public void selectAllSpans_serial() {
+        traceDao.destroy();
+        traceDao = newTraceDao(0, 100);
+        when(template2.get(eq(HBaseTables.TRACE_V2), anyList(), any(RowMapper.class))).thenAnswer(readSpans(0));
+
+        List<TransactionId> transactionIdList = newTransactionIdList(100);
+        List<List<SpanBo>> result = traceDao.selectAllSpans(transactionIdList, 500);
+
+        Assert.assertEquals(transactionIdList.size(), result.size());
+        verify(template2, times(1)).get(eq(HBaseTables.TRACE_V2), anyList(), any(RowMapper.class));
+    }
+
+    @Test
+    public void selectAllSpans_empty() {
+        Assert.assertTrue(traceDao.selectAllSpans(Collections.<TransactionId>emptyList(), 500).isEmpty());
+    }
+
+    private Answer<List<List<SpanBo>>> readSpans(final long delay) {
+        return invocation -> {
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+            List<Get> getList = invocation.getArgument(1);
+            requestedBatchList.add(getList);
+            List<List<SpanBo>> result = new ArrayList<>(getList.size());
+            for (Get get : getList) {
+                SpanBo spanBo = new SpanBo();
+                spanBo.setTransactionId(new TransactionId("agent", 0, Bytes.toLong(get.getRow(), 1)));
+                result.add(Collections.singletonList(spanBo));
+            }
+            return result;
+        };
+    }
+
+    private List<TransactionId> newTransactionIdList(int size) {
+        List<TransactionId> transactionIdList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            transactionIdList.add(new TransactionId("agent", 0, i));
+        }
+        return transactionIdList;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.hbase;
+
+import com.navercorp.pinpoint.common.hbase.MapStatisticsRollup;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class MapStatisticsRollupPlannerTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    private static final long BASE = 1000 * DAY;
+
+    @Test
+    public void disabled() {
+        MapStatisticsRollupPlanner planner = new MapStatisticsRollupPlanner(false);
+        Range range = new Range(BASE, BASE + 2 * DAY);
+
+        List<MapStatisticsRollupPlanner.Segment> segments = planner.plan(range, HOUR);
+        Assert.assertEquals(1, segments.size());
+        Assert.assertFalse(segments.get(0).isRollup());
+        Assert.assertSame(range, segments.get(0).getRange());
+    }
+
+    @Test
+    public void shortRange() {
+        MapStatisticsRollupPlanner planner = new MapStatisticsRollupPlanner(true);
+        Range range = new Range(BASE + 3 * MINUTE + 10, BASE + 6 * MINUTE + 10);
+
+        List<MapStatisticsRollupPlanner.Segment> segments = planner.plan(range, MINUTE);
+        Assert.assertEquals(1, segments.size());
+        assertSegment(segments.get(0), null, BASE + 3 * MINUTE, BASE + 6 * MINUTE);
+    }
+
+    @Test
+    public void fiveMinutesWindow() {
+        MapStatisticsRollupPlanner planner = new MapStatisticsRollupPlanner(true);
+        Range range = new Range(BASE + 3 * MINUTE, BASE + 2 * HOUR + 7 * MINUTE);
+
+        List<MapStatisticsRollupPlanner.Segment> segments = planner.plan(range, 5 * MINUTE);
+        Assert.assertEquals(3, segments.size());
+        assertSegment(segments.get(0), null, BASE + 3 * MINUTE, BASE + 4 * MINUTE);
+        // 1 hour rollup does not fit in 5 minutes window
+        assertSegment(segments.get(1), MapStatisticsRollup.FIVE_MINUTES, BASE + 5 * MINUTE, BASE + 2 * HOUR);
+        assertSegment(segments.get(2), null, BASE + 2 * HOUR + 5 * MINUTE, BASE + 2 * HOUR + 7 * MINUTE);
+    }
+
+    @Test
+    public void hourWindow() {
+        MapStatisticsRollupPlanner planner = new MapStatisticsRollupPlanner(true);
+        Range range = new Range(BASE + 3 * MINUTE, BASE + 3 * HOUR + 12 * MINUTE);
+
+        List<MapStatisticsRollupPlanner.Segment> segments = planner.plan(range, HOUR);
+        Assert.assertEquals(5, segments.size());
+        assertSegment(segments.get(0), null, BASE + 3 * MINUTE, BASE + 4 * MINUTE);
+        assertSegment(segments.get(1), MapStatisticsRollup.FIVE_MINUTES, BASE + 5 * MINUTE, BASE + 55 * MINUTE);
+        assertSegment(segments.get(2), MapStatisticsRollup.ONE_HOUR, BASE + HOUR, BASE + 2 * HOUR);
+        assertSegment(segments.get(3), MapStatisticsRollup.FIVE_MINUTES, BASE + 3 * HOUR, BASE + 3 * HOUR + 5 * MINUTE);
+        assertSegment(segments.get(4), null, BASE + 3 * HOUR + 10 * MINUTE, BASE + 3 * HOUR + 12 * MINUTE);
+    }
+
+    @Test
+    public void alignedRange() {
+        MapStatisticsRollupPlanner planner = new MapStatisticsRollupPlanner(true);
+        Range range = new Range(BASE, BASE + 2 * DAY - MINUTE);
+
+        List<MapStatisticsRollupPlanner.Segment> segments = planner.plan(range, DAY);
+        Assert.assertEquals(1, segments.size());
+        // coarsest rollup is 1 hour
+        assertSegment(segments.get(0), MapStatisticsRollup.ONE_HOUR, BASE, BASE + 2 * DAY - HOUR);
+    }
+
+    @Test
+    public void notDividingWindow() {
+        MapStatisticsRollupPlanner planner = new MapStatisticsRollupPlanner(true);
+        Range range = new Range(BASE, BASE + 2 * HOUR);
+
+        // 5 minutes rollup would mix two 2 minutes window slots
+        List<MapStatisticsRollupPlanner.Segment> segments = planner.plan(range, 2 * MINUTE);
+        Assert.assertEquals(1, segments.size());
+        assertSegment(segments.get(0), null, BASE, BASE + 2 * HOUR);
+    }
+
+    private void assertSegment(MapStatisticsRollupPlanner.Segment segment, MapStatisticsRollup rollup, long from, long to) {
+        Assert.assertSame(rollup, segment.getRollup());
+        Assert.assertEquals(from, segment.getRange().getFrom());
+        Assert.assertEquals(to, segment.getRange().getTo());
+    }
+}
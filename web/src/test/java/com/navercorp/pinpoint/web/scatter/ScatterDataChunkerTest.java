@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.scatter;
+
+import com.navercorp.pinpoint.common.util.TransactionId;
+import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ScatterDataChunkerTest {
+
+    private final long from = 1000;
+    private final long to = 10000;
+
+    @Test
+    public void chunk() throws Exception {
+        List<ScatterData> chunkList = new ArrayList<>();
+        ScatterDataChunker chunker = new ScatterDataChunker(from, to, 100, 100, 1000, 10, chunkList::add);
+
+        // 4 dots per row
+        for (int row = 0; row < 10; row++) {
+            Assert.assertTrue(chunker.handleDots(createDotList(row * 4, 4, to - row * 100)));
+        }
+        chunker.flush();
+
+        Assert.assertEquals(4, chunkList.size());
+        int dotSize = 0;
+        for (ScatterData chunk : chunkList) {
+            dotSize += chunk.getDotSize();
+        }
+        Assert.assertEquals(40, dotSize);
+        Assert.assertEquals(40, chunker.getDotSize());
+        Assert.assertTrue(chunker.isComplete());
+
+        // scan order
+        Assert.assertEquals(to, chunkList.get(0).getLatestAcceptedTime());
+        Assert.assertEquals(to - 900, chunkList.get(3).getOldestAcceptedTime());
+        Assert.assertEquals(to - 900, chunker.getOldestAcceptedTime());
+        Assert.assertEquals(to, chunker.getLatestAcceptedTime());
+    }
+
+    @Test
+    public void limit() throws Exception {
+        List<ScatterData> chunkList = new ArrayList<>();
+        ScatterDataChunker chunker = new ScatterDataChunker(from, to, 100, 100, 6, 100, chunkList::add);
+
+        Assert.assertTrue(chunker.handleDots(createDotList(0, 4, to)));
+        Assert.assertFalse(chunker.handleDots(createDotList(4, 4, to - 100)));
+        chunker.flush();
+
+        Assert.assertEquals(1, chunkList.size());
+        Assert.assertEquals(8, chunker.getDotSize());
+        Assert.assertFalse(chunker.isComplete());
+    }
+
+    @Test
+    public void empty() throws Exception {
+        List<ScatterData> chunkList = new ArrayList<>();
+        ScatterDataChunker chunker = new ScatterDataChunker(from, to, 100, 100, 6, 100, chunkList::add);
+        chunker.flush();
+
+        Assert.assertTrue(chunkList.isEmpty());
+        Assert.assertTrue(chunker.isComplete());
+        Assert.assertEquals(-1, chunker.getOldestAcceptedTime());
+    }
+
+    private List<Dot> createDotList(int sequence, int size, long acceptedTime) {
+        List<Dot> dotList = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            TransactionId transactionId = new TransactionId("agent", 0, sequence + i);
+            dotList.add(new Dot(transactionId, acceptedTime, i * 100, 0, "agent"));
+        }
+        return dotList;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.scatter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.navercorp.pinpoint.common.util.TransactionId;
+import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class ScatterDensityGridTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void addDot() throws Exception {
+        ScatterDensityGrid grid = new ScatterDensityGrid(1000, 1999, 100, 1000, 5000);
+        Assert.assertEquals(10, grid.getXSize());
+        Assert.assertEquals(5, grid.getYSize());
+
+        grid.handleDots(Arrays.asList(
+                newDot(1000, 10, 0),
+                newDot(1099, 999, 0),
+                newDot(1050, 500, 1),
+                newDot(1999, 4500, 0),
+                // over yMax
+                newDot(1999, 60000, 1)));
+
+        Assert.assertEquals(5, grid.getTotalCount());
+        Assert.assertEquals(2, grid.getSuccessCount(0, 0));
+        Assert.assertEquals(1, grid.getFailedCount(0, 0));
+        Assert.assertEquals(1, grid.getSuccessCount(9, 4));
+        Assert.assertEquals(1, grid.getFailedCount(9, 4));
+
+        Map<?, ?> json = mapper.readValue(mapper.writeValueAsString(grid), Map.class);
+        List<?> cells = (List<?>) json.get("cells");
+        Assert.assertEquals(2, cells.size());
+        Assert.assertEquals(Arrays.asList(0, 0, 2, 1), cells.get(0));
+        Assert.assertEquals(Arrays.asList(900, 4000, 1, 1), cells.get(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyCells() {
+        new ScatterDensityGrid(0, 60 * 60 * 1000, 1, 1, 10000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyCells_overflow() {
+        new ScatterDensityGrid(0, Long.MAX_VALUE, 1, 1, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyCells_rangeOverflow() {
+        new ScatterDensityGrid(Long.MIN_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    private Dot newDot(long acceptedTime, int elapsed, int exceptionCode) {
+        return new Dot(new TransactionId("agent", 0, acceptedTime), acceptedTime, elapsed, exceptionCode, "agent");
+    }
+}
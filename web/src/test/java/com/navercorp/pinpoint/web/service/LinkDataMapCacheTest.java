@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service;
+
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.web.applicationmap.histogram.TimeHistogram;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkCallData;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkData;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.util.TimeWindowDownSampler;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+public class LinkDataMapCacheTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long MUTABLE_PERIOD = 5 * MINUTE;
+
+    private static final long BASE = TimeUnit.DAYS.toMillis(10000);
+
+    private final Application fromApplication = new Application("from", ServiceType.STAND_ALONE);
+    private final Application toApplication = new Application("to", ServiceType.STAND_ALONE);
+
+    @Test
+    public void sameAsLoader() {
+        RecordingLoader loader = new RecordingLoader();
+        LinkDataMapCache cache = new LinkDataMapCache(loader, 1024 * 1024, MUTABLE_PERIOD);
+
+        Range range = new Range(BASE + 3 * MINUTE + 100, BASE + 3 * TimeUnit.HOURS.toMillis(1) + 2 * MINUTE);
+        long currentTime = range.getTo() + MINUTE;
+
+        assertLinkDataMap(load(loader, range), cache.select(fromApplication, range, currentTime));
+        Assert.assertTrue(cache.size() > 0);
+        // from cache
+        assertLinkDataMap(load(loader, range), cache.select(fromApplication, range, currentTime));
+    }
+
+    @Test
+    public void slidingWindow() {
+        RecordingLoader loader = new RecordingLoader();
+        LinkDataMapCache cache = new LinkDataMapCache(loader, 1024 * 1024, MUTABLE_PERIOD);
+
+        // 5 minutes window
+        final long period = 3 * TimeUnit.HOURS.toMillis(1);
+        Range range = new Range(BASE, BASE + period);
+        cache.select(fromApplication, range, range.getTo());
+        Assert.assertTrue(loader.loadedMinutes > period / MINUTE);
+
+        loader.loadedMinutes = 0;
+        Range next = new Range(BASE + 5 * MINUTE, BASE + 5 * MINUTE + period);
+        LinkDataMap linkDataMap = cache.select(fromApplication, next, next.getTo());
+        assertLinkDataMap(load(new RecordingLoader(), next), linkDataMap);
+        // mutable period and the slot that became immutable since the last query
+        Assert.assertTrue("loaded:" + loader.loadedMinutes, loader.loadedMinutes <= (MUTABLE_PERIOD + 10 * MINUTE) / MINUTE);
+    }
+
+    @Test
+    public void mutableOnly() {
+        RecordingLoader loader = new RecordingLoader();
+        LinkDataMapCache cache = new LinkDataMapCache(loader, 1024 * 1024, MUTABLE_PERIOD);
+
+        Range range = new Range(BASE, BASE + 3 * MINUTE);
+        cache.select(fromApplication, range, range.getTo());
+        cache.select(fromApplication, range, range.getTo());
+
+        Assert.assertEquals(2, loader.ranges.size());
+        Assert.assertEquals(0, cache.size());
+    }
+
+    private LinkDataMap load(RecordingLoader loader, Range range) {
+        return loader.select(fromApplication, range, new TimeWindow(range, TimeWindowDownSampler.SAMPLER));
+    }
+
+    private void assertLinkDataMap(LinkDataMap expected, LinkDataMap actual) {
+        Assert.assertEquals(expected.getTotalCount(), actual.getTotalCount());
+        Assert.assertEquals(histogramMap(expected), histogramMap(actual));
+    }
+
+    private Map<Long, Long> histogramMap(LinkDataMap linkDataMap) {
+        Map<Long, Long> histogramMap = new TreeMap<>();
+        for (LinkData linkData : linkDataMap.getLinkDataList()) {
+            for (LinkCallData linkCallData : linkData.getLinkCallDataMap().getLinkDataList()) {
+                for (TimeHistogram timeHistogram : linkCallData.getTimeHistogram()) {
+                    histogramMap.merge(timeHistogram.getTimeStamp(), timeHistogram.getTotalCount(), Long::sum);
+                }
+            }
+        }
+        return histogramMap;
+    }
+
+    private class RecordingLoader implements LinkDataMapCache.LinkDataMapLoader {
+
+        private final List<Range> ranges = new ArrayList<>();
+        private long loadedMinutes;
+
+        @Override
+        public LinkDataMap select(Application application, Range range, TimeWindow timeWindow) {
+            ranges.add(range);
+            LinkDataMap linkDataMap = new LinkDataMap(timeWindow);
+            // one call per minute, the count is the minute of the hour
+            for (long minute = range.getFrom() / MINUTE * MINUTE; minute <= range.getTo(); minute += MINUTE) {
+                long count = (minute / MINUTE) % 60 + 1;
+                linkDataMap.addLinkData(fromApplication, "agent", toApplication, "host", minute, (short) 1000, count);
+                loadedMinutes++;
+            }
+            return linkDataMap;
+        }
+    }
+}
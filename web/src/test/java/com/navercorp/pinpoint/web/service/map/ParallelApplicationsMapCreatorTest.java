@@ -0,0 +1,176 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service.map;
+
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkData;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataDuplexMap;
+import com.navercorp.pinpoint.web.service.SearchDepth;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.LinkKey;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ParallelApplicationsMapCreatorTest {
+
+    private final Range range = new Range(0, 100);
+
+    private final Application APP_A = newApplication("APP_A");
+    private final Application APP_M = newApplication("APP_M");
+    private final Application APP_P = newApplication("APP_P");
+    private final Application APP_Q = newApplication("APP_Q");
+    private final Application APP_T = newApplication("APP_T");
+    private final Application APP_U = newApplication("APP_U");
+    private final Application APP_V = newApplication("APP_V");
+
+    private ExecutorService executorService;
+    private TestApplicationMapCreator applicationMapCreator;
+
+    @Before
+    public void setUp() {
+        executorService = Executors.newFixedThreadPool(4);
+        applicationMapCreator = new TestApplicationMapCreator();
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void shallowerPathFoundLater() {
+        // APP_A -> APP_M(slow) -> APP_T -> APP_U -> APP_V
+        // APP_A -> APP_P -> APP_Q -> APP_T
+        applicationMapCreator.addLink(APP_A, APP_M);
+        applicationMapCreator.addLink(APP_A, APP_P);
+        applicationMapCreator.addLink(APP_M, APP_T);
+        applicationMapCreator.addLink(APP_P, APP_Q);
+        applicationMapCreator.addLink(APP_Q, APP_T);
+        applicationMapCreator.addLink(APP_T, APP_U);
+        applicationMapCreator.addLink(APP_U, APP_V);
+        applicationMapCreator.setDelay(APP_M, 300);
+
+        ParallelApplicationsMapCreator creator = new ParallelApplicationsMapCreator(applicationMapCreator, executorService, 10000);
+        LinkDataDuplexMap linkData = creator.traverse(Collections.singletonList(APP_A), newLinkSelectContext(4), null);
+
+        // APP_T is at depth 2, so APP_U is at depth 3 and still searched
+        Assert.assertNotNull(linkData.getSourceLinkData(new LinkKey(APP_U, APP_V)));
+        Assert.assertEquals(7, linkData.getSourceLinkDataList().size());
+        Assert.assertEquals(7, linkData.getTotalCount());
+    }
+
+    @Test
+    public void serialEquals() {
+        applicationMapCreator.addLink(APP_A, APP_M);
+        applicationMapCreator.addLink(APP_A, APP_P);
+        applicationMapCreator.addLink(APP_M, APP_T);
+        applicationMapCreator.addLink(APP_P, APP_Q);
+        applicationMapCreator.addLink(APP_Q, APP_T);
+        applicationMapCreator.addLink(APP_T, APP_U);
+        applicationMapCreator.addLink(APP_U, APP_V);
+        applicationMapCreator.addLink(APP_V, APP_A);
+
+        for (int depth = 0; depth < 6; depth++) {
+            SerialApplicationsMapCreator serial = new SerialApplicationsMapCreator(applicationMapCreator);
+            LinkDataDuplexMap expected = serial.traverse(Collections.singletonList(APP_A), newLinkSelectContext(depth), null);
+
+            ParallelApplicationsMapCreator parallel = new ParallelApplicationsMapCreator(applicationMapCreator, executorService, 10000);
+            LinkDataDuplexMap actual = parallel.traverse(Collections.singletonList(APP_A), newLinkSelectContext(depth), null);
+
+            Assert.assertEquals(expected.getSourceLinkDataList().size(), actual.getSourceLinkDataList().size());
+            Assert.assertEquals(expected.getTotalCount(), actual.getTotalCount());
+        }
+    }
+
+    @Test
+    public void timeout() {
+        applicationMapCreator.addLink(APP_A, APP_M);
+        applicationMapCreator.addLink(APP_A, APP_P);
+        applicationMapCreator.addLink(APP_M, APP_T);
+        applicationMapCreator.addLink(APP_P, APP_Q);
+        applicationMapCreator.setDelay(APP_M, 3000);
+
+        ParallelApplicationsMapCreator creator = new ParallelApplicationsMapCreator(applicationMapCreator, executorService, 500);
+        long startTime = System.currentTimeMillis();
+        LinkDataDuplexMap linkData = creator.traverse(Collections.singletonList(APP_A), newLinkSelectContext(4), null);
+        Assert.assertTrue(System.currentTimeMillis() - startTime < 3000);
+
+        Assert.assertNotNull(linkData.getSourceLinkData(new LinkKey(APP_P, APP_Q)));
+        Assert.assertNull(linkData.getSourceLinkData(new LinkKey(APP_M, APP_T)));
+    }
+
+    private LinkSelectContext newLinkSelectContext(int callerDepth) {
+        return new LinkSelectContext(range, new SearchDepth(callerDepth), new SearchDepth(0), new LinkVisitChecker());
+    }
+
+    private static Application newApplication(String name) {
+        return new Application(name, ServiceType.TEST_STAND_ALONE);
+    }
+
+    private static class TestApplicationMapCreator implements ApplicationMapCreator {
+
+        private final Map<Application, List<Application>> calleeMap = new HashMap<>();
+        private final Map<Application, Long> delayMap = new HashMap<>();
+
+        void addLink(Application caller, Application callee) {
+            calleeMap.computeIfAbsent(caller, key -> new ArrayList<>()).add(callee);
+        }
+
+        void setDelay(Application application, long delay) {
+            delayMap.put(application, delay);
+        }
+
+        @Override
+        public LinkDataDuplexMap createMap(Application application, LinkSelectContext linkSelectContext) {
+            LinkDataDuplexMap searchResult = new LinkDataDuplexMap();
+            if (!linkSelectContext.checkNextCaller(application)) {
+                return searchResult;
+            }
+            sleep(delayMap.getOrDefault(application, 0L));
+            for (Application callee : calleeMap.getOrDefault(application, Collections.emptyList())) {
+                LinkData linkData = new LinkData(application, callee);
+                short slotTime = callee.getServiceType().getHistogramSchema().getFastSlot().getSlotTime();
+                linkData.addLinkData(application.getName(), application.getServiceType(), callee.getName(), callee.getServiceType(), 0, slotTime, 1);
+                searchResult.addSourceLinkData(linkData);
+                linkSelectContext.addNextApplication(callee);
+            }
+            return searchResult;
+        }
+
+        private void sleep(long delay) {
+            if (delay == 0) {
+                return;
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}